@@ -0,0 +1,47 @@
+@echo off
+rem Быстрый запуск программы с архивом общих классов (AppCDS).
+rem
+rem При первом запуске выполняется обучающий запуск (Main --cds-training):
+rem JVM сохраняет в архив классы программы, Swing и Apache POI. Следующие
+rem запуски отображают архив в память вместо загрузки и проверки классов.
+rem После перекомпиляции программы удалите Java\out\app.jar - jar и архив
+rem будут созданы заново.
+rem
+rem Переменные окружения:
+rem   JAVA_HOME    - JDK 21 (по умолчанию java из PATH)
+rem   POI_HOME     - папка poi-bin-5.2.3 (по умолчанию %USERPROFILE%\Downloads\poi-bin-5.2.3)
+rem   APP_CLASSES  - скомпилированные классы (по умолчанию Java\out\production\Petrushchenko)
+rem
+rem Аргументы передаются программе, например: Java\run-fast.cmd --measure-startup
+
+setlocal
+chcp 65001 > nul
+cd /d "%~dp0.."
+
+set "JAVA=java"
+set "JAR_TOOL=jar"
+if defined JAVA_HOME (
+    set "JAVA=%JAVA_HOME%\bin\java"
+    set "JAR_TOOL=%JAVA_HOME%\bin\jar"
+)
+if not defined POI_HOME set "POI_HOME=%USERPROFILE%\Downloads\poi-bin-5.2.3"
+if not defined APP_CLASSES set "APP_CLASSES=Java\out\production\Petrushchenko"
+set "APP_JAR=Java\out\app.jar"
+set "ARCHIVE=Java\out\app.jsa"
+
+rem Архив принимает только jar-файлы, поэтому классы программы упаковываются в jar
+if not exist "%APP_JAR%" (
+    "%JAR_TOOL%" --create --file "%APP_JAR%" -C "%APP_CLASSES%" .
+    if exist "%ARCHIVE%" del "%ARCHIVE%"
+)
+
+set "CLASSPATH=%APP_JAR%;%POI_HOME%\*;%POI_HOME%\lib\*;%POI_HOME%\ooxml-lib\*"
+rem Если архив не подходит (обновлен JDK или библиотеки), JVM создаст его заново при выходе
+set "CDS_OPTIONS=-XX:+AutoCreateSharedArchive -XX:SharedArchiveFile=%ARCHIVE%"
+
+if not exist "%ARCHIVE%" (
+    echo Создание архива классов...
+    "%JAVA%" %CDS_OPTIONS% -cp "%CLASSPATH%" Main --cds-training > nul
+)
+
+"%JAVA%" %CDS_OPTIONS% -cp "%CLASSPATH%" Main %*
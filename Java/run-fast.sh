@@ -0,0 +1,41 @@
+#!/bin/sh
+# Быстрый запуск программы с архивом общих классов (AppCDS).
+#
+# При первом запуске выполняется обучающий запуск (Main --cds-training):
+# JVM сохраняет в архив классы программы, Swing и Apache POI. Следующие
+# запуски отображают архив в память вместо загрузки и проверки классов.
+# Если программа перекомпилирована, jar и архив создаются заново.
+#
+# Переменные окружения:
+#   JAVA_HOME    - JDK 21 (по умолчанию java из PATH)
+#   POI_HOME     - папка poi-bin-5.2.3 (по умолчанию ~/Downloads/poi-bin-5.2.3)
+#   APP_CLASSES  - скомпилированные классы (по умолчанию Java/out/production/Petrushchenko)
+#
+# Аргументы передаются программе, например: ./Java/run-fast.sh --measure-startup
+
+set -e
+cd "$(dirname "$0")/.."
+
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+JAR_TOOL="${JAVA_HOME:+$JAVA_HOME/bin/}jar"
+POI_HOME="${POI_HOME:-$HOME/Downloads/poi-bin-5.2.3}"
+APP_CLASSES="${APP_CLASSES:-Java/out/production/Petrushchenko}"
+APP_JAR="Java/out/app.jar"
+ARCHIVE="Java/out/app.jsa"
+
+# Архив принимает только jar-файлы, поэтому классы программы упаковываются в jar
+if [ ! -f "$APP_JAR" ] || [ -n "$(find "$APP_CLASSES" -newer "$APP_JAR" -type f | head -n 1)" ]; then
+    "$JAR_TOOL" --create --file "$APP_JAR" -C "$APP_CLASSES" .
+    rm -f "$ARCHIVE"
+fi
+
+CLASSPATH="$APP_JAR:$POI_HOME/*:$POI_HOME/lib/*:$POI_HOME/ooxml-lib/*"
+# Если архив не подходит (обновлен JDK или библиотеки), JVM создаст его заново при выходе
+CDS_OPTIONS="-XX:+AutoCreateSharedArchive -XX:SharedArchiveFile=$ARCHIVE"
+
+if [ ! -f "$ARCHIVE" ]; then
+    echo "Создание архива классов..."
+    "$JAVA" $CDS_OPTIONS -cp "$CLASSPATH" Main --cds-training > /dev/null
+fi
+
+exec "$JAVA" $CDS_OPTIONS -cp "$CLASSPATH" Main "$@"
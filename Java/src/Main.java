@@ -1,11 +1,35 @@
 import ui.SplashScreen;
+import ui.StartupProfile;
+import util.FittingServer;
+import util.SpreadsheetService;
+
 import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 
 /**
  * Главный класс приложения для обработки экспериментальных данных.
  * Содержит точку входа в программу - метод main().
  * Запускает стартовый экран приложения.
  *
+ * Параметры командной строки:
+ * <ul>
+ *     <li>--measure-startup - вывести время от старта JVM до первой отрисовки
+ *     главного окна по этапам и завершить программу (для отслеживания
+ *     замедления запуска);</li>
+ *     <li>--cds-training - обучающий запуск для архива общих классов (AppCDS):
+ *     программа запускается как обычно, после отрисовки главного окна
+ *     загружает модуль Excel и завершается, чтобы JVM сохранила в архив
+ *     все загруженные классы (см. скрипты run-fast.sh и run-fast.cmd);</li>
+ *     <li>--server [порт] - запустить без окон HTTP-сервис расчета для других
+ *     программ (см. FittingServer). Сервис принимает запросы только
+ *     с этого компьютера, если не задан другой адрес через -Dserver.host.</li>
+ * </ul>
+ * В режимах --measure-startup и --cds-training, если не задан -Dsession.dir, журнал сеанса ведется во
+ * временной папке, чтобы запуск не останавливался на вопросе о восстановлении.
+ *
  * @author Petrushchenko A.A.
  * @version 1.0
  */
@@ -14,9 +38,31 @@ public class Main {
      * Главный метод приложения - точка входа.
      * Настраивает внешний вид приложения и запускает стартовый экран.
      *
-     * @param args аргументы командной строки (не используются)
+     * @param args аргументы командной строки (см. описание класса)
      */
     public static void main(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--measure-startup" -> {
+                    useTemporarySessionDir();
+                    StartupProfile.enable(() -> System.exit(0));
+                }
+                case "--cds-training" -> {
+                    useTemporarySessionDir();
+                    StartupProfile.enable(Main::finishTraining);
+                }
+                case "--server" -> {
+                    int port = FittingServer.DEFAULT_PORT;
+                    if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                        port = parsePort(args[++i]);
+                    }
+                    startServer(port);
+                    return;
+                }
+                default -> System.err.println("Неизвестный параметр: " + args[i]);
+            }
+        }
+
         // Устанавливаем системный Look and Feel для Windows
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -31,4 +77,70 @@ public class Main {
             splash.setVisible(true);
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Запускает HTTP-сервис расчета. Программа работает, пока сервис
+     * не будет остановлен (Ctrl+C).
+     *
+     * @param port порт сервиса
+     */
+    private static void startServer(int port) {
+        FittingServer.configureCarrierThreads();
+        String host = System.getProperty("server.host");
+        InetSocketAddress address = host != null
+                ? new InetSocketAddress(host, port)
+                : new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        try {
+            FittingServer server = new FittingServer(address);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close, "server-stop"));
+            System.out.println("Сервис расчета запущен: http://" + server.getAddress().getHostString() +
+                    ":" + server.getAddress().getPort() + "/");
+        } catch (IOException e) {
+            System.err.println("Не удалось запустить сервис на порту " + port + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Разбирает номер порта.
+     *
+     * @param text текст параметра
+     * @return номер порта
+     */
+    private static int parsePort(String text) {
+        try {
+            int port = Integer.parseInt(text);
+            if (port >= 0 && port <= 65535) {
+                return port;
+            }
+        } catch (NumberFormatException e) {
+            // Сообщение ниже
+        }
+        System.err.println("Некорректный номер порта: " + text);
+        System.exit(1);
+        return -1;
+    }
+
+    /**
+     * Направляет журнал сеанса во временную папку, если папка не задана явно.
+     */
+    private static void useTemporarySessionDir() {
+        if (System.getProperty("session.dir") == null) {
+            System.setProperty("session.dir",
+                    new File(System.getProperty("java.io.tmpdir"), "temperature-session-profile").getPath());
+        }
+    }
+
+    /**
+     * Завершает обучающий запуск: загружает модуль Excel, чтобы его классы
+     * тоже попали в архив, и выходит из программы.
+     */
+    private static void finishTraining() {
+        try {
+            SpreadsheetService.get().warmUp();
+        } catch (Exception e) {
+            System.err.println("Модуль Excel не загружен: " + e.getMessage());
+        }
+        System.exit(0);
+    }
+}
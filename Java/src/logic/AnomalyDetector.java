@@ -0,0 +1,166 @@
+package logic;
+
+/**
+ * Класс AnomalyDetector отмечает показания, которые слишком далеко
+ * отклоняются от тренда, по мере их поступления (например, при отказе
+ * нагревателя или неисправности датчика).
+ *
+ * Для каждого показания вычисляется остаток - отклонение температуры
+ * от модели. Детектор хранит экспоненциально сглаженные среднее остатков
+ * и среднее абсолютное отклонение от него; оценка сигмы пропорциональна
+ * этому отклонению. Показание считается аномальным, если его остаток
+ * отличается от среднего больше чем на threshold сигм.
+ *
+ * Оценки устойчивы к выбросам: перед обновлением отклонение остатка
+ * от среднего ограничивается CLIP сигмами (как в оценке Хьюбера), поэтому
+ * одиночный выброс не раздувает сигму, а при длительном сдвиге (отказе)
+ * показания отмечаются, пока оценки постепенно подстраиваются под новый
+ * уровень. Первые WARM_UP показаний только накапливают оценки
+ * и не отмечаются. Сигма не опускается ниже MIN_SIGMA: иначе после
+ * серии одинаковых показаний она обнулилась бы, и ограничение не дало бы
+ * ей вырасти снова - все последующие показания считались бы аномальными. Обработка одного показания занимает O(1) времени
+ * и памяти.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class AnomalyDetector {
+
+    /**
+     * Порог аномалии по умолчанию (количество устойчивых сигм).
+     */
+    public static final double DEFAULT_THRESHOLD = 3.5;
+
+    /**
+     * Коэффициент сглаживания по умолчанию (вес нового показания).
+     */
+    public static final double DEFAULT_SMOOTHING = 0.05;
+
+    /**
+     * Количество показаний, после которого детектор начинает отмечать аномалии.
+     */
+    public static final int WARM_UP = 8;
+
+    /**
+     * Граница ограничения отклонений при обновлении оценок (в сигмах).
+     */
+    private static final double CLIP = 2;
+
+    /**
+     * Отношение сигмы к среднему абсолютному отклонению, ограниченному
+     * CLIP сигмами, для нормального распределения: 1 / E[min(|z|, 2)].
+     */
+    private static final double SIGMA_PER_DEVIATION = 1.2806;
+
+    /**
+     * Нижняя граница сигмы, °C (порядок разрешения датчиков температуры).
+     */
+    public static final double MIN_SIGMA = 0.01;
+
+    private FittedModel model;
+    private final double threshold;
+    private final double smoothing;
+
+    private long count;
+    private long anomalyCount;
+    private double mean;
+    private double deviation;
+
+    /**
+     * Создает детектор.
+     *
+     * @param model модель тренда, от которой считаются остатки
+     * @param threshold порог аномалии в устойчивых сигмах (больше 0)
+     * @param smoothing вес нового показания в сглаженных оценках (от 0 до 1)
+     * @throws IllegalArgumentException если параметры некорректны
+     */
+    public AnomalyDetector(FittedModel model, double threshold, double smoothing) {
+        if (!(threshold > 0) || Double.isInfinite(threshold)) {
+            throw new IllegalArgumentException("Порог аномалии должен быть положительным");
+        }
+        if (!(smoothing > 0 && smoothing <= 1)) {
+            throw new IllegalArgumentException("Коэффициент сглаживания должен быть от 0 до 1");
+        }
+        this.model = model;
+        this.threshold = threshold;
+        this.smoothing = smoothing;
+    }
+
+    /**
+     * Заменяет модель тренда, например после пересчета по новым данным.
+     * Накопленные оценки остатков сохраняются.
+     *
+     * @param model новая модель тренда
+     */
+    public void setModel(FittedModel model) {
+        this.model = model;
+    }
+
+    /**
+     * Обрабатывает очередное показание.
+     *
+     * @param time время в часах
+     * @param temperature температура
+     * @return true, если показание аномально
+     */
+    public boolean add(double time, double temperature) {
+        double residual = temperature - model.predict(time);
+        if (!Double.isFinite(residual)) {
+            return false;
+        }
+
+        double offset = residual - mean;
+        boolean anomaly = false;
+        if (count >= WARM_UP) {
+            double sigma = getSigma();
+            if (Math.abs(offset) > threshold * sigma) {
+                anomaly = true;
+                anomalyCount++;
+            }
+            offset = Math.max(-CLIP * sigma, Math.min(offset, CLIP * sigma));
+        }
+
+        // В начале - обычное среднее, затем экспоненциальное сглаживание
+        count++;
+        double weight = Math.max(smoothing, 1.0 / count);
+        mean += weight * offset;
+        deviation += weight * (Math.abs(offset) - deviation);
+        return anomaly;
+    }
+
+    /**
+     * Возвращает количество обработанных показаний.
+     *
+     * @return количество показаний
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Возвращает количество отмеченных аномалий.
+     *
+     * @return количество аномалий
+     */
+    public long getAnomalyCount() {
+        return anomalyCount;
+    }
+
+    /**
+     * Возвращает сглаженное среднее остатков.
+     *
+     * @return среднее остатков
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Возвращает устойчивую оценку сигмы остатков (не меньше MIN_SIGMA).
+     *
+     * @return сигма остатков
+     */
+    public double getSigma() {
+        return Math.max(deviation * SIGMA_PER_DEVIATION, MIN_SIGMA);
+    }
+}
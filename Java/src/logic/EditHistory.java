@@ -0,0 +1,214 @@
+package logic;
+
+import model.DataPoint;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Класс EditHistory - история версий данных для отмены и повтора действий.
+ *
+ * Версия хранит экспериментальные точки в виде PersistentPointList,
+ * поэтому соседние версии разделяют почти все узлы дерева, и правка
+ * одной строки добавляет в историю O(log n) памяти, а не копию таблицы.
+ * Вместе с точками версия хранит моменты регрессии, так что после
+ * отмены коэффициенты МНК восстанавливаются без прохода по данным.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class EditHistory {
+
+    /**
+     * Максимальное количество хранимых шагов отмены.
+     */
+    public static final int MAX_DEPTH = 200;
+
+    /**
+     * Версия данных.
+     */
+    public static class Version {
+        private final PersistentPointList points;
+        private final List<Double> interpolationTimes;
+        private final String description;
+
+        /**
+         * Создает версию.
+         *
+         * @param points экспериментальные точки
+         * @param interpolationTimes времена интерполяции
+         * @param description описание действия, которое привело к версии
+         */
+        Version(PersistentPointList points, List<Double> interpolationTimes, String description) {
+            this.points = points;
+            this.interpolationTimes = List.copyOf(interpolationTimes);
+            this.description = description;
+        }
+
+        /**
+         * Возвращает экспериментальные точки версии.
+         *
+         * @return неизменяемый список точек
+         */
+        public PersistentPointList getPoints() {
+            return points;
+        }
+
+        /**
+         * Возвращает времена интерполяции версии.
+         *
+         * @return неизменяемый список времен
+         */
+        public List<Double> getInterpolationTimes() {
+            return interpolationTimes;
+        }
+
+        /**
+         * Возвращает описание действия.
+         *
+         * @return описание
+         */
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private final Deque<Version> undoStack = new ArrayDeque<>();
+    private final Deque<Version> redoStack = new ArrayDeque<>();
+    private Version current;
+
+    /**
+     * Создает историю с начальной версией.
+     *
+     * @param points начальные экспериментальные точки
+     * @param interpolationTimes начальные времена интерполяции
+     */
+    public EditHistory(List<DataPoint> points, List<Double> interpolationTimes) {
+        current = new Version(PersistentPointList.of(points), interpolationTimes, "");
+    }
+
+    /**
+     * Возвращает текущую версию.
+     *
+     * @return текущая версия
+     */
+    public Version getCurrent() {
+        return current;
+    }
+
+    /**
+     * Добавляет новую версию после действия пользователя.
+     * Точки сравниваются с текущей версией, и в новой версии
+     * заново создаются только узлы измененных позиций.
+     *
+     * @param description описание действия (для пунктов меню)
+     * @param points новые экспериментальные точки
+     * @param interpolationTimes новые времена интерполяции
+     * @return true если данные изменились и версия добавлена
+     */
+    public boolean commit(String description, List<DataPoint> points, List<Double> interpolationTimes) {
+        PersistentPointList updated = current.points.updatedTo(points);
+        if (updated == current.points && interpolationTimes.equals(current.interpolationTimes)) {
+            return false;
+        }
+        push(new Version(updated, interpolationTimes, description));
+        return true;
+    }
+
+    /**
+     * Добавляет новую версию, в которой изменились только времена интерполяции.
+     *
+     * @param description описание действия
+     * @param interpolationTimes новые времена интерполяции
+     * @return true если времена изменились и версия добавлена
+     */
+    public boolean commitInterpolationTimes(String description, List<Double> interpolationTimes) {
+        if (interpolationTimes.equals(current.interpolationTimes)) {
+            return false;
+        }
+        push(new Version(current.points, interpolationTimes, description));
+        return true;
+    }
+
+    /**
+     * Проверяет, есть ли действие для отмены.
+     *
+     * @return true если отмена возможна
+     */
+    public boolean canUndo() {
+        return !undoStack.isEmpty();
+    }
+
+    /**
+     * Проверяет, есть ли действие для повтора.
+     *
+     * @return true если повтор возможен
+     */
+    public boolean canRedo() {
+        return !redoStack.isEmpty();
+    }
+
+    /**
+     * Возвращает описание действия, которое будет отменено.
+     *
+     * @return описание или пустая строка
+     */
+    public String getUndoDescription() {
+        return canUndo() ? current.description : "";
+    }
+
+    /**
+     * Возвращает описание действия, которое будет повторено.
+     *
+     * @return описание или пустая строка
+     */
+    public String getRedoDescription() {
+        return canRedo() ? redoStack.peek().description : "";
+    }
+
+    /**
+     * Отменяет последнее действие.
+     *
+     * @return версия, ставшая текущей
+     * @throws IllegalStateException если отменять нечего
+     */
+    public Version undo() {
+        if (!canUndo()) {
+            throw new IllegalStateException("Нет действий для отмены");
+        }
+        redoStack.push(current);
+        current = undoStack.pop();
+        return current;
+    }
+
+    /**
+     * Повторяет отмененное действие.
+     *
+     * @return версия, ставшая текущей
+     * @throws IllegalStateException если повторять нечего
+     */
+    public Version redo() {
+        if (!canRedo()) {
+            throw new IllegalStateException("Нет действий для повтора");
+        }
+        undoStack.push(current);
+        current = redoStack.pop();
+        return current;
+    }
+
+    /**
+     * Делает версию текущей, сохраняя прежнюю для отмены.
+     * Повтор отмененных действий после нового действия невозможен.
+     *
+     * @param version новая версия
+     */
+    private void push(Version version) {
+        undoStack.push(current);
+        if (undoStack.size() > MAX_DEPTH) {
+            undoStack.removeLast();
+        }
+        redoStack.clear();
+        current = version;
+    }
+}
@@ -0,0 +1,221 @@
+package logic;
+
+import model.DataPoint;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Класс FitCache хранит в памяти результаты расчета моделей, чтобы
+ * повторный расчет по тем же данным (например, при каждом открытии
+ * графика или в пакетной обработке одинаковых рядов) не выполнялся заново.
+ *
+ * Ключ записи - отпечаток содержимого ряда, количество точек, режим
+ * аппроксимации и число гармоник. Отпечаток - полиномиальный хеш точек
+ * по модулю 2^64 с учетом их порядка: для списка он считается за один
+ * проход, а PersistentPointList хранит его в каждом узле и возвращает
+ * за O(1), так что неизмененная версия данных находит результат
+ * без обращения к точкам.
+ *
+ * При превышении емкости удаляется давно не использованная запись.
+ * Методы синхронизированы, кэш можно использовать из нескольких потоков.
+ * Сам расчет при промахе выполняется вне блокировки.
+ *
+ * @param <V> тип результата расчета
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class FitCache<V> {
+
+    /**
+     * Емкость кэша по умолчанию (количество записей).
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Множитель полиномиального хеша (нечетный, поэтому обратим по модулю 2^64).
+     */
+    static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Ключ записи кэша.
+     */
+    private static class Key {
+        final long fingerprint;
+        final int count;
+        final FitMode mode;
+        final int harmonics;
+
+        Key(long fingerprint, int count, FitMode mode, int harmonics) {
+            this.fingerprint = fingerprint;
+            this.count = count;
+            this.mode = mode;
+            // Число гармоник влияет только на гармоническую модель
+            this.harmonics = mode == FitMode.HARMONIC ? harmonics : 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return fingerprint == other.fingerprint && count == other.count
+                    && mode == other.mode && harmonics == other.harmonics;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(fingerprint) * 31 + (count * 31 + mode.ordinal()) * 31 + harmonics;
+        }
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<Key, V> entries;
+    private long hits;
+    private long misses;
+
+    /**
+     * Создает кэш заданной емкости.
+     *
+     * @param capacity максимальное количество записей
+     * @throws IllegalArgumentException если емкость меньше 1
+     */
+    public FitCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Емкость кэша должна быть положительной");
+        }
+        this.capacity = capacity;
+        // Порядок доступа: первая запись - давно не использованная
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+                return size() > FitCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Возвращает результат из кэша или рассчитывает и запоминает его.
+     *
+     * @param points версия данных (отпечаток берется за O(1))
+     * @param mode режим аппроксимации
+     * @param harmonics количество гармоник для гармонического режима
+     * @param fit расчет результата при промахе
+     * @return результат расчета
+     */
+    public V get(PersistentPointList points, FitMode mode, int harmonics, Supplier<V> fit) {
+        return get(points.getFingerprint(), points.size(), mode, harmonics, fit);
+    }
+
+    /**
+     * Возвращает результат из кэша или рассчитывает и запоминает его.
+     *
+     * @param fingerprint отпечаток данных (см. fingerprint)
+     * @param count количество точек
+     * @param mode режим аппроксимации
+     * @param harmonics количество гармоник для гармонического режима
+     * @param fit расчет результата при промахе
+     * @return результат расчета
+     */
+    public V get(long fingerprint, int count, FitMode mode, int harmonics, Supplier<V> fit) {
+        Key key = new Key(fingerprint, count, mode, harmonics);
+        synchronized (this) {
+            V cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        V result = fit.get();
+        if (result != null) {
+            synchronized (this) {
+                entries.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает количество попаданий в кэш.
+     *
+     * @return количество попаданий
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Возвращает количество промахов.
+     *
+     * @return количество промахов
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Возвращает количество записей в кэше.
+     *
+     * @return количество записей
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Удаляет все записи. Счетчики попаданий и промахов сохраняются.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Вычисляет отпечаток списка точек за один проход.
+     * Совпадает с отпечатком PersistentPointList с теми же точками.
+     *
+     * @param points точки
+     * @return отпечаток
+     */
+    public static long fingerprint(List<DataPoint> points) {
+        long hash = 0;
+        for (DataPoint point : points) {
+            hash = hash * MULTIPLIER + pointHash(point.getTime(), point.getTemperature());
+        }
+        return hash;
+    }
+
+    /**
+     * Вычисляет отпечаток ряда, заданного массивами.
+     * Совпадает с отпечатком списка с теми же точками.
+     *
+     * @param times времена
+     * @param temperatures температуры
+     * @param count количество точек
+     * @return отпечаток
+     */
+    public static long fingerprint(double[] times, double[] temperatures, int count) {
+        long hash = 0;
+        for (int i = 0; i < count; i++) {
+            hash = hash * MULTIPLIER + pointHash(times[i], temperatures[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * Вычисляет хеш одной точки с перемешиванием битов (финализатор SplitMix64).
+     *
+     * @param time время
+     * @param temperature температура
+     * @return хеш точки
+     */
+    static long pointHash(double time, double temperature) {
+        long h = Double.doubleToLongBits(time) * 0xBF58476D1CE4E5B9L + Double.doubleToLongBits(temperature);
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,77 @@
+package logic;
+
+/**
+ * Перечисление FitMode задает вид аппроксимирующей модели,
+ * по которой строится уравнение и рассчитываются температуры интерполяции.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public enum FitMode {
+    /**
+     * Линейная регрессия T = a*t + b методом наименьших квадратов.
+     */
+    LINEAR("Линейная (МНК)"),
+
+    /**
+     * Гармоническая регрессия по суточному циклу (периоды 24/k часов).
+     */
+    HARMONIC("Гармоническая (суточный цикл)"),
+
+    /**
+     * Устойчивая к выбросам прямая по оценке Тейла–Сена.
+     */
+    THEIL_SEN("Робастная (Тейл–Сен)"),
+
+    /**
+     * Устойчивая к выбросам прямая по методу RANSAC.
+     */
+    RANSAC("Робастная (RANSAC)"),
+
+    /**
+     * Кусочно-линейная модель с автоматическим поиском точек перелома.
+     */
+    PIECEWISE("Кусочно-линейная (точки перелома)"),
+
+    /**
+     * Сглаженная кривая тренда методом LOESS (локальная линейная регрессия).
+     */
+    LOESS("Сглаживание LOESS"),
+
+    /**
+     * Кубический сглаживающий сплайн.
+     */
+    SMOOTHING_SPLINE("Сглаживающий сплайн");
+
+    /**
+     * Название режима для отображения в интерфейсе.
+     */
+    private final String displayName;
+
+    /**
+     * Создает режим аппроксимации с заданным названием.
+     *
+     * @param displayName название режима для интерфейса
+     */
+    FitMode(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Возвращает название режима для отображения в интерфейсе.
+     *
+     * @return название режима
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Проверяет, является ли модель режима одной прямой T = a*t + b.
+     *
+     * @return true для МНК и устойчивых к выбросам прямых
+     */
+    public boolean isStraightLine() {
+        return this == LINEAR || this == THEIL_SEN || this == RANSAC;
+    }
+}
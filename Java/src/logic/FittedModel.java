@@ -0,0 +1,53 @@
+package logic;
+
+/**
+ * Интерфейс FittedModel - рассчитанная модель зависимости температуры
+ * от времени: прямая, гармоническая или кусочно-линейная модель и т.п.
+ *
+ * Окна программы, экспорт и сервис расчета работают с моделью только
+ * через этот интерфейс, поэтому новый вид модели не требует изменений
+ * в интерфейсе пользователя. Модели неизменяемы и могут использоваться
+ * из нескольких потоков.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public interface FittedModel {
+
+    /**
+     * Вычисляет температуру по модели в заданный момент времени.
+     *
+     * @param time время в часах
+     * @return температура по модели
+     */
+    double predict(double time);
+
+    /**
+     * Вычисляет температуры по модели для массива моментов времени.
+     * Реализации могут переопределить метод, чтобы не повторять
+     * для каждого момента общую часть вычислений.
+     *
+     * @param times времена в часах
+     * @param result массив для записи результатов (не короче count)
+     * @param count количество вычисляемых значений
+     */
+    default void predict(double[] times, double[] result, int count) {
+        for (int i = 0; i < count; i++) {
+            result[i] = predict(times[i]);
+        }
+    }
+
+    /**
+     * Возвращает уравнение модели для отображения и экспорта.
+     *
+     * @return уравнение модели
+     */
+    String getEquationString();
+
+    /**
+     * Возвращает короткую подпись модели для графика.
+     *
+     * @return подпись модели
+     */
+    String getCaption();
+}
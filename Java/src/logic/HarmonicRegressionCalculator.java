@@ -0,0 +1,431 @@
+package logic;
+
+import model.DataPoint;
+import java.util.List;
+
+/**
+ * Класс HarmonicRegressionCalculator реализует гармоническую (фурье) регрессию
+ * для данных с суточным циклом температуры.
+ * Уравнение модели: T = c0 + Σ [a_k * cos(2πk t / 24) + b_k * sin(2πk t / 24)], k = 1..K.
+ *
+ * Расчет выполняется за один проход по данным: для каждой точки накапливаются
+ * только суммы cos(mθ), sin(mθ) (m = 0..2K) и взвешенные температурой суммы,
+ * а матрица нормальных уравнений восстанавливается из тригонометрических тождеств.
+ * Синус и косинус основной гармоники берутся из заранее рассчитанной таблицы,
+ * старшие гармоники получаются рекуррентно по формулам сложения углов.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class HarmonicRegressionCalculator {
+
+    /**
+     * Период суточного цикла в часах.
+     */
+    public static final double PERIOD_HOURS = 24.0;
+
+    /**
+     * Количество гармоник по умолчанию.
+     */
+    public static final int DEFAULT_HARMONICS = 2;
+
+    /**
+     * Максимально допустимое количество гармоник.
+     */
+    public static final int MAX_HARMONICS = 12;
+
+    /**
+     * Размер таблицы значений синуса и косинуса на одном периоде.
+     */
+    private static final int TABLE_SIZE = 1024;
+
+    /**
+     * Шаг таблицы по углу (рад).
+     */
+    private static final double TABLE_STEP = 2 * Math.PI / TABLE_SIZE;
+
+    /**
+     * Таблицы косинуса и синуса в узлах сетки по углу.
+     */
+    private static final double[] COS_TABLE = new double[TABLE_SIZE + 1];
+    private static final double[] SIN_TABLE = new double[TABLE_SIZE + 1];
+
+    static {
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            COS_TABLE[i] = Math.cos(i * TABLE_STEP);
+            SIN_TABLE[i] = Math.sin(i * TABLE_STEP);
+        }
+    }
+
+    /**
+     * Результат гармонической регрессии.
+     * Хранит коэффициенты в порядке [c0, a1, b1, a2, b2, ...].
+     */
+    public static class HarmonicFit implements FittedModel {
+        /**
+         * Коэффициенты модели: свободный член, затем пары (cos, sin) по гармоникам.
+         */
+        private final double[] coefficients;
+
+        /**
+         * Количество гармоник модели.
+         */
+        private final int harmonics;
+
+        /**
+         * Создает результат регрессии с заданными коэффициентами.
+         *
+         * @param coefficients коэффициенты [c0, a1, b1, ...]
+         * @param harmonics количество гармоник
+         */
+        HarmonicFit(double[] coefficients, int harmonics) {
+            this.coefficients = coefficients;
+            this.harmonics = harmonics;
+        }
+
+        /**
+         * Возвращает количество гармоник модели.
+         *
+         * @return количество гармоник
+         */
+        public int getHarmonics() {
+            return harmonics;
+        }
+
+        /**
+         * Возвращает копию коэффициентов модели.
+         *
+         * @return массив [c0, a1, b1, a2, b2, ...]
+         */
+        public double[] getCoefficients() {
+            return coefficients.clone();
+        }
+
+        /**
+         * Вычисляет температуру в заданный момент времени по гармонической модели.
+         *
+         * @param time время в часах
+         * @return вычисленное значение температуры
+         * @throws IllegalArgumentException если time имеет недопустимое значение
+         */
+        public double calculateTemperature(double time) {
+            if (Double.isNaN(time) || Double.isInfinite(time)) {
+                throw new IllegalArgumentException("Время должно быть конечным числом");
+            }
+
+            return evaluate(time, new double[2]);
+        }
+
+        /**
+         * Вычисляет температуру по гармонической модели.
+         *
+         * @param time время в часах
+         * @return температура по модели
+         * @throws IllegalArgumentException если time имеет недопустимое значение
+         */
+        @Override
+        public double predict(double time) {
+            return calculateTemperature(time);
+        }
+
+        /**
+         * Вычисляет температуры для массива моментов времени с общим буфером cos/sin.
+         *
+         * @param times массив времен в часах
+         * @param result массив для записи результатов (не короче count)
+         * @param count количество вычисляемых значений
+         */
+        @Override
+        public void predict(double[] times, double[] result, int count) {
+            double[] cs = new double[2];
+            for (int i = 0; i < count; i++) {
+                result[i] = evaluate(times[i], cs);
+            }
+        }
+
+        /**
+         * Вычисляет значение модели, используя переданный буфер для cos/sin.
+         *
+         * @param time время в часах
+         * @param cs буфер из двух элементов
+         * @return значение модели
+         */
+        private double evaluate(double time, double[] cs) {
+            fundamental(time, cs);
+            double c1 = cs[0], s1 = cs[1];
+            double ck = c1, sk = s1;
+
+            double result = coefficients[0];
+            for (int k = 1; k <= harmonics; k++) {
+                result += coefficients[2 * k - 1] * ck + coefficients[2 * k] * sk;
+
+                // Переход к следующей гармонике по формулам сложения углов
+                double next = ck * c1 - sk * s1;
+                sk = sk * c1 + ck * s1;
+                ck = next;
+            }
+
+            return result;
+        }
+
+        /**
+         * Вычисляет температуры для массива моментов времени.
+         *
+         * @param times массив времен в часах
+         * @param result массив для записи результатов (не короче times)
+         */
+        public void calculateTemperatures(double[] times, double[] result) {
+            predict(times, result, times.length);
+        }
+
+        /**
+         * Возвращает строковое представление уравнения модели.
+         *
+         * @return уравнение вида "T = c0 + a1*cos(...) + b1*sin(...) + ..."
+         */
+        @Override
+        public String getEquationString() {
+            StringBuilder sb = new StringBuilder("T = ");
+            sb.append(String.format("%.4f", coefficients[0]));
+            for (int k = 1; k <= harmonics; k++) {
+                String arg = k == 1 ? "ωt" : k + "ωt";
+                sb.append(String.format(" %+.4f*cos(%s) %+.4f*sin(%s)",
+                        coefficients[2 * k - 1], arg, coefficients[2 * k], arg));
+            }
+            sb.append(", ω = 2π/24");
+            return sb.toString();
+        }
+
+        /**
+         * Возвращает подпись модели для графика.
+         *
+         * @return количество гармоник и период
+         */
+        @Override
+        public String getCaption() {
+            return String.format("Гармоническая модель: %d гарм., период 24 ч", harmonics);
+        }
+    }
+
+    /**
+     * Вычисляет коэффициенты гармонической регрессии по списку экспериментальных точек.
+     *
+     * @param data список экспериментальных точек (время, температура)
+     * @param harmonics количество гармоник (от 1 до MAX_HARMONICS)
+     * @return результат гармонической регрессии
+     * @throws IllegalArgumentException если данные или количество гармоник некорректны
+     */
+    public static HarmonicFit calculateCoefficients(List<DataPoint> data, int harmonics) {
+        if (data == null) {
+            throw new IllegalArgumentException("Список данных не может быть null");
+        }
+
+        int n = data.size();
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        for (int i = 0; i < n; i++) {
+            DataPoint point = data.get(i);
+            times[i] = point.getTime();
+            temperatures[i] = point.getTemperature();
+        }
+
+        return calculateCoefficients(times, temperatures, n, harmonics);
+    }
+
+    /**
+     * Вычисляет коэффициенты гармонической регрессии по массивам времени и температуры.
+     * Выполняет один проход по данным.
+     *
+     * @param times массив времен в часах
+     * @param temperatures массив температур
+     * @param n количество используемых точек
+     * @param harmonics количество гармоник (от 1 до MAX_HARMONICS)
+     * @return результат гармонической регрессии
+     * @throws IllegalArgumentException если данные или количество гармоник некорректны
+     * @throws ArithmeticException если система нормальных уравнений вырождена
+     */
+    public static HarmonicFit calculateCoefficients(double[] times, double[] temperatures,
+                                                    int n, int harmonics) {
+        if (harmonics < 1 || harmonics > MAX_HARMONICS) {
+            throw new IllegalArgumentException(
+                    "Количество гармоник должно быть от 1 до " + MAX_HARMONICS);
+        }
+
+        int p = 2 * harmonics + 1;
+        if (n < p) {
+            throw new IllegalArgumentException(
+                    "Для " + harmonics + " гармоник нужно как минимум " + p + " точек данных");
+        }
+
+        // Суммы cos(mθ) и sin(mθ) для m = 0..2K и правая часть нормальных уравнений
+        int maxOrder = 2 * harmonics;
+        double[] sumCos = new double[maxOrder + 1];
+        double[] sumSin = new double[maxOrder + 1];
+        double[] rhs = new double[p];
+        double[] cs = new double[2];
+
+        for (int i = 0; i < n; i++) {
+            double t = times[i];
+            double y = temperatures[i];
+
+            if (Double.isNaN(t) || Double.isInfinite(t)) {
+                throw new IllegalArgumentException("Обнаружено недопустимое значение времени: " + t);
+            }
+
+            if (Double.isNaN(y) || Double.isInfinite(y)) {
+                throw new IllegalArgumentException("Обнаружено недопустимое значение температуры: " + y);
+            }
+
+            fundamental(t, cs);
+            double c1 = cs[0], s1 = cs[1];
+            double cm = c1, sm = s1;
+
+            rhs[0] += y;
+            for (int m = 1; m <= maxOrder; m++) {
+                sumCos[m] += cm;
+                sumSin[m] += sm;
+                if (m <= harmonics) {
+                    rhs[2 * m - 1] += y * cm;
+                    rhs[2 * m] += y * sm;
+                }
+
+                double next = cm * c1 - sm * s1;
+                sm = sm * c1 + cm * s1;
+                cm = next;
+            }
+        }
+        sumCos[0] = n;
+
+        double[][] matrix = buildNormalMatrix(sumCos, sumSin, harmonics);
+        double[] coefficients = solveSymmetric(matrix, rhs);
+
+        for (double c : coefficients) {
+            if (Double.isNaN(c) || Double.isInfinite(c)) {
+                throw new ArithmeticException("Получены недопустимые значения коэффициентов");
+            }
+        }
+
+        return new HarmonicFit(coefficients, harmonics);
+    }
+
+    /**
+     * Строит матрицу нормальных уравнений по суммам cos(mθ) и sin(mθ).
+     * Использует тождества произведения тригонометрических функций.
+     *
+     * @param sumCos суммы cos(mθ), m = 0..2K
+     * @param sumSin суммы sin(mθ), m = 0..2K
+     * @param harmonics количество гармоник K
+     * @return симметричная матрица размера (2K+1)x(2K+1)
+     */
+    private static double[][] buildNormalMatrix(double[] sumCos, double[] sumSin, int harmonics) {
+        int p = 2 * harmonics + 1;
+        double[][] matrix = new double[p][p];
+
+        matrix[0][0] = sumCos[0];
+        for (int k = 1; k <= harmonics; k++) {
+            matrix[0][2 * k - 1] = matrix[2 * k - 1][0] = sumCos[k];
+            matrix[0][2 * k] = matrix[2 * k][0] = sumSin[k];
+        }
+
+        for (int j = 1; j <= harmonics; j++) {
+            for (int k = 1; k <= harmonics; k++) {
+                int diff = Math.abs(j - k);
+                // cos(jθ)cos(kθ) = (cos((j-k)θ) + cos((j+k)θ)) / 2
+                matrix[2 * j - 1][2 * k - 1] = 0.5 * (sumCos[diff] + sumCos[j + k]);
+                // sin(jθ)sin(kθ) = (cos((j-k)θ) - cos((j+k)θ)) / 2
+                matrix[2 * j][2 * k] = 0.5 * (sumCos[diff] - sumCos[j + k]);
+                // cos(jθ)sin(kθ) = (sin((k+j)θ) + sin((k-j)θ)) / 2
+                double sinDiff = k >= j ? sumSin[k - j] : -sumSin[j - k];
+                matrix[2 * j - 1][2 * k] = matrix[2 * k][2 * j - 1] = 0.5 * (sumSin[j + k] + sinDiff);
+            }
+        }
+
+        return matrix;
+    }
+
+    /**
+     * Решает систему с симметричной положительно определенной матрицей
+     * методом Холецкого.
+     *
+     * @param matrix матрица системы (изменяется в процессе решения)
+     * @param rhs правая часть системы
+     * @return вектор решения
+     * @throws ArithmeticException если матрица вырождена
+     */
+    private static double[] solveSymmetric(double[][] matrix, double[] rhs) {
+        int p = rhs.length;
+        double scale = 0;
+        for (int i = 0; i < p; i++) {
+            scale = Math.max(scale, Math.abs(matrix[i][i]));
+        }
+
+        // Разложение A = L * L^T, L хранится в нижнем треугольнике
+        for (int j = 0; j < p; j++) {
+            double diag = matrix[j][j];
+            for (int k = 0; k < j; k++) {
+                diag -= matrix[j][k] * matrix[j][k];
+            }
+            if (diag <= 1e-12 * scale) {
+                throw new ArithmeticException(
+                        "Невозможно вычислить коэффициенты: недостаточно различных моментов времени");
+            }
+            diag = Math.sqrt(diag);
+            matrix[j][j] = diag;
+
+            for (int i = j + 1; i < p; i++) {
+                double value = matrix[i][j];
+                for (int k = 0; k < j; k++) {
+                    value -= matrix[i][k] * matrix[j][k];
+                }
+                matrix[i][j] = value / diag;
+            }
+        }
+
+        // Прямой ход: L * z = rhs
+        double[] solution = new double[p];
+        for (int i = 0; i < p; i++) {
+            double value = rhs[i];
+            for (int k = 0; k < i; k++) {
+                value -= matrix[i][k] * solution[k];
+            }
+            solution[i] = value / matrix[i][i];
+        }
+
+        // Обратный ход: L^T * x = z
+        for (int i = p - 1; i >= 0; i--) {
+            double value = solution[i];
+            for (int k = i + 1; k < p; k++) {
+                value -= matrix[k][i] * solution[k];
+            }
+            solution[i] = value / matrix[i][i];
+        }
+
+        return solution;
+    }
+
+    /**
+     * Вычисляет cos и sin основной гармоники ωt по таблице.
+     * Угол раскладывается на узел таблицы и малый остаток, для остатка
+     * используются ряды Тейлора, что дает точность на уровне double.
+     *
+     * @param time время в часах
+     * @param result массив из двух элементов для записи [cos(ωt), sin(ωt)]
+     */
+    private static void fundamental(double time, double[] result) {
+        double turns = time / PERIOD_HOURS;
+        turns -= Math.floor(turns); // Приводим к одному периоду [0, 1)
+
+        double position = turns * TABLE_SIZE;
+        int index = (int) Math.round(position);
+        double delta = (position - index) * TABLE_STEP;
+
+        double d2 = delta * delta;
+        double cosDelta = 1 - d2 / 2 * (1 - d2 / 12 * (1 - d2 / 30));
+        double sinDelta = delta * (1 - d2 / 6 * (1 - d2 / 20 * (1 - d2 / 42)));
+
+        double cosNode = COS_TABLE[index];
+        double sinNode = SIN_TABLE[index];
+        result[0] = cosNode * cosDelta - sinNode * sinDelta;
+        result[1] = sinNode * cosDelta + cosNode * sinDelta;
+    }
+}
@@ -0,0 +1,49 @@
+package logic;
+
+/**
+ * Перечисление InterpolationMode задает способ расчета температур
+ * в таблице интерполяции: по аппроксимирующей модели или кубической
+ * кривой, проходящей через все экспериментальные точки.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public enum InterpolationMode {
+    /**
+     * Температура по выбранной модели аппроксимации (прямой или кривой тренда).
+     */
+    MODEL("По модели аппроксимации"),
+
+    /**
+     * Естественный кубический сплайн через экспериментальные точки.
+     */
+    NATURAL_SPLINE("Кубический сплайн"),
+
+    /**
+     * Монотонная кубическая интерполяция Эрмита (PCHIP) без выбросов между точками.
+     */
+    MONOTONE_SPLINE("Монотонный сплайн (PCHIP)");
+
+    /**
+     * Название режима для отображения в интерфейсе.
+     */
+    private final String displayName;
+
+    /**
+     * Создает режим интерполяции с заданным названием.
+     *
+     * @param displayName название режима для интерфейса
+     */
+    InterpolationMode(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Возвращает название режима для отображения в интерфейсе.
+     *
+     * @return название режима
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -1,7 +1,9 @@
 package logic;
 
+import model.CompressedTimeSeries;
 import model.DataPoint;
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * Класс LeastSquaresCalculator реализует метод наименьших квадратов (МНК)
@@ -15,7 +17,8 @@ public class LeastSquaresCalculator {
 
     /**
      * Вычисляет коэффициенты линейной регрессии a и b методом наименьших квадратов.
-     * Уравнение регрессии: T = a*t + b
+     * Уравнение регрессии: T = a*t + b. Точки копируются в массивы
+     * и передаются в calculateCoefficients(double[], double[], int).
      *
      * @param data список экспериментальных точек (время, температура)
      * @return массив из двух элементов: [a, b]
@@ -31,17 +34,42 @@ public class LeastSquaresCalculator {
             throw new IllegalArgumentException("Список данных не может быть пустым");
         }
 
-        if (data.size() < 2) {
+        int n = data.size();
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        int i = 0;
+        for (DataPoint point : data) {
+            times[i] = point.getTime();
+            temperatures[i] = point.getTemperature();
+            i++;
+        }
+        return calculateCoefficients(times, temperatures, n);
+    }
+
+    /**
+     * Вычисляет коэффициенты линейной регрессии по массивам времени и температуры.
+     * Используется алгоритмами, работающими с примитивными массивами без объектов DataPoint.
+     *
+     * @param times массив времен в часах
+     * @param temperatures массив температур
+     * @param n количество используемых точек
+     * @return массив из двух элементов: [a, b]
+     * @throws IllegalArgumentException если данные некорректны
+     */
+    public static double[] calculateCoefficients(double[] times, double[] temperatures, int n) {
+        if (times == null || temperatures == null) {
+            throw new IllegalArgumentException("Массивы данных не могут быть null");
+        }
+
+        if (n < 2) {
             throw new IllegalArgumentException("Для расчета нужно как минимум 2 точки данных");
         }
 
-        int n = data.size();
         double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
 
-        // Проверка корректности данных и вычисление сумм
-        for (DataPoint point : data) {
-            double x = point.getTime();
-            double y = point.getTemperature();
+        for (int i = 0; i < n; i++) {
+            double x = times[i];
+            double y = temperatures[i];
 
             if (Double.isNaN(x) || Double.isInfinite(x)) {
                 throw new IllegalArgumentException("Обнаружено недопустимое значение времени: " + x);
@@ -59,7 +87,6 @@ public class LeastSquaresCalculator {
 
         double denominator = n * sumXX - sumX * sumX;
 
-        // Проверка на вырожденный случай
         if (Math.abs(denominator) < 1e-10) {
             throw new ArithmeticException("Невозможно вычислить коэффициенты: точки расположены вертикально");
         }
@@ -67,7 +94,6 @@ public class LeastSquaresCalculator {
         double a = (n * sumXY - sumX * sumY) / denominator;
         double b = (sumY - a * sumX) / n;
 
-        // Проверка корректности результатов
         if (Double.isNaN(a) || Double.isInfinite(a) || Double.isNaN(b) || Double.isInfinite(b)) {
             throw new ArithmeticException("Получены недопустимые значения коэффициентов");
         }
@@ -75,6 +101,39 @@ public class LeastSquaresCalculator {
         return new double[]{a, b};
     }
 
+    /**
+     * Вычисляет коэффициенты линейной регрессии по сжатому ряду без его полной распаковки.
+     * Блоки декодируются параллельно в небольшие буферы, суммы блоков
+     * объединяются через RegressionAccumulator.
+     *
+     * @param series сжатый ряд
+     * @return массив из двух элементов: [a, b]
+     * @throws IllegalArgumentException если точек меньше двух
+     * @throws ArithmeticException если все точки имеют одинаковое время
+     */
+    public static double[] calculateCoefficients(CompressedTimeSeries series) {
+        RegressionAccumulator total = IntStream.range(0, series.getChunkCount()).parallel()
+                .mapToObj(chunk -> {
+                    int length = series.getChunkLength(chunk);
+                    double[] times = new double[length];
+                    double[] temperatures = new double[length];
+                    series.decodeChunk(chunk, times, temperatures, 0);
+
+                    RegressionAccumulator accumulator = new RegressionAccumulator();
+                    for (int i = 0; i < length; i++) {
+                        accumulator.add(times[i], temperatures[i]);
+                    }
+                    return accumulator;
+                })
+                .reduce(new RegressionAccumulator(), (left, right) -> {
+                    RegressionAccumulator merged = new RegressionAccumulator(left);
+                    merged.merge(right);
+                    return merged;
+                });
+
+        return total.getCoefficients();
+    }
+
     /**
      * Вычисляет температуру в заданный момент времени по уравнению линейной регрессии.
      *
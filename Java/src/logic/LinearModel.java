@@ -0,0 +1,85 @@
+package logic;
+
+/**
+ * Класс LinearModel - прямая T = a*t + b.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class LinearModel implements FittedModel {
+    private final double a, b;
+
+    /**
+     * Создает прямую с заданными коэффициентами.
+     *
+     * @param a наклон прямой
+     * @param b свободный член прямой
+     */
+    public LinearModel(double a, double b) {
+        this.a = a;
+        this.b = b;
+    }
+
+    /**
+     * Возвращает наклон прямой.
+     *
+     * @return коэффициент a
+     */
+    public double getA() {
+        return a;
+    }
+
+    /**
+     * Возвращает свободный член прямой.
+     *
+     * @return коэффициент b
+     */
+    public double getB() {
+        return b;
+    }
+
+    /**
+     * Вычисляет температуру по прямой.
+     *
+     * @param time время в часах
+     * @return a*time + b
+     */
+    @Override
+    public double predict(double time) {
+        return a * time + b;
+    }
+
+    /**
+     * Вычисляет температуры по прямой для массива моментов времени.
+     *
+     * @param times времена в часах
+     * @param result массив для записи результатов (не короче count)
+     * @param count количество вычисляемых значений
+     */
+    @Override
+    public void predict(double[] times, double[] result, int count) {
+        for (int i = 0; i < count; i++) {
+            result[i] = a * times[i] + b;
+        }
+    }
+
+    /**
+     * Возвращает уравнение прямой.
+     *
+     * @return уравнение вида "T = a * t + b"
+     */
+    @Override
+    public String getEquationString() {
+        return "T = " + String.format("%.4f", a) + " * t + " + String.format("%.4f", b);
+    }
+
+    /**
+     * Возвращает подпись прямой для графика.
+     *
+     * @return уравнение с тремя знаками после запятой
+     */
+    @Override
+    public String getCaption() {
+        return String.format("T = %.3f * t + %.3f", a, b);
+    }
+}
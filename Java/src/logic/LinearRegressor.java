@@ -0,0 +1,58 @@
+package logic;
+
+/**
+ * Класс LinearRegressor рассчитывает прямую T = a*t + b методом
+ * наименьших квадратов или устойчивыми к выбросам оценками
+ * (Тейла–Сена, RANSAC).
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class LinearRegressor implements Regressor<LinearModel> {
+    private final FitMode mode;
+
+    /**
+     * Создает алгоритм расчета прямой.
+     *
+     * @param mode режим LINEAR, THEIL_SEN или RANSAC
+     * @throws IllegalArgumentException если режим не сводится к одной прямой
+     */
+    public LinearRegressor(FitMode mode) {
+        if (!mode.isStraightLine()) {
+            throw new IllegalArgumentException("Режим \"" + mode.getDisplayName() + "\" не сводится к прямой");
+        }
+        this.mode = mode;
+    }
+
+    /**
+     * Возвращает название алгоритма.
+     *
+     * @return название режима
+     */
+    @Override
+    public String getName() {
+        return mode.getDisplayName();
+    }
+
+    /**
+     * Рассчитывает прямую по массивам времени и температуры.
+     *
+     * @param times массив времен в часах
+     * @param temperatures массив температур
+     * @param n количество используемых точек
+     * @return прямая
+     * @throws IllegalArgumentException если данные некорректны
+     * @throws ArithmeticException если прямую не удается рассчитать
+     */
+    @Override
+    public LinearModel fit(double[] times, double[] temperatures, int n) {
+        double[] coefficients = switch (mode) {
+            case THEIL_SEN -> RobustRegressionCalculator.theilSen(
+                    times, temperatures, n, RobustRegressionCalculator.THEIL_SEN_MAX_PAIRS);
+            case RANSAC -> RobustRegressionCalculator.ransac(
+                    times, temperatures, n, RobustRegressionCalculator.RANSAC_ITERATIONS, Double.NaN);
+            default -> LeastSquaresCalculator.calculateCoefficients(times, temperatures, n);
+        };
+        return new LinearModel(coefficients[0], coefficients[1]);
+    }
+}
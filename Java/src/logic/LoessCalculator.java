@@ -0,0 +1,193 @@
+package logic;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Класс LoessCalculator строит сглаженную кривую тренда методом LOESS
+ * (локальная линейная регрессия).
+ *
+ * В каждой точке оценки берутся q ближайших по времени точек
+ * (q - заданная доля всех точек), по ним строится прямая МНК с весами
+ * (1 - (d/dmax)³)³, где d - расстояние по времени, dmax - расстояние
+ * до самой дальней точки окна. Значение и наклон этой прямой в точке
+ * оценки дают узел кривой.
+ *
+ * Точки упорядочиваются по времени, а окно ближайших точек сдвигается
+ * вместе с точкой оценки, поэтому поиск соседей не требует перебора
+ * всех пар. Узлы оцениваются параллельно: если различных времен
+ * не больше MAX_NODES, узлы совпадают с ними, иначе берутся MAX_NODES
+ * равноотстоящих узлов. Между узлами кривая - кубическая кривая Эрмита
+ * по значениям и наклонам в узлах (PiecewiseCubic).
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class LoessCalculator {
+
+    /**
+     * Доля точек в окне по умолчанию.
+     */
+    public static final double DEFAULT_SPAN = 0.3;
+
+    /**
+     * Максимальное количество узлов кривой.
+     */
+    public static final int MAX_NODES = 1024;
+
+    /**
+     * Количество узлов в одной параллельной задаче.
+     */
+    private static final int NODES_PER_TASK = 32;
+
+    /**
+     * Строит кривую LOESS. Массивы упорядочиваются по времени на месте.
+     *
+     * @param times массив времен
+     * @param temperatures массив температур
+     * @param n количество точек
+     * @param span доля точек в окне (от 0 до 1)
+     * @return сглаженная кривая
+     * @throws IllegalArgumentException если данные или параметры некорректны
+     */
+    public static PiecewiseCubic smooth(double[] times, double[] temperatures, int n, double span) {
+        if (!(span > 0 && span <= 1)) {
+            throw new IllegalArgumentException("Доля точек в окне должна быть от 0 до 1");
+        }
+        if (n < 3) {
+            throw new IllegalArgumentException("Для сглаживания нужно как минимум 3 точки данных");
+        }
+        for (int i = 0; i < n; i++) {
+            if (!Double.isFinite(times[i]) || !Double.isFinite(temperatures[i])) {
+                throw new IllegalArgumentException("Обнаружено недопустимое значение в строке " + (i + 1));
+            }
+        }
+
+        TimeOrder.sort(times, temperatures, n);
+        if (times[0] == times[n - 1]) {
+            throw new IllegalArgumentException("Для сглаживания нужны точки с разным временем");
+        }
+
+        double[] nodes = nodes(times, n);
+        int q = Math.max(3, Math.min(n, (int) Math.ceil(span * n)));
+        double[] values = new double[nodes.length];
+        double[] slopes = new double[nodes.length];
+
+        int tasks = (nodes.length + NODES_PER_TASK - 1) / NODES_PER_TASK;
+        IntStream.range(0, tasks).parallel().forEach(task -> {
+            int from = task * NODES_PER_TASK;
+            int to = Math.min(nodes.length, from + NODES_PER_TASK);
+            fitNodes(times, temperatures, n, q, nodes, from, to, values, slopes);
+        });
+
+        String parameters = String.format("окно %.0f%% точек", span * 100);
+        return PiecewiseCubic.fromSlopes("LOESS", parameters, nodes, values, slopes);
+    }
+
+    /**
+     * Выбирает узлы кривой: различные времена или равноотстоящие узлы.
+     *
+     * @param times упорядоченные времена
+     * @param n количество точек
+     * @return узлы по возрастанию
+     */
+    private static double[] nodes(double[] times, int n) {
+        double[] distinct = new double[Math.min(n, MAX_NODES + 1)];
+        int count = 0;
+        for (int i = 0; i < n && count <= MAX_NODES; i++) {
+            if (count == 0 || times[i] != distinct[count - 1]) {
+                distinct[count++] = times[i];
+            }
+        }
+        if (count <= MAX_NODES) {
+            return Arrays.copyOf(distinct, count);
+        }
+
+        double[] nodes = new double[MAX_NODES];
+        double step = (times[n - 1] - times[0]) / (MAX_NODES - 1);
+        for (int i = 0; i < MAX_NODES; i++) {
+            nodes[i] = times[0] + i * step;
+        }
+        nodes[MAX_NODES - 1] = times[n - 1];
+        return nodes;
+    }
+
+    /**
+     * Оценивает значения и наклоны в узлах from..to-1, сдвигая окно
+     * ближайших точек вправо вместе с узлом.
+     *
+     * @param times упорядоченные времена
+     * @param temperatures температуры
+     * @param n количество точек
+     * @param q количество точек в окне
+     * @param nodes узлы
+     * @param from первый узел
+     * @param to узел после последнего
+     * @param values массив для значений
+     * @param slopes массив для наклонов
+     */
+    private static void fitNodes(double[] times, double[] temperatures, int n, int q,
+                                 double[] nodes, int from, int to, double[] values, double[] slopes) {
+        // Окно ближайших точек пересекается с позицией узла, поэтому начинается не левее position - q
+        int position = lowerBound(times, n, nodes[from]);
+        int lo = Math.max(0, Math.min(position - q, n - q));
+
+        for (int k = from; k < to; k++) {
+            double node = nodes[k];
+            while (lo + q < n && node - times[lo] > times[lo + q] - node) {
+                lo++;
+            }
+            int hi = lo + q - 1;
+            // Радиус чуть больше расстояния до дальней точки, чтобы ее вес не был нулевым
+            double radius = Math.max(node - times[lo], times[hi] - node) * (1 + 1e-6);
+
+            double s0 = 0, s1 = 0, s2 = 0, t0 = 0, t1 = 0;
+            for (int i = lo; i <= hi; i++) {
+                double dx = times[i] - node;
+                double w = 1;
+                if (radius > 0) {
+                    double u = Math.abs(dx) / radius;
+                    double v = 1 - u * u * u;
+                    w = v * v * v;
+                }
+                double wx = w * dx;
+                s0 += w;
+                s1 += wx;
+                s2 += wx * dx;
+                t0 += w * temperatures[i];
+                t1 += wx * temperatures[i];
+            }
+
+            double det = s0 * s2 - s1 * s1;
+            if (det > 1e-12 * s0 * s2) {
+                values[k] = (s2 * t0 - s1 * t1) / det;
+                slopes[k] = (s0 * t1 - s1 * t0) / det;
+            } else {
+                // Все точки окна с одним временем - взвешенное среднее
+                values[k] = t0 / s0;
+                slopes[k] = 0;
+            }
+        }
+    }
+
+    /**
+     * Находит первую позицию со временем не меньше заданного.
+     *
+     * @param times упорядоченные времена
+     * @param n количество точек
+     * @param time время
+     * @return позиция от 0 до n
+     */
+    private static int lowerBound(double[] times, int n, double time) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times[mid] < time) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,65 @@
+package logic;
+
+/**
+ * Класс ModeRegressor рассчитывает модели режимов, не сводящихся
+ * к одной прямой: гармоническую, кусочно-линейную и сглаживающие кривые.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+class ModeRegressor implements Regressor<FittedModel> {
+    private final FitMode mode;
+    private final int harmonics;
+
+    /**
+     * Создает алгоритм для режима аппроксимации.
+     *
+     * @param mode режим аппроксимации
+     * @param harmonics количество гармоник для гармонического режима
+     */
+    ModeRegressor(FitMode mode, int harmonics) {
+        this.mode = mode;
+        this.harmonics = harmonics;
+    }
+
+    /**
+     * Возвращает название модели для сообщений.
+     *
+     * @return название модели
+     */
+    @Override
+    public String getName() {
+        return switch (mode) {
+            case HARMONIC -> "Гармоническая модель";
+            case PIECEWISE -> "Кусочно-линейная модель";
+            case LOESS -> "Кривая LOESS";
+            case SMOOTHING_SPLINE -> "Сглаживающий сплайн";
+            default -> mode.getDisplayName();
+        };
+    }
+
+    /**
+     * Рассчитывает модель режима.
+     *
+     * @param times массив времен в часах
+     * @param temperatures массив температур
+     * @param n количество используемых точек
+     * @return рассчитанная модель
+     * @throws IllegalArgumentException если данные некорректны
+     * @throws ArithmeticException если модель не удается рассчитать
+     */
+    @Override
+    public FittedModel fit(double[] times, double[] temperatures, int n) {
+        return switch (mode) {
+            case HARMONIC -> HarmonicRegressionCalculator.calculateCoefficients(times, temperatures, n, harmonics);
+            case PIECEWISE -> PiecewiseLinearCalculator.calculateSegments(times, temperatures, n,
+                    PiecewiseLinearCalculator.DEFAULT_MAX_SEGMENTS,
+                    PiecewiseLinearCalculator.DEFAULT_MIN_SEGMENT_LENGTH,
+                    PiecewiseLinearCalculator.DEFAULT_PENALTY_FACTOR);
+            case LOESS -> LoessCalculator.smooth(times, temperatures, n, LoessCalculator.DEFAULT_SPAN);
+            case SMOOTHING_SPLINE -> SmoothingSplineCalculator.smooth(times, temperatures, n,
+                    SmoothingSplineCalculator.DEFAULT_BANDWIDTH);
+            default -> new LinearRegressor(mode).fit(times, temperatures, n);
+        };
+    }
+}
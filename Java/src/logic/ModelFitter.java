@@ -0,0 +1,180 @@
+package logic;
+
+import model.DataPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Класс ModelFitter рассчитывает модель по экспериментальным точкам
+ * в выбранном режиме: прямую, ее статистики, а также модель кривой
+ * (гармоническую, кусочно-линейную), если выбран такой режим.
+ * Сами модели рассчитываются алгоритмами Regressor.
+ *
+ * Расчет не обращается к интерфейсу и не изменяет входные данные,
+ * поэтому его можно выполнять в фоновом потоке. Ошибки не выбрасываются,
+ * а возвращаются в результате: при ошибке расчета прямой используются
+ * коэффициенты по умолчанию, при ошибке дополнительной модели - прямая.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class ModelFitter {
+
+    /**
+     * Коэффициенты прямой по умолчанию (используются, если расчет невозможен).
+     */
+    public static final double DEFAULT_A = 0.8904;
+    public static final double DEFAULT_B = 1.6644;
+
+    /**
+     * Прямая по умолчанию.
+     */
+    public static final LinearModel DEFAULT_LINE = new LinearModel(DEFAULT_A, DEFAULT_B);
+
+    /**
+     * Результат расчета модели.
+     */
+    public static class Result {
+        private final LinearModel line;
+        private final FittedModel model;
+        private final RegressionStatistics.Summary statistics;
+        private final String statisticsError;
+        private final String errorMessage;
+        private final List<String> warnings;
+
+        /**
+         * Создает результат расчета.
+         *
+         * @param line прямая
+         * @param model модель режима (прямая, если режим сводится к прямой или модель недоступна)
+         * @param statistics статистики прямой или null
+         * @param statisticsError сообщение об ошибке расчета статистик или null
+         * @param errorMessage сообщение об ошибке расчета прямой или null
+         * @param warnings сообщения об ошибках дополнительных моделей
+         */
+        Result(LinearModel line, FittedModel model, RegressionStatistics.Summary statistics,
+               String statisticsError, String errorMessage, List<String> warnings) {
+            this.line = line;
+            this.model = model;
+            this.statistics = statistics;
+            this.statisticsError = statisticsError;
+            this.errorMessage = errorMessage;
+            this.warnings = List.copyOf(warnings);
+        }
+
+        /**
+         * Возвращает прямую, по которой рассчитаны статистики.
+         *
+         * @return прямая (по умолчанию, если расчет невозможен)
+         */
+        public LinearModel getLine() {
+            return line;
+        }
+
+        /**
+         * Возвращает модель выбранного режима.
+         *
+         * @return модель режима или прямая
+         */
+        public FittedModel getModel() {
+            return model;
+        }
+
+        /**
+         * Возвращает статистики прямой.
+         *
+         * @return статистики или null, если они не рассчитаны
+         */
+        public RegressionStatistics.Summary getStatistics() {
+            return statistics;
+        }
+
+        /**
+         * Возвращает сообщение об ошибке расчета статистик.
+         *
+         * @return сообщение или null
+         */
+        public String getStatisticsError() {
+            return statisticsError;
+        }
+
+        /**
+         * Возвращает сообщение об ошибке расчета прямой.
+         *
+         * @return сообщение или null, если прямая рассчитана
+         */
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+
+        /**
+         * Возвращает сообщения об ошибках дополнительных моделей.
+         *
+         * @return неизменяемый список сообщений (пустой, если ошибок нет)
+         */
+        public List<String> getWarnings() {
+            return warnings;
+        }
+    }
+
+    /**
+     * Рассчитывает модель по точкам.
+     *
+     * @param points экспериментальные точки
+     * @param mode режим аппроксимации
+     * @param harmonics количество гармоник для гармонического режима
+     * @return результат расчета
+     */
+    public static Result fit(List<DataPoint> points, FitMode mode, int harmonics) {
+        if (mode.isStraightLine()) {
+            return fit(points, new LinearRegressor(mode), null);
+        }
+        return fit(points, Regressor.defaultRegressor(), Regressor.forMode(mode, harmonics));
+    }
+
+    /**
+     * Рассчитывает модель по точкам заданными алгоритмами: прямую
+     * со статистиками и, если задан алгоритм кривой, модель кривой.
+     *
+     * @param points экспериментальные точки
+     * @param lineRegressor алгоритм расчета прямой
+     * @param curveRegressor алгоритм расчета кривой или null
+     * @return результат расчета
+     */
+    public static Result fit(List<DataPoint> points, Regressor<LinearModel> lineRegressor,
+                             Regressor<? extends FittedModel> curveRegressor) {
+        LinearModel line = DEFAULT_LINE;
+        RegressionStatistics.Summary statistics = null;
+        String errorMessage = null;
+        List<String> warnings = new ArrayList<>();
+
+        try {
+            line = lineRegressor.fit(points);
+        } catch (Exception e) {
+            errorMessage = e.getMessage();
+        }
+
+        String statisticsError = null;
+        if (errorMessage == null && points.size() >= 3) {
+            try {
+                statistics = RegressionStatistics.analyze(points, line.getA(), line.getB());
+            } catch (Exception e) {
+                // Статистики не критичны для работы - просто не отображаем их
+                statisticsError = e.getMessage();
+            }
+        }
+
+        FittedModel model = line;
+        if (curveRegressor != null) {
+            try {
+                model = curveRegressor.fit(points);
+            } catch (Exception e) {
+                warnings.add("Режим \"" + curveRegressor.getName() + "\" недоступен: " + e.getMessage() +
+                        "\nИспользуется линейная модель.");
+            }
+        }
+
+        return new Result(line, model, statistics, statisticsError, errorMessage, warnings);
+    }
+}
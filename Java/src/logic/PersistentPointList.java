@@ -0,0 +1,533 @@
+package logic;
+
+import model.DataPoint;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Класс PersistentPointList - неизменяемый список точек со структурным
+ * разделением версий.
+ *
+ * Список хранится в сбалансированном (АВЛ) дереве по позициям. Изменение
+ * (замена, вставка, удаление точки) создает новую версию, в которой
+ * заново создаются только узлы на пути от корня к измененной позиции,
+ * а остальные узлы общие с прежней версией. Поэтому каждая версия
+ * занимает O(log n) дополнительной памяти, и прежние версии можно
+ * хранить для отмены изменений.
+ *
+ * Каждый узел хранит моменты регрессии своего поддерева (те же величины,
+ * что и RegressionAccumulator, в полях узла без отдельного объекта),
+ * которые объединяются формулами Чана при создании узла.
+ * Коэффициенты МНК любой версии вычисляются за O(1) по моментам корня.
+ * Так же узел хранит отпечаток содержимого поддерева (см. FitCache),
+ * поэтому отпечаток любой версии тоже доступен за O(1).
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class PersistentPointList extends AbstractList<DataPoint> {
+
+    /**
+     * Узел дерева: точка, поддеревья и сводные данные поддерева.
+     */
+    private static class Node {
+        final DataPoint point;
+        final Node left, right;
+        final int size;
+        final int height;
+        final double meanX, meanY;
+        final double m2x, m2y, cxy;
+        final long fingerprint;
+        final long power;
+
+        /**
+         * Создает узел и вычисляет размер, высоту, моменты и отпечаток поддерева.
+         */
+        Node(Node left, DataPoint point, Node right) {
+            this.left = left;
+            this.point = point;
+            this.right = right;
+            this.size = size(left) + 1 + size(right);
+            this.height = Math.max(height(left), height(right)) + 1;
+
+            // Моменты левого поддерева плюс точка (Уэлфорд),
+            // затем слияние с правым поддеревом (Чан)
+            long count = size(left) + 1;
+            double mx = left == null ? 0 : left.meanX;
+            double my = left == null ? 0 : left.meanY;
+            double sxx = left == null ? 0 : left.m2x;
+            double syy = left == null ? 0 : left.m2y;
+            double sxy = left == null ? 0 : left.cxy;
+            double x = point.getTime();
+            double y = point.getTemperature();
+            double dx = x - mx;
+            double dy = y - my;
+            mx += dx / count;
+            my += dy / count;
+            sxx += dx * (x - mx);
+            syy += dy * (y - my);
+            sxy += dx * (y - my);
+            if (right != null) {
+                long total = count + right.size;
+                double ex = right.meanX - mx;
+                double ey = right.meanY - my;
+                double factor = (double) count * right.size / total;
+                sxx += right.m2x + ex * ex * factor;
+                syy += right.m2y + ey * ey * factor;
+                sxy += right.cxy + ex * ey * factor;
+                mx += ex * right.size / total;
+                my += ey * right.size / total;
+            }
+            this.meanX = mx;
+            this.meanY = my;
+            this.m2x = sxx;
+            this.m2y = syy;
+            this.cxy = sxy;
+
+            // Полиномиальный хеш: левое поддерево, точка, правое поддерево
+            long hash = fingerprint(left) * FitCache.MULTIPLIER
+                    + FitCache.pointHash(point.getTime(), point.getTemperature());
+            this.fingerprint = hash * power(right) + fingerprint(right);
+            this.power = power(left) * FitCache.MULTIPLIER * power(right);
+        }
+    }
+
+    /**
+     * Замена участка списка: removedCount точек начиная с позиции from
+     * заменяются точками inserted.
+     */
+    public static class Splice {
+        private final int from;
+        private final int removedCount;
+        private final List<DataPoint> inserted;
+
+        /**
+         * Создает замену участка.
+         *
+         * @param from позиция первой заменяемой точки
+         * @param removedCount количество удаляемых точек
+         * @param inserted вставляемые точки
+         */
+        Splice(int from, int removedCount, List<DataPoint> inserted) {
+            this.from = from;
+            this.removedCount = removedCount;
+            this.inserted = inserted;
+        }
+
+        /**
+         * Возвращает позицию первой заменяемой точки.
+         *
+         * @return позиция
+         */
+        public int getFrom() {
+            return from;
+        }
+
+        /**
+         * Возвращает количество удаляемых точек.
+         *
+         * @return количество точек
+         */
+        public int getRemovedCount() {
+            return removedCount;
+        }
+
+        /**
+         * Возвращает вставляемые точки.
+         *
+         * @return неизменяемый список точек
+         */
+        public List<DataPoint> getInserted() {
+            return inserted;
+        }
+    }
+
+    private final Node root;
+
+    /**
+     * Создает список с заданным корнем.
+     *
+     * @param root корень дерева (null для пустого списка)
+     */
+    private PersistentPointList(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Создает список из точек за O(n).
+     *
+     * @param points точки
+     * @return новый список
+     */
+    public static PersistentPointList of(List<DataPoint> points) {
+        DataPoint[] array = points.toArray(new DataPoint[0]);
+        return new PersistentPointList(build(array, 0, array.length));
+    }
+
+    /**
+     * Возвращает количество точек.
+     *
+     * @return размер списка
+     */
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Возвращает точку по индексу за O(log n).
+     *
+     * @param index индекс точки
+     * @return точка
+     */
+    @Override
+    public DataPoint get(int index) {
+        checkIndex(index, size());
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.point;
+            }
+        }
+    }
+
+    /**
+     * Возвращает итератор, обходящий дерево за O(n).
+     *
+     * @return итератор по точкам
+     */
+    @Override
+    public Iterator<DataPoint> iterator() {
+        return new Iterator<>() {
+            private final ArrayDeque<Node> stack = new ArrayDeque<>();
+            private Node next = root;
+
+            @Override
+            public boolean hasNext() {
+                return next != null || !stack.isEmpty();
+            }
+
+            @Override
+            public DataPoint next() {
+                while (next != null) {
+                    stack.push(next);
+                    next = next.left;
+                }
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node node = stack.pop();
+                next = node.right;
+                return node.point;
+            }
+        };
+    }
+
+    /**
+     * Возвращает итератор, обходящий дерево от последней точки к первой за O(n).
+     *
+     * @return итератор по точкам в обратном порядке
+     */
+    private Iterator<DataPoint> descendingIterator() {
+        return new Iterator<>() {
+            private final ArrayDeque<Node> stack = new ArrayDeque<>();
+            private Node next = root;
+
+            @Override
+            public boolean hasNext() {
+                return next != null || !stack.isEmpty();
+            }
+
+            @Override
+            public DataPoint next() {
+                while (next != null) {
+                    stack.push(next);
+                    next = next.right;
+                }
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node node = stack.pop();
+                next = node.left;
+                return node.point;
+            }
+        };
+    }
+
+    /**
+     * Возвращает новую версию с замененной точкой.
+     *
+     * @param index индекс точки
+     * @param point новая точка
+     * @return новая версия списка
+     */
+    public PersistentPointList with(int index, DataPoint point) {
+        checkIndex(index, size());
+        return new PersistentPointList(set(root, index, point));
+    }
+
+    /**
+     * Возвращает версию, совпадающую с заданным списком точек.
+     * Общие начало и конец списков сохраняются, а различающаяся середина
+     * заменяется, поэтому правка одной строки, вставка или удаление
+     * стоят O(log n) памяти независимо от размера списка.
+     *
+     * @param points новое содержимое
+     * @return новая версия (или эта же, если содержимое не изменилось)
+     */
+    public PersistentPointList updatedTo(List<DataPoint> points) {
+        Splice splice = diff(points);
+        if (splice == null) {
+            return this;
+        }
+        return spliced(splice.getFrom(), splice.getRemovedCount(), splice.getInserted());
+    }
+
+    /**
+     * Находит различающуюся середину этой версии и заданного списка:
+     * общие начало и конец не входят в результат.
+     *
+     * @param points новое содержимое
+     * @return замена, переводящая эту версию в points, или null, если содержимое совпадает
+     */
+    public Splice diff(List<DataPoint> points) {
+        int oldSize = size();
+        int newSize = points.size();
+
+        // Общее начало
+        int prefix = 0;
+        Iterator<DataPoint> it = iterator();
+        Iterator<DataPoint> other = points.iterator();
+        while (prefix < oldSize && prefix < newSize && it.next().equals(other.next())) {
+            prefix++;
+        }
+        if (prefix == oldSize && prefix == newSize) {
+            return null;
+        }
+
+        // Общий конец (не заходит в общее начало)
+        int suffix = 0;
+        Iterator<DataPoint> reverse = descendingIterator();
+        ListIterator<DataPoint> otherReverse = points.listIterator(newSize);
+        while (suffix < oldSize - prefix && suffix < newSize - prefix
+                && reverse.next().equals(otherReverse.previous())) {
+            suffix++;
+        }
+
+        return new Splice(prefix, oldSize - prefix - suffix,
+                List.copyOf(points.subList(prefix, newSize - suffix)));
+    }
+
+    /**
+     * Возвращает версию, в которой removedCount точек начиная с позиции from
+     * заменены точками inserted. Заменяются только узлы на путях к измененным
+     * позициям; если изменилась большая часть списка, дерево строится заново.
+     *
+     * @param from позиция первой заменяемой точки
+     * @param removedCount количество удаляемых точек
+     * @param inserted вставляемые точки
+     * @return новая версия списка
+     * @throws IndexOutOfBoundsException если диапазон выходит за границы списка
+     */
+    public PersistentPointList spliced(int from, int removedCount, List<DataPoint> inserted) {
+        int oldSize = size();
+        if (from < 0 || removedCount < 0 || from > oldSize - removedCount) {
+            throw new IndexOutOfBoundsException("Диапазон " + from + "+" + removedCount
+                    + " вне списка из " + oldSize + " элементов");
+        }
+        int insertedCount = inserted.size();
+        int newSize = oldSize - removedCount + insertedCount;
+
+        if (removedCount + insertedCount > newSize / 2) {
+            // Изменилась большая часть данных - проще построить заново
+            DataPoint[] array = new DataPoint[newSize];
+            Iterator<DataPoint> it = iterator();
+            for (int i = 0; i < from; i++) {
+                array[i] = it.next();
+            }
+            for (int i = 0; i < removedCount; i++) {
+                it.next();
+            }
+            for (int i = 0; i < insertedCount; i++) {
+                array[from + i] = inserted.get(i);
+            }
+            for (int i = from + insertedCount; i < newSize; i++) {
+                array[i] = it.next();
+            }
+            return new PersistentPointList(build(array, 0, newSize));
+        }
+
+        Node node = root;
+        int common = Math.min(removedCount, insertedCount);
+        for (int i = 0; i < common; i++) {
+            node = set(node, from + i, inserted.get(i));
+        }
+        for (int i = common; i < removedCount; i++) {
+            node = remove(node, from + common);
+        }
+        for (int i = common; i < insertedCount; i++) {
+            node = insert(node, from + i, inserted.get(i));
+        }
+        return new PersistentPointList(node);
+    }
+
+    /**
+     * Возвращает моменты регрессии всех точек версии за O(1).
+     *
+     * @return копия моментов (изменение копии не влияет на список)
+     */
+    public RegressionAccumulator getMoments() {
+        if (root == null) {
+            return new RegressionAccumulator();
+        }
+        return new RegressionAccumulator(root.size, root.meanX, root.meanY, root.m2x, root.m2y, root.cxy);
+    }
+
+    /**
+     * Возвращает отпечаток содержимого версии за O(1). Совпадает
+     * с FitCache.fingerprint для списка с теми же точками.
+     *
+     * @return отпечаток
+     */
+    public long getFingerprint() {
+        return fingerprint(root);
+    }
+
+    /**
+     * Возвращает количество точек в поддереве.
+     */
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Возвращает высоту поддерева.
+     */
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * Возвращает отпечаток поддерева.
+     */
+    private static long fingerprint(Node node) {
+        return node == null ? 0 : node.fingerprint;
+    }
+
+    /**
+     * Возвращает множитель, соответствующий длине поддерева.
+     */
+    private static long power(Node node) {
+        return node == null ? 1 : node.power;
+    }
+
+    /**
+     * Проверяет, что индекс лежит в диапазоне 0..limit-1.
+     *
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    private static void checkIndex(int index, int limit) {
+        if (index < 0 || index >= limit) {
+            throw new IndexOutOfBoundsException("Индекс " + index + " вне списка из " + limit + " элементов");
+        }
+    }
+
+    /**
+     * Строит сбалансированное дерево из части массива.
+     */
+    private static Node build(DataPoint[] points, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        return new Node(build(points, from, middle), points[middle], build(points, middle + 1, to));
+    }
+
+    /**
+     * Заменяет точку, копируя узлы на пути от корня.
+     */
+    private static Node set(Node node, int index, DataPoint point) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return new Node(set(node.left, index, point), node.point, node.right);
+        }
+        if (index > leftSize) {
+            return new Node(node.left, node.point, set(node.right, index - leftSize - 1, point));
+        }
+        return new Node(node.left, point, node.right);
+    }
+
+    /**
+     * Вставляет точку, копируя и балансируя узлы на пути от корня.
+     */
+    private static Node insert(Node node, int index, DataPoint point) {
+        if (node == null) {
+            return new Node(null, point, null);
+        }
+        int leftSize = size(node.left);
+        if (index <= leftSize) {
+            return balance(insert(node.left, index, point), node.point, node.right);
+        }
+        return balance(node.left, node.point, insert(node.right, index - leftSize - 1, point));
+    }
+
+    /**
+     * Удаляет точку, копируя и балансируя узлы на пути от корня.
+     */
+    private static Node remove(Node node, int index) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return balance(remove(node.left, index), node.point, node.right);
+        }
+        if (index > leftSize) {
+            return balance(node.left, node.point, remove(node.right, index - leftSize - 1));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        // Узел с двумя поддеревьями заменяем первой точкой правого поддерева
+        Node first = node.right;
+        while (first.left != null) {
+            first = first.left;
+        }
+        return balance(node.left, first.point, remove(node.right, 0));
+    }
+
+    /**
+     * Создает узел, при необходимости восстанавливая баланс поворотами.
+     */
+    private static Node balance(Node left, DataPoint point, Node right) {
+        int difference = height(left) - height(right);
+        if (difference > 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node(left.left, left.point, new Node(left.right, point, right));
+            }
+            Node middle = left.right;
+            return new Node(new Node(left.left, left.point, middle.left), middle.point,
+                    new Node(middle.right, point, right));
+        }
+        if (difference < -1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node(new Node(left, point, right.left), right.point, right.right);
+            }
+            Node middle = right.left;
+            return new Node(new Node(left, point, middle.left), middle.point,
+                    new Node(middle.right, right.point, right.right));
+        }
+        return new Node(left, point, right);
+    }
+}
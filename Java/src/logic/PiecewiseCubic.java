@@ -0,0 +1,217 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * Класс PiecewiseCubic - кусочно-кубическая кривая, заданная таблицей
+ * участков: на участке [x[i], x[i+1]] значение равно
+ * y[i] + b[i]*s + c[i]*s² + d[i]*s³, где s = t - x[i].
+ *
+ * Коэффициенты рассчитываются один раз при создании кривой, а значение
+ * в любой момент времени находится двоичным поиском участка за O(log n).
+ * При вычислении по массиву времен последний найденный участок
+ * проверяется первым, поэтому упорядоченные времена обрабатываются
+ * за O(1) на значение. За пределами узлов кривая продолжается
+ * прямой с наклоном на крайнем узле.
+ *
+ * Используется сглаживающими моделями (LOESS, сглаживающий сплайн)
+ * и интерполяцией сплайнами.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class PiecewiseCubic implements FittedModel {
+    private final String name;
+    private final String parameters;
+    private final double[] x, y, b, c, d;
+    private final double endSlope;
+
+    /**
+     * Создает кривую по таблице коэффициентов.
+     *
+     * @param name название модели
+     * @param parameters описание параметров модели (для уравнения) или пустая строка
+     * @param x узлы по возрастанию (не меньше двух)
+     * @param y значения в узлах
+     * @param b коэффициенты при s для участков (n - 1 значение)
+     * @param c коэффициенты при s²
+     * @param d коэффициенты при s³
+     */
+    private PiecewiseCubic(String name, String parameters, double[] x, double[] y,
+                           double[] b, double[] c, double[] d) {
+        this.name = name;
+        this.parameters = parameters;
+        this.x = x;
+        this.y = y;
+        this.b = b;
+        this.c = c;
+        this.d = d;
+        int last = x.length - 2;
+        double h = x[last + 1] - x[last];
+        this.endSlope = b[last] + (2 * c[last] + 3 * d[last] * h) * h;
+    }
+
+    /**
+     * Создает кубический сплайн по значениям и вторым производным в узлах.
+     *
+     * @param name название модели
+     * @param parameters описание параметров модели или пустая строка
+     * @param x узлы по возрастанию (не меньше двух, без повторов)
+     * @param y значения в узлах
+     * @param secondDerivatives вторые производные в узлах
+     * @return кривая
+     */
+    static PiecewiseCubic fromSecondDerivatives(String name, String parameters,
+                                                double[] x, double[] y, double[] secondDerivatives) {
+        int segments = x.length - 1;
+        double[] b = new double[segments];
+        double[] c = new double[segments];
+        double[] d = new double[segments];
+        for (int i = 0; i < segments; i++) {
+            double h = x[i + 1] - x[i];
+            double m0 = secondDerivatives[i];
+            double m1 = secondDerivatives[i + 1];
+            b[i] = (y[i + 1] - y[i]) / h - h * (2 * m0 + m1) / 6;
+            c[i] = m0 / 2;
+            d[i] = (m1 - m0) / (6 * h);
+        }
+        return new PiecewiseCubic(name, parameters, x, y, b, c, d);
+    }
+
+    /**
+     * Создает кубическую кривую Эрмита по значениям и наклонам в узлах.
+     *
+     * @param name название модели
+     * @param parameters описание параметров модели или пустая строка
+     * @param x узлы по возрастанию (не меньше двух, без повторов)
+     * @param y значения в узлах
+     * @param slopes наклоны (первые производные) в узлах
+     * @return кривая
+     */
+    static PiecewiseCubic fromSlopes(String name, String parameters,
+                                     double[] x, double[] y, double[] slopes) {
+        int segments = x.length - 1;
+        double[] b = new double[segments];
+        double[] c = new double[segments];
+        double[] d = new double[segments];
+        for (int i = 0; i < segments; i++) {
+            double h = x[i + 1] - x[i];
+            double secant = (y[i + 1] - y[i]) / h;
+            b[i] = slopes[i];
+            c[i] = (3 * secant - 2 * slopes[i] - slopes[i + 1]) / h;
+            d[i] = (slopes[i] + slopes[i + 1] - 2 * secant) / (h * h);
+        }
+        return new PiecewiseCubic(name, parameters, x, y, b, c, d);
+    }
+
+    /**
+     * Возвращает количество узлов.
+     *
+     * @return количество узлов
+     */
+    public int getKnotCount() {
+        return x.length;
+    }
+
+    /**
+     * Возвращает копию узлов.
+     *
+     * @return узлы по возрастанию
+     */
+    public double[] getKnots() {
+        return x.clone();
+    }
+
+    /**
+     * Вычисляет значение кривой.
+     *
+     * @param time время в часах
+     * @return значение кривой
+     */
+    @Override
+    public double predict(double time) {
+        return evaluate(time, findSegment(time));
+    }
+
+    /**
+     * Вычисляет значения кривой для массива времен. Если времена
+     * упорядочены, участок каждого следующего времени находится без поиска.
+     *
+     * @param times времена в часах
+     * @param result массив для записи результатов (не короче count)
+     * @param count количество вычисляемых значений
+     */
+    @Override
+    public void predict(double[] times, double[] result, int count) {
+        int segment = 0;
+        int last = x.length - 2;
+        for (int i = 0; i < count; i++) {
+            double time = times[i];
+            // Сначала проверяем прежний участок и следующий за ним
+            if (!(time >= x[segment] && (segment == last || time < x[segment + 1]))) {
+                if (segment < last && time >= x[segment + 1]
+                        && (segment + 1 == last || time < x[segment + 2])) {
+                    segment++;
+                } else {
+                    segment = findSegment(time);
+                }
+            }
+            result[i] = evaluate(time, segment);
+        }
+    }
+
+    /**
+     * Находит участок для времени двоичным поиском.
+     *
+     * @param time время
+     * @return индекс участка (0 для времени левее узлов, последний - правее)
+     */
+    private int findSegment(double time) {
+        int index = Arrays.binarySearch(x, time);
+        if (index < 0) {
+            index = -index - 2; // Последний узел не правее time
+        }
+        return Math.max(0, Math.min(index, x.length - 2));
+    }
+
+    /**
+     * Вычисляет значение на участке или продолжение прямой за крайними узлами.
+     *
+     * @param time время
+     * @param segment индекс участка
+     * @return значение кривой
+     */
+    private double evaluate(double time, int segment) {
+        if (time < x[0]) {
+            return y[0] + b[0] * (time - x[0]);
+        }
+        int lastKnot = x.length - 1;
+        if (time > x[lastKnot]) {
+            return y[lastKnot] + endSlope * (time - x[lastKnot]);
+        }
+        double s = time - x[segment];
+        return y[segment] + s * (b[segment] + s * (c[segment] + s * d[segment]));
+    }
+
+    /**
+     * Возвращает описание кривой.
+     *
+     * @return название, количество участков и параметры
+     */
+    @Override
+    public String getEquationString() {
+        String text = name + ": " + (x.length - 1) + " кубических участков на [" +
+                String.format("%.2f; %.2f", x[0], x[x.length - 1]) + "]";
+        return parameters.isEmpty() ? text : text + ", " + parameters;
+    }
+
+    /**
+     * Возвращает подпись кривой для графика.
+     *
+     * @return название и параметры
+     */
+    @Override
+    public String getCaption() {
+        return parameters.isEmpty() ? name : name + " (" + parameters + ")";
+    }
+}
@@ -0,0 +1,486 @@
+package logic;
+
+import model.DataPoint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Класс PiecewiseLinearCalculator разбивает ряд на участки (например,
+ * фазы нагрева и охлаждения) и строит для каждого участка свою прямую.
+ * Точки перелома находятся бинарной сегментацией: участок делится
+ * в точке, дающей наибольшее уменьшение суммы квадратов остатков,
+ * пока выигрыш превышает штраф за лишний участок.
+ *
+ * Сумма квадратов остатков любого участка вычисляется за O(1)
+ * по префиксным суммам, поэтому поиск лучшего деления участка линеен
+ * по его длине, а вся сегментация занимает O(n log n).
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class PiecewiseLinearCalculator {
+
+    /**
+     * Максимальное количество участков по умолчанию.
+     */
+    public static final int DEFAULT_MAX_SEGMENTS = 8;
+
+    /**
+     * Минимальное количество точек в участке по умолчанию.
+     */
+    public static final int DEFAULT_MIN_SEGMENT_LENGTH = 3;
+
+    /**
+     * Множитель штрафа по умолчанию (критерий типа BIC).
+     */
+    public static final double DEFAULT_PENALTY_FACTOR = 3.0;
+
+    /**
+     * Участок ряда со своей прямой T = a*t + b.
+     */
+    public static class Segment {
+        private final double startTime;
+        private final double endTime;
+        private final double a;
+        private final double b;
+        private final int pointCount;
+
+        /**
+         * Создает участок с заданными границами и коэффициентами.
+         *
+         * @param startTime время начала участка
+         * @param endTime время окончания участка
+         * @param a наклон прямой участка
+         * @param b свободный член прямой участка
+         * @param pointCount количество точек участка
+         */
+        Segment(double startTime, double endTime, double a, double b, int pointCount) {
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.a = a;
+            this.b = b;
+            this.pointCount = pointCount;
+        }
+
+        /**
+         * Возвращает время начала участка.
+         *
+         * @return время начала в часах
+         */
+        public double getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * Возвращает время окончания участка.
+         *
+         * @return время окончания в часах
+         */
+        public double getEndTime() {
+            return endTime;
+        }
+
+        /**
+         * Возвращает наклон прямой участка.
+         *
+         * @return коэффициент a
+         */
+        public double getA() {
+            return a;
+        }
+
+        /**
+         * Возвращает свободный член прямой участка.
+         *
+         * @return коэффициент b
+         */
+        public double getB() {
+            return b;
+        }
+
+        /**
+         * Возвращает количество точек участка.
+         *
+         * @return количество точек
+         */
+        public int getPointCount() {
+            return pointCount;
+        }
+
+        /**
+         * Возвращает строковое представление участка.
+         *
+         * @return строка вида "[t1; t2]: T = a*t + b"
+         */
+        @Override
+        public String toString() {
+            return String.format("[%.2f; %.2f]: T = %.4f * t + %.4f", startTime, endTime, a, b);
+        }
+    }
+
+    /**
+     * Результат кусочно-линейной аппроксимации.
+     */
+    public static class PiecewiseFit implements FittedModel {
+        /**
+         * Участки, упорядоченные по времени.
+         */
+        private final Segment[] segments;
+
+        /**
+         * Времена начала участков для двоичного поиска.
+         */
+        private final double[] starts;
+
+        /**
+         * Создает результат по списку участков.
+         *
+         * @param segments участки, упорядоченные по времени
+         */
+        PiecewiseFit(Segment[] segments) {
+            this.segments = segments;
+            this.starts = new double[segments.length];
+            for (int i = 0; i < segments.length; i++) {
+                starts[i] = segments[i].getStartTime();
+            }
+        }
+
+        /**
+         * Возвращает список участков.
+         *
+         * @return неизменяемый список участков
+         */
+        public List<Segment> getSegments() {
+            return List.of(segments);
+        }
+
+        /**
+         * Вычисляет температуру по прямой участка, содержащего заданное время.
+         * Для времени вне участков используется ближайший участок.
+         *
+         * @param time время в часах
+         * @return вычисленное значение температуры
+         * @throws IllegalArgumentException если time имеет недопустимое значение
+         */
+        public double calculateTemperature(double time) {
+            if (Double.isNaN(time) || Double.isInfinite(time)) {
+                throw new IllegalArgumentException("Время должно быть конечным числом");
+            }
+
+            Segment segment = segments[findSegment(time)];
+            return segment.getA() * time + segment.getB();
+        }
+
+        /**
+         * Вычисляет температуру по прямой участка, содержащего заданное время.
+         *
+         * @param time время в часах
+         * @return температура по модели
+         * @throws IllegalArgumentException если time имеет недопустимое значение
+         */
+        @Override
+        public double predict(double time) {
+            return calculateTemperature(time);
+        }
+
+        /**
+         * Находит индекс участка для заданного времени.
+         *
+         * @param time время в часах
+         * @return индекс участка
+         */
+        private int findSegment(double time) {
+            int index = Arrays.binarySearch(starts, time);
+            if (index < 0) {
+                index = -index - 2; // Последний участок, начинающийся не позже time
+            }
+            if (index < 0) {
+                return 0;
+            }
+
+            // Время в промежутке между участками - выбираем ближайший
+            if (index + 1 < segments.length && time > segments[index].getEndTime()) {
+                double toPrevious = time - segments[index].getEndTime();
+                double toNext = segments[index + 1].getStartTime() - time;
+                if (toNext < toPrevious) {
+                    return index + 1;
+                }
+            }
+            return index;
+        }
+
+        /**
+         * Возвращает строковое представление всех участков.
+         *
+         * @return уравнения участков через точку с запятой
+         */
+        @Override
+        public String getEquationString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(segments.length).append(" уч.: ");
+            for (int i = 0; i < segments.length; i++) {
+                if (i > 0) sb.append("; ");
+                sb.append(segments[i]);
+            }
+            return sb.toString();
+        }
+
+        /**
+         * Возвращает подпись модели для графика.
+         *
+         * @return количество участков
+         */
+        @Override
+        public String getCaption() {
+            return String.format("Кусочно-линейная модель: %d уч.", segments.length);
+        }
+    }
+
+    /**
+     * Кандидат на деление: участок [from, to) и лучшая точка деления в нем.
+     */
+    private static class Candidate {
+        final int from, to;
+        final int split;
+        final double gain;
+
+        Candidate(int from, int to, int split, double gain) {
+            this.from = from;
+            this.to = to;
+            this.split = split;
+            this.gain = gain;
+        }
+    }
+
+    /**
+     * Выполняет кусочно-линейную аппроксимацию с параметрами по умолчанию.
+     *
+     * @param data список экспериментальных точек
+     * @return результат аппроксимации
+     * @throws IllegalArgumentException если данные некорректны
+     */
+    public static PiecewiseFit calculateSegments(List<DataPoint> data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Список данных не может быть null");
+        }
+
+        int n = data.size();
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        for (int i = 0; i < n; i++) {
+            times[i] = data.get(i).getTime();
+            temperatures[i] = data.get(i).getTemperature();
+        }
+
+        return calculateSegments(times, temperatures, n, DEFAULT_MAX_SEGMENTS,
+                DEFAULT_MIN_SEGMENT_LENGTH, DEFAULT_PENALTY_FACTOR);
+    }
+
+    /**
+     * Выполняет кусочно-линейную аппроксимацию бинарной сегментацией.
+     * Массивы упорядочиваются по времени на месте.
+     *
+     * @param times массив времен
+     * @param temperatures массив температур
+     * @param n количество точек
+     * @param maxSegments максимальное количество участков
+     * @param minSegmentLength минимальное количество точек в участке (не меньше 2)
+     * @param penaltyFactor множитель штрафа за новый участок
+     * @return результат аппроксимации
+     * @throws IllegalArgumentException если данные или параметры некорректны
+     * @throws ArithmeticException если прямую не удается построить
+     */
+    public static PiecewiseFit calculateSegments(double[] times, double[] temperatures, int n,
+                                                 int maxSegments, int minSegmentLength,
+                                                 double penaltyFactor) {
+        if (n < 2) {
+            throw new IllegalArgumentException("Для расчета нужно как минимум 2 точки данных");
+        }
+
+        if (maxSegments < 1 || minSegmentLength < 2) {
+            throw new IllegalArgumentException("Некорректные параметры сегментации");
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(times[i]) || Double.isInfinite(times[i]) ||
+                    Double.isNaN(temperatures[i]) || Double.isInfinite(temperatures[i])) {
+                throw new IllegalArgumentException("Обнаружено недопустимое значение в строке " + (i + 1));
+            }
+        }
+
+        TimeOrder.sort(times, temperatures, n);
+
+        PrefixSums sums = new PrefixSums(times, temperatures, n);
+        double penalty = penaltyFactor * estimateNoiseVariance(temperatures, n) * Math.log(n);
+        // Минимальный штраф защищает от дробления идеально линейных данных
+        penalty = Math.max(penalty, 1e-9 * sums.sse(0, n) + 1e-12);
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>((x, y) -> Double.compare(y.gain, x.gain));
+        List<int[]> finished = new ArrayList<>();
+        int segmentCount = 1;
+
+        Candidate first = bestSplit(sums, times, 0, n, minSegmentLength);
+        if (first != null) {
+            queue.add(first);
+        } else {
+            finished.add(new int[]{0, n});
+        }
+
+        while (!queue.isEmpty()) {
+            Candidate candidate = queue.poll();
+            if (segmentCount >= maxSegments || candidate.gain <= penalty) {
+                finished.add(new int[]{candidate.from, candidate.to});
+                continue;
+            }
+
+            segmentCount++;
+
+            int[][] parts = {{candidate.from, candidate.split}, {candidate.split, candidate.to}};
+            for (int[] part : parts) {
+                Candidate next = bestSplit(sums, times, part[0], part[1], minSegmentLength);
+                if (next != null) {
+                    queue.add(next);
+                } else {
+                    finished.add(part);
+                }
+            }
+        }
+
+        finished.sort((x, y) -> Integer.compare(x[0], y[0]));
+
+        Segment[] segments = new Segment[finished.size()];
+        for (int i = 0; i < segments.length; i++) {
+            int from = finished.get(i)[0];
+            int to = finished.get(i)[1];
+            double[] line = sums.line(from, to);
+            segments[i] = new Segment(times[from], times[to - 1], line[0], line[1], to - from);
+        }
+
+        return new PiecewiseFit(segments);
+    }
+
+    /**
+     * Находит лучшую точку деления участка [from, to).
+     * Деление допускается только между точками с разным временем.
+     *
+     * @param sums префиксные суммы
+     * @param times упорядоченный массив времен
+     * @param from начало участка (включительно)
+     * @param to конец участка (не включительно)
+     * @param minLength минимальная длина частей
+     * @return кандидат на деление или null, если участок делить нельзя
+     */
+    private static Candidate bestSplit(PrefixSums sums, double[] times, int from, int to, int minLength) {
+        if (to - from < 2 * minLength) {
+            return null;
+        }
+
+        double total = sums.sse(from, to);
+        double bestCost = Double.MAX_VALUE;
+        int bestSplit = -1;
+
+        for (int k = from + minLength; k <= to - minLength; k++) {
+            if (times[k] == times[k - 1]) {
+                continue;
+            }
+            double cost = sums.sse(from, k) + sums.sse(k, to);
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestSplit = k;
+            }
+        }
+
+        if (bestSplit == -1) {
+            return null;
+        }
+        return new Candidate(from, to, bestSplit, total - bestCost);
+    }
+
+    /**
+     * Оценивает дисперсию шума по первым разностям температуры
+     * (робастная оценка через медиану абсолютных разностей).
+     *
+     * @param temperatures упорядоченный по времени массив температур
+     * @param n количество точек
+     * @return оценка дисперсии шума
+     */
+    private static double estimateNoiseVariance(double[] temperatures, int n) {
+        if (n < 3) {
+            return 0;
+        }
+
+        double[] differences = new double[n - 1];
+        for (int i = 1; i < n; i++) {
+            differences[i - 1] = Math.abs(temperatures[i] - temperatures[i - 1]);
+        }
+
+        // Разность двух независимых шумов имеет дисперсию 2σ²
+        double sigma = 1.4826 * RobustRegressionCalculator.median(differences, n - 1) / Math.sqrt(2);
+        return sigma * sigma;
+    }
+
+    /**
+     * Префиксные суммы для вычисления параметров прямой любого участка за O(1).
+     * Время и температура сдвигаются к началу ряда и к первому значению
+     * для уменьшения ошибок округления.
+     */
+    private static class PrefixSums {
+        private final double[] sx, sy, sxx, sxy, syy;
+        private final double shiftX, shiftY;
+
+        PrefixSums(double[] times, double[] temperatures, int n) {
+            sx = new double[n + 1];
+            sy = new double[n + 1];
+            sxx = new double[n + 1];
+            sxy = new double[n + 1];
+            syy = new double[n + 1];
+            shiftX = times[0];
+            shiftY = temperatures[0];
+
+            for (int i = 0; i < n; i++) {
+                double x = times[i] - shiftX;
+                double y = temperatures[i] - shiftY;
+                sx[i + 1] = sx[i] + x;
+                sy[i + 1] = sy[i] + y;
+                sxx[i + 1] = sxx[i] + x * x;
+                sxy[i + 1] = sxy[i] + x * y;
+                syy[i + 1] = syy[i] + y * y;
+            }
+        }
+
+        /**
+         * Сумма квадратов остатков прямой МНК на участке [from, to).
+         */
+        double sse(int from, int to) {
+            int m = to - from;
+            double x = sx[to] - sx[from];
+            double y = sy[to] - sy[from];
+            double xx = sxx[to] - sxx[from] - x * x / m;
+            double xy = sxy[to] - sxy[from] - x * y / m;
+            double yy = syy[to] - syy[from] - y * y / m;
+
+            if (xx <= 1e-12) {
+                return Math.max(yy, 0);
+            }
+            return Math.max(yy - xy * xy / xx, 0);
+        }
+
+        /**
+         * Коэффициенты прямой МНК на участке [from, to).
+         */
+        double[] line(int from, int to) {
+            int m = to - from;
+            double x = sx[to] - sx[from];
+            double y = sy[to] - sy[from];
+            double xx = sxx[to] - sxx[from] - x * x / m;
+            double xy = sxy[to] - sxy[from] - x * y / m;
+
+            double a = xx > 1e-12 ? xy / xx : 0;
+            // Прямая проходит через центр участка (в сдвинутых координатах)
+            double b = y / m - a * x / m;
+            return new double[]{a, b + shiftY - a * shiftX};
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * Класс QuantileSketch - компактная сводка распределения значений
+ * (скетч KLL Карнина–Ланга–Либерти) для оценки медианы, процентилей
+ * и гистограммы без хранения и сортировки всех значений.
+ *
+ * Значения попадают в нулевой уровень. Когда уровень заполняется,
+ * он упорядочивается, и каждое второе значение (четное или нечетное
+ * случайно) переносится на следующий уровень, где оно представляет
+ * вдвое больше исходных значений. Емкость уровней убывает вниз
+ * в геометрической прогрессии (множитель 2/3), поэтому скетч хранит
+ * около 3k значений (при k = 200 - несколько килобайт) при любом
+ * количестве данных, а ошибка ранга квантили составляет около 1,7%.
+ * Количество, минимум и максимум хранятся точно.
+ *
+ * Скетчи можно объединять: это позволяет строить их по файлам
+ * или частям данных в разных потоках и затем складывать результаты,
+ * так же как RegressionAccumulator. Объект не потокобезопасен.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class QuantileSketch {
+
+    /**
+     * Параметр точности по умолчанию (емкость верхнего уровня).
+     */
+    public static final int DEFAULT_K = 200;
+
+    /**
+     * Минимальная емкость уровня.
+     */
+    private static final int MIN_CAPACITY = 8;
+
+    private final int k;
+    private double[][] levels;
+    private int[] sizes;
+    private int retained;
+    private int maxRetained;
+
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    /**
+     * Состояние генератора случайных битов для выбора половины при сжатии.
+     */
+    private long random = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Создает пустой скетч с точностью по умолчанию.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Создает пустой скетч.
+     *
+     * @param k параметр точности (не меньше 8): больше k - точнее и больше памяти
+     * @throws IllegalArgumentException если k меньше 8
+     */
+    public QuantileSketch(int k) {
+        if (k < MIN_CAPACITY) {
+            throw new IllegalArgumentException("Параметр точности скетча должен быть не меньше " + MIN_CAPACITY);
+        }
+        this.k = k;
+        this.levels = new double[0][];
+        this.sizes = new int[0];
+        grow();
+    }
+
+    /**
+     * Создает копию другого скетча.
+     *
+     * @param other скетч для копирования
+     */
+    public QuantileSketch(QuantileSketch other) {
+        this.k = other.k;
+        this.levels = new double[other.levels.length][];
+        for (int h = 0; h < levels.length; h++) {
+            levels[h] = other.levels[h].clone();
+        }
+        this.sizes = other.sizes.clone();
+        this.retained = other.retained;
+        this.maxRetained = other.maxRetained;
+        this.count = other.count;
+        this.min = other.min;
+        this.max = other.max;
+        this.random = other.random;
+    }
+
+    /**
+     * Добавляет значение. Нечисловые значения (NaN) пропускаются.
+     *
+     * @param value значение
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (count == 0) {
+            min = max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        count++;
+
+        append(0, value);
+        retained++;
+        if (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    /**
+     * Добавляет к скетчу значения другого скетча.
+     *
+     * @param other скетч с той же или другой точностью
+     */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            min = other.min;
+            max = other.max;
+        } else {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+        count += other.count;
+
+        while (levels.length < other.levels.length) {
+            grow();
+        }
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+            retained += other.sizes[h];
+        }
+        while (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    /**
+     * Возвращает количество добавленных значений.
+     *
+     * @return количество значений
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Возвращает минимальное значение.
+     *
+     * @return минимум или NaN, если скетч пуст
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Возвращает максимальное значение.
+     *
+     * @return максимум или NaN, если скетч пуст
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Возвращает количество значений, хранимых скетчем.
+     *
+     * @return количество хранимых значений
+     */
+    public int getRetainedCount() {
+        return retained;
+    }
+
+    /**
+     * Оценивает квантиль распределения.
+     *
+     * @param fraction доля значений не больше искомого (от 0 до 1; 0,5 - медиана)
+     * @return оценка квантили или NaN, если скетч пуст
+     * @throws IllegalArgumentException если доля вне диапазона от 0 до 1
+     */
+    public double getQuantile(double fraction) {
+        if (!(fraction >= 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("Доля для квантили должна быть от 0 до 1");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (fraction == 0) {
+            return min;
+        }
+        if (fraction == 1) {
+            return max;
+        }
+
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        sortedItems(values, weights);
+
+        double target = fraction * count;
+        long cumulative = 0;
+        for (int i = 0; i < retained; i++) {
+            cumulative += weights[i];
+            if (cumulative >= target) {
+                return values[i];
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Оценивает гистограмму: количество значений в равных интервалах
+     * от минимума до максимума. Сумма количеств равна getCount().
+     *
+     * @param bins количество интервалов (больше 0)
+     * @return оценки количества значений в интервалах
+     * @throws IllegalArgumentException если количество интервалов меньше 1
+     */
+    public long[] getHistogram(int bins) {
+        if (bins < 1) {
+            throw new IllegalArgumentException("Количество интервалов гистограммы должно быть положительным");
+        }
+        long[] counts = new long[bins];
+        if (count == 0) {
+            return counts;
+        }
+        double width = (max - min) / bins;
+        for (int h = 0; h < levels.length; h++) {
+            long weight = 1L << h;
+            for (int i = 0; i < sizes[h]; i++) {
+                int bin = width > 0 ? (int) ((levels[h][i] - min) / width) : 0;
+                counts[Math.max(0, Math.min(bin, bins - 1))] += weight;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Собирает хранимые значения с их весами, упорядоченные по значению.
+     *
+     * @param values массив для значений (длиной retained)
+     * @param weights массив для весов
+     */
+    private void sortedItems(double[] values, long[] weights) {
+        // Уровни упорядочиваются по отдельности и затем сливаются попарно
+        int[] order = new int[retained];
+        int filled = 0;
+        for (int h = 0; h < levels.length; h++) {
+            int size = sizes[h];
+            double[] level = Arrays.copyOf(levels[h], size);
+            Arrays.sort(level);
+            long weight = 1L << h;
+
+            // Слияние уже упорядоченной части [0, filled) с уровнем
+            double[] mergedValues = new double[filled + size];
+            long[] mergedWeights = new long[filled + size];
+            int i = 0, j = 0, out = 0;
+            while (i < filled || j < size) {
+                if (j == size || (i < filled && values[i] <= level[j])) {
+                    mergedValues[out] = values[i];
+                    mergedWeights[out++] = weights[i++];
+                } else {
+                    mergedValues[out] = level[j++];
+                    mergedWeights[out++] = weight;
+                }
+            }
+            System.arraycopy(mergedValues, 0, values, 0, out);
+            System.arraycopy(mergedWeights, 0, weights, 0, out);
+            filled = out;
+        }
+    }
+
+    /**
+     * Сжимает уровни, заполненные до емкости, пока количество хранимых
+     * значений не станет меньше допустимого.
+     */
+    private void compress() {
+        for (int h = 0; h < levels.length && retained >= maxRetained; h++) {
+            if (sizes[h] >= capacity(h)) {
+                if (h + 1 == levels.length) {
+                    grow();
+                }
+                compact(h);
+            }
+        }
+    }
+
+    /**
+     * Переносит каждое второе упорядоченное значение уровня на следующий
+     * уровень. При нечетном размере одно значение остается на уровне.
+     *
+     * @param h номер уровня
+     */
+    private void compact(int h) {
+        int size = sizes[h];
+        double[] level = levels[h];
+        Arrays.sort(level, 0, size);
+
+        int pairs = size / 2;
+        int start = size - 2 * pairs; // Наименьшее значение при нечетном размере остается
+        int offset = nextBit();
+        for (int i = 0; i < pairs; i++) {
+            append(h + 1, level[start + 2 * i + offset]);
+        }
+        if (start == 1) {
+            sizes[h] = 1;
+        } else {
+            sizes[h] = 0;
+        }
+        retained -= pairs;
+    }
+
+    /**
+     * Добавляет уровень сверху и пересчитывает допустимое количество значений.
+     */
+    private void grow() {
+        int height = levels.length + 1;
+        levels = Arrays.copyOf(levels, height);
+        sizes = Arrays.copyOf(sizes, height);
+        levels[height - 1] = new double[MIN_CAPACITY];
+
+        maxRetained = 0;
+        for (int h = 0; h < height; h++) {
+            maxRetained += capacity(h);
+        }
+    }
+
+    /**
+     * Возвращает емкость уровня: k для верхнего уровня, в 2/3 раза меньше
+     * для каждого следующего вниз, но не меньше MIN_CAPACITY.
+     *
+     * @param h номер уровня
+     * @return емкость уровня
+     */
+    private int capacity(int h) {
+        int depth = levels.length - 1 - h;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+    }
+
+    /**
+     * Дописывает значение в уровень, расширяя массив при необходимости.
+     *
+     * @param h номер уровня
+     * @param value значение
+     */
+    private void append(int h, double value) {
+        if (sizes[h] == levels[h].length) {
+            levels[h] = Arrays.copyOf(levels[h], Math.max(MIN_CAPACITY, levels[h].length * 2));
+        }
+        levels[h][sizes[h]++] = value;
+    }
+
+    /**
+     * Возвращает случайный бит (генератор xorshift).
+     *
+     * @return 0 или 1
+     */
+    private int nextBit() {
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        return (int) (random >>> 63);
+    }
+
+    @Override
+    public String toString() {
+        if (count == 0) {
+            return "нет данных";
+        }
+        return String.format("медиана = %.2f, 5%% = %.2f, 95%% = %.2f, мин = %.2f, макс = %.2f (n = %d)",
+                getQuantile(0.5), getQuantile(0.05), getQuantile(0.95), min, max, count);
+    }
+}
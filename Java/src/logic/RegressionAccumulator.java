@@ -0,0 +1,241 @@
+package logic;
+
+/**
+ * Класс RegressionAccumulator накапливает моменты выборки, необходимые
+ * для линейной регрессии T = a*t + b, за один проход и без хранения точек.
+ * Используются центрированные суммы (алгоритм Уэлфорда), поэтому расчет
+ * устойчив к потере точности даже на очень длинных рядах.
+ *
+ * Аккумуляторы можно объединять, что позволяет считать моменты
+ * по частям данных в разных потоках и затем складывать результаты.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class RegressionAccumulator {
+    /**
+     * Количество точек.
+     */
+    private long count;
+
+    /**
+     * Средние значения времени и температуры.
+     */
+    private double meanX, meanY;
+
+    /**
+     * Центрированные суммы: Σ(x-x̄)², Σ(y-ȳ)², Σ(x-x̄)(y-ȳ).
+     */
+    private double m2x, m2y, cxy;
+
+    /**
+     * Создает пустой аккумулятор.
+     */
+    public RegressionAccumulator() {
+    }
+
+    /**
+     * Создает копию другого аккумулятора.
+     *
+     * @param other аккумулятор для копирования
+     */
+    public RegressionAccumulator(RegressionAccumulator other) {
+        this.count = other.count;
+        this.meanX = other.meanX;
+        this.meanY = other.meanY;
+        this.m2x = other.m2x;
+        this.m2y = other.m2y;
+        this.cxy = other.cxy;
+    }
+
+    /**
+     * Создает аккумулятор с заданными моментами (например, сохраненными
+     * в узлах PersistentPointList).
+     *
+     * @param count количество точек
+     * @param meanX среднее время
+     * @param meanY средняя температура
+     * @param m2x Σ(x-x̄)²
+     * @param m2y Σ(y-ȳ)²
+     * @param cxy Σ(x-x̄)(y-ȳ)
+     */
+    RegressionAccumulator(long count, double meanX, double meanY, double m2x, double m2y, double cxy) {
+        this.count = count;
+        this.meanX = meanX;
+        this.meanY = meanY;
+        this.m2x = m2x;
+        this.m2y = m2y;
+        this.cxy = cxy;
+    }
+
+    /**
+     * Добавляет точку в аккумулятор.
+     *
+     * @param x время
+     * @param y температура
+     */
+    public void add(double x, double y) {
+        count++;
+        double dx = x - meanX;
+        double dy = y - meanY;
+        meanX += dx / count;
+        meanY += dy / count;
+        m2x += dx * (x - meanX);
+        m2y += dy * (y - meanY);
+        cxy += dx * (y - meanY);
+    }
+
+    /**
+     * Удаляет ранее добавленную точку из аккумулятора.
+     *
+     * @param x время
+     * @param y температура
+     */
+    public void remove(double x, double y) {
+        if (count <= 1) {
+            clear();
+            return;
+        }
+
+        double oldMeanX = meanX;
+        double oldMeanY = meanY;
+        count--;
+        meanX = (oldMeanX * (count + 1) - x) / count;
+        meanY = (oldMeanY * (count + 1) - y) / count;
+        m2x -= (x - meanX) * (x - oldMeanX);
+        m2y -= (y - meanY) * (y - oldMeanY);
+        cxy -= (x - meanX) * (y - oldMeanY);
+
+        // Защита от отрицательных значений из-за ошибок округления
+        m2x = Math.max(m2x, 0);
+        m2y = Math.max(m2y, 0);
+    }
+
+    /**
+     * Объединяет этот аккумулятор с другим (формулы Чана).
+     *
+     * @param other аккумулятор, моменты которого добавляются к текущим
+     */
+    public void merge(RegressionAccumulator other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            meanX = other.meanX;
+            meanY = other.meanY;
+            m2x = other.m2x;
+            m2y = other.m2y;
+            cxy = other.cxy;
+            return;
+        }
+
+        long total = count + other.count;
+        double dx = other.meanX - meanX;
+        double dy = other.meanY - meanY;
+        double factor = (double) count * other.count / total;
+
+        m2x += other.m2x + dx * dx * factor;
+        m2y += other.m2y + dy * dy * factor;
+        cxy += other.cxy + dx * dy * factor;
+        meanX += dx * other.count / total;
+        meanY += dy * other.count / total;
+        count = total;
+    }
+
+    /**
+     * Очищает аккумулятор.
+     */
+    public void clear() {
+        count = 0;
+        meanX = meanY = 0;
+        m2x = m2y = cxy = 0;
+    }
+
+    /**
+     * Возвращает количество точек.
+     *
+     * @return количество точек
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Возвращает среднее значение времени.
+     *
+     * @return среднее время
+     */
+    public double getMeanX() {
+        return meanX;
+    }
+
+    /**
+     * Возвращает среднее значение температуры.
+     *
+     * @return средняя температура
+     */
+    public double getMeanY() {
+        return meanY;
+    }
+
+    /**
+     * Возвращает сумму квадратов отклонений времени от среднего.
+     *
+     * @return Σ(x-x̄)²
+     */
+    public double getSxx() {
+        return m2x;
+    }
+
+    /**
+     * Возвращает сумму квадратов отклонений температуры от среднего.
+     *
+     * @return Σ(y-ȳ)²
+     */
+    public double getSyy() {
+        return m2y;
+    }
+
+    /**
+     * Возвращает сумму произведений отклонений.
+     *
+     * @return Σ(x-x̄)(y-ȳ)
+     */
+    public double getSxy() {
+        return cxy;
+    }
+
+    /**
+     * Вычисляет коэффициенты регрессии a и b по накопленным моментам.
+     *
+     * @return массив из двух элементов: [a, b]
+     * @throws IllegalArgumentException если точек меньше двух
+     * @throws ArithmeticException если все точки имеют одинаковое время
+     */
+    public double[] getCoefficients() {
+        if (count < 2) {
+            throw new IllegalArgumentException("Для расчета нужно как минимум 2 точки данных");
+        }
+
+        if (m2x < 1e-10) {
+            throw new ArithmeticException("Невозможно вычислить коэффициенты: точки расположены вертикально");
+        }
+
+        double a = cxy / m2x;
+        double b = meanY - a * meanX;
+        return new double[]{a, b};
+    }
+
+    /**
+     * Возвращает сумму квадратов остатков прямой МНК.
+     *
+     * @return Σ(y - a*x - b)² для прямой МНК
+     */
+    public double getResidualSumOfSquares() {
+        if (m2x <= 0) {
+            return m2y;
+        }
+        return Math.max(m2y - cxy * cxy / m2x, 0);
+    }
+}
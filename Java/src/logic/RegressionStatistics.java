@@ -0,0 +1,431 @@
+package logic;
+
+import model.DataPoint;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Класс RegressionStatistics оценивает качество и неопределенность
+ * прямой T = a*t + b: аналитические стандартные ошибки коэффициентов,
+ * коэффициент детерминации R² и статистики остатков, а также
+ * доверительные интервалы методом бутстрэпа.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class RegressionStatistics {
+
+    /**
+     * Количество повторов бутстрэпа по умолчанию.
+     */
+    public static final int DEFAULT_REPLICATES = 2000;
+
+    /**
+     * Уровень доверия по умолчанию.
+     */
+    public static final double DEFAULT_CONFIDENCE = 0.95;
+
+    /**
+     * Количество повторов бутстрэпа, обрабатываемых одной задачей.
+     */
+    private static final int REPLICATES_PER_TASK = 16;
+
+    /**
+     * Зерно генератора случайных чисел бутстрэпа.
+     */
+    private static final long SEED = 0xB007_57A9L;
+
+    /**
+     * Статистики прямой и ее остатков.
+     */
+    public static class Summary {
+        private final int count;
+        private final double rSquared;
+        private final double slopeError;
+        private final double interceptError;
+        private final double residualStdError;
+        private final double rmse;
+        private final double maxAbsResidual;
+
+        /**
+         * Создает набор статистик.
+         *
+         * @param count количество точек
+         * @param rSquared коэффициент детерминации
+         * @param slopeError стандартная ошибка наклона
+         * @param interceptError стандартная ошибка свободного члена
+         * @param residualStdError стандартная ошибка остатков
+         * @param rmse среднеквадратичный остаток
+         * @param maxAbsResidual максимальный по модулю остаток
+         */
+        Summary(int count, double rSquared, double slopeError, double interceptError,
+                double residualStdError, double rmse, double maxAbsResidual) {
+            this.count = count;
+            this.rSquared = rSquared;
+            this.slopeError = slopeError;
+            this.interceptError = interceptError;
+            this.residualStdError = residualStdError;
+            this.rmse = rmse;
+            this.maxAbsResidual = maxAbsResidual;
+        }
+
+        /**
+         * Возвращает количество точек.
+         *
+         * @return количество точек
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Возвращает коэффициент детерминации R².
+         *
+         * @return коэффициент детерминации R²
+         */
+        public double getRSquared() {
+            return rSquared;
+        }
+
+        /**
+         * Возвращает стандартную ошибку наклона a.
+         *
+         * @return стандартная ошибка наклона a
+         */
+        public double getSlopeError() {
+            return slopeError;
+        }
+
+        /**
+         * Возвращает стандартную ошибку свободного члена b.
+         *
+         * @return стандартная ошибка свободного члена b
+         */
+        public double getInterceptError() {
+            return interceptError;
+        }
+
+        /**
+         * Возвращает стандартную ошибку остатков (с n-2 степенями свободы).
+         *
+         * @return стандартная ошибка остатков (с n-2 степенями свободы)
+         */
+        public double getResidualStdError() {
+            return residualStdError;
+        }
+
+        /**
+         * Возвращает среднеквадратичный остаток.
+         *
+         * @return среднеквадратичный остаток
+         */
+        public double getRmse() {
+            return rmse;
+        }
+
+        /**
+         * Возвращает максимальный по модулю остаток.
+         *
+         * @return максимальный по модулю остаток
+         */
+        public double getMaxAbsResidual() {
+            return maxAbsResidual;
+        }
+
+        /**
+         * Возвращает краткое текстовое описание статистик.
+         *
+         * @return строка вида "R² = ..., SE(a) = ..., SE(b) = ..., σ = ..."
+         */
+        @Override
+        public String toString() {
+            return String.format("R² = %.4f, SE(a) = %.4f, SE(b) = %.4f, σ остатков = %.4f, max|остаток| = %.4f",
+                    rSquared, slopeError, interceptError, residualStdError, maxAbsResidual);
+        }
+    }
+
+    /**
+     * Результат бутстрэпа: доверительные интервалы для коэффициентов.
+     */
+    public static class BootstrapResult {
+        private final int replicates;
+        private final double confidence;
+        private final double slopeLower, slopeUpper;
+        private final double interceptLower, interceptUpper;
+
+        /**
+         * Создает результат бутстрэпа.
+         *
+         * @param replicates количество успешных повторов
+         * @param confidence уровень доверия
+         * @param slopeLower нижняя граница для a
+         * @param slopeUpper верхняя граница для a
+         * @param interceptLower нижняя граница для b
+         * @param interceptUpper верхняя граница для b
+         */
+        BootstrapResult(int replicates, double confidence,
+                        double slopeLower, double slopeUpper,
+                        double interceptLower, double interceptUpper) {
+            this.replicates = replicates;
+            this.confidence = confidence;
+            this.slopeLower = slopeLower;
+            this.slopeUpper = slopeUpper;
+            this.interceptLower = interceptLower;
+            this.interceptUpper = interceptUpper;
+        }
+
+        /**
+         * Возвращает количество успешных повторов.
+         *
+         * @return количество успешных повторов
+         */
+        public int getReplicates() {
+            return replicates;
+        }
+
+        /**
+         * Возвращает уровень доверия (например, 0.95).
+         *
+         * @return уровень доверия (например, 0.95)
+         */
+        public double getConfidence() {
+            return confidence;
+        }
+
+        /**
+         * Возвращает нижнюю границу интервала для a.
+         *
+         * @return нижняя граница интервала для a
+         */
+        public double getSlopeLower() {
+            return slopeLower;
+        }
+
+        /**
+         * Возвращает верхнюю границу интервала для a.
+         *
+         * @return верхняя граница интервала для a
+         */
+        public double getSlopeUpper() {
+            return slopeUpper;
+        }
+
+        /**
+         * Возвращает нижнюю границу интервала для b.
+         *
+         * @return нижняя граница интервала для b
+         */
+        public double getInterceptLower() {
+            return interceptLower;
+        }
+
+        /**
+         * Возвращает верхнюю границу интервала для b.
+         *
+         * @return верхняя граница интервала для b
+         */
+        public double getInterceptUpper() {
+            return interceptUpper;
+        }
+
+        /**
+         * Возвращает краткое текстовое описание интервалов.
+         *
+         * @return строка вида "95% ДИ: a ∈ [..], b ∈ [..]"
+         */
+        @Override
+        public String toString() {
+            return String.format("%.0f%% ДИ (бутстрэп, %d повт.): a ∈ [%.4f; %.4f], b ∈ [%.4f; %.4f]",
+                    confidence * 100, replicates, slopeLower, slopeUpper, interceptLower, interceptUpper);
+        }
+    }
+
+    /**
+     * Вычисляет статистики прямой T = a*t + b по списку точек.
+     *
+     * @param data список экспериментальных точек
+     * @param a наклон прямой
+     * @param b свободный член прямой
+     * @return набор статистик
+     * @throws IllegalArgumentException если точек меньше трех
+     */
+    public static Summary analyze(List<DataPoint> data, double a, double b) {
+        if (data == null) {
+            throw new IllegalArgumentException("Список данных не может быть null");
+        }
+
+        int n = data.size();
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        for (int i = 0; i < n; i++) {
+            times[i] = data.get(i).getTime();
+            temperatures[i] = data.get(i).getTemperature();
+        }
+        return analyze(times, temperatures, n, a, b);
+    }
+
+    /**
+     * Вычисляет статистики прямой T = a*t + b за один проход по данным.
+     * Стандартные ошибки рассчитываются по классическим формулам МНК,
+     * дисперсия остатков берется относительно заданной прямой.
+     *
+     * @param times массив времен
+     * @param temperatures массив температур
+     * @param n количество точек
+     * @param a наклон прямой
+     * @param b свободный член прямой
+     * @return набор статистик
+     * @throws IllegalArgumentException если точек меньше трех
+     */
+    public static Summary analyze(double[] times, double[] temperatures, int n, double a, double b) {
+        if (n < 3) {
+            throw new IllegalArgumentException("Для оценки погрешностей нужно как минимум 3 точки данных");
+        }
+
+        RegressionAccumulator moments = new RegressionAccumulator();
+        double sse = 0, maxAbs = 0;
+
+        for (int i = 0; i < n; i++) {
+            double residual = temperatures[i] - (a * times[i] + b);
+            sse += residual * residual;
+            maxAbs = Math.max(maxAbs, Math.abs(residual));
+            moments.add(times[i], temperatures[i]);
+        }
+
+        double sxx = moments.getSxx();
+        double syy = moments.getSyy();
+        double meanX = moments.getMeanX();
+
+        double rSquared = syy > 0 ? 1 - sse / syy : 1.0;
+        double variance = sse / (n - 2);
+        double slopeError = sxx > 0 ? Math.sqrt(variance / sxx) : Double.NaN;
+        double interceptError = sxx > 0 ? Math.sqrt(variance * (1.0 / n + meanX * meanX / sxx)) : Double.NaN;
+
+        return new Summary(n, rSquared, slopeError, interceptError,
+                Math.sqrt(variance), Math.sqrt(sse / n), maxAbs);
+    }
+
+    /**
+     * Строит доверительные интервалы для a и b методом парного бутстрэпа
+     * с процентильными границами.
+     *
+     * @param data список экспериментальных точек
+     * @param replicates количество повторов
+     * @param confidence уровень доверия (от 0 до 1)
+     * @return результат бутстрэпа
+     */
+    public static BootstrapResult bootstrap(List<DataPoint> data, int replicates, double confidence) {
+        if (data == null) {
+            throw new IllegalArgumentException("Список данных не может быть null");
+        }
+
+        int n = data.size();
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        for (int i = 0; i < n; i++) {
+            times[i] = data.get(i).getTime();
+            temperatures[i] = data.get(i).getTemperature();
+        }
+        return bootstrap(times, temperatures, n, replicates, confidence);
+    }
+
+    /**
+     * Строит доверительные интервалы для a и b методом парного бутстрэпа.
+     * Повторы распределяются по всем ядрам процессора блоками,
+     * у каждого блока свой генератор случайных чисел. Внутри повтора
+     * индексы точек генерируются на лету и сразу накапливаются в суммы,
+     * поэтому повтор не создает ни одного объекта; память выделяется
+     * только под итоговые массивы коэффициентов.
+     *
+     * @param times массив времен
+     * @param temperatures массив температур
+     * @param n количество точек
+     * @param replicates количество повторов
+     * @param confidence уровень доверия (от 0 до 1)
+     * @return результат бутстрэпа
+     * @throws IllegalArgumentException если параметры некорректны
+     * @throws ArithmeticException если ни один повтор не дал корректной прямой
+     */
+    public static BootstrapResult bootstrap(double[] times, double[] temperatures, int n,
+                                            int replicates, double confidence) {
+        if (n < 3) {
+            throw new IllegalArgumentException("Для бутстрэпа нужно как минимум 3 точки данных");
+        }
+
+        if (replicates < 10) {
+            throw new IllegalArgumentException("Количество повторов должно быть не меньше 10");
+        }
+
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException("Уровень доверия должен быть между 0 и 1");
+        }
+
+        double[] slopes = new double[replicates];
+        double[] intercepts = new double[replicates];
+
+        int tasks = (replicates + REPLICATES_PER_TASK - 1) / REPLICATES_PER_TASK;
+        SplittableRandom root = new SplittableRandom(SEED);
+        SplittableRandom[] randoms = new SplittableRandom[tasks];
+        for (int i = 0; i < tasks; i++) {
+            randoms[i] = root.split();
+        }
+
+        // Сдвиг центрирования времени для устойчивости сумм
+        double shift = times[0];
+
+        IntStream.range(0, tasks).parallel().forEach(task -> {
+            SplittableRandom random = randoms[task];
+            int from = task * REPLICATES_PER_TASK;
+            int to = Math.min(replicates, from + REPLICATES_PER_TASK);
+
+            for (int r = from; r < to; r++) {
+                double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
+                for (int k = 0; k < n; k++) {
+                    int index = random.nextInt(n);
+                    double x = times[index] - shift;
+                    double y = temperatures[index];
+                    sumX += x;
+                    sumY += y;
+                    sumXY += x * y;
+                    sumXX += x * x;
+                }
+
+                double denominator = n * sumXX - sumX * sumX;
+                if (Math.abs(denominator) < 1e-10) {
+                    // Все выбранные точки имеют одинаковое время
+                    slopes[r] = Double.NaN;
+                    intercepts[r] = Double.NaN;
+                    continue;
+                }
+
+                double a = (n * sumXY - sumX * sumY) / denominator;
+                slopes[r] = a;
+                intercepts[r] = (sumY - a * sumX) / n - a * shift;
+            }
+        });
+
+        int valid = 0;
+        for (int r = 0; r < replicates; r++) {
+            if (!Double.isNaN(slopes[r])) {
+                slopes[valid] = slopes[r];
+                intercepts[valid] = intercepts[r];
+                valid++;
+            }
+        }
+
+        if (valid == 0) {
+            throw new ArithmeticException("Ни один повтор бутстрэпа не дал корректной прямой");
+        }
+
+        double alpha = (1 - confidence) / 2;
+        int lowerIndex = (int) Math.floor(alpha * (valid - 1));
+        int upperIndex = (int) Math.ceil((1 - alpha) * (valid - 1));
+
+        return new BootstrapResult(valid, confidence,
+                RobustRegressionCalculator.select(slopes, 0, valid - 1, lowerIndex),
+                RobustRegressionCalculator.select(slopes, 0, valid - 1, upperIndex),
+                RobustRegressionCalculator.select(intercepts, 0, valid - 1, lowerIndex),
+                RobustRegressionCalculator.select(intercepts, 0, valid - 1, upperIndex));
+    }
+}
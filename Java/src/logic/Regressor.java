@@ -0,0 +1,89 @@
+package logic;
+
+import model.DataPoint;
+
+import java.util.List;
+
+/**
+ * Интерфейс Regressor - алгоритм расчета модели по экспериментальным точкам.
+ *
+ * Алгоритм для режима аппроксимации, выбранного пользователем, возвращает
+ * forMode, а прямая МНК (LinearRegressor) - алгоритм по умолчанию.
+ * Другие алгоритмы (например, более быстрые или точные) достаточно
+ * реализовать через этот интерфейс, чтобы сравнить их с существующими
+ * на одних и тех же данных или передать в ModelFitter.
+ *
+ * @param <M> тип рассчитываемой модели
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public interface Regressor<M extends FittedModel> {
+
+    /**
+     * Возвращает название алгоритма для сообщений.
+     *
+     * @return название алгоритма
+     */
+    String getName();
+
+    /**
+     * Рассчитывает модель по массивам времени и температуры.
+     * Алгоритм может переупорядочить элементы массивов.
+     *
+     * @param times массив времен в часах
+     * @param temperatures массив температур
+     * @param n количество используемых точек
+     * @return рассчитанная модель
+     * @throws IllegalArgumentException если данные некорректны
+     * @throws ArithmeticException если модель не удается рассчитать
+     */
+    M fit(double[] times, double[] temperatures, int n);
+
+    /**
+     * Рассчитывает модель по списку точек. Список не изменяется.
+     *
+     * @param data экспериментальные точки
+     * @return рассчитанная модель
+     * @throws IllegalArgumentException если данные некорректны
+     * @throws ArithmeticException если модель не удается рассчитать
+     */
+    default M fit(List<DataPoint> data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Список данных не может быть null");
+        }
+
+        int n = data.size();
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        int i = 0;
+        for (DataPoint point : data) {
+            times[i] = point.getTime();
+            temperatures[i] = point.getTemperature();
+            i++;
+        }
+        return fit(times, temperatures, n);
+    }
+
+    /**
+     * Возвращает алгоритм по умолчанию - прямую методом наименьших квадратов.
+     *
+     * @return алгоритм МНК
+     */
+    static Regressor<LinearModel> defaultRegressor() {
+        return new LinearRegressor(FitMode.LINEAR);
+    }
+
+    /**
+     * Возвращает алгоритм для режима аппроксимации.
+     *
+     * @param mode режим аппроксимации
+     * @param harmonics количество гармоник для гармонического режима
+     * @return алгоритм расчета модели
+     */
+    static Regressor<? extends FittedModel> forMode(FitMode mode, int harmonics) {
+        if (mode.isStraightLine()) {
+            return new LinearRegressor(mode);
+        }
+        return new ModeRegressor(mode, harmonics);
+    }
+}
@@ -0,0 +1,504 @@
+package logic;
+
+import model.DataPoint;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Класс RobustRegressionCalculator реализует устойчивые к выбросам методы
+ * построения прямой T = a*t + b: оценку Тейла–Сена и RANSAC.
+ * В отличие от МНК, одиночное ошибочное показание термопары
+ * практически не влияет на результат.
+ *
+ * Оба метода работают с примитивными массивами, используют выборку
+ * вместо полного перебора пар точек и выполняются параллельно.
+ * Генераторы случайных чисел инициализируются фиксированным зерном,
+ * поэтому повторный расчет по тем же данным дает тот же результат.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class RobustRegressionCalculator {
+
+    /**
+     * Максимальное количество пар точек для оценки Тейла–Сена.
+     * Если пар меньше, перебираются все пары.
+     */
+    public static final int THEIL_SEN_MAX_PAIRS = 1_000_000;
+
+    /**
+     * Количество итераций RANSAC по умолчанию.
+     */
+    public static final int RANSAC_ITERATIONS = 256;
+
+    /**
+     * Максимальный размер выборки, на которой оцениваются гипотезы RANSAC.
+     */
+    private static final int RANSAC_SCORE_SAMPLE = 200_000;
+
+    /**
+     * Коэффициент перевода MAD в оценку стандартного отклонения.
+     */
+    private static final double MAD_TO_SIGMA = 1.4826;
+
+    /**
+     * Размер блока пар, обрабатываемого одним генератором случайных чисел.
+     */
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    /**
+     * Зерно генератора случайных чисел.
+     */
+    private static final long SEED = 0x5EED_7E5L;
+
+    /**
+     * Минимальная разность времен, при которой пара точек используется для расчета наклона.
+     */
+    private static final double MIN_TIME_DELTA = 1e-10;
+
+    /**
+     * Вычисляет коэффициенты прямой методом Тейла–Сена.
+     *
+     * @param data список экспериментальных точек
+     * @return массив из двух элементов: [a, b]
+     * @throws IllegalArgumentException если данные некорректны
+     */
+    public static double[] theilSen(List<DataPoint> data) {
+        double[][] arrays = toArrays(data);
+        return theilSen(arrays[0], arrays[1], arrays[0].length, THEIL_SEN_MAX_PAIRS);
+    }
+
+    /**
+     * Вычисляет коэффициенты прямой методом Тейла–Сена.
+     * Наклон - медиана наклонов по парам точек, свободный член - медиана (T - a*t).
+     * Если количество пар не превышает maxPairs, используются все пары,
+     * иначе - случайная выборка из maxPairs пар, генерируемая параллельно.
+     * Медиана находится алгоритмом выбора за линейное время, без сортировки.
+     *
+     * @param times массив времен
+     * @param temperatures массив температур
+     * @param n количество используемых точек
+     * @param maxPairs максимальное количество пар для расчета наклона
+     * @return массив из двух элементов: [a, b]
+     * @throws IllegalArgumentException если данные некорректны
+     * @throws ArithmeticException если все точки имеют одинаковое время
+     */
+    public static double[] theilSen(double[] times, double[] temperatures, int n, int maxPairs) {
+        validate(times, temperatures, n);
+
+        long totalPairs = (long) n * (n - 1) / 2;
+        double[] slopes;
+        int count;
+
+        if (totalPairs <= maxPairs) {
+            // Полный перебор пар для небольших наборов данных
+            slopes = new double[(int) totalPairs];
+            count = 0;
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    double dx = times[j] - times[i];
+                    if (Math.abs(dx) > MIN_TIME_DELTA) {
+                        slopes[count++] = (temperatures[j] - temperatures[i]) / dx;
+                    }
+                }
+            }
+        } else {
+            slopes = sampleSlopes(times, temperatures, n, maxPairs);
+            count = compactFinite(slopes);
+        }
+
+        if (count == 0) {
+            throw new ArithmeticException("Невозможно вычислить коэффициенты: точки расположены вертикально");
+        }
+
+        double a = median(slopes, count);
+
+        double[] offsets = new double[n];
+        for (int i = 0; i < n; i++) {
+            offsets[i] = temperatures[i] - a * times[i];
+        }
+        double b = median(offsets, n);
+
+        return checkResult(a, b);
+    }
+
+    /**
+     * Вычисляет коэффициенты прямой методом RANSAC с параметрами по умолчанию.
+     * Порог отнесения точки к "хорошим" определяется автоматически
+     * по разбросу остатков относительно оценки Тейла–Сена.
+     *
+     * @param data список экспериментальных точек
+     * @return массив из двух элементов: [a, b]
+     * @throws IllegalArgumentException если данные некорректны
+     */
+    public static double[] ransac(List<DataPoint> data) {
+        double[][] arrays = toArrays(data);
+        return ransac(arrays[0], arrays[1], arrays[0].length, RANSAC_ITERATIONS, Double.NaN);
+    }
+
+    /**
+     * Вычисляет коэффициенты прямой методом RANSAC.
+     * Каждая итерация строит прямую по двум случайным точкам и считает,
+     * сколько точек лежит от нее ближе порога. Итерации выполняются параллельно,
+     * каждая со своим генератором случайных чисел. Лучшая гипотеза уточняется
+     * методом наименьших квадратов по всем ее "хорошим" точкам.
+     *
+     * @param times массив времен
+     * @param temperatures массив температур
+     * @param n количество используемых точек
+     * @param iterations количество итераций
+     * @param threshold порог по модулю остатка (°C); NaN - определить автоматически
+     * @return массив из двух элементов: [a, b]
+     * @throws IllegalArgumentException если данные некорректны
+     * @throws ArithmeticException если не удалось построить модель
+     */
+    public static double[] ransac(double[] times, double[] temperatures, int n,
+                                  int iterations, double threshold) {
+        validate(times, temperatures, n);
+
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Количество итераций должно быть положительным");
+        }
+
+        if (Double.isNaN(threshold)) {
+            threshold = estimateThreshold(times, temperatures, n);
+        }
+
+        // Индексы точек, на которых оцениваются гипотезы
+        int[] scoreIndices = scoreSample(n);
+        int scoreCount = scoreIndices == null ? n : scoreIndices.length;
+
+        SplittableRandom[] randoms = splitRandoms(iterations);
+        double[] slopes = new double[iterations];
+        double[] intercepts = new double[iterations];
+        int[] inliers = new int[iterations];
+        double[] errors = new double[iterations];
+        final double limit = threshold;
+
+        IntStream.range(0, iterations).parallel().forEach(it -> {
+            SplittableRandom random = randoms[it];
+            int i = random.nextInt(n);
+            int j = random.nextInt(n);
+            double dx = times[j] - times[i];
+
+            // Пропускаем вырожденные пары (одинаковое время)
+            if (i == j || Math.abs(dx) <= MIN_TIME_DELTA) {
+                inliers[it] = -1;
+                return;
+            }
+
+            double a = (temperatures[j] - temperatures[i]) / dx;
+            double b = temperatures[i] - a * times[i];
+
+            int count = 0;
+            double error = 0;
+            for (int k = 0; k < scoreCount; k++) {
+                int index = scoreIndices == null ? k : scoreIndices[k];
+                double residual = Math.abs(temperatures[index] - a * times[index] - b);
+                if (residual <= limit) {
+                    count++;
+                    error += residual;
+                }
+            }
+
+            slopes[it] = a;
+            intercepts[it] = b;
+            inliers[it] = count;
+            errors[it] = error;
+        });
+
+        // Выбираем гипотезу с наибольшим числом "хороших" точек
+        int best = -1;
+        for (int it = 0; it < iterations; it++) {
+            if (inliers[it] < 0) continue;
+            if (best == -1 || inliers[it] > inliers[best] ||
+                    (inliers[it] == inliers[best] && errors[it] < errors[best])) {
+                best = it;
+            }
+        }
+
+        if (best == -1 || inliers[best] < 2) {
+            throw new ArithmeticException("RANSAC не нашел подходящей прямой");
+        }
+
+        return refitInliers(times, temperatures, n, slopes[best], intercepts[best], threshold);
+    }
+
+    /**
+     * Уточняет прямую методом наименьших квадратов по точкам,
+     * остаток которых не превышает порог.
+     *
+     * @param times массив времен
+     * @param temperatures массив температур
+     * @param n количество точек
+     * @param a наклон гипотезы
+     * @param b свободный член гипотезы
+     * @param threshold порог по модулю остатка
+     * @return массив из двух элементов: [a, b]
+     */
+    private static double[] refitInliers(double[] times, double[] temperatures, int n,
+                                         double a, double b, double threshold) {
+        double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
+        int count = 0;
+
+        for (int i = 0; i < n; i++) {
+            double x = times[i];
+            double y = temperatures[i];
+            if (Math.abs(y - a * x - b) <= threshold) {
+                sumX += x;
+                sumY += y;
+                sumXY += x * y;
+                sumXX += x * x;
+                count++;
+            }
+        }
+
+        double denominator = count * sumXX - sumX * sumX;
+        if (count < 2 || Math.abs(denominator) < 1e-10) {
+            // Уточнение невозможно - возвращаем исходную гипотезу
+            return checkResult(a, b);
+        }
+
+        double refinedA = (count * sumXY - sumX * sumY) / denominator;
+        double refinedB = (sumY - refinedA * sumX) / count;
+        return checkResult(refinedA, refinedB);
+    }
+
+    /**
+     * Оценивает порог RANSAC как 2.5 робастных стандартных отклонения
+     * остатков относительно прямой Тейла–Сена.
+     *
+     * @param times массив времен
+     * @param temperatures массив температур
+     * @param n количество точек
+     * @return порог по модулю остатка
+     */
+    private static double estimateThreshold(double[] times, double[] temperatures, int n) {
+        double[] line = theilSen(times, temperatures, n, THEIL_SEN_MAX_PAIRS);
+
+        double[] residuals = new double[n];
+        for (int i = 0; i < n; i++) {
+            residuals[i] = Math.abs(temperatures[i] - line[0] * times[i] - line[1]);
+        }
+
+        double sigma = MAD_TO_SIGMA * median(residuals, n);
+        return Math.max(2.5 * sigma, 1e-6);
+    }
+
+    /**
+     * Генерирует случайную выборку наклонов по парам точек.
+     * Пары с одинаковым временем помечаются значением NaN.
+     *
+     * @param times массив времен
+     * @param temperatures массив температур
+     * @param n количество точек
+     * @param pairs количество пар
+     * @return массив наклонов
+     */
+    private static double[] sampleSlopes(double[] times, double[] temperatures, int n, int pairs) {
+        double[] slopes = new double[pairs];
+        int chunks = (pairs + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom[] randoms = splitRandoms(chunks);
+
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            SplittableRandom random = randoms[chunk];
+            int from = chunk * CHUNK_SIZE;
+            int to = Math.min(pairs, from + CHUNK_SIZE);
+
+            for (int k = from; k < to; k++) {
+                int i = random.nextInt(n);
+                int j = random.nextInt(n);
+                double dx = times[j] - times[i];
+                slopes[k] = Math.abs(dx) > MIN_TIME_DELTA
+                        ? (temperatures[j] - temperatures[i]) / dx
+                        : Double.NaN;
+            }
+        });
+
+        return slopes;
+    }
+
+    /**
+     * Формирует выборку индексов для оценки гипотез RANSAC.
+     *
+     * @param n количество точек
+     * @return массив индексов или null, если нужно использовать все точки
+     */
+    private static int[] scoreSample(int n) {
+        if (n <= RANSAC_SCORE_SAMPLE) {
+            return null;
+        }
+
+        SplittableRandom random = new SplittableRandom(SEED ^ n);
+        int[] indices = new int[RANSAC_SCORE_SAMPLE];
+        for (int k = 0; k < indices.length; k++) {
+            indices[k] = random.nextInt(n);
+        }
+        return indices;
+    }
+
+    /**
+     * Создает независимые генераторы случайных чисел для параллельных задач.
+     *
+     * @param count количество генераторов
+     * @return массив генераторов
+     */
+    private static SplittableRandom[] splitRandoms(int count) {
+        SplittableRandom root = new SplittableRandom(SEED);
+        SplittableRandom[] randoms = new SplittableRandom[count];
+        for (int i = 0; i < count; i++) {
+            randoms[i] = root.split();
+        }
+        return randoms;
+    }
+
+    /**
+     * Перемещает конечные значения в начало массива.
+     *
+     * @param values массив значений (изменяется)
+     * @return количество конечных значений
+     */
+    private static int compactFinite(double[] values) {
+        int count = 0;
+        for (double value : values) {
+            if (!Double.isNaN(value)) {
+                values[count++] = value;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Находит медиану первых n элементов массива.
+     * Массив переупорядочивается.
+     *
+     * @param values массив значений
+     * @param n количество используемых элементов
+     * @return медиана
+     */
+    static double median(double[] values, int n) {
+        double upper = select(values, 0, n - 1, n / 2);
+        if (n % 2 == 1) {
+            return upper;
+        }
+
+        // После выбора все элементы левее n/2 не больше него - ищем максимум среди них
+        double lower = values[0];
+        for (int i = 1; i < n / 2; i++) {
+            lower = Math.max(lower, values[i]);
+        }
+        return (lower + upper) / 2;
+    }
+
+    /**
+     * Находит k-й по величине элемент на отрезке массива (алгоритм Хоара).
+     * Ожидаемое время работы линейно по длине отрезка.
+     *
+     * @param values массив значений (переупорядочивается)
+     * @param left левая граница отрезка (включительно)
+     * @param right правая граница отрезка (включительно)
+     * @param k индекс искомого элемента в упорядоченном массиве
+     * @return k-й по величине элемент
+     */
+    static double select(double[] values, int left, int right, int k) {
+        while (right > left) {
+            // Опорный элемент - медиана трех
+            int middle = (left + right) >>> 1;
+            if (values[middle] < values[left]) swap(values, middle, left);
+            if (values[right] < values[left]) swap(values, right, left);
+            if (values[right] < values[middle]) swap(values, right, middle);
+            double pivot = values[middle];
+
+            int i = left, j = right;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    swap(values, i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return values[k];
+            }
+        }
+        return values[k];
+    }
+
+    /**
+     * Меняет местами два элемента массива.
+     */
+    private static void swap(double[] values, int i, int j) {
+        double tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+
+    /**
+     * Преобразует список точек в массивы времени и температуры.
+     *
+     * @param data список экспериментальных точек
+     * @return массив {times, temperatures}
+     * @throws IllegalArgumentException если список null
+     */
+    private static double[][] toArrays(List<DataPoint> data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Список данных не может быть null");
+        }
+
+        int n = data.size();
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        for (int i = 0; i < n; i++) {
+            DataPoint point = data.get(i);
+            times[i] = point.getTime();
+            temperatures[i] = point.getTemperature();
+        }
+        return new double[][]{times, temperatures};
+    }
+
+    /**
+     * Проверяет входные массивы на корректность.
+     *
+     * @param times массив времен
+     * @param temperatures массив температур
+     * @param n количество точек
+     * @throws IllegalArgumentException если данные некорректны
+     */
+    private static void validate(double[] times, double[] temperatures, int n) {
+        if (n < 2) {
+            throw new IllegalArgumentException("Для расчета нужно как минимум 2 точки данных");
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(times[i]) || Double.isInfinite(times[i])) {
+                throw new IllegalArgumentException("Обнаружено недопустимое значение времени: " + times[i]);
+            }
+            if (Double.isNaN(temperatures[i]) || Double.isInfinite(temperatures[i])) {
+                throw new IllegalArgumentException("Обнаружено недопустимое значение температуры: " + temperatures[i]);
+            }
+        }
+    }
+
+    /**
+     * Проверяет, что полученные коэффициенты являются конечными числами.
+     *
+     * @param a наклон
+     * @param b свободный член
+     * @return массив из двух элементов: [a, b]
+     * @throws ArithmeticException если коэффициенты недопустимы
+     */
+    private static double[] checkResult(double a, double b) {
+        if (Double.isNaN(a) || Double.isInfinite(a) || Double.isNaN(b) || Double.isInfinite(b)) {
+            throw new ArithmeticException("Получены недопустимые значения коэффициентов");
+        }
+        return new double[]{a, b};
+    }
+}
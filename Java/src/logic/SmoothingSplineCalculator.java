@@ -0,0 +1,232 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * Класс SmoothingSplineCalculator строит кубический сглаживающий сплайн
+ * алгоритмом Райнша: кривая g минимизирует
+ * Σ (T_i - g(t_i))² + λ ∫ g''(t)² dt.
+ *
+ * Значения и вторые производные сплайна в узлах находятся из
+ * пятидиагональной системы (R + λ Qᵀ W⁻¹ Q) γ = Qᵀ y, которая решается
+ * разложением LDLᵀ за O(n). Точки, отстоящие по времени меньше чем
+ * на 1/MAX_KNOTS диапазона, объединяются в один узел со средними временем
+ * и температурой и весом, равным их количеству: так число узлов ограничено
+ * (1 млн точек сглаживается за доли секунды), а очень близкие узлы
+ * не делают систему плохо обусловленной. Сдвиг узла на такую малую
+ * долю диапазона несущественен по сравнению с шириной сглаживания.
+ *
+ * Параметр сглаживания λ задается через полуширину окна, в котором
+ * сплайн усредняет данные: по оценке Сильвермана сплайн эквивалентен
+ * ядерному сглаживанию с полушириной h = (λ / (n f))^(1/4), где
+ * f = 1 / (диапазон времени) - средняя плотность точек. Полуширина
+ * задается долей диапазона времени.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class SmoothingSplineCalculator {
+
+    /**
+     * Полуширина окна сглаживания по умолчанию (доля диапазона времени).
+     */
+    public static final double DEFAULT_BANDWIDTH = 0.05;
+
+    /**
+     * Максимальное количество узлов сплайна.
+     */
+    public static final int MAX_KNOTS = 4096;
+
+    /**
+     * Строит сглаживающий сплайн. Массивы упорядочиваются по времени на месте.
+     *
+     * @param times массив времен
+     * @param temperatures массив температур
+     * @param n количество точек
+     * @param bandwidth полуширина окна сглаживания (доля диапазона времени, больше 0)
+     * @return сглаживающий сплайн
+     * @throws IllegalArgumentException если данные или параметры некорректны
+     * @throws ArithmeticException если система уравнений вырождена
+     */
+    public static PiecewiseCubic smooth(double[] times, double[] temperatures, int n, double bandwidth) {
+        if (!(bandwidth > 0) || Double.isInfinite(bandwidth)) {
+            throw new IllegalArgumentException("Полуширина окна сглаживания должна быть положительной");
+        }
+        for (int i = 0; i < n; i++) {
+            if (!Double.isFinite(times[i]) || !Double.isFinite(temperatures[i])) {
+                throw new IllegalArgumentException("Обнаружено недопустимое значение в строке " + (i + 1));
+            }
+        }
+
+        if (n < 3) {
+            throw new IllegalArgumentException("Для сплайна нужно как минимум 3 точки данных");
+        }
+
+        TimeOrder.sort(times, temperatures, n);
+        double range = times[n - 1] - times[0];
+        if (!(range > 0)) {
+            throw new IllegalArgumentException("Для сплайна нужно как минимум 3 различных момента времени");
+        }
+        double gap = range / MAX_KNOTS;
+
+        // Узлы: группы близких по времени точек со средними значениями и весом
+        double[] x = new double[Math.min(n, MAX_KNOTS + 1)];
+        double[] y = new double[x.length];
+        double[] weights = new double[x.length];
+        int m = 0;
+        int start = 0;
+        while (start < n) {
+            int end = start;
+            double sumTime = 0, sumTemperature = 0;
+            while (end < n && times[end] - times[start] < gap) {
+                sumTime += times[end];
+                sumTemperature += temperatures[end];
+                end++;
+            }
+            double weight = end - start;
+            double time = sumTime / weight;
+            double temperature = sumTemperature / weight;
+
+            if (m > 0 && time - x[m - 1] < gap / 2) {
+                // Слишком близко к предыдущему узлу - объединяем с ним
+                double total = weights[m - 1] + weight;
+                x[m - 1] += (time - x[m - 1]) * weight / total;
+                y[m - 1] += (temperature - y[m - 1]) * weight / total;
+                weights[m - 1] = total;
+            } else {
+                x[m] = time;
+                y[m] = temperature;
+                weights[m] = weight;
+                m++;
+            }
+            start = end;
+        }
+        if (m < 3) {
+            throw new IllegalArgumentException("Для сплайна нужно как минимум 3 различных момента времени");
+        }
+        x = Arrays.copyOf(x, m);
+        y = Arrays.copyOf(y, m);
+        double h = bandwidth * range;
+        double lambda = h * h * h * h * n / range;
+
+        double[] secondDerivatives = new double[m];
+        double[] g = solve(x, y, weights, m, lambda, secondDerivatives);
+
+        String parameters = String.format("окно %.0f%% диапазона", bandwidth * 100);
+        return PiecewiseCubic.fromSecondDerivatives("Сглаживающий сплайн", parameters, x, g, secondDerivatives);
+    }
+
+    /**
+     * Решает систему Райнша и вычисляет значения сплайна в узлах.
+     *
+     * @param x узлы
+     * @param y средние температуры в узлах
+     * @param weights веса узлов
+     * @param m количество узлов (не меньше 3)
+     * @param lambda параметр сглаживания
+     * @param secondDerivatives массив для вторых производных в узлах (крайние равны 0)
+     * @return значения сплайна в узлах
+     * @throws ArithmeticException если система уравнений вырождена
+     */
+    private static double[] solve(double[] x, double[] y, double[] weights, int m, double lambda,
+                                  double[] secondDerivatives) {
+        double[] h = new double[m - 1];
+        for (int i = 0; i < m - 1; i++) {
+            h[i] = x[i + 1] - x[i];
+        }
+
+        // Столбец j матрицы Q (j = 1..m-2) содержит 1/h[j-1], -1/h[j-1]-1/h[j], 1/h[j]
+        // в строках j-1, j, j+1. Неизвестные системы - γ[1..m-2], индекс k = j - 1.
+        int size = m - 2;
+        double[] diagonal = new double[size];
+        double[] upper1 = new double[size];
+        double[] upper2 = new double[size];
+        double[] rhs = new double[size];
+        for (int k = 0; k < size; k++) {
+            int j = k + 1;
+            double a = 1 / h[j - 1];
+            double c = 1 / h[j];
+            double b = -a - c;
+            double d0 = 1 / weights[j - 1], d1 = 1 / weights[j], d2 = 1 / weights[j + 1];
+
+            diagonal[k] = (h[j - 1] + h[j]) / 3 + lambda * (a * a * d0 + b * b * d1 + c * c * d2);
+            if (k + 1 < size) {
+                double nextA = c;
+                double nextB = -1 / h[j] - 1 / h[j + 1];
+                upper1[k] = h[j] / 6 + lambda * (b * nextA * d1 + c * nextB * d2);
+            }
+            if (k + 2 < size) {
+                upper2[k] = lambda * c * (1 / h[j + 1]) * d2;
+            }
+            rhs[k] = (y[j + 1] - y[j]) / h[j] - (y[j] - y[j - 1]) / h[j - 1];
+        }
+
+        double[] gamma = solvePentadiagonal(diagonal, upper1, upper2, rhs);
+
+        // g = y - λ W⁻¹ Q γ
+        double[] g = new double[m];
+        for (int i = 0; i < m; i++) {
+            double qGamma = 0;
+            if (i - 1 >= 1 && i - 1 <= m - 2) {
+                qGamma += gamma[i - 2] / h[i - 1];                  // столбец j = i - 1
+            }
+            if (i >= 1 && i <= m - 2) {
+                qGamma += gamma[i - 1] * (-1 / h[i - 1] - 1 / h[i]); // столбец j = i
+            }
+            if (i + 1 <= m - 2) {
+                qGamma += gamma[i] / h[i];                          // столбец j = i + 1
+            }
+            g[i] = y[i] - lambda * qGamma / weights[i];
+        }
+
+        System.arraycopy(gamma, 0, secondDerivatives, 1, size);
+        return g;
+    }
+
+    /**
+     * Решает симметричную пятидиагональную систему разложением LDLᵀ.
+     *
+     * @param diagonal диагональ
+     * @param upper1 первая наддиагональ (элементы (k, k+1))
+     * @param upper2 вторая наддиагональ (элементы (k, k+2))
+     * @param rhs правая часть
+     * @return решение
+     * @throws ArithmeticException если матрица вырождена
+     */
+    private static double[] solvePentadiagonal(double[] diagonal, double[] upper1, double[] upper2,
+                                               double[] rhs) {
+        int size = diagonal.length;
+        double[] d = new double[size];
+        double[] l1 = new double[size];
+        double[] l2 = new double[size];
+        for (int k = 0; k < size; k++) {
+            double value = diagonal[k];
+            if (k >= 1) value -= l1[k - 1] * l1[k - 1] * d[k - 1];
+            if (k >= 2) value -= l2[k - 2] * l2[k - 2] * d[k - 2];
+            if (!(value > 0)) {
+                throw new ArithmeticException("Система уравнений сплайна вырождена");
+            }
+            d[k] = value;
+
+            double off = upper1[k];
+            if (k >= 1) off -= l2[k - 1] * l1[k - 1] * d[k - 1];
+            l1[k] = off / value;
+            l2[k] = upper2[k] / value;
+        }
+
+        double[] z = new double[size];
+        for (int k = 0; k < size; k++) {
+            double value = rhs[k];
+            if (k >= 1) value -= l1[k - 1] * z[k - 1];
+            if (k >= 2) value -= l2[k - 2] * z[k - 2];
+            z[k] = value;
+        }
+        for (int k = size - 1; k >= 0; k--) {
+            double value = z[k] / d[k];
+            if (k + 1 < size) value -= l1[k] * z[k + 1];
+            if (k + 2 < size) value -= l2[k] * z[k + 2];
+            z[k] = value;
+        }
+        return z;
+    }
+}
@@ -0,0 +1,187 @@
+package logic;
+
+import model.DataPoint;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Класс SplineInterpolator строит кубические кривые, проходящие точно
+ * через экспериментальные точки, - в отличие от моделей аппроксимации,
+ * которые лишь приближают данные.
+ *
+ * Естественный сплайн имеет непрерывную вторую производную, равную нулю
+ * на концах; вторые производные в узлах находятся из трехдиагональной
+ * системы методом прогонки за O(n). Монотонная интерполяция (PCHIP,
+ * метод Фрича–Карлсона) подбирает наклоны в узлах так, чтобы кривая
+ * между соседними точками не выходила за их значения.
+ *
+ * Коэффициенты участков рассчитываются один раз, после чего температура
+ * в любой момент времени находится двоичным поиском участка
+ * (см. PiecewiseCubic), так что m запросов к n точкам стоят O(m log n).
+ * Точки с одинаковым временем заменяются одним узлом со средней температурой.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class SplineInterpolator {
+
+    /**
+     * Строит интерполирующую кривую выбранного вида.
+     *
+     * @param points экспериментальные точки
+     * @param mode вид интерполяции (кроме MODEL)
+     * @return интерполирующая кривая
+     * @throws IllegalArgumentException если точек недостаточно или режим не строит кривую
+     */
+    public static PiecewiseCubic interpolate(List<DataPoint> points, InterpolationMode mode) {
+        int n = points.size();
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        for (int i = 0; i < n; i++) {
+            times[i] = points.get(i).getTime();
+            temperatures[i] = points.get(i).getTemperature();
+        }
+        return switch (mode) {
+            case NATURAL_SPLINE -> natural(times, temperatures, n);
+            case MONOTONE_SPLINE -> monotone(times, temperatures, n);
+            case MODEL -> throw new IllegalArgumentException("Режим \"" + mode.getDisplayName() +
+                    "\" не строит интерполирующую кривую");
+        };
+    }
+
+    /**
+     * Строит естественный кубический сплайн. Массивы упорядочиваются по времени на месте.
+     *
+     * @param times массив времен
+     * @param temperatures массив температур
+     * @param n количество точек
+     * @return сплайн
+     * @throws IllegalArgumentException если различных моментов времени меньше двух
+     */
+    public static PiecewiseCubic natural(double[] times, double[] temperatures, int n) {
+        int m = mergeKnots(times, temperatures, n);
+        double[] x = Arrays.copyOf(times, m);
+        double[] y = Arrays.copyOf(temperatures, m);
+
+        // Прогонка для M[1..m-2]: h[i-1] M[i-1] + 2(h[i-1]+h[i]) M[i] + h[i] M[i+1] = 6 (δ[i] - δ[i-1])
+        double[] secondDerivatives = new double[m];
+        double[] factor = new double[m];
+        double[] rhs = new double[m];
+        for (int i = 1; i < m - 1; i++) {
+            double left = x[i] - x[i - 1];
+            double right = x[i + 1] - x[i];
+            double value = 6 * ((y[i + 1] - y[i]) / right - (y[i] - y[i - 1]) / left);
+            double pivot = 2 * (left + right) - left * factor[i - 1];
+            factor[i] = right / pivot;
+            rhs[i] = (value - left * rhs[i - 1]) / pivot;
+        }
+        for (int i = m - 2; i >= 1; i--) {
+            secondDerivatives[i] = rhs[i] - factor[i] * secondDerivatives[i + 1];
+        }
+
+        return PiecewiseCubic.fromSecondDerivatives("Кубический сплайн", "", x, y, secondDerivatives);
+    }
+
+    /**
+     * Строит монотонную кубическую интерполяцию Эрмита (PCHIP).
+     * Массивы упорядочиваются по времени на месте.
+     *
+     * @param times массив времен
+     * @param temperatures массив температур
+     * @param n количество точек
+     * @return интерполирующая кривая
+     * @throws IllegalArgumentException если различных моментов времени меньше двух
+     */
+    public static PiecewiseCubic monotone(double[] times, double[] temperatures, int n) {
+        int m = mergeKnots(times, temperatures, n);
+        double[] x = Arrays.copyOf(times, m);
+        double[] y = Arrays.copyOf(temperatures, m);
+
+        double[] h = new double[m - 1];
+        double[] secants = new double[m - 1];
+        for (int i = 0; i < m - 1; i++) {
+            h[i] = x[i + 1] - x[i];
+            secants[i] = (y[i + 1] - y[i]) / h[i];
+        }
+
+        double[] slopes = new double[m];
+        if (m == 2) {
+            slopes[0] = secants[0];
+            slopes[1] = secants[0];
+        } else {
+            for (int i = 1; i < m - 1; i++) {
+                if (secants[i - 1] * secants[i] <= 0) {
+                    slopes[i] = 0; // Локальный экстремум - горизонтальная касательная
+                } else {
+                    // Взвешенное гармоническое среднее соседних наклонов
+                    double w1 = 2 * h[i] + h[i - 1];
+                    double w2 = h[i] + 2 * h[i - 1];
+                    slopes[i] = (w1 + w2) / (w1 / secants[i - 1] + w2 / secants[i]);
+                }
+            }
+            slopes[0] = endSlope(h[0], h[1], secants[0], secants[1]);
+            slopes[m - 1] = endSlope(h[m - 2], h[m - 3], secants[m - 2], secants[m - 3]);
+        }
+
+        return PiecewiseCubic.fromSlopes("Монотонный сплайн", "", x, y, slopes);
+    }
+
+    /**
+     * Вычисляет наклон на крайнем узле по трем точкам с ограничением,
+     * сохраняющим монотонность.
+     *
+     * @param h0 длина крайнего участка
+     * @param h1 длина соседнего участка
+     * @param secant0 наклон хорды крайнего участка
+     * @param secant1 наклон хорды соседнего участка
+     * @return наклон на крайнем узле
+     */
+    private static double endSlope(double h0, double h1, double secant0, double secant1) {
+        double slope = ((2 * h0 + h1) * secant0 - h0 * secant1) / (h0 + h1);
+        if (Math.signum(slope) != Math.signum(secant0)) {
+            return 0;
+        }
+        if (Math.signum(secant0) != Math.signum(secant1) && Math.abs(slope) > 3 * Math.abs(secant0)) {
+            return 3 * secant0;
+        }
+        return slope;
+    }
+
+    /**
+     * Проверяет данные, упорядочивает их по времени и объединяет точки
+     * с одинаковым временем. Узлы записываются в начало массивов.
+     *
+     * @param times массив времен
+     * @param temperatures массив температур
+     * @param n количество точек
+     * @return количество узлов (не меньше 2)
+     * @throws IllegalArgumentException если данные некорректны
+     */
+    private static int mergeKnots(double[] times, double[] temperatures, int n) {
+        for (int i = 0; i < n; i++) {
+            if (!Double.isFinite(times[i]) || !Double.isFinite(temperatures[i])) {
+                throw new IllegalArgumentException("Обнаружено недопустимое значение в строке " + (i + 1));
+            }
+        }
+
+        TimeOrder.sort(times, temperatures, n);
+        int m = 0;
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (m > 0 && times[i] == times[m - 1]) {
+                count++;
+                temperatures[m - 1] += (temperatures[i] - temperatures[m - 1]) / count;
+            } else {
+                times[m] = times[i];
+                temperatures[m] = temperatures[i];
+                m++;
+                count = 1;
+            }
+        }
+        if (m < 2) {
+            throw new IllegalArgumentException("Для интерполяции нужно как минимум 2 различных момента времени");
+        }
+        return m;
+    }
+}
@@ -0,0 +1,93 @@
+package logic;
+
+/**
+ * Класс TimeOrder упорядочивает пары массивов (время, температура) по времени.
+ * Работает только с примитивными массивами, без создания объектов
+ * для каждой точки. Используется алгоритмами, которым нужен
+ * отсортированный по времени ряд.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class TimeOrder {
+
+    /**
+     * Проверяет, упорядочены ли первые n значений времени по неубыванию.
+     *
+     * @param times массив времен
+     * @param n количество проверяемых элементов
+     * @return true если массив уже упорядочен
+     */
+    public static boolean isSorted(double[] times, int n) {
+        for (int i = 1; i < n; i++) {
+            if (times[i] < times[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Упорядочивает первые n пар (время, температура) по времени на месте.
+     * Сортировка устойчивая: точки с одинаковым временем сохраняют
+     * исходный порядок. Если массив уже упорядочен, дополнительная
+     * память не выделяется.
+     *
+     * @param times массив времен (переупорядочивается)
+     * @param values массив значений (переупорядочивается вместе с times)
+     * @param n количество сортируемых элементов
+     */
+    public static void sort(double[] times, double[] values, int n) {
+        if (isSorted(times, n)) {
+            return;
+        }
+
+        int[] order = sortedIndices(times, n);
+
+        double[] sortedTimes = new double[n];
+        double[] sortedValues = new double[n];
+        for (int i = 0; i < n; i++) {
+            sortedTimes[i] = times[order[i]];
+            sortedValues[i] = values[order[i]];
+        }
+        System.arraycopy(sortedTimes, 0, times, 0, n);
+        System.arraycopy(sortedValues, 0, values, 0, n);
+    }
+
+    /**
+     * Возвращает индексы первых n элементов в порядке возрастания времени.
+     * Используется устойчивая сортировка слиянием по индексам.
+     *
+     * @param times массив времен
+     * @param n количество элементов
+     * @return массив индексов
+     */
+    public static int[] sortedIndices(double[] times, int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+
+        int[] buffer = new int[n];
+        for (int width = 1; width < n; width *= 2) {
+            for (int left = 0; left < n - width; left += 2 * width) {
+                int middle = left + width;
+                int right = Math.min(left + 2 * width, n);
+
+                // Уже упорядоченные соседние блоки не сливаем
+                if (times[order[middle - 1]] <= times[order[middle]]) {
+                    continue;
+                }
+
+                int i = left, j = middle, k = left;
+                while (i < middle && j < right) {
+                    buffer[k++] = times[order[j]] < times[order[i]] ? order[j++] : order[i++];
+                }
+                while (i < middle) buffer[k++] = order[i++];
+                while (j < right) buffer[k++] = order[j++];
+                System.arraycopy(buffer, left, order, left, right - left);
+            }
+        }
+        return order;
+    }
+}
@@ -0,0 +1,268 @@
+package logic;
+
+import model.SeriesWorkspace;
+import model.TimeSeries;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Класс WorkspaceFitter рассчитывает прямые T = a*t + b сразу для всех рядов
+ * рабочей области. Ряды обрабатываются параллельно на всех ядрах процессора,
+ * каждый ряд - напрямую по примитивным массивам без создания объектов точек.
+ * Вместе с прямой для каждого ряда строится распределение температур
+ * (QuantileSketch) для медианы и процентилей.
+ * Результаты запоминаются в кэше (FitCache), поэтому ряды, которые уже
+ * рассчитывались в том же режиме (в том числе под другим названием),
+ * повторно не пересчитываются.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class WorkspaceFitter {
+
+    /**
+     * Кэш результатов по содержимому рядов.
+     */
+    private static final FitCache<SeriesFit> CACHE = new FitCache<>(1024);
+
+    /**
+     * Результат расчета для одного ряда.
+     */
+    public static class SeriesFit {
+        private final String name;
+        private final int count;
+        private final double minTime, maxTime;
+        private final double a, b;
+        private final double rSquared;
+        private final QuantileSketch distribution;
+        private final String errorMessage;
+
+        /**
+         * Создает результат расчета ряда.
+         *
+         * @param name название ряда
+         * @param count количество точек
+         * @param minTime минимальное время
+         * @param maxTime максимальное время
+         * @param a наклон прямой (NaN при ошибке)
+         * @param b свободный член прямой (NaN при ошибке)
+         * @param rSquared коэффициент детерминации (NaN, если не рассчитан)
+         * @param distribution распределение температур ряда
+         * @param errorMessage сообщение об ошибке или null
+         */
+        SeriesFit(String name, int count, double minTime, double maxTime,
+                  double a, double b, double rSquared, QuantileSketch distribution, String errorMessage) {
+            this.name = name;
+            this.count = count;
+            this.minTime = minTime;
+            this.maxTime = maxTime;
+            this.a = a;
+            this.b = b;
+            this.rSquared = rSquared;
+            this.distribution = distribution;
+            this.errorMessage = errorMessage;
+        }
+
+        /**
+         * Возвращает название ряда.
+         *
+         * @return название ряда
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Возвращает количество точек ряда.
+         *
+         * @return количество точек
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Возвращает минимальное время ряда.
+         *
+         * @return минимальное время в часах
+         */
+        public double getMinTime() {
+            return minTime;
+        }
+
+        /**
+         * Возвращает максимальное время ряда.
+         *
+         * @return максимальное время в часах
+         */
+        public double getMaxTime() {
+            return maxTime;
+        }
+
+        /**
+         * Возвращает наклон прямой.
+         *
+         * @return коэффициент a или NaN при ошибке
+         */
+        public double getA() {
+            return a;
+        }
+
+        /**
+         * Возвращает свободный член прямой.
+         *
+         * @return коэффициент b или NaN при ошибке
+         */
+        public double getB() {
+            return b;
+        }
+
+        /**
+         * Возвращает коэффициент детерминации.
+         *
+         * @return R² или NaN, если не рассчитан
+         */
+        public double getRSquared() {
+            return rSquared;
+        }
+
+        /**
+         * Возвращает распределение температур ряда (медиана, процентили, гистограмма).
+         * Скетчи рядов можно объединять для сводки по нескольким рядам,
+         * поэтому возвращается копия.
+         *
+         * @return копия распределения температур
+         */
+        public QuantileSketch getDistribution() {
+            return new QuantileSketch(distribution);
+        }
+
+        /**
+         * Возвращает оценку квантили температуры ряда.
+         *
+         * @param fraction доля значений не больше искомого (0,5 - медиана)
+         * @return оценка квантили или NaN, если ряд пуст
+         */
+        public double getTemperatureQuantile(double fraction) {
+            return distribution.getQuantile(fraction);
+        }
+
+        /**
+         * Возвращает сообщение об ошибке расчета.
+         *
+         * @return сообщение или null, если расчет успешен
+         */
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+
+        /**
+         * Возвращает тот же результат для ряда с другим названием.
+         *
+         * @param newName название ряда
+         * @return результат с заданным названием
+         */
+        SeriesFit withName(String newName) {
+            return newName.equals(name) ? this
+                    : new SeriesFit(newName, count, minTime, maxTime, a, b, rSquared, distribution, errorMessage);
+        }
+
+        /**
+         * Проверяет, успешно ли рассчитана прямая.
+         *
+         * @return true если коэффициенты рассчитаны
+         */
+        public boolean isSuccessful() {
+            return errorMessage == null;
+        }
+    }
+
+    /**
+     * Возвращает режим, которым на самом деле рассчитываются ряды:
+     * для режимов, не сводящихся к одной прямой (гармонический,
+     * кусочно-линейный, LOESS, сплайн), используется МНК.
+     *
+     * @param mode выбранный режим аппроксимации
+     * @return применяемый режим
+     */
+    public static FitMode effectiveMode(FitMode mode) {
+        return mode.isStraightLine() ? mode : FitMode.LINEAR;
+    }
+
+    /**
+     * Рассчитывает прямые для всех рядов рабочей области параллельно
+     * в режиме effectiveMode(mode).
+     *
+     * @param workspace рабочая область
+     * @param mode режим аппроксимации
+     * @return результаты в порядке рядов рабочей области
+     */
+    public static List<SeriesFit> fitAll(SeriesWorkspace workspace, FitMode mode) {
+        List<TimeSeries> series = workspace.getAll();
+        SeriesFit[] results = new SeriesFit[series.size()];
+        FitMode applied = effectiveMode(mode);
+
+        // Кэш хранит результат под применяемым режимом, поэтому выбор
+        // гармонического режима после МНК не пересчитывает ряды заново
+        IntStream.range(0, results.length).parallel()
+                .forEach(i -> results[i] = cachedFit(series.get(i), applied));
+
+        return List.of(results);
+    }
+
+    /**
+     * Возвращает результат для ряда из кэша или рассчитывает его.
+     *
+     * @param series ряд измерений
+     * @param mode режим аппроксимации
+     * @return результат расчета
+     */
+    private static SeriesFit cachedFit(TimeSeries series, FitMode mode) {
+        int n = series.size();
+        long fingerprint = FitCache.fingerprint(series.getTimeArray(), series.getTemperatureArray(), n);
+        return CACHE.get(fingerprint, n, mode, 0, () -> fit(series, mode)).withName(series.getName());
+    }
+
+    /**
+     * Рассчитывает прямую для одного ряда в режиме effectiveMode(mode).
+     * Ошибки расчета не прерывают обработку остальных рядов,
+     * а сохраняются в результате.
+     *
+     * @param series ряд измерений
+     * @param mode режим аппроксимации
+     * @return результат расчета
+     */
+    public static SeriesFit fit(TimeSeries series, FitMode mode) {
+        int n = series.size();
+        double[] times = series.getTimeArray();
+        double[] temperatures = series.getTemperatureArray();
+
+        double minTime = Double.NaN, maxTime = Double.NaN;
+        QuantileSketch distribution = new QuantileSketch();
+        if (n > 0) {
+            minTime = maxTime = times[0];
+            for (int i = 1; i < n; i++) {
+                minTime = Math.min(minTime, times[i]);
+                maxTime = Math.max(maxTime, times[i]);
+            }
+            for (int i = 0; i < n; i++) {
+                distribution.add(temperatures[i]);
+            }
+        }
+
+        try {
+            LinearModel line = new LinearRegressor(effectiveMode(mode)).fit(times, temperatures, n);
+
+            double rSquared = n >= 3
+                    ? RegressionStatistics.analyze(times, temperatures, n,
+                            line.getA(), line.getB()).getRSquared()
+                    : Double.NaN;
+
+            return new SeriesFit(series.getName(), n, minTime, maxTime,
+                    line.getA(), line.getB(), rSquared, distribution, null);
+        } catch (Exception e) {
+            return new SeriesFit(series.getName(), n, minTime, maxTime,
+                    Double.NaN, Double.NaN, Double.NaN, distribution, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,580 @@
+package model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Класс CompressedTimeSeries хранит ряд измерений в сжатом колоночном виде
+ * по схеме Gorilla (Facebook, 2015): ряд делится на блоки фиксированного
+ * размера, в каждом блоке сначала кодируются все времена, затем все температуры.
+ *
+ * Времена переводятся в целые миллисекунды от начала суток и кодируются
+ * разностями второго порядка (delta-of-delta): при равномерной записи
+ * регистратора почти каждая точка занимает 1 бит. Если время блока
+ * не представимо точно в миллисекундах, блок хранит времена так же,
+ * как температуры. Температуры кодируются XOR с предыдущим значением:
+ * одинаковые соседние значения занимают 1 бит, близкие - десяток-другой бит.
+ * Сжатие без потерь: декодированные значения совпадают побитово.
+ *
+ * Блоки декодируются независимо, что дает произвольный доступ к блоку
+ * и позволяет обрабатывать блоки параллельно.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class CompressedTimeSeries {
+
+    /**
+     * Количество точек в блоке по умолчанию.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    /**
+     * Число миллисекунд в часе (единица кодирования времени).
+     */
+    private static final double TICKS_PER_HOUR = 3_600_000.0;
+
+    /**
+     * Предел, до которого целые числа точно представимы в double.
+     */
+    private static final double MAX_EXACT_TICK = 1L << 52;
+
+    /**
+     * Сигнатура и версия двоичного формата.
+     */
+    private static final int MAGIC = 0x47545331; // "GTS1"
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Сжатый блок точек.
+     */
+    private static class Chunk {
+        final int count;
+        final long[] words;
+        final int bitLength;
+
+        Chunk(int count, long[] words, int bitLength) {
+            this.count = count;
+            this.words = words;
+            this.bitLength = bitLength;
+        }
+    }
+
+    /**
+     * Запись последовательности бит в массив 64-битных слов (старшие биты первыми).
+     */
+    private static class BitWriter {
+        private long[] words = new long[16];
+        private long position;
+
+        void writeBit(boolean bit) {
+            writeBits(bit ? 1 : 0, 1);
+        }
+
+        void writeBits(long value, int bits) {
+            if (bits == 0) {
+                return;
+            }
+            if (bits < 64) {
+                value &= (1L << bits) - 1;
+            }
+
+            int index = (int) (position >>> 6);
+            int free = 64 - (int) (position & 63);
+            if (index + 1 >= words.length) {
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+
+            if (bits <= free) {
+                words[index] |= value << (free - bits);
+            } else {
+                int rest = bits - free;
+                words[index] |= value >>> rest;
+                words[index + 1] |= value << (64 - rest);
+            }
+            position += bits;
+        }
+
+        int getBitLength() {
+            return (int) position;
+        }
+
+        long[] toWords() {
+            return Arrays.copyOf(words, (int) ((position + 63) >>> 6));
+        }
+    }
+
+    /**
+     * Чтение последовательности бит, записанной BitWriter.
+     */
+    private static class BitReader {
+        private final long[] words;
+        private long position;
+
+        BitReader(long[] words) {
+            this.words = words;
+        }
+
+        boolean readBit() {
+            return readBits(1) != 0;
+        }
+
+        long readBits(int bits) {
+            if (bits == 0) {
+                return 0;
+            }
+
+            int index = (int) (position >>> 6);
+            int free = 64 - (int) (position & 63);
+            long result;
+            if (bits <= free) {
+                result = words[index] >>> (free - bits);
+            } else {
+                int rest = bits - free;
+                result = (words[index] << rest) | (words[index + 1] >>> (64 - rest));
+            }
+            if (bits < 64) {
+                result &= (1L << bits) - 1;
+            }
+            position += bits;
+            return result;
+        }
+    }
+
+    private final String name;
+    private final int chunkSize;
+    private final List<Chunk> chunks;
+    private final int size;
+
+    /**
+     * Создает сжатый ряд из готовых блоков.
+     *
+     * @param name название ряда
+     * @param chunkSize размер блока
+     * @param chunks блоки
+     * @param size общее количество точек
+     */
+    private CompressedTimeSeries(String name, int chunkSize, List<Chunk> chunks, int size) {
+        this.name = name;
+        this.chunkSize = chunkSize;
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    /**
+     * Сжимает ряд с размером блока по умолчанию.
+     *
+     * @param series исходный ряд
+     * @return сжатый ряд
+     */
+    public static CompressedTimeSeries encode(TimeSeries series) {
+        return encode(series.getName(), series.getTimeArray(), series.getTemperatureArray(),
+                series.size(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Сжимает первые n точек массивов времени и температуры.
+     * Порядок точек сохраняется; лучшее сжатие времени достигается
+     * для упорядоченных по времени рядов с постоянным шагом.
+     *
+     * @param name название ряда
+     * @param times массив времен в часах
+     * @param temperatures массив температур
+     * @param n количество точек
+     * @param chunkSize количество точек в блоке
+     * @return сжатый ряд
+     * @throws IllegalArgumentException если chunkSize меньше 1
+     */
+    public static CompressedTimeSeries encode(String name, double[] times, double[] temperatures,
+                                              int n, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Размер блока должен быть не меньше 1");
+        }
+
+        List<Chunk> chunks = new ArrayList<>((n + chunkSize - 1) / chunkSize);
+        for (int start = 0; start < n; start += chunkSize) {
+            chunks.add(encodeChunk(times, temperatures, start, Math.min(chunkSize, n - start)));
+        }
+        return new CompressedTimeSeries(name, chunkSize, chunks, n);
+    }
+
+    /**
+     * Возвращает название ряда.
+     *
+     * @return название ряда
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Возвращает количество точек.
+     *
+     * @return количество точек
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает количество блоков.
+     *
+     * @return количество блоков
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Возвращает количество точек в блоке.
+     *
+     * @param chunk номер блока
+     * @return количество точек
+     */
+    public int getChunkLength(int chunk) {
+        return chunks.get(chunk).count;
+    }
+
+    /**
+     * Возвращает индекс первой точки блока в ряду.
+     *
+     * @param chunk номер блока
+     * @return индекс первой точки
+     */
+    public int getChunkStart(int chunk) {
+        return chunk * chunkSize;
+    }
+
+    /**
+     * Возвращает объем сжатых данных.
+     *
+     * @return размер в байтах
+     */
+    public long getCompressedBytes() {
+        long bits = 0;
+        for (Chunk chunk : chunks) {
+            bits += chunk.bitLength;
+        }
+        return (bits + 7) / 8;
+    }
+
+    /**
+     * Декодирует один блок в массивы начиная с заданной позиции.
+     *
+     * @param chunk номер блока
+     * @param times массив для времен
+     * @param temperatures массив для температур
+     * @param offset позиция в массивах, с которой записываются точки блока
+     */
+    public void decodeChunk(int chunk, double[] times, double[] temperatures, int offset) {
+        Chunk block = chunks.get(chunk);
+        BitReader reader = new BitReader(block.words);
+
+        if (reader.readBit()) {
+            decodeTicks(reader, times, offset, block.count);
+        } else {
+            decodeXor(reader, times, offset, block.count);
+        }
+        decodeXor(reader, temperatures, offset, block.count);
+    }
+
+    /**
+     * Декодирует весь ряд в массивы.
+     *
+     * @param times массив для времен (не меньше size() элементов)
+     * @param temperatures массив для температур (не меньше size() элементов)
+     */
+    public void decode(double[] times, double[] temperatures) {
+        for (int chunk = 0; chunk < chunks.size(); chunk++) {
+            decodeChunk(chunk, times, temperatures, getChunkStart(chunk));
+        }
+    }
+
+    /**
+     * Декодирует весь ряд в новый несжатый ряд.
+     *
+     * @return ряд измерений
+     */
+    public TimeSeries decode() {
+        double[] times = new double[size];
+        double[] temperatures = new double[size];
+        decode(times, temperatures);
+
+        TimeSeries series = new TimeSeries(name, size);
+        for (int i = 0; i < size; i++) {
+            series.add(times[i], temperatures[i]);
+        }
+        return series;
+    }
+
+    /**
+     * Записывает сжатый ряд в двоичный поток.
+     *
+     * @param out поток записи
+     * @throws IOException если возникает ошибка записи
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(name);
+        out.writeInt(chunkSize);
+        out.writeInt(size);
+        out.writeInt(chunks.size());
+        for (Chunk chunk : chunks) {
+            out.writeInt(chunk.count);
+            out.writeInt(chunk.bitLength);
+            for (long word : chunk.words) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    /**
+     * Читает сжатый ряд, записанный методом writeTo.
+     *
+     * @param in поток чтения
+     * @return сжатый ряд
+     * @throws IOException если данные повреждены или формат неизвестен
+     */
+    public static CompressedTimeSeries readFrom(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Неизвестный формат сжатого ряда");
+        }
+        String name = in.readUTF();
+        int chunkSize = in.readInt();
+        int size = in.readInt();
+        int chunkCount = in.readInt();
+        if (chunkSize < 1 || size < 0 || chunkCount != (size + (long) chunkSize - 1) / chunkSize) {
+            throw new IOException("Некорректный заголовок сжатого ряда");
+        }
+
+        List<Chunk> chunks = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            int count = in.readInt();
+            int bitLength = in.readInt();
+            // Все блоки, кроме последнего, полные, поэтому сумма размеров блоков равна size.
+            // Каждая точка занимает в блоке от 2 до 2 * 128 бит
+            long expected = Math.min(chunkSize, size - (long) i * chunkSize);
+            if (count != expected || bitLength < 2L * count || bitLength > 1 + 256L * count) {
+                throw new IOException("Некорректный блок сжатого ряда: " + i);
+            }
+            long[] words = new long[(bitLength + 63) >>> 6];
+            for (int w = 0; w < words.length; w++) {
+                words[w] = in.readLong();
+            }
+            chunks.add(new Chunk(count, words, bitLength));
+        }
+        return new CompressedTimeSeries(name, chunkSize, chunks, size);
+    }
+
+    /**
+     * Возвращает строковое представление ряда.
+     *
+     * @return строка вида "название (n точек, k байт)"
+     */
+    @Override
+    public String toString() {
+        return name + " (" + size + " точек, " + getCompressedBytes() + " байт)";
+    }
+
+    /**
+     * Сжимает один блок точек.
+     *
+     * @param times массив времен
+     * @param temperatures массив температур
+     * @param start индекс первой точки блока
+     * @param count количество точек блока
+     * @return сжатый блок
+     */
+    private static Chunk encodeChunk(double[] times, double[] temperatures, int start, int count) {
+        BitWriter writer = new BitWriter();
+
+        boolean ticks = isTickExact(times, start, count);
+        writer.writeBit(ticks);
+        if (ticks) {
+            encodeTicks(writer, times, start, count);
+        } else {
+            encodeXor(writer, times, start, count);
+        }
+        encodeXor(writer, temperatures, start, count);
+
+        return new Chunk(count, writer.toWords(), writer.getBitLength());
+    }
+
+    /**
+     * Проверяет, что все времена блока точно восстанавливаются из целых миллисекунд.
+     *
+     * @param times массив времен
+     * @param start индекс первой точки
+     * @param count количество точек
+     * @return true если времена можно кодировать разностями миллисекунд
+     */
+    private static boolean isTickExact(double[] times, int start, int count) {
+        for (int i = start; i < start + count; i++) {
+            double scaled = times[i] * TICKS_PER_HOUR;
+            if (!(Math.abs(scaled) < MAX_EXACT_TICK)) {
+                return false; // Слишком большое значение, бесконечность или NaN
+            }
+            double restored = Math.round(scaled) / TICKS_PER_HOUR;
+            if (Double.doubleToRawLongBits(restored) != Double.doubleToRawLongBits(times[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Кодирует времена разностями второго порядка в миллисекундах.
+     * Первое значение записывается полностью, далее для каждой точки
+     * записывается изменение шага с префиксом переменной длины.
+     *
+     * @param writer запись бит
+     * @param times массив времен
+     * @param start индекс первой точки
+     * @param count количество точек
+     */
+    private static void encodeTicks(BitWriter writer, double[] times, int start, int count) {
+        long previous = Math.round(times[start] * TICKS_PER_HOUR);
+        writer.writeBits(previous, 64);
+
+        long previousDelta = 0;
+        for (int i = start + 1; i < start + count; i++) {
+            long tick = Math.round(times[i] * TICKS_PER_HOUR);
+            long delta = tick - previous;
+            long deltaOfDelta = delta - previousDelta;
+
+            if (deltaOfDelta == 0) {
+                writer.writeBits(0b0, 1);
+            } else if (deltaOfDelta >= -63 && deltaOfDelta <= 64) {
+                writer.writeBits(0b10, 2);
+                writer.writeBits(deltaOfDelta + 63, 7);
+            } else if (deltaOfDelta >= -255 && deltaOfDelta <= 256) {
+                writer.writeBits(0b110, 3);
+                writer.writeBits(deltaOfDelta + 255, 9);
+            } else if (deltaOfDelta >= -2047 && deltaOfDelta <= 2048) {
+                writer.writeBits(0b1110, 4);
+                writer.writeBits(deltaOfDelta + 2047, 12);
+            } else {
+                writer.writeBits(0b1111, 4);
+                writer.writeBits(deltaOfDelta, 64);
+            }
+
+            previous = tick;
+            previousDelta = delta;
+        }
+    }
+
+    /**
+     * Декодирует времена, закодированные методом encodeTicks.
+     *
+     * @param reader чтение бит
+     * @param times массив для времен
+     * @param offset позиция первой точки в массиве
+     * @param count количество точек
+     */
+    private static void decodeTicks(BitReader reader, double[] times, int offset, int count) {
+        long previous = reader.readBits(64);
+        times[offset] = previous / TICKS_PER_HOUR;
+
+        long previousDelta = 0;
+        for (int i = offset + 1; i < offset + count; i++) {
+            long deltaOfDelta;
+            if (!reader.readBit()) {
+                deltaOfDelta = 0;
+            } else if (!reader.readBit()) {
+                deltaOfDelta = reader.readBits(7) - 63;
+            } else if (!reader.readBit()) {
+                deltaOfDelta = reader.readBits(9) - 255;
+            } else if (!reader.readBit()) {
+                deltaOfDelta = reader.readBits(12) - 2047;
+            } else {
+                deltaOfDelta = reader.readBits(64);
+            }
+
+            long delta = previousDelta + deltaOfDelta;
+            previous += delta;
+            previousDelta = delta;
+            times[i] = previous / TICKS_PER_HOUR;
+        }
+    }
+
+    /**
+     * Кодирует значения XOR с предыдущим значением. Для ненулевого XOR
+     * записываются только значащие биты: либо в окне предыдущего значения,
+     * либо с новыми количеством ведущих нулей и длиной.
+     *
+     * @param writer запись бит
+     * @param values массив значений
+     * @param start индекс первой точки
+     * @param count количество точек
+     */
+    private static void encodeXor(BitWriter writer, double[] values, int start, int count) {
+        long previous = Double.doubleToRawLongBits(values[start]);
+        writer.writeBits(previous, 64);
+
+        int previousLeading = -1;
+        int previousTrailing = 0;
+        for (int i = start + 1; i < start + count; i++) {
+            long bits = Double.doubleToRawLongBits(values[i]);
+            long xor = bits ^ previous;
+            previous = bits;
+
+            if (xor == 0) {
+                writer.writeBit(false);
+                continue;
+            }
+            writer.writeBit(true);
+
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+
+            if (previousLeading != -1 && leading >= previousLeading && trailing >= previousTrailing) {
+                // Значащие биты помещаются в окно предыдущего значения
+                writer.writeBit(false);
+                writer.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                int length = 64 - leading - trailing;
+                writer.writeBit(true);
+                writer.writeBits(leading, 5);
+                writer.writeBits(length == 64 ? 0 : length, 6);
+                writer.writeBits(xor >>> trailing, length);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+    }
+
+    /**
+     * Декодирует значения, закодированные методом encodeXor.
+     *
+     * @param reader чтение бит
+     * @param values массив для значений
+     * @param offset позиция первой точки в массиве
+     * @param count количество точек
+     */
+    private static void decodeXor(BitReader reader, double[] values, int offset, int count) {
+        long previous = reader.readBits(64);
+        values[offset] = Double.longBitsToDouble(previous);
+
+        int leading = 0;
+        int trailing = 0;
+        for (int i = offset + 1; i < offset + count; i++) {
+            if (reader.readBit()) {
+                if (reader.readBit()) {
+                    leading = (int) reader.readBits(5);
+                    int length = (int) reader.readBits(6);
+                    if (length == 0) {
+                        length = 64;
+                    }
+                    trailing = 64 - leading - length;
+                }
+                previous ^= reader.readBits(64 - leading - trailing) << trailing;
+            }
+            values[i] = Double.longBitsToDouble(previous);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Класс SeriesWorkspace представляет рабочую область с несколькими
+ * именованными рядами измерений (по одному на помещение или датчик).
+ * Ряды хранятся в порядке добавления; при добавлении ряда с уже
+ * существующим названием его точки дописываются к имеющимся.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class SeriesWorkspace {
+    /**
+     * Ряды рабочей области по названиям.
+     */
+    private final Map<String, TimeSeries> series = new LinkedHashMap<>();
+
+    /**
+     * Добавляет ряд в рабочую область.
+     * Если ряд с таким названием уже есть, точки объединяются.
+     *
+     * @param timeSeries добавляемый ряд
+     */
+    public synchronized void add(TimeSeries timeSeries) {
+        TimeSeries existing = series.get(timeSeries.getName());
+        if (existing == null) {
+            series.put(timeSeries.getName(), timeSeries);
+        } else {
+            existing.addAll(timeSeries);
+        }
+    }
+
+    /**
+     * Возвращает ряд по названию.
+     *
+     * @param name название ряда
+     * @return ряд или null, если ряда с таким названием нет
+     */
+    public synchronized TimeSeries get(String name) {
+        return series.get(name);
+    }
+
+    /**
+     * Удаляет ряд из рабочей области.
+     *
+     * @param name название ряда
+     */
+    public synchronized void remove(String name) {
+        series.remove(name);
+    }
+
+    /**
+     * Удаляет все ряды.
+     */
+    public synchronized void clear() {
+        series.clear();
+    }
+
+    /**
+     * Возвращает все ряды в порядке добавления.
+     *
+     * @return новый список рядов
+     */
+    public synchronized List<TimeSeries> getAll() {
+        return new ArrayList<>(series.values());
+    }
+
+    /**
+     * Возвращает количество рядов.
+     *
+     * @return количество рядов
+     */
+    public synchronized int size() {
+        return series.size();
+    }
+
+    /**
+     * Возвращает суммарное количество точек во всех рядах.
+     *
+     * @return количество точек
+     */
+    public synchronized long getTotalPoints() {
+        long total = 0;
+        for (TimeSeries timeSeries : series.values()) {
+            total += timeSeries.size();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,114 @@
+package model;
+
+import java.util.Locale;
+
+/**
+ * Класс TimeGrid - равномерная сетка времен от start до end с шагом step.
+ * Времена не хранятся, а вычисляются по номеру узла, поэтому сетка
+ * на сутки с шагом в секунду (86 401 узел) занимает несколько байт.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class TimeGrid {
+
+    /**
+     * Максимальное количество узлов сетки (не больше числа строк листа Excel).
+     */
+    public static final int MAX_SIZE = 1_000_000;
+
+    private final double start;
+    private final double end;
+    private final double step;
+    private final int size;
+
+    /**
+     * Создает сетку времен.
+     *
+     * @param start начальное время (час)
+     * @param end конечное время (час)
+     * @param step шаг (час)
+     * @throws IllegalArgumentException если параметры некорректны или узлов слишком много
+     */
+    public TimeGrid(double start, double end, double step) {
+        if (!(start >= 0 && end <= 24 && start <= end)) {
+            throw new IllegalArgumentException("Границы сетки должны удовлетворять 0 ≤ начало ≤ конец ≤ 24");
+        }
+        if (!(step > 0) || Double.isInfinite(step)) {
+            throw new IllegalArgumentException("Шаг сетки должен быть положительным числом");
+        }
+
+        // Небольшой допуск, чтобы конец, кратный шагу, попал в сетку несмотря на округление
+        double intervals = Math.floor((end - start) / step + 1e-9);
+        if (intervals + 1 > MAX_SIZE) {
+            throw new IllegalArgumentException("Слишком много узлов сетки: " + (long) (intervals + 1) +
+                    " (максимум " + MAX_SIZE + ")");
+        }
+
+        this.start = start;
+        this.end = end;
+        this.step = step;
+        this.size = (int) intervals + 1;
+    }
+
+    /**
+     * Возвращает количество узлов сетки.
+     *
+     * @return количество узлов
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает время узла сетки. Время вычисляется умножением,
+     * а не накоплением шага, поэтому ошибка округления не растет с номером.
+     *
+     * @param index номер узла
+     * @return время (час)
+     * @throws IndexOutOfBoundsException если номер вне сетки
+     */
+    public double getTime(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Узел " + index + " вне сетки из " + size + " узлов");
+        }
+        return Math.min(start + index * step, end);
+    }
+
+    /**
+     * Возвращает начальное время.
+     *
+     * @return начальное время (час)
+     */
+    public double getStart() {
+        return start;
+    }
+
+    /**
+     * Возвращает конечное время.
+     *
+     * @return конечное время (час)
+     */
+    public double getEnd() {
+        return end;
+    }
+
+    /**
+     * Возвращает шаг сетки.
+     *
+     * @return шаг (час)
+     */
+    public double getStep() {
+        return step;
+    }
+
+    /**
+     * Возвращает описание сетки.
+     *
+     * @return строка вида "0–24 ч, шаг 0.0167 ч (1441 узлов)"
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%.2f–%.2f ч, шаг %.4g ч (%d узлов)", start, end, step, size);
+    }
+}
@@ -0,0 +1,219 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Класс TimeSeries представляет именованный ряд измерений (датчик, помещение, зонд).
+ * В отличие от списка объектов DataPoint, время и температура хранятся
+ * в двух примитивных массивах, которые растут по мере добавления точек.
+ * Это позволяет держать в памяти сотни рядов по сотне тысяч точек
+ * и передавать их в расчеты без преобразования.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class TimeSeries {
+    /**
+     * Начальная емкость массивов.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Название ряда.
+     */
+    private final String name;
+
+    /**
+     * Времена измерений в часах (действительны первые size элементов).
+     */
+    private double[] times;
+
+    /**
+     * Температуры в градусах Цельсия (действительны первые size элементов).
+     */
+    private double[] temperatures;
+
+    /**
+     * Количество точек в ряду.
+     */
+    private int size;
+
+    /**
+     * Создает пустой ряд с заданным названием.
+     *
+     * @param name название ряда
+     * @throws IllegalArgumentException если название пустое
+     */
+    public TimeSeries(String name) {
+        this(name, INITIAL_CAPACITY);
+    }
+
+    /**
+     * Создает пустой ряд с заданным названием и начальной емкостью.
+     *
+     * @param name название ряда
+     * @param capacity ожидаемое количество точек
+     * @throws IllegalArgumentException если название пустое
+     */
+    public TimeSeries(String name, int capacity) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Название ряда не может быть пустым");
+        }
+        this.name = name;
+        this.times = new double[Math.max(capacity, 1)];
+        this.temperatures = new double[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Создает ряд из списка точек данных.
+     *
+     * @param name название ряда
+     * @param data список точек
+     * @return новый ряд
+     */
+    public static TimeSeries fromDataPoints(String name, List<DataPoint> data) {
+        TimeSeries series = new TimeSeries(name, data.size());
+        for (DataPoint point : data) {
+            series.add(point.getTime(), point.getTemperature());
+        }
+        return series;
+    }
+
+    /**
+     * Добавляет точку в конец ряда.
+     *
+     * @param time время в часах
+     * @param temperature температура в градусах Цельсия
+     */
+    public void add(double time, double temperature) {
+        if (size == times.length) {
+            int capacity = times.length + (times.length >> 1) + 1;
+            times = Arrays.copyOf(times, capacity);
+            temperatures = Arrays.copyOf(temperatures, capacity);
+        }
+        times[size] = time;
+        temperatures[size] = temperature;
+        size++;
+    }
+
+    /**
+     * Добавляет в конец ряда все точки другого ряда.
+     *
+     * @param other ряд, точки которого добавляются
+     */
+    public void addAll(TimeSeries other) {
+        int required = size + other.size;
+        if (required > times.length) {
+            int capacity = Math.max(required, times.length + (times.length >> 1));
+            times = Arrays.copyOf(times, capacity);
+            temperatures = Arrays.copyOf(temperatures, capacity);
+        }
+        System.arraycopy(other.times, 0, times, size, other.size);
+        System.arraycopy(other.temperatures, 0, temperatures, size, other.size);
+        size = required;
+    }
+
+    /**
+     * Удаляет все точки ряда.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Возвращает название ряда.
+     *
+     * @return название ряда
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Возвращает количество точек в ряду.
+     *
+     * @return количество точек
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает время точки с заданным индексом.
+     *
+     * @param index индекс точки
+     * @return время в часах
+     */
+    public double getTime(int index) {
+        checkIndex(index);
+        return times[index];
+    }
+
+    /**
+     * Возвращает температуру точки с заданным индексом.
+     *
+     * @param index индекс точки
+     * @return температура в градусах Цельсия
+     */
+    public double getTemperature(int index) {
+        checkIndex(index);
+        return temperatures[index];
+    }
+
+    /**
+     * Возвращает внутренний массив времен без копирования.
+     * Действительны только первые size() элементов; массив нельзя изменять.
+     *
+     * @return массив времен
+     */
+    public double[] getTimeArray() {
+        return times;
+    }
+
+    /**
+     * Возвращает внутренний массив температур без копирования.
+     * Действительны только первые size() элементов; массив нельзя изменять.
+     *
+     * @return массив температур
+     */
+    public double[] getTemperatureArray() {
+        return temperatures;
+    }
+
+    /**
+     * Преобразует ряд в список точек данных.
+     *
+     * @return новый список точек
+     */
+    public List<DataPoint> toDataPoints() {
+        List<DataPoint> data = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            data.add(new DataPoint(times[i], temperatures[i]));
+        }
+        return data;
+    }
+
+    /**
+     * Проверяет корректность индекса.
+     *
+     * @param index индекс точки
+     * @throws IndexOutOfBoundsException если индекс вне ряда
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс " + index + " вне ряда из " + size + " точек");
+        }
+    }
+
+    /**
+     * Возвращает строковое представление ряда.
+     *
+     * @return строка вида "название (n точек)"
+     */
+    @Override
+    public String toString() {
+        return name + " (" + size + " точек)";
+    }
+}
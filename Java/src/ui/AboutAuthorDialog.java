@@ -12,6 +12,13 @@ import java.awt.*;
  */
 public class AboutAuthorDialog extends JDialog {
 
+    /**
+     * Фотография автора и ее размер в окне (загружается заранее при запуске программы).
+     */
+    static final String PHOTO_FILE = "avatar.jpg";
+    static final int PHOTO_WIDTH = 120;
+    static final int PHOTO_HEIGHT = 120;
+
     /**
      * Создает диалоговое окно "Об авторе".
      *
@@ -147,24 +154,12 @@ public class AboutAuthorDialog extends JDialog {
         JLabel photoLabel = new JLabel("", SwingConstants.CENTER);
         photoLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        try {
-            // Пробуем загрузить фотографию из ресурсов
-            ImageIcon originalIcon = loadImageFromResources();
-
-            if (originalIcon != null) {
-                // Масштабируем изображение до размера 120x120
-                Image image = originalIcon.getImage();
-                Image scaledImage = image.getScaledInstance(120, 120, Image.SCALE_SMOOTH);
-                ImageIcon scaledIcon = new ImageIcon(scaledImage);
-                photoLabel.setIcon(scaledIcon);
-            } else {
-                // Используем эмодзи если фотография не найдена
-                photoLabel.setText("👨‍💻");
-                photoLabel.setFont(new Font("Arial", Font.PLAIN, 60));
-            }
-
-        } catch (Exception e) {
-            // Запасной вариант - эмодзи при ошибке загрузки
+        // Изображение обычно уже загружено в фоне при запуске программы
+        ImageIcon icon = ImageLoader.getScaledIcon(PHOTO_FILE, PHOTO_WIDTH, PHOTO_HEIGHT);
+        if (icon != null) {
+            photoLabel.setIcon(icon);
+        } else {
+            // Используем эмодзи если изображение не найдено
             photoLabel.setText("👨‍💻");
             photoLabel.setFont(new Font("Arial", Font.PLAIN, 60));
         }
@@ -172,20 +167,6 @@ public class AboutAuthorDialog extends JDialog {
         return photoLabel;
     }
 
-    /**
-     * Загружает фотографию автора из ресурсов приложения.
-     *
-     * @return ImageIcon загруженной фотографии или null в случае ошибки
-     */
-    private ImageIcon loadImageFromResources() {
-        try {
-            // Путь к файлу фотографии в папке resources
-            return new ImageIcon("Java/src/resources/avatar.jpg");
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
     /**
      * Статический метод для отображения диалогового окна.
      *
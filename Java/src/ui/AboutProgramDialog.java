@@ -12,6 +12,13 @@ import java.awt.*;
  */
 public class AboutProgramDialog extends JDialog {
 
+    /**
+     * Изображение программы и ее размер в окне (загружается заранее при запуске программы).
+     */
+    static final String PHOTO_FILE = "img.jpg";
+    static final int PHOTO_WIDTH = 300;
+    static final int PHOTO_HEIGHT = 160;
+
     /**
      * Создает диалоговое окно "О программе".
      *
@@ -138,24 +145,12 @@ public class AboutProgramDialog extends JDialog {
         JLabel photoLabel = new JLabel("", SwingConstants.CENTER);
         photoLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        try {
-            // Пробуем загрузить изображение из ресурсов
-            ImageIcon originalIcon = loadImageFromResources();
-
-            if (originalIcon != null) {
-                // Масштабируем изображение до размера 300x160
-                Image image = originalIcon.getImage();
-                Image scaledImage = image.getScaledInstance(300, 160, Image.SCALE_SMOOTH);
-                ImageIcon scaledIcon = new ImageIcon(scaledImage);
-                photoLabel.setIcon(scaledIcon);
-            } else {
-                // Используем эмодзи если изображение не найдено
-                photoLabel.setText("📊");
-                photoLabel.setFont(new Font("Arial", Font.PLAIN, 60));
-            }
-
-        } catch (Exception e) {
-            // Запасной вариант - эмодзи при ошибке загрузки
+        // Изображение обычно уже загружено в фоне при запуске программы
+        ImageIcon icon = ImageLoader.getScaledIcon(PHOTO_FILE, PHOTO_WIDTH, PHOTO_HEIGHT);
+        if (icon != null) {
+            photoLabel.setIcon(icon);
+        } else {
+            // Используем эмодзи если изображение не найдено
             photoLabel.setText("📊");
             photoLabel.setFont(new Font("Arial", Font.PLAIN, 60));
         }
@@ -163,20 +158,6 @@ public class AboutProgramDialog extends JDialog {
         return photoLabel;
     }
 
-    /**
-     * Загружает изображение программы из ресурсов приложения.
-     *
-     * @return ImageIcon загруженного изображения или null в случае ошибки
-     */
-    private ImageIcon loadImageFromResources() {
-        try {
-            // Путь к файлу изображения в папке resources
-            return new ImageIcon("Java/src/resources/img.jpg");
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
     /**
      * Статический метод для отображения диалогового окна.
      *
@@ -1,13 +1,16 @@
 package ui;
 
+import logic.FittedModel;
 import model.DataPoint;
 import javax.swing.*;
 import java.awt.*;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.DoubleUnaryOperator;
 
 /**
  * Окно для отображения графика экспериментальных данных.
- * Показывает экспериментальные точки, аппроксимирующую прямую
+ * Показывает экспериментальные точки, аппроксимирующую модель
  * и интерполяционные точки на графике.
  *
  * @author Petrushchenko A.A.
@@ -23,21 +26,22 @@ public class GraphFrame extends JFrame {
      * Создает новое окно графика с заданными данными.
      *
      * @param experimentalData список экспериментальных точек
-     * @param a коэффициент наклона прямой
-     * @param b коэффициент смещения прямой
+     * @param model аппроксимирующая модель
      * @param interpolationTimes список времен для интерполяции
+     * @param interpolation функция, вычисляющая температуру интерполяции по времени
+     * @param anomalies номера аномальных экспериментальных точек
      * @param mainFrame ссылка на главное окно приложения
      */
-    public GraphFrame(List<DataPoint> experimentalData, double a, double b,
-                      List<Double> interpolationTimes,
-                      MainFrame mainFrame) {
+    public GraphFrame(List<DataPoint> experimentalData, FittedModel model,
+                      List<Double> interpolationTimes, DoubleUnaryOperator interpolation,
+                      BitSet anomalies, MainFrame mainFrame) {
 
         setTitle("График экспериментальных данных");
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLayout(new BorderLayout());
 
         setupMenuBar();
-        setupUI(experimentalData, a, b, interpolationTimes);
+        setupUI(experimentalData, model, interpolationTimes, interpolation, anomalies);
 
         setSize(800, 600);
         setLocationRelativeTo(null); // Центрируем окно на экране
@@ -68,14 +72,16 @@ public class GraphFrame extends JFrame {
      * Создает панель графика и добавляет пользовательские точки.
      *
      * @param experimentalData список экспериментальных точек
-     * @param a коэффициент наклона прямой
-     * @param b коэффициент смещения прямой
+     * @param model аппроксимирующая модель
      * @param interpolationTimes список времен для интерполяции
+     * @param interpolation функция, вычисляющая температуру интерполяции по времени
+     * @param anomalies номера аномальных экспериментальных точек
      */
-    private void setupUI(List<DataPoint> experimentalData, double a, double b,
-                         List<Double> interpolationTimes) {
+    private void setupUI(List<DataPoint> experimentalData, FittedModel model,
+                         List<Double> interpolationTimes, DoubleUnaryOperator interpolation,
+                         BitSet anomalies) {
         // Создаем панель графика с основными данными
-        graphPanel = new GraphPanel(experimentalData, a, b, interpolationTimes);
+        graphPanel = new GraphPanel(experimentalData, model, interpolationTimes, interpolation, anomalies);
 
         add(graphPanel, BorderLayout.CENTER);
     }
@@ -85,20 +91,22 @@ public class GraphFrame extends JFrame {
      * Пересоздает весь интерфейс с обновленными значениями.
      *
      * @param experimentalData обновленный список экспериментальных точек
-     * @param a новый коэффициент наклона прямой
-     * @param b новый коэффициент смещения прямой
+     * @param model новая аппроксимирующая модель
      * @param interpolationTimes обновленный список времен для интерполяции
+     * @param interpolation функция, вычисляющая температуру интерполяции по времени
+     * @param anomalies номера аномальных экспериментальных точек
      */
-    public void updateGraph(List<DataPoint> experimentalData, double a, double b,
-                            List<Double> interpolationTimes) {
+    public void updateGraph(List<DataPoint> experimentalData, FittedModel model,
+                            List<Double> interpolationTimes, DoubleUnaryOperator interpolation,
+                            BitSet anomalies) {
         // Удаляем все компоненты с текущей панели
         getContentPane().removeAll();
 
         // Пересоздаем интерфейс с новыми данными
-        setupUI(experimentalData, a, b, interpolationTimes);
+        setupUI(experimentalData, model, interpolationTimes, interpolation, anomalies);
 
         // Обновляем отображение окна
         revalidate();
         repaint();
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,19 @@
 package ui;
 
+import logic.FittedModel;
+import logic.PiecewiseLinearCalculator;
 import model.DataPoint;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.geom.AffineTransform;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.DoubleUnaryOperator;
 
 /**
  * Панель для отображения графика экспериментальных данных.
- * Рисует оси координат, экспериментальные точки, аппроксимирующую прямую,
- * интерполяционные и пользовательские точки.
+ * Рисует оси координат, экспериментальные точки, аппроксимирующую модель
+ * (прямую или кривую), интерполяционные и пользовательские точки.
  *
  * @author Petrushchenko A.A.
  * @version 1.0
@@ -21,35 +25,49 @@ public class GraphPanel extends JPanel {
     private List<DataPoint> experimentalData;
 
     /**
-     * Коэффициенты уравнения прямой: T = a*t + b.
+     * Аппроксимирующая модель (прямая, гармоническая, кусочно-линейная и т.п.).
      */
-    private double a, b;
+    private final FittedModel model;
 
     /**
      * Времена для интерполяции температуры.
      */
     private List<Double> interpolationTimes;
 
+    /**
+     * Функция, по которой рассчитываются температуры интерполяции
+     * (модель или интерполирующая кривая).
+     */
+    private DoubleUnaryOperator interpolation;
+
+    /**
+     * Номера аномальных экспериментальных точек.
+     */
+    private BitSet anomalies;
 
     // Цвета для различных элементов графика
     private final Color EXPERIMENTAL_COLOR = Color.BLUE;
     private final Color LINE_COLOR = Color.RED;
     private final Color INTERPOLATION_COLOR = Color.GREEN;
+    private final Color ANOMALY_COLOR = Color.ORANGE;
 
     /**
      * Создает новую панель графика с заданными данными.
      *
      * @param experimentalData список экспериментальных точек
-     * @param a коэффициент наклона прямой
-     * @param b коэффициент смещения прямой
+     * @param model аппроксимирующая модель
      * @param interpolationTimes список времен для интерполяции
+     * @param interpolation функция, вычисляющая температуру интерполяции по времени
+     * @param anomalies номера аномальных экспериментальных точек
      */
-    public GraphPanel(List<DataPoint> experimentalData, double a, double b,
-                      List<Double> interpolationTimes) {
+    public GraphPanel(List<DataPoint> experimentalData, FittedModel model,
+                      List<Double> interpolationTimes, DoubleUnaryOperator interpolation,
+                      BitSet anomalies) {
         this.experimentalData = experimentalData;
-        this.a = a;
-        this.b = b;
+        this.model = model;
         this.interpolationTimes = interpolationTimes;
+        this.interpolation = interpolation;
+        this.anomalies = anomalies;
 
         setPreferredSize(new Dimension(800, 600));
         setBackground(Color.WHITE);
@@ -153,7 +171,7 @@ public class GraphPanel extends JPanel {
 
         // Добавляем интерполяционные точки
         for (Double time : interpolationTimes) {
-            double temp = a * time + b;
+            double temp = interpolation.applyAsDouble(time);
             minTime = Math.min(minTime, time);
             maxTime = Math.max(maxTime, time);
             minTemp = Math.min(minTemp, temp);
@@ -197,12 +215,19 @@ public class GraphPanel extends JPanel {
                                         double minTime, double minTemp,
                                         double xScale, double yScale) {
 
-        for (DataPoint point : experimentalData) {
+        for (int i = 0; i < experimentalData.size(); i++) {
+            DataPoint point = experimentalData.get(i);
             g2d.setColor(EXPERIMENTAL_COLOR);
             g2d.setStroke(new BasicStroke(2));
             int x = padding + (int) ((point.getTime() - minTime) * xScale);
             int y = padding + height - (int) ((point.getTemperature() - minTemp) * yScale);
             g2d.fillOval(x - 5, y - 5, 10, 10);
+            if (anomalies.get(i)) {
+                // Аномальное показание обводим кольцом
+                g2d.setColor(ANOMALY_COLOR);
+                g2d.setStroke(new BasicStroke(3));
+                g2d.drawOval(x - 9, y - 9, 18, 18);
+            }
 
             drawPointLabel(g2d, x, y - 15,
                     String.format("(%.1f; %.1f)", point.getTime(), point.getTemperature()));
@@ -210,7 +235,8 @@ public class GraphPanel extends JPanel {
     }
 
     /**
-     * Рисует аппроксимирующую прямую на графике.
+     * Рисует аппроксимирующую модель на графике: участки кусочно-линейной
+     * модели - отдельными прямыми, любую другую модель - кривой.
      *
      * @param g2d графический контекст
      * @param padding отступ от края
@@ -227,23 +253,98 @@ public class GraphPanel extends JPanel {
         g2d.setColor(LINE_COLOR);
         g2d.setStroke(new BasicStroke(2));
 
-        // Вычисляем координаты точек на концах прямой
-        double x1 = minTime;
-        double y1 = a * x1 + b;
-        double x2 = minTime + width / xScale;
-        double y2 = a * x2 + b;
+        if (model instanceof PiecewiseLinearCalculator.PiecewiseFit piecewiseFit) {
+            drawSegments(g2d, piecewiseFit, padding, height, minTime, minTemp, xScale, yScale);
+        } else {
+            drawCurve(g2d, padding, width, height, minTime, minTemp, xScale, yScale);
+        }
 
-        int lineX1 = padding + (int) ((x1 - minTime) * xScale);
-        int lineY1 = padding + height - (int) ((y1 - minTemp) * yScale);
-        int lineX2 = padding + (int) ((x2 - minTime) * xScale);
-        int lineY2 = padding + height - (int) ((y2 - minTemp) * yScale);
+        // Подписываем модель
+        g2d.setColor(LINE_COLOR);
+        g2d.setFont(new Font("Arial", Font.BOLD, 12));
+        String caption = model.getCaption();
+        int captionWidth = g2d.getFontMetrics().stringWidth(caption);
+        g2d.drawString(caption, padding + (width - captionWidth) / 2, padding + 25);
+    }
 
-        g2d.drawLine(lineX1, lineY1, lineX2, lineY2);
+    /**
+     * Рисует кривую модели ломаной с шагом в 2 пикселя.
+     * Значения модели вычисляются сразу для всех узлов ломаной.
+     *
+     * @param g2d графический контекст
+     * @param padding отступ от края
+     * @param width ширина области графика
+     * @param height высота области графика
+     * @param minTime минимальное время
+     * @param minTemp минимальная температура
+     * @param xScale масштаб по оси X
+     * @param yScale масштаб по оси Y
+     */
+    private void drawCurve(Graphics2D g2d, int padding, int width, int height,
+                           double minTime, double minTemp,
+                           double xScale, double yScale) {
+        int steps = Math.max(1, width / 2);
+        double[] times = new double[steps + 1];
+        for (int i = 0; i <= steps; i++) {
+            times[i] = minTime + (double) i * width / steps / xScale;
+        }
 
-        // Подписываем уравнение прямой
-        g2d.setFont(new Font("Arial", Font.BOLD, 12));
-        g2d.drawString(String.format("T = %.3f * t + %.3f", a, b),
-                padding + width/2 - 50, padding + 25);
+        double[] temps = new double[times.length];
+        model.predict(times, temps, times.length);
+
+        int[] xPoints = new int[times.length];
+        int[] yPoints = new int[times.length];
+        for (int i = 0; i < times.length; i++) {
+            xPoints[i] = padding + (int) ((times[i] - minTime) * xScale);
+            yPoints[i] = padding + height - (int) ((temps[i] - minTemp) * yScale);
+        }
+        g2d.drawPolyline(xPoints, yPoints, times.length);
+    }
+
+    /**
+     * Рисует участки кусочно-линейной модели, каждый своей прямой
+     * в пределах участка, и отмечает точки перелома пунктиром.
+     *
+     * @param g2d графический контекст
+     * @param piecewiseFit кусочно-линейная модель
+     * @param padding отступ от края
+     * @param height высота области графика
+     * @param minTime минимальное время
+     * @param minTemp минимальная температура
+     * @param xScale масштаб по оси X
+     * @param yScale масштаб по оси Y
+     */
+    private void drawSegments(Graphics2D g2d, PiecewiseLinearCalculator.PiecewiseFit piecewiseFit,
+                              int padding, int height, double minTime, double minTemp,
+                              double xScale, double yScale) {
+        List<PiecewiseLinearCalculator.Segment> segments = piecewiseFit.getSegments();
+        Stroke lineStroke = g2d.getStroke();
+        Stroke breakStroke = new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL,
+                0, new float[]{4, 4}, 0);
+
+        for (int i = 0; i < segments.size(); i++) {
+            PiecewiseLinearCalculator.Segment segment = segments.get(i);
+            double x1 = segment.getStartTime();
+            double x2 = segment.getEndTime();
+
+            int lineX1 = padding + (int) ((x1 - minTime) * xScale);
+            int lineY1 = padding + height - (int) ((segment.getA() * x1 + segment.getB() - minTemp) * yScale);
+            int lineX2 = padding + (int) ((x2 - minTime) * xScale);
+            int lineY2 = padding + height - (int) ((segment.getA() * x2 + segment.getB() - minTemp) * yScale);
+
+            g2d.setColor(LINE_COLOR);
+            g2d.setStroke(lineStroke);
+            g2d.drawLine(lineX1, lineY1, lineX2, lineY2);
+
+            // Точка перелома между участками
+            if (i > 0) {
+                g2d.setColor(Color.GRAY);
+                g2d.setStroke(breakStroke);
+                g2d.drawLine(lineX1, padding, lineX1, padding + height);
+            }
+        }
+
+        g2d.setStroke(lineStroke);
     }
 
     /**
@@ -264,7 +365,7 @@ public class GraphPanel extends JPanel {
         for (Double time : interpolationTimes) {
             g2d.setColor(INTERPOLATION_COLOR);
             g2d.setStroke(new BasicStroke(2));
-            double temp = a * time + b;
+            double temp = interpolation.applyAsDouble(time);
             int x = padding + (int) ((time - minTime) * xScale);
             int y = padding + height - (int) ((temp - minTemp) * yScale);
             g2d.fillOval(x - 6, y - 6, 12, 12);
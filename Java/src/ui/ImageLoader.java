@@ -0,0 +1,119 @@
+package ui;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Класс ImageLoader загружает и масштабирует изображения из папки ресурсов.
+ *
+ * Изображение декодируется и сразу масштабируется в готовый BufferedImage,
+ * поэтому это можно сделать заранее в фоновом потоке (при запуске программы),
+ * а окна, которым нужно изображение, получат его из кэша без задержки.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class ImageLoader {
+
+    /**
+     * Папка с изображениями.
+     */
+    public static final String RESOURCE_DIR = "Java/src/resources/";
+
+    /**
+     * Загруженные изображения по ключу "имя файла@ширинаxвысота".
+     */
+    private static final Map<String, CompletableFuture<ImageIcon>> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Запускает загрузку изображения в заданном пуле потоков.
+     *
+     * @param fileName имя файла в папке ресурсов
+     * @param width ширина после масштабирования
+     * @param height высота после масштабирования
+     * @param executor пул потоков для загрузки
+     * @return загрузка изображения (результат null, если файл не найден или поврежден)
+     */
+    public static CompletableFuture<ImageIcon> preload(String fileName, int width, int height, Executor executor) {
+        return CACHE.computeIfAbsent(fileName + "@" + width + "x" + height,
+                key -> CompletableFuture.supplyAsync(() -> load(fileName, width, height), executor));
+    }
+
+    /**
+     * Возвращает масштабированное изображение. Если изображение уже
+     * загружено заранее, возвращается из кэша, иначе загружается сейчас.
+     *
+     * @param fileName имя файла в папке ресурсов
+     * @param width ширина после масштабирования
+     * @param height высота после масштабирования
+     * @return изображение или null, если файл не найден или поврежден
+     */
+    public static ImageIcon getScaledIcon(String fileName, int width, int height) {
+        return CACHE.computeIfAbsent(fileName + "@" + width + "x" + height,
+                key -> CompletableFuture.completedFuture(load(fileName, width, height))).join();
+    }
+
+    /**
+     * Декодирует и масштабирует изображение.
+     *
+     * @param fileName имя файла в папке ресурсов
+     * @param width ширина после масштабирования
+     * @param height высота после масштабирования
+     * @return изображение или null
+     */
+    private static ImageIcon load(String fileName, int width, int height) {
+        File file = new File(RESOURCE_DIR + fileName);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            BufferedImage image = ImageIO.read(file);
+            return image == null ? null : new ImageIcon(scale(image, width, height));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Масштабирует изображение. При сильном уменьшении размер уменьшается
+     * вдвое за шаг, чтобы билинейная интерполяция не давала ступенчатых краев.
+     *
+     * @param image исходное изображение
+     * @param width ширина результата
+     * @param height высота результата
+     * @return масштабированное изображение
+     */
+    private static BufferedImage scale(BufferedImage image, int width, int height) {
+        BufferedImage current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            if (currentWidth < width || currentHeight < height || current.getWidth() <= width) {
+                // Увеличение или небольшое уменьшение - сразу до нужного размера
+                currentWidth = width;
+                currentHeight = height;
+            }
+
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2d = next.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            g2d.dispose();
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+
+        return current;
+    }
+}
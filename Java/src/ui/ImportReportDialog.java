@@ -0,0 +1,183 @@
+package ui;
+
+import util.ImportReport;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+
+/**
+ * Диалоговое окно отчета об отклоненных при импорте строках.
+ * Показывает сводку по причинам и таблицу отклоненных строк
+ * с фильтром по причине и переходом к строке с заданным номером.
+ * Таблица читает данные прямо из массивов отчета, без копирования.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class ImportReportDialog extends JDialog {
+    private final ImportReport report;
+
+    /**
+     * Индексы записей отчета, прошедших фильтр (в порядке строк).
+     */
+    private int[] visible;
+    private int visibleCount;
+
+    private JTable table;
+    private ReportTableModel tableModel;
+
+    /**
+     * Модель таблицы поверх записей отчета.
+     */
+    private class ReportTableModel extends AbstractTableModel {
+        private final String[] columns = {"Строка", "Причина", "Значение"};
+
+        @Override
+        public int getRowCount() {
+            return visibleCount;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            int index = visible[rowIndex];
+            return switch (columnIndex) {
+                case 0 -> report.getRow(index);
+                case 1 -> ImportReport.getReasonName(report.getReason(index));
+                default -> report.getText(index) != null ? report.getText(index)
+                        : Double.isNaN(report.getValue(index)) ? "" : report.getValue(index);
+            };
+        }
+    }
+
+    /**
+     * Конструктор диалогового окна отчета.
+     *
+     * @param parent родительское окно
+     * @param report отчет об импорте
+     */
+    public ImportReportDialog(JFrame parent, ImportReport report) {
+        super(parent, "Отчет об импорте: " + report.getSheetName(), true);
+        this.report = report;
+        this.visible = new int[report.getRejectedCount()];
+        applyFilter(-1);
+        setupUI();
+    }
+
+    /**
+     * Показывает диалоговое окно отчета.
+     *
+     * @param parent родительское окно
+     * @param report отчет об импорте
+     */
+    public static void showDialog(JFrame parent, ImportReport report) {
+        new ImportReportDialog(parent, report).setVisible(true);
+    }
+
+    /**
+     * Настраивает пользовательский интерфейс диалогового окна.
+     */
+    private void setupUI() {
+        setLayout(new BorderLayout());
+        setSize(520, 450);
+        setLocationRelativeTo(getParent());
+
+        JTextArea summary = new JTextArea(report.toString());
+        summary.setEditable(false);
+        summary.setOpaque(false);
+        summary.setBorder(BorderFactory.createEmptyBorder(8, 10, 8, 10));
+        add(summary, BorderLayout.NORTH);
+
+        tableModel = new ReportTableModel();
+        table = new JTable(tableModel);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        // Фильтр по причине и переход к строке
+        JPanel controlPanel = new JPanel();
+
+        String[] reasons = new String[ImportReport.getReasonCount() + 1];
+        reasons[0] = "Все причины";
+        for (byte reason = 0; reason < ImportReport.getReasonCount(); reason++) {
+            reasons[reason + 1] = ImportReport.getReasonName(reason) + " (" + report.getCount(reason) + ")";
+        }
+        JComboBox<String> reasonBox = new JComboBox<>(reasons);
+        reasonBox.addActionListener(e -> {
+            applyFilter(reasonBox.getSelectedIndex() - 1);
+            tableModel.fireTableDataChanged();
+        });
+
+        JTextField rowField = new JTextField(6);
+        JButton goButton = new JButton("Перейти к строке");
+        goButton.addActionListener(e -> goToRow(rowField.getText()));
+        rowField.addActionListener(e -> goToRow(rowField.getText()));
+
+        JButton closeButton = new JButton("Закрыть");
+        closeButton.addActionListener(e -> dispose());
+
+        controlPanel.add(reasonBox);
+        controlPanel.add(rowField);
+        controlPanel.add(goButton);
+        controlPanel.add(closeButton);
+        add(controlPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Оставляет в таблице только записи с заданной причиной.
+     *
+     * @param reason код причины или -1 для всех записей
+     */
+    private void applyFilter(int reason) {
+        visibleCount = 0;
+        for (int i = 0; i < report.getRejectedCount(); i++) {
+            if (reason < 0 || report.getReason(i) == reason) {
+                visible[visibleCount++] = i;
+            }
+        }
+    }
+
+    /**
+     * Выделяет первую видимую запись с номером строки не меньше введенного.
+     *
+     * @param text введенный номер строки
+     */
+    private void goToRow(String text) {
+        int row;
+        try {
+            row = Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Введите номер строки", "Ошибка ввода", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        // Записи в отчете упорядочены по строкам - ищем двоичным поиском среди видимых
+        int low = 0, high = visibleCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (report.getRow(visible[middle]) < row) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        if (low == visibleCount) {
+            JOptionPane.showMessageDialog(this, "После строки " + row + " отклоненных строк нет",
+                    "Переход к строке", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        table.setRowSelectionInterval(low, low);
+        table.scrollRectToVisible(table.getCellRect(low, 0, true));
+    }
+}
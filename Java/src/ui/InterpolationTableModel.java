@@ -0,0 +1,122 @@
+package ui;
+
+import model.DataPoint;
+import model.TimeGrid;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Модель таблицы времен интерполяции с ленивым расчетом температур.
+ *
+ * Строки берутся либо из списка времен, введенных пользователем,
+ * либо из равномерной сетки (TimeGrid). Температура по модели
+ * вычисляется только при запросе ячейки, то есть для видимых строк,
+ * поэтому сетка на сутки с шагом в секунду отображается мгновенно,
+ * а при изменении модели достаточно перерисовать таблицу.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class InterpolationTableModel extends AbstractTableModel {
+    private final String[] columns = {"Время (час)", "Температура (°C)"};
+
+    private final List<Double> times;
+    private final DoubleUnaryOperator model;
+    private TimeGrid grid;
+
+    /**
+     * Создает модель таблицы.
+     *
+     * @param times список времен, введенных пользователем (модель читает его, не копируя)
+     * @param model функция, вычисляющая температуру по времени
+     */
+    public InterpolationTableModel(List<Double> times, DoubleUnaryOperator model) {
+        this.times = times;
+        this.model = model;
+    }
+
+    /**
+     * Показывает в таблице сетку времен вместо списка.
+     *
+     * @param grid сетка или null, чтобы вернуться к списку времен
+     */
+    public void setGrid(TimeGrid grid) {
+        this.grid = grid;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Возвращает отображаемую сетку.
+     *
+     * @return сетка или null, если отображается список времен
+     */
+    public TimeGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Возвращает время в строке таблицы.
+     *
+     * @param row номер строки
+     * @return время (час)
+     */
+    public double getTime(int row) {
+        return grid != null ? grid.getTime(row) : times.get(row);
+    }
+
+    /**
+     * Возвращает строки таблицы в виде списка точек с температурой по модели.
+     * Точки создаются при обращении к элементу и нигде не хранятся,
+     * поэтому список можно передавать для экспорта большой сетки.
+     *
+     * @return ленивый список точек
+     */
+    public List<DataPoint> asDataPoints() {
+        return new AbstractList<>() {
+            @Override
+            public DataPoint get(int index) {
+                double time = getTime(index);
+                return new DataPoint(time, model.applyAsDouble(time));
+            }
+
+            @Override
+            public int size() {
+                return getRowCount();
+            }
+        };
+    }
+
+    @Override
+    public int getRowCount() {
+        return grid != null ? grid.size() : times.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        // Редактируется только время, введенное пользователем
+        return column == 0 && grid == null;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        double time = getTime(row);
+        if (column == 0) {
+            return time;
+        }
+        return String.format(Locale.US, "%.2f", model.applyAsDouble(time));
+    }
+}
@@ -1,18 +1,53 @@
 package ui;
 
 import model.DataPoint;
-import logic.LeastSquaresCalculator;
-import util.FileExporter;
+import model.SeriesWorkspace;
+import model.TimeGrid;
+import model.TimeSeries;
+import logic.AnomalyDetector;
+import logic.FitCache;
+import logic.FittedModel;
+import logic.FitMode;
+import logic.EditHistory;
+import logic.HarmonicRegressionCalculator;
+import logic.InterpolationMode;
+import logic.LinearModel;
+import logic.ModelFitter;
+import logic.PersistentPointList;
+import logic.QuantileSketch;
+import logic.RegressionAccumulator;
+import logic.RegressionStatistics;
+import logic.SplineInterpolator;
+import util.BulkImporter;
+import util.Diagnostics;
 import util.FileImporter;
+import util.SpreadsheetService;
+import util.FolderWatcher;
+import util.WriteAheadLog;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Главное окно приложения для обработки экспериментальных данных.
@@ -31,14 +66,75 @@ import java.util.Locale;
  * @version 1.0
  */
 public class MainFrame extends JFrame {
+    // Фон строк с аномальными показаниями в таблице экспериментальных данных
+    private static final Color ANOMALY_BACKGROUND = new Color(255, 210, 160);
+
+    // Кэш результатов расчета по содержимому данных (общий для ручного и автоматического пересчета)
+    private static final FitCache<ModelFitter.Result> FIT_CACHE = new FitCache<>(FitCache.DEFAULT_CAPACITY);
+
     // Экспериментальные данные (время и температура)
     private List<DataPoint> experimentalData;
 
     // Времена для интерполяции
     private List<Double> interpolationTimes;
 
-    // Коэффициенты линейного уравнения T = a*t + b
-    private double a, b;
+    // Прямая T = a*t + b, по которой рассчитываются статистики
+    private LinearModel line = ModelFitter.DEFAULT_LINE;
+
+    // Модель выбранного режима: прямая или кривая (гармоническая, кусочно-линейная)
+    private FittedModel model = line;
+
+    // Режим аппроксимации и количество гармоник для суточного цикла
+    private FitMode fitMode = FitMode.LINEAR;
+    private int harmonics = HarmonicRegressionCalculator.DEFAULT_HARMONICS;
+
+    // Способ расчета температур интерполяции и интерполирующая кривая (null - по модели)
+    private InterpolationMode interpolationMode = InterpolationMode.MODEL;
+    private FittedModel interpolant;
+
+    // Детектор аномальных показаний и номера отмеченных точек experimentalData
+    private AnomalyDetector anomalyDetector;
+    private final BitSet anomalies = new BitSet();
+
+    // Статистики прямой и доверительные интервалы бутстрэпа (null, если не рассчитаны)
+    private RegressionStatistics.Summary statistics;
+    private RegressionStatistics.BootstrapResult bootstrapResult;
+
+    // Рабочая область с несколькими рядами (датчиками, помещениями)
+    private final SeriesWorkspace workspace = new SeriesWorkspace();
+
+    // Отслеживание папки с файлами регистраторов (null, если не запущено)
+    private FolderWatcher folderWatcher;
+    private JMenuItem watchFolderItem;
+
+    // Суммы МНК для инкрементного пересчета прямой при поступлении файлов
+    // (null, если не соответствуют текущим экспериментальным данным)
+    private RegressionAccumulator liveAccumulator;
+
+    // Распределение температур экспериментальных данных для экспорта
+    // и отпечаток версии данных, по которой оно построено
+    private QuantileSketch distribution;
+    private long distributionFingerprint;
+
+    // Точки, добавленные из каждого отслеживаемого файла (для замены при его изменении)
+    private final Map<Path, List<DataPoint>> watchedContributions = new HashMap<>();
+
+    // Загруженные файлы, ожидающие добавления в потоке интерфейса
+    private final ConcurrentLinkedQueue<WatchedBatch> watchedBatches = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean watchedDrainScheduled = new AtomicBoolean();
+
+    // Журнал изменений данных для восстановления после сбоя (null, если недоступен)
+    private WriteAheadLog sessionLog;
+
+    // Автоматический пересчет после правок таблицы экспериментальных данных
+    private RecalculationPipeline<TableSnapshot, Recalculation> recalculation;
+    private long experimentalRevision;
+    private boolean formattingTable;
+
+    // История версий данных для отмены и повтора действий
+    private EditHistory history;
+    private JMenuItem undoItem;
+    private JMenuItem redoItem;
 
     // Окно графика
     private GraphFrame graphFrame;
@@ -47,7 +143,7 @@ public class MainFrame extends JFrame {
     private JTable experimentalTable;
     private JTable interpolationTable;
     private DefaultTableModel experimentalModel;
-    private DefaultTableModel interpolationModel;
+    private InterpolationTableModel interpolationModel;
     private JLabel equationLabel;
     private JLabel statusLabel;
 
@@ -57,10 +153,172 @@ public class MainFrame extends JFrame {
      * и настраивает пользовательский интерфейс.
      */
     public MainFrame() {
+        this(openDefaultSessionLog());
+    }
+
+    /**
+     * Конструктор главного окна с журналом сеанса, открытым заранее
+     * (при запуске программы журнал читается в фоне, пока показан стартовый экран).
+     *
+     * @param sessionLog журнал сеанса или null, если журнал недоступен
+     */
+    public MainFrame(WriteAheadLog sessionLog) {
         initializeData();
+        this.sessionLog = sessionLog;
+        boolean restored = openSessionLog();
+        history = new EditHistory(experimentalData, interpolationTimes);
+        setupRecalculation();
         calculateCoefficients();
         setupUI();
+        updateAnomalies();
         updateInterpolationTemperatures(); // Инициализируем температуры
+        updateUndoMenu();
+        if (restored) {
+            updateExperimentalTable();
+            updateStatus("Восстановлен предыдущий сеанс. Всего точек: " + experimentalData.size());
+        }
+        StartupProfile.mark("Главное окно создано");
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        StartupProfile.mainFramePainted();
+    }
+
+    /**
+     * Открывает журнал изменений данных в папке сеанса по умолчанию.
+     * Чтение журнала не обращается к интерфейсу, поэтому метод
+     * можно вызывать в фоновом потоке.
+     *
+     * Если сохраненный сеанс не удается прочитать, файлы журнала
+     * переносятся в сторону и начинается пустой журнал: поврежденная
+     * папка сеанса не должна мешать запуску программы.
+     *
+     * @return журнал или null, если журнал недоступен
+     */
+    static WriteAheadLog openDefaultSessionLog() {
+        Path directory = WriteAheadLog.defaultDirectory();
+        try {
+            return WriteAheadLog.open(directory);
+        } catch (IOException | RuntimeException | OutOfMemoryError e) {
+            Diagnostics.warn("Сохраненный сеанс не прочитан, файлы журнала перенесены в сторону: %s", e);
+        }
+        try {
+            WriteAheadLog.moveAside(directory);
+            return WriteAheadLog.open(directory);
+        } catch (IOException | RuntimeException e) {
+            Diagnostics.warn("Журнал сеанса недоступен: %s", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Подключает журнал изменений данных. Если в журнале сохранен сеанс,
+     * отличающийся от начальных данных, предлагает его восстановить.
+     * Если журнал недоступен, программа работает без него.
+     *
+     * @return true если данные восстановлены из журнала
+     */
+    private boolean openSessionLog() {
+        if (sessionLog == null) {
+            return false;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeSessionLog, "wal-close"));
+
+        WriteAheadLog.Session session = sessionLog.getRestoredSession();
+        boolean restore = false;
+        if (!session.isEmpty() && session.getExperimentalData().size() >= 2
+                && !(session.getExperimentalData().equals(experimentalData)
+                && session.getInterpolationTimes().equals(interpolationTimes))) {
+            int answer = JOptionPane.showConfirmDialog(null,
+                    "Найден сохраненный сеанс: " + session.getExperimentalData().size() + " точек.\n" +
+                            "Восстановить данные?",
+                    "Восстановление сеанса",
+                    JOptionPane.YES_NO_OPTION,
+                    JOptionPane.QUESTION_MESSAGE);
+            restore = answer == JOptionPane.YES_OPTION;
+        }
+
+        if (restore) {
+            experimentalData = new ArrayList<>(session.getExperimentalData());
+            interpolationTimes = new ArrayList<>(session.getInterpolationTimes());
+        } else {
+            logExperimentalData();
+            logInterpolationTimes();
+        }
+        return restore;
+    }
+
+    /**
+     * Записывает в журнал новое содержимое списка экспериментальных точек
+     * (журнал сохраняет только измененный участок).
+     */
+    private void logExperimentalData() {
+        if (sessionLog == null) {
+            return;
+        }
+        try {
+            sessionLog.appendReplace(experimentalData);
+        } catch (IOException e) {
+            disableSessionLog(e);
+        }
+    }
+
+    /**
+     * Записывает в журнал добавленные экспериментальные точки.
+     *
+     * @param points добавленные точки
+     */
+    private void logAddedPoints(List<DataPoint> points) {
+        if (sessionLog == null) {
+            return;
+        }
+        try {
+            sessionLog.appendPoints(points);
+        } catch (IOException e) {
+            disableSessionLog(e);
+        }
+    }
+
+    /**
+     * Записывает в журнал текущий список времен интерполяции.
+     */
+    private void logInterpolationTimes() {
+        if (sessionLog == null) {
+            return;
+        }
+        try {
+            sessionLog.appendInterpolationTimes(interpolationTimes);
+        } catch (IOException e) {
+            disableSessionLog(e);
+        }
+    }
+
+    /**
+     * Отключает журнал после ошибки записи, чтобы не прерывать работу.
+     *
+     * @param e ошибка журнала
+     */
+    private void disableSessionLog(IOException e) {
+        Diagnostics.error("Ошибка журнала сеанса, запись отключена: %s", e.getMessage());
+        closeSessionLog();
+        sessionLog = null;
+    }
+
+    /**
+     * Сбрасывает журнал на диск и закрывает его.
+     */
+    private void closeSessionLog() {
+        WriteAheadLog log = sessionLog;
+        if (log == null) {
+            return;
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            Diagnostics.warn("Не удалось закрыть журнал сеанса: %s", e.getMessage());
+        }
     }
 
     /**
@@ -81,24 +339,94 @@ public class MainFrame extends JFrame {
     }
 
     /**
-     * Вычисляет коэффициенты линейной регрессии a и b методом наименьших квадратов.
-     * Использует экспериментальные данные для расчета уравнения T = a*t + b.
-     * В случае ошибки устанавливает значения по умолчанию.
+     * Вычисляет коэффициенты прямой a и b выбранным методом:
+     * МНК или устойчивыми к выбросам оценками (Тейла–Сена, RANSAC),
+     * а также гармоническую или кусочно-линейную модель, если выбран такой режим.
+     * В случае ошибки показывает сообщение и устанавливает значения по умолчанию.
      */
     private void calculateCoefficients() {
+        // Текущая версия истории совпадает с таблицей: ее отпечаток берется без прохода по точкам
+        PersistentPointList version = history.getCurrent().getPoints();
+        ModelFitter.Result result = version.size() == experimentalData.size()
+                ? FIT_CACHE.get(version, fitMode, harmonics, () -> ModelFitter.fit(experimentalData, fitMode, harmonics))
+                : ModelFitter.fit(experimentalData, fitMode, harmonics);
+        Diagnostics.debug("Кэш моделей: попаданий %d, промахов %d", FIT_CACHE.getHits(), FIT_CACHE.getMisses());
+        applyFit(result);
+
+        if (result.getErrorMessage() != null) {
+            showErrorDialog("Ошибка вычислений", result.getErrorMessage());
+        }
+        for (String warning : result.getWarnings()) {
+            showErrorDialog("Ошибка вычислений", warning);
+        }
+    }
+
+    /**
+     * Делает результат расчета текущей моделью. Ранее рассчитанные
+     * интервалы бутстрэпа сбрасываются, так как относятся к прежним данным.
+     *
+     * @param result результат расчета модели
+     */
+    private void applyFit(ModelFitter.Result result) {
+        liveAccumulator = null;
+        line = result.getLine();
+        model = result.getModel();
+        statistics = result.getStatistics();
+        bootstrapResult = null;
+
+        if (result.getStatisticsError() != null) {
+            Diagnostics.warn("Не удалось рассчитать статистики: %s", result.getStatisticsError());
+        }
+    }
+
+    /**
+     * Вычисляет статистики прямой: R², стандартные ошибки коэффициентов
+     * и характеристики остатков. Ранее рассчитанные интервалы бутстрэпа
+     * сбрасываются, так как относятся к прежним данным.
+     */
+    private void calculateStatistics() {
+        bootstrapResult = null;
+        statistics = null;
+        if (experimentalData.size() < 3) {
+            return;
+        }
+
         try {
-            double[] coefficients = LeastSquaresCalculator.calculateCoefficients(experimentalData);
-            a = coefficients[0]; // Коэффициент наклона
-            b = coefficients[1]; // Коэффициент смещения
+            statistics = RegressionStatistics.analyze(experimentalData, line.getA(), line.getB());
         } catch (Exception e) {
-            /*
-             * В случае ошибки вычисления коэффициентов
-             * используем значения по умолчанию для
-             * обеспечения работоспособности приложения
-             */
-            showErrorDialog("Ошибка вычислений", e.getMessage());
-            a = 0.8904;
-            b = 1.6644;
+            // Статистики не критичны для работы - просто не отображаем их
+            Diagnostics.warn("Не удалось рассчитать статистики: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Вычисляет температуру в заданный момент времени по интерполирующей
+     * кривой, если выбран такой способ интерполяции, иначе по текущей модели.
+     *
+     * @param time время в часах
+     * @return температура интерполяции
+     */
+    private double predictTemperature(double time) {
+        return interpolant != null ? interpolant.predict(time) : model.predict(time);
+    }
+
+    /**
+     * Строит интерполирующую кривую по текущим экспериментальным данным
+     * для выбранного способа интерполяции. Коэффициенты кривой
+     * рассчитываются один раз, запросы таблицы только ищут участок.
+     *
+     * @return сообщение об ошибке или null, если кривая построена или не нужна
+     */
+    private String rebuildInterpolant() {
+        interpolant = null;
+        if (interpolationMode == InterpolationMode.MODEL) {
+            return null;
+        }
+        try {
+            interpolant = SplineInterpolator.interpolate(experimentalData, interpolationMode);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
         }
     }
 
@@ -131,25 +459,77 @@ public class MainFrame extends JFrame {
         JMenuItem importItem = new JMenuItem("Импорт данных");
         importItem.addActionListener(e -> importData());
 
+        JMenuItem importFolderItem = new JMenuItem("Импорт папки с файлами...");
+        importFolderItem.addActionListener(e -> importFolder());
+
         JMenuItem exportItem = new JMenuItem("Экспорт данных");
         exportItem.addActionListener(e -> exportData());
 
+        JMenuItem workspaceItem = new JMenuItem("Рабочая область (несколько рядов)...");
+        workspaceItem.addActionListener(e -> showWorkspace());
+
+        watchFolderItem = new JMenuItem("Отслеживать папку...");
+        watchFolderItem.addActionListener(e -> toggleFolderWatch());
+
         JMenuItem exitItem = new JMenuItem("Выход");
         exitItem.addActionListener(e -> System.exit(0));
 
         fileMenu.add(importItem);
+        fileMenu.add(importFolderItem);
         fileMenu.add(exportItem);
         fileMenu.addSeparator();
+        fileMenu.add(workspaceItem);
+        fileMenu.add(watchFolderItem);
+        fileMenu.addSeparator();
         fileMenu.add(exitItem);
 
         // Меню "Редактирование" - операции с данными
         JMenu editMenu = new JMenu("Редактирование");
 
+        undoItem = new JMenuItem("Отменить");
+        undoItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK));
+        undoItem.addActionListener(e -> undo());
+
+        redoItem = new JMenuItem("Повторить");
+        redoItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK));
+        redoItem.addActionListener(e -> redo());
+
         JMenuItem clearAllItem = new JMenuItem("Очистить все данные");
         clearAllItem.addActionListener(e -> clearAllDataWithConfirmation());
 
+        editMenu.add(undoItem);
+        editMenu.add(redoItem);
+        editMenu.addSeparator();
         editMenu.add(clearAllItem);
 
+        // Меню "Модель" - выбор вида аппроксимации
+        JMenu modelMenu = new JMenu("Модель");
+        ButtonGroup modelGroup = new ButtonGroup();
+
+        for (FitMode mode : FitMode.values()) {
+            JRadioButtonMenuItem modeItem = new JRadioButtonMenuItem(mode.getDisplayName(), mode == fitMode);
+            modeItem.addActionListener(e -> changeFitMode(mode));
+            modelGroup.add(modeItem);
+            modelMenu.add(modeItem);
+        }
+
+        modelMenu.addSeparator();
+        JMenu interpolationMenu = new JMenu("Интерполяция");
+        ButtonGroup interpolationGroup = new ButtonGroup();
+        for (InterpolationMode mode : InterpolationMode.values()) {
+            JRadioButtonMenuItem modeItem = new JRadioButtonMenuItem(mode.getDisplayName(),
+                    mode == interpolationMode);
+            modeItem.addActionListener(e -> changeInterpolationMode(mode));
+            interpolationGroup.add(modeItem);
+            interpolationMenu.add(modeItem);
+        }
+        modelMenu.add(interpolationMenu);
+
+        modelMenu.addSeparator();
+        JMenuItem bootstrapItem = new JMenuItem("Доверительные интервалы (бутстрэп)...");
+        bootstrapItem.addActionListener(e -> runBootstrap());
+        modelMenu.add(bootstrapItem);
+
         // Меню "Справка" - информация о программе и авторе
         JMenu helpMenu = new JMenu("Справка");
 
@@ -164,6 +544,7 @@ public class MainFrame extends JFrame {
 
         menuBar.add(fileMenu);
         menuBar.add(editMenu);
+        menuBar.add(modelMenu);
         menuBar.add(helpMenu);
 
         setJMenuBar(menuBar);
@@ -206,7 +587,7 @@ public class MainFrame extends JFrame {
         infoPanel.setLayout(new BoxLayout(infoPanel, BoxLayout.Y_AXIS));
         infoPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 10, 0));
 
-        equationLabel = new JLabel("Уравнение: T = " + String.format("%.4f", a) + " * t + " + String.format("%.4f", b));
+        equationLabel = new JLabel(getEquationLabelText());
         equationLabel.setFont(new Font("Arial", Font.BOLD, 14));
         equationLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
@@ -286,6 +667,7 @@ public class MainFrame extends JFrame {
             });
         }
 
+        experimentalModel.addTableModelListener(e -> experimentalRevision++);
         experimentalTable = new JTable(experimentalModel);
         configureExperimentalTable();
 
@@ -345,6 +727,9 @@ public class MainFrame extends JFrame {
                             // ФОРМАТИРУЕМ: целые числа показываем с .0
                             String formattedValue = formatWithDecimal(value);
                             super.setValueAt(formattedValue, row, column);
+                            if (!formattingTable) {
+                                recalculation.schedule();
+                            }
                         }
                     }
                 } catch (NumberFormatException e) {
@@ -384,6 +769,12 @@ public class MainFrame extends JFrame {
                 Component c = super.getTableCellRendererComponent(table, value,
                         isSelected, hasFocus, row, column);
 
+                // Аномальные показания выделяем фоном
+                if (!isSelected) {
+                    c.setBackground(row < experimentalData.size() && anomalies.get(row)
+                            ? ANOMALY_BACKGROUND : table.getBackground());
+                }
+
                 if (value != null) {
                     try {
                         String strValue = value.toString().replace(',', '.');
@@ -454,7 +845,8 @@ public class MainFrame extends JFrame {
             int selectedRow = experimentalTable.getSelectedRow();
             if (selectedRow != -1) {
                 experimentalModel.removeRow(selectedRow);
-                updateStatus("Строка удалена. Нажмите 'Рассчитать' для обновления");
+                recalculation.schedule();
+                updateStatus("Строка удалена. Модель будет пересчитана");
             } else {
                 showErrorDialog("Ошибка", "Выберите строку для удаления");
             }
@@ -483,15 +875,9 @@ public class MainFrame extends JFrame {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBorder(BorderFactory.createTitledBorder("Времена для интерполяции"));
 
-        // Создаем модель таблицы
+        // Создаем модель таблицы (температуры вычисляются для видимых строк)
         interpolationModel = createInterpolationTableModel();
 
-        // Заполняем таблицу начальными данными
-        for (Double time : interpolationTimes) {
-            double temp = a * time + b;
-            interpolationModel.addRow(new Object[]{time, String.format(Locale.US, "%.2f", temp)});
-        }
-
         interpolationTable = new JTable(interpolationModel);
         configureInterpolationTable();
 
@@ -507,19 +893,12 @@ public class MainFrame extends JFrame {
 
     /**
      * Создает модель таблицы для интерполяционных данных.
+     * Модель читает список interpolationTimes и вычисляет температуры по текущей модели.
      *
-     * @return DefaultTableModel модель таблицы
+     * @return InterpolationTableModel модель таблицы
      */
-    private DefaultTableModel createInterpolationTableModel() {
-        String[] columns = {"Время (час)", "Температура (°C)"};
-
-        return new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                // Только столбец времени редактируем
-                return column == 0;
-            }
-
+    private InterpolationTableModel createInterpolationTableModel() {
+        return new InterpolationTableModel(interpolationTimes, this::predictTemperature) {
             @Override
             public void setValueAt(Object aValue, int row, int column) {
                 if (column == 0) {
@@ -536,18 +915,15 @@ public class MainFrame extends JFrame {
                                     return;
                                 }
 
-                                super.setValueAt(strValue, row, column);
-
-                                // Обновляем температуру при изменении времени
-                                double temp = a * value + b;
-                                super.setValueAt(String.format(Locale.US, "%.2f", temp), row, 1);
-
-                                // Обновляем список времен
+                                // Обновляем список времен - температура пересчитается при отрисовке
                                 if (row < interpolationTimes.size()) {
                                     interpolationTimes.set(row, value);
                                 } else {
                                     interpolationTimes.add(value);
                                 }
+                                fireTableRowsUpdated(row, row);
+                                logInterpolationTimes();
+                                recordInterpolationVersion("изменение времени интерполяции");
                             }
                         }
                     } catch (NumberFormatException e) {
@@ -602,28 +978,100 @@ public class MainFrame extends JFrame {
         JButton addButton = new JButton("Добавить время");
         addButton.addActionListener(e -> addInterpolationTime());
 
+        JButton gridButton = new JButton("Сетка времен...");
+        gridButton.addActionListener(e -> generateInterpolationGrid());
+
         JButton deleteButton = new JButton("Удалить время");
         deleteButton.addActionListener(e -> {
+            if (interpolationModel.getGrid() != null) {
+                // Сетка удаляется целиком - возвращаемся к введенным временам
+                interpolationModel.setGrid(null);
+                updateStatus("Сетка времен удалена. Времен интерполяции: " + interpolationTimes.size());
+                refreshGraph();
+                return;
+            }
+
             int selectedRow = interpolationTable.getSelectedRow();
             if (selectedRow != -1) {
-                interpolationModel.removeRow(selectedRow);
-                updateInterpolationTimesFromTable();
+                interpolationTimes.remove(selectedRow);
+                interpolationModel.fireTableRowsDeleted(selectedRow, selectedRow);
+                logInterpolationTimes();
+                recordInterpolationVersion("удаление времени интерполяции");
                 updateStatus("Время интерполяции удалено. Всего: " + interpolationTimes.size());
 
-                if (graphFrame != null && graphFrame.isVisible()) {
-                    graphFrame.updateGraph(experimentalData, a, b, interpolationTimes);
-                }
+                refreshGraph();
             } else {
                 showErrorDialog("Ошибка", "Выберите строку для удаления");
             }
         });
 
         buttonPanel.add(addButton);
+        buttonPanel.add(gridButton);
         buttonPanel.add(deleteButton);
 
         return buttonPanel;
     }
 
+    /**
+     * Заполняет таблицу интерполяции равномерной сеткой времен.
+     * Запрашивает начало, конец и шаг сетки. Времена сетки не добавляются
+     * в список interpolationTimes, а вычисляются таблицей по номеру строки.
+     */
+    private void generateInterpolationGrid() {
+        TimeGrid current = interpolationModel.getGrid();
+        JTextField startField = new JTextField(current != null ? String.valueOf(current.getStart()) : "0", 8);
+        JTextField endField = new JTextField(current != null ? String.valueOf(current.getEnd()) : "24", 8);
+        JTextField stepField = new JTextField("1", 8);
+        String[] units = {"мин", "с", "ч"};
+        double[] unitHours = {1.0 / 60, 1.0 / 3600, 1.0};
+        JComboBox<String> unitBox = new JComboBox<>(units);
+
+        JPanel panel = new JPanel(new GridLayout(3, 2, 5, 5));
+        panel.add(new JLabel("Начало (час):"));
+        panel.add(startField);
+        panel.add(new JLabel("Конец (час):"));
+        panel.add(endField);
+        panel.add(new JLabel("Шаг:"));
+        JPanel stepPanel = new JPanel(new BorderLayout(5, 0));
+        stepPanel.add(stepField, BorderLayout.CENTER);
+        stepPanel.add(unitBox, BorderLayout.EAST);
+        panel.add(stepPanel);
+
+        int answer = JOptionPane.showConfirmDialog(this, panel, "Сетка времен интерполяции",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE);
+        if (answer != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        TimeGrid grid;
+        try {
+            double start = Double.parseDouble(startField.getText().trim().replace(',', '.'));
+            double end = Double.parseDouble(endField.getText().trim().replace(',', '.'));
+            double step = Double.parseDouble(stepField.getText().trim().replace(',', '.'));
+            grid = new TimeGrid(start, end, step * unitHours[unitBox.getSelectedIndex()]);
+        } catch (NumberFormatException e) {
+            showErrorDialog("Ошибка ввода", "Неверный формат числа");
+            return;
+        } catch (IllegalArgumentException e) {
+            showErrorDialog("Ошибка ввода", e.getMessage());
+            return;
+        }
+
+        interpolationModel.setGrid(grid);
+        updateStatus("Сетка времен: " + grid);
+        refreshGraph();
+    }
+
+    /**
+     * Возвращает времена интерполяции для графика. Узлы сетки
+     * на графике не рисуются - их слишком много, а модель и так показана линией.
+     *
+     * @return список времен для отображения на графике
+     */
+    private List<Double> getGraphInterpolationTimes() {
+        return interpolationModel.getGrid() != null ? List.of() : interpolationTimes;
+    }
+
     /**
      * Сохраняет экспериментальные данные из таблицы в список.
      * Проверяет корректность введенных данных:
@@ -632,66 +1080,25 @@ public class MainFrame extends JFrame {
      * 3. Минимальное количество точек
      */
     private void saveExperimentalData() {
-        List<DataPoint> newData = new ArrayList<>();
-        boolean hasError = false;
-
-        for (int i = 0; i < experimentalModel.getRowCount(); i++) {
-            try {
-                Object timeObj = experimentalModel.getValueAt(i, 0);
-                Object tempObj = experimentalModel.getValueAt(i, 1);
-
-                // Проверка на null
-                if (timeObj == null || tempObj == null) {
-                    showErrorDialog("Ошибка данных", "Строка " + (i + 1) + ": значения не могут быть пустыми");
-                    hasError = true;
-                    break;
-                }
-
-                String timeStr = timeObj.toString().trim();
-                String tempStr = tempObj.toString().trim();
-
-                // Проверка на пустые строки
-                if (timeStr.isEmpty() || tempStr.isEmpty()) {
-                    showErrorDialog("Ошибка данных", "Строка " + (i + 1) + ": значения не могут быть пустыми");
-                    hasError = true;
-                    break;
-                }
-
-                timeStr = timeStr.replace(',', '.');
-                tempStr = tempStr.replace(',', '.');
-
-                double time = Double.parseDouble(timeStr);
-                double temperature = Double.parseDouble(tempStr);
-
-                // Проверка диапазонов
-                if (time < 0 || time > 24) {
-                    showErrorDialog("Ошибка данных",
-                            "Строка " + (i + 1) + ": время должно быть от 0 до 24 часов");
-                    hasError = true;
-                    break;
-                }
-
-                if (temperature < -50 || temperature > 100) {
-                    showErrorDialog("Ошибка данных",
-                            "Строка " + (i + 1) + ": температура должна быть от -50 до 100°C");
-                    hasError = true;
-                    break;
-                }
-
-                // Форматируем значения
-                experimentalModel.setValueAt(formatWithDecimal(time), i, 0);
-                experimentalModel.setValueAt(formatWithDecimal(temperature), i, 1);
+        // Явный пересчет заменяет запланированный автоматический
+        recalculation.cancel();
 
-                newData.add(new DataPoint(time, temperature));
-            } catch (NumberFormatException e) {
-                showErrorDialog("Ошибка данных", "Строка " + (i + 1) + ": неверный формат числа");
-                hasError = true;
-                break;
-            }
+        List<DataPoint> newData = new ArrayList<>();
+        String error = parseExperimentalRows(copyExperimentalRows(), newData);
+        if (error != null) {
+            showErrorDialog("Ошибка данных", error);
+            return;
         }
 
-        if (hasError) {
-            return;
+        // Форматируем значения
+        formattingTable = true;
+        try {
+            for (int i = 0; i < newData.size(); i++) {
+                experimentalModel.setValueAt(formatWithDecimal(newData.get(i).getTime()), i, 0);
+                experimentalModel.setValueAt(formatWithDecimal(newData.get(i).getTemperature()), i, 1);
+            }
+        } finally {
+            formattingTable = false;
         }
 
         // Проверка минимального количества точек
@@ -707,8 +1114,12 @@ public class MainFrame extends JFrame {
 
         // Сохраняем данные и пересчитываем коэффициенты
         experimentalData = newData;
+        rebuildWatchedContributions();
+        logExperimentalData();
+        recordVersion("изменение таблицы");
         calculateCoefficients();
         updateEquationLabel();
+        updateAnomalies();
 
         // Обновляем таблицу интерполяции с новыми коэффициентами
         updateInterpolationTemperatures();
@@ -716,33 +1127,194 @@ public class MainFrame extends JFrame {
         updateStatus("Экспериментальные данные сохранены. Всего точек: " + experimentalData.size());
 
         // Обновляем график если он открыт
-        if (graphFrame != null && graphFrame.isVisible()) {
-            graphFrame.updateGraph(experimentalData, a, b, interpolationTimes);
+        refreshGraph();
+    }
+
+    /**
+     * Копирует значения ячеек таблицы экспериментальных данных без разбора,
+     * чтобы разбирать их в фоновом потоке.
+     *
+     * @return значения ячеек по строкам: [строка][0 - время, 1 - температура]
+     */
+    private Object[][] copyExperimentalRows() {
+        Object[][] copy = new Object[experimentalModel.getRowCount()][];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = new Object[]{experimentalModel.getValueAt(i, 0), experimentalModel.getValueAt(i, 1)};
         }
+        return copy;
     }
 
     /**
-     * Метод для обновления температур интерполяции в таблице.
-     * Вызывается после изменения коэффициентов уравнения.
+     * Разбирает строки таблицы экспериментальных данных в точки.
+     * Проверяет формат чисел и диапазоны значений.
+     *
+     * @param rows значения ячеек по строкам
+     * @param points список, в который добавляются точки
+     * @return сообщение об ошибке или null, если все строки корректны
      */
-    private void updateInterpolationTemperatures() {
-        // Очищаем таблицу
-        interpolationModel.setRowCount(0);
+    private static String parseExperimentalRows(Object[][] rows, List<DataPoint> points) {
+        for (int i = 0; i < rows.length; i++) {
+            Object timeObj = rows[i][0];
+            Object tempObj = rows[i][1];
+
+            // Проверка на null и пустые строки
+            String timeStr = timeObj == null ? "" : timeObj.toString().trim();
+            String tempStr = tempObj == null ? "" : tempObj.toString().trim();
+            if (timeStr.isEmpty() || tempStr.isEmpty()) {
+                return "Строка " + (i + 1) + ": значения не могут быть пустыми";
+            }
+
+            double time, temperature;
+            try {
+                time = Double.parseDouble(timeStr.replace(',', '.'));
+                temperature = Double.parseDouble(tempStr.replace(',', '.'));
+            } catch (NumberFormatException e) {
+                return "Строка " + (i + 1) + ": неверный формат числа";
+            }
+
+            // Проверка диапазонов
+            if (time < 0 || time > 24) {
+                return "Строка " + (i + 1) + ": время должно быть от 0 до 24 часов";
+            }
+            if (temperature < -50 || temperature > 100) {
+                return "Строка " + (i + 1) + ": температура должна быть от -50 до 100°C";
+            }
+
+            points.add(new DataPoint(time, temperature));
+        }
+        return null;
+    }
+
+    /**
+     * Создает конвейер автоматического пересчета после правок таблицы
+     * экспериментальных данных. Разбор строк и расчет модели выполняются
+     * в фоновом потоке, результат публикуется одним снимком.
+     */
+    private void setupRecalculation() {
+        recalculation = new RecalculationPipeline<>(RecalculationPipeline.DEFAULT_DELAY_MS,
+                () -> new TableSnapshot(copyExperimentalRows(), fitMode, harmonics, experimentalRevision),
+                MainFrame::recalculate,
+                this::publishRecalculation,
+                e -> showErrorDialog("Ошибка вычислений", e.getMessage()));
+    }
+
+    /**
+     * Снимок таблицы экспериментальных данных и параметров модели.
+     */
+    private static class TableSnapshot {
+        final Object[][] rows;
+        final FitMode mode;
+        final int harmonics;
+        final long revision;
+
+        TableSnapshot(Object[][] rows, FitMode mode, int harmonics, long revision) {
+            this.rows = rows;
+            this.mode = mode;
+            this.harmonics = harmonics;
+            this.revision = revision;
+        }
+    }
+
+    /**
+     * Результат автоматического пересчета.
+     */
+    private static class Recalculation {
+        final TableSnapshot source;
+        final List<DataPoint> points;
+        final String error;
+        final ModelFitter.Result fit;
+        final long elapsedMillis;
+
+        Recalculation(TableSnapshot source, List<DataPoint> points, String error,
+                      ModelFitter.Result fit, long elapsedMillis) {
+            this.source = source;
+            this.points = points;
+            this.error = error;
+            this.fit = fit;
+            this.elapsedMillis = elapsedMillis;
+        }
+    }
+
+    /**
+     * Разбирает снимок таблицы и рассчитывает модель (в фоновом потоке).
+     *
+     * @param snapshot снимок таблицы
+     * @return результат пересчета
+     */
+    private static Recalculation recalculate(TableSnapshot snapshot) {
+        long start = System.nanoTime();
+        List<DataPoint> points = new ArrayList<>(snapshot.rows.length);
+        String error = parseExperimentalRows(snapshot.rows, points);
+        if (error == null && points.size() < 2) {
+            error = "Для расчета нужно как минимум 2 точки данных";
+        }
+        ModelFitter.Result fit = error == null
+                ? FIT_CACHE.get(FitCache.fingerprint(points), points.size(), snapshot.mode, snapshot.harmonics,
+                        () -> ModelFitter.fit(points, snapshot.mode, snapshot.harmonics))
+                : null;
+        return new Recalculation(snapshot, points, error, fit, Diagnostics.elapsedMillis(start));
+    }
 
-        // Заполняем заново с новыми коэффициентами
-        for (Double time : interpolationTimes) {
-            double temp = a * time + b;
-            interpolationModel.addRow(new Object[]{time, String.format(Locale.US, "%.2f", temp)});
+    /**
+     * Публикует результат автоматического пересчета: данные, уравнение,
+     * таблицу интерполяции и график. Результат отбрасывается, если таблица
+     * или режим модели изменились после снятия снимка.
+     *
+     * @param result результат пересчета
+     */
+    private void publishRecalculation(Recalculation result) {
+        TableSnapshot source = result.source;
+        if (source.revision != experimentalRevision) {
+            return; // Таблица изменена после снимка - действует более новое состояние
+        }
+        if (source.mode != fitMode || source.harmonics != harmonics) {
+            recalculation.schedule();
+            return;
+        }
+        if (result.error != null) {
+            updateStatus("Пересчет отложен: " + result.error);
+            return;
+        }
+
+        experimentalData = new ArrayList<>(result.points);
+        rebuildWatchedContributions();
+        logExperimentalData();
+        recordVersion("изменение таблицы");
+        applyFit(result.fit);
+        updateEquationLabel();
+        updateAnomalies();
+        updateInterpolationTemperatures();
+        refreshGraph();
+
+        if (result.fit.getErrorMessage() != null) {
+            updateStatus("Ошибка вычислений: " + result.fit.getErrorMessage());
+        } else if (!result.fit.getWarnings().isEmpty()) {
+            updateStatus(result.fit.getWarnings().get(0).replace('\n', ' '));
+        } else {
+            updateStatus("Пересчитано за " + result.elapsedMillis + " мс. Всего точек: " + experimentalData.size());
         }
+    }
 
-        // Если таблица пустая, добавляем стандартные значения
+    /**
+     * Метод для обновления температур интерполяции в таблице.
+     * Вызывается после изменения коэффициентов уравнения.
+     * Интерполирующая кривая строится заново по текущим данным; если
+     * построить ее нельзя, температуры рассчитываются по модели.
+     */
+    private void updateInterpolationTemperatures() {
+        // Если список пустой, добавляем стандартные значения
         if (interpolationTimes.isEmpty()) {
             interpolationTimes.addAll(Arrays.asList(9.0, 12.5, 15.25));
-            for (Double time : interpolationTimes) {
-                double temp = a * time + b;
-                interpolationModel.addRow(new Object[]{time, String.format(Locale.US, "%.2f", temp)});
-            }
+            logInterpolationTimes();
         }
+
+        String error = rebuildInterpolant();
+        if (error != null) {
+            updateStatus("Интерполяция по модели: " + error);
+        }
+
+        // Температуры вычисляются моделью таблицы при отрисовке видимых строк
+        interpolationModel.fireTableDataChanged();
     }
 
     /**
@@ -764,14 +1336,19 @@ public class MainFrame extends JFrame {
                     return;
                 }
 
-                double temp = a * time + b;
                 interpolationTimes.add(time);
-                interpolationModel.addRow(new Object[]{time, String.format(Locale.US, "%.2f", temp)});
+                logInterpolationTimes();
+                recordInterpolationVersion("добавление времени интерполяции");
+                if (interpolationModel.getGrid() != null) {
+                    // Новое время добавляется к введенным временам - показываем их вместо сетки
+                    interpolationModel.setGrid(null);
+                } else {
+                    interpolationModel.fireTableRowsInserted(interpolationTimes.size() - 1,
+                            interpolationTimes.size() - 1);
+                }
                 updateStatus("Добавлено время интерполяции: " + time + " час");
 
-                if (graphFrame != null && graphFrame.isVisible()) {
-                    graphFrame.updateGraph(experimentalData, a, b, interpolationTimes);
-                }
+                refreshGraph();
             } catch (NumberFormatException e) {
                 showErrorDialog("Ошибка ввода", "Неверный формат времени");
             }
@@ -779,49 +1356,158 @@ public class MainFrame extends JFrame {
     }
 
     /**
-     * Обновляет список времен интерполяции из данных таблицы.
-     * Извлекает значения из первой колонки таблицы интерполяции.
-     */
-    private void updateInterpolationTimesFromTable() {
-        interpolationTimes.clear();
-        for (int i = 0; i < interpolationModel.getRowCount(); i++) {
-            try {
-                Object timeObj = interpolationModel.getValueAt(i, 0);
-                if (timeObj != null && !timeObj.toString().trim().isEmpty()) {
-                    String timeStr = timeObj.toString().replace(',', '.');
-                    interpolationTimes.add(Double.parseDouble(timeStr));
-                }
-            } catch (Exception e) {
-                // Игнорируем ошибки парсинга
-                System.err.println("Ошибка при обновлении времени интерполяции: " + e.getMessage());
-            }
-        }
-    }
-
-    /**
-     * Открывает окно с графиком данных.
-     * Сохраняет экспериментальные данные перед отображением графика.
-     * Если окно графика уже открыто, обновляет его данные.
+     * Открывает окно с графиком данных.
+     * Сохраняет экспериментальные данные перед отображением графика.
+     * Если окно графика уже открыто, обновляет его данные.
      */
     private void showGraph() {
         saveExperimentalData();
 
         if (graphFrame == null || !graphFrame.isVisible()) {
-            graphFrame = new GraphFrame(experimentalData, a, b, interpolationTimes, this);
+            graphFrame = new GraphFrame(experimentalData, model, getGraphInterpolationTimes(),
+                    this::predictTemperature, anomalies, this);
             graphFrame.setVisible(true);
         } else {
             graphFrame.toFront();
-            graphFrame.updateGraph(experimentalData, a, b, interpolationTimes);
+            refreshGraph();
         }
     }
 
+    /**
+     * Запускает расчет доверительных интервалов методом бутстрэпа.
+     * Расчет выполняется в фоновом потоке на всех ядрах процессора,
+     * результат отображается рядом с уравнением и попадает в экспорт.
+     */
+    private void runBootstrap() {
+        if (fitMode != FitMode.LINEAR) {
+            showErrorDialog("Бутстрэп", "Доверительные интервалы рассчитываются для линейной модели (МНК).\n" +
+                    "Выберите режим \"" + FitMode.LINEAR.getDisplayName() + "\" в меню \"Модель\".");
+            return;
+        }
+
+        if (experimentalData.size() < 3) {
+            showErrorDialog("Бутстрэп", "Для бутстрэпа нужно как минимум 3 точки данных");
+            return;
+        }
+
+        String input = JOptionPane.showInputDialog(this,
+                "Количество повторов бутстрэпа:",
+                String.valueOf(RegressionStatistics.DEFAULT_REPLICATES));
+        if (input == null) {
+            return;
+        }
+
+        int replicates;
+        try {
+            replicates = Integer.parseInt(input.trim());
+            if (replicates < 10) {
+                showErrorDialog("Ошибка ввода", "Количество повторов должно быть не меньше 10");
+                return;
+            }
+        } catch (NumberFormatException e) {
+            showErrorDialog("Ошибка ввода", "Неверный формат числа");
+            return;
+        }
+
+        // Работаем с копией данных, чтобы правки таблицы не влияли на расчет
+        List<DataPoint> snapshot = new ArrayList<>(experimentalData);
+        updateStatus("Выполняется бутстрэп: " + replicates + " повторов...");
+
+        new SwingWorker<RegressionStatistics.BootstrapResult, Void>() {
+            @Override
+            protected RegressionStatistics.BootstrapResult doInBackground() {
+                return RegressionStatistics.bootstrap(snapshot, replicates,
+                        RegressionStatistics.DEFAULT_CONFIDENCE);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    RegressionStatistics.BootstrapResult result = get();
+                    // Данные могли измениться во время расчета
+                    if (snapshot.equals(experimentalData)) {
+                        bootstrapResult = result;
+                        updateEquationLabel();
+                        updateStatus("Бутстрэп завершен: " + result.getReplicates() + " повторов");
+                    } else {
+                        updateStatus("Данные изменились во время бутстрэпа - результат отброшен");
+                    }
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    showErrorDialog("Ошибка бутстрэпа", cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Обновляет окно графика текущими данными и моделью, если оно открыто.
+     */
+    private void refreshGraph() {
+        if (graphFrame != null && graphFrame.isVisible()) {
+            graphFrame.updateGraph(experimentalData, model, getGraphInterpolationTimes(),
+                    this::predictTemperature, anomalies);
+        }
+    }
+
+    /**
+     * Переключает режим аппроксимации и пересчитывает модель.
+     * Для гармонического режима запрашивает количество гармоник.
+     *
+     * @param mode новый режим аппроксимации
+     */
+    private void changeFitMode(FitMode mode) {
+        if (mode == FitMode.HARMONIC) {
+            String input = JOptionPane.showInputDialog(this,
+                    "Количество гармоник (от 1 до " + HarmonicRegressionCalculator.MAX_HARMONICS + "):",
+                    String.valueOf(harmonics));
+            if (input != null) {
+                try {
+                    int value = Integer.parseInt(input.trim());
+                    if (value < 1 || value > HarmonicRegressionCalculator.MAX_HARMONICS) {
+                        showErrorDialog("Ошибка ввода", "Количество гармоник должно быть от 1 до " +
+                                HarmonicRegressionCalculator.MAX_HARMONICS);
+                    } else {
+                        harmonics = value;
+                    }
+                } catch (NumberFormatException e) {
+                    showErrorDialog("Ошибка ввода", "Неверный формат числа");
+                }
+            }
+        }
+
+        fitMode = mode;
+        calculateCoefficients();
+        updateEquationLabel();
+        updateAnomalies();
+        updateInterpolationTemperatures();
+        updateStatus("Модель: " + mode.getDisplayName());
+        refreshGraph();
+    }
+
+    /**
+     * Переключает способ расчета температур интерполяции.
+     *
+     * @param mode новый способ интерполяции
+     */
+    private void changeInterpolationMode(InterpolationMode mode) {
+        interpolationMode = mode;
+        String error = rebuildInterpolant();
+        if (error != null) {
+            showErrorDialog("Интерполяция", error + "\nТемпературы рассчитываются по модели.");
+        }
+        interpolationModel.fireTableDataChanged();
+        updateStatus("Интерполяция: " + mode.getDisplayName());
+        refreshGraph();
+    }
+
     /**
      * Импортирует данные из Excel файла.
      * Поддерживает форматы .xlsx и .xls.
      * Позволяет загрузить как экспериментальные, так и интерполяционные данные.
      */
     private void importData() {
-        FileImporter.ImportResult result = FileImporter.importFromExcel(this);
+        FileImporter.ImportResult result = SpreadsheetService.get().importFromExcel(this);
 
         if (result != null && result.hasData()) {
             // Проверка минимального количества экспериментальных точек
@@ -858,6 +1544,10 @@ public class MainFrame extends JFrame {
                 message.append("\n");
             }
 
+            if (result.report != null && result.report.getRejectedCount() > 0) {
+                message.append("Отклонено строк: ").append(result.report.getRejectedCount()).append("\n\n");
+            }
+
             message.append("Текущие данные будут полностью заменены.\nПродолжить?");
 
             // Запрос подтверждения у пользователя
@@ -873,7 +1563,8 @@ public class MainFrame extends JFrame {
                 interpolationTimes.clear();
 
                 experimentalModel.setRowCount(0);
-                interpolationModel.setRowCount(0);
+                interpolationModel.setGrid(null);
+                watchedContributions.clear();
 
                 boolean dataLoaded = false;
 
@@ -895,8 +1586,12 @@ public class MainFrame extends JFrame {
                 }
 
                 if (dataLoaded) {
+                    logExperimentalData();
+                    logInterpolationTimes();
+                    recordVersion("импорт данных");
                     calculateCoefficients();
                     updateEquationLabel();
+                    updateAnomalies();
                     updateInterpolationTemperatures();
 
                     // Формируем сообщение о результате импорта
@@ -910,19 +1605,359 @@ public class MainFrame extends JFrame {
                     updateStatus(status.toString());
 
                     // Обновляем график если он открыт
-                    if (graphFrame != null && graphFrame.isVisible()) {
-                        graphFrame.updateGraph(experimentalData, a, b, interpolationTimes);
+                    refreshGraph();
+
+                    if (result.report != null && result.report.getRejectedCount() > 0) {
+                        String[] options = {"ОК", "Отклоненные строки..."};
+                        int choice = JOptionPane.showOptionDialog(this,
+                                "✅ Импорт успешно завершен!\nВсе данные заменены.\n\n" + result.report,
+                                "Успех",
+                                JOptionPane.DEFAULT_OPTION,
+                                JOptionPane.INFORMATION_MESSAGE,
+                                null, options, options[0]);
+                        if (choice == 1) {
+                            ImportReportDialog.showDialog(this, result.report);
+                        }
+                    } else {
+                        JOptionPane.showMessageDialog(this,
+                                "✅ Импорт успешно завершен!\nВсе данные заменены.",
+                                "Успех",
+                                JOptionPane.INFORMATION_MESSAGE);
                     }
+                }
+            }
+        }
+    }
+
+    /**
+     * Загружает все Excel файлы выбранной папки (все листы с таблицами точек)
+     * в фоновом потоке. Результат можно объединить в один ряд, упорядоченный
+     * по времени, или добавить в рабочую область отдельными рядами.
+     */
+    private void importFolder() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Папка с Excel файлами");
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        List<File> files = BulkImporter.listWorkbooks(chooser.getSelectedFile());
+        if (files.isEmpty()) {
+            showErrorDialog("Импорт папки", "В папке нет Excel файлов (*.xlsx, *.xls)");
+            return;
+        }
+
+        updateStatus("Загрузка " + files.size() + " файлов...");
+
+        new SwingWorker<BulkImporter.BulkResult, Void>() {
+            @Override
+            protected BulkImporter.BulkResult doInBackground() {
+                return BulkImporter.importFiles(files);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    applyBulkImport(get());
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    showErrorDialog("Ошибка импорта", cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Предлагает пользователю способ использования загруженных данных
+     * и применяет выбранный вариант.
+     *
+     * @param result результат пакетной загрузки
+     */
+    private void applyBulkImport(BulkImporter.BulkResult result) {
+        long points = result.getTotalPoints();
+        String summary = String.format("Загружено источников (файл/лист): %d, точек: %d, ошибок: %d, время: %d мс",
+                result.getSources().size() - result.getErrorCount(), points,
+                result.getErrorCount(), result.getElapsedMillis());
+        updateStatus(summary);
+
+        if (points < 2) {
+            showErrorDialog("Импорт папки", "Не найдено достаточно экспериментальных точек.\n" + summary);
+            return;
+        }
+
+        String[] options = {"Объединить в один ряд", "Отдельные ряды в рабочую область", "Отмена"};
+        int choice = JOptionPane.showOptionDialog(this,
+                summary + "\n\nКак использовать загруженные данные?",
+                "Импорт папки",
+                JOptionPane.DEFAULT_OPTION,
+                JOptionPane.QUESTION_MESSAGE,
+                null, options, options[0]);
+
+        if (choice == 0) {
+            openSeries(result.merge("Все файлы"));
+        } else if (choice == 1) {
+            for (BulkImporter.SourceResult source : result.getSources()) {
+                if (source.isSuccessful()) {
+                    workspace.add(source.getSeries());
+                }
+            }
+            showWorkspace();
+        }
+    }
+
+    /**
+     * Открывает окно рабочей области с несколькими рядами.
+     */
+    private void showWorkspace() {
+        new WorkspaceDialog(this, workspace, fitMode, this::openSeries).setVisible(true);
+    }
 
-                    JOptionPane.showMessageDialog(this,
-                            "✅ Импорт успешно завершен!\nВсе данные заменены.",
-                            "Успех",
-                            JOptionPane.INFORMATION_MESSAGE);
+    /**
+     * Загружает ряд рабочей области в качестве экспериментальных данных
+     * и пересчитывает модель.
+     *
+     * @param series открываемый ряд
+     */
+    private void openSeries(TimeSeries series) {
+        if (series.size() < 2) {
+            showErrorDialog("Рабочая область", "Для расчетов нужно минимум 2 точки");
+            return;
+        }
+
+        experimentalData = series.toDataPoints();
+        rebuildWatchedContributions();
+        logExperimentalData();
+        recordVersion("открытие ряда " + series.getName());
+        updateExperimentalTable();
+        calculateCoefficients();
+        updateEquationLabel();
+        updateAnomalies();
+        updateInterpolationTemperatures();
+        updateStatus("Открыт ряд " + series);
+
+        refreshGraph();
+    }
+
+    /**
+     * Точки одного загруженного файла вместе с их суммами МНК
+     * и распределением температур, подготовленные в рабочем потоке наблюдателя.
+     */
+    private static class WatchedBatch {
+        final Path file;
+        final List<DataPoint> points;
+        final RegressionAccumulator accumulator = new RegressionAccumulator();
+        final QuantileSketch distribution = new QuantileSketch();
+
+        WatchedBatch(Path file, SeriesWorkspace data) {
+            this.file = file;
+            this.points = new ArrayList<>((int) data.getTotalPoints());
+            for (TimeSeries series : data.getAll()) {
+                for (int i = 0; i < series.size(); i++) {
+                    double time = series.getTime(i);
+                    double temperature = series.getTemperature(i);
+                    points.add(new DataPoint(time, temperature));
+                    accumulator.add(time, temperature);
+                    distribution.add(temperature);
                 }
             }
         }
     }
 
+    /**
+     * Запускает или останавливает отслеживание папки с файлами регистраторов.
+     * Новые и измененные файлы загружаются в фоне и добавляются
+     * к экспериментальным данным; прямая пересчитывается инкрементно.
+     */
+    private void toggleFolderWatch() {
+        if (folderWatcher != null) {
+            folderWatcher.stop();
+            updateStatus("Отслеживание папки остановлено. Загружено файлов: " + folderWatcher.getProcessedCount());
+            folderWatcher = null;
+            watchFolderItem.setText("Отслеживать папку...");
+            return;
+        }
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Папка с файлами регистраторов");
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        File directory = chooser.getSelectedFile();
+        FolderWatcher watcher = new FolderWatcher(directory.toPath(),
+                Runtime.getRuntime().availableProcessors(),
+                new FolderWatcher.Listener() {
+                    @Override
+                    public void fileImported(Path file, SeriesWorkspace data, boolean changed) {
+                        watchedBatches.add(new WatchedBatch(file, data));
+                        if (watchedDrainScheduled.compareAndSet(false, true)) {
+                            SwingUtilities.invokeLater(() -> applyWatchedBatches());
+                        }
+                    }
+
+                    @Override
+                    public void fileFailed(Path file, Exception error) {
+                        SwingUtilities.invokeLater(() -> updateStatus(
+                                "Не удалось загрузить " + file.getFileName() + ": " + error.getMessage()));
+                    }
+                });
+
+        try {
+            watcher.start();
+        } catch (IOException e) {
+            showErrorDialog("Отслеживание папки", "Не удалось отслеживать папку:\n" + e.getMessage());
+            return;
+        }
+
+        folderWatcher = watcher;
+        watchFolderItem.setText("Остановить отслеживание папки");
+        updateStatus("Отслеживается папка " + directory.getAbsolutePath());
+    }
+
+    /**
+     * Связывает точки отслеживаемых файлов с новым списком экспериментальных
+     * данных после того, как он был построен заново (правка таблицы, отмена,
+     * открытие ряда). Прежние точки файлов удаляются по ссылкам, поэтому
+     * каждой точке файла сопоставляется равная ей точка нового списка;
+     * точки, которых больше нет (удаленные или измененные пользователем),
+     * перестают относиться к файлу и при его изменении не удаляются.
+     */
+    private void rebuildWatchedContributions() {
+        if (watchedContributions.isEmpty()) {
+            return;
+        }
+        // Одинаковые точки сопоставляются по одной, с учетом количества
+        Map<DataPoint, ArrayDeque<DataPoint>> byValue = new HashMap<>();
+        for (DataPoint point : experimentalData) {
+            byValue.computeIfAbsent(point, key -> new ArrayDeque<>()).add(point);
+        }
+        for (Map.Entry<Path, List<DataPoint>> entry : watchedContributions.entrySet()) {
+            List<DataPoint> rebuilt = new ArrayList<>(entry.getValue().size());
+            for (DataPoint point : entry.getValue()) {
+                ArrayDeque<DataPoint> same = byValue.get(point);
+                if (same != null && !same.isEmpty()) {
+                    rebuilt.add(same.poll());
+                }
+            }
+            entry.setValue(rebuilt);
+        }
+    }
+
+    /**
+     * Добавляет к экспериментальным данным все файлы, загруженные
+     * наблюдателем с момента предыдущего вызова. Точки измененного файла
+     * заменяют его прежние точки. Для МНК коэффициенты обновляются
+     * слиянием сумм без повторного прохода по всем данным.
+     */
+    private void applyWatchedBatches() {
+        watchedDrainScheduled.set(false);
+        if (folderWatcher == null) {
+            watchedBatches.clear();
+            return;
+        }
+
+        if (liveAccumulator == null) {
+            liveAccumulator = new RegressionAccumulator();
+            for (DataPoint point : experimentalData) {
+                liveAccumulator.add(point.getTime(), point.getTemperature());
+            }
+        }
+
+        boolean distributionCurrent = isDistributionCurrent();
+        List<WatchedBatch> batches = new ArrayList<>();
+        boolean replaced = false;
+        long added = 0;
+
+        WatchedBatch batch;
+        while ((batch = watchedBatches.poll()) != null) {
+            List<DataPoint> previous = watchedContributions.put(batch.file, batch.points);
+            if (previous != null) {
+                // Прежние точки файла удаляем по ссылкам, а не по значениям
+                Set<DataPoint> stale = Collections.newSetFromMap(new IdentityHashMap<>());
+                stale.addAll(previous);
+                for (Iterator<DataPoint> it = experimentalData.iterator(); it.hasNext(); ) {
+                    DataPoint point = it.next();
+                    if (stale.contains(point)) {
+                        it.remove();
+                        liveAccumulator.remove(point.getTime(), point.getTemperature());
+                    }
+                }
+                replaced = true;
+            }
+
+            experimentalData.addAll(batch.points);
+            liveAccumulator.merge(batch.accumulator);
+            if (previous == null) {
+                logAddedPoints(batch.points);
+            }
+            batches.add(batch);
+            added += batch.points.size();
+        }
+
+        if (batches.isEmpty()) {
+            return;
+        }
+        recordVersion("загрузка файлов из папки");
+
+        if (distributionCurrent && !replaced) {
+            // Распределения новых файлов добавляются к имеющемуся без прохода по всем точкам
+            for (WatchedBatch applied : batches) {
+                distribution.merge(applied.distribution);
+            }
+            distributionFingerprint = history.getCurrent().getPoints().getFingerprint();
+        }
+
+        if (replaced) {
+            logExperimentalData();
+            updateExperimentalTable();
+        } else {
+            for (WatchedBatch applied : batches) {
+                for (DataPoint point : applied.points) {
+                    experimentalModel.addRow(new Object[]{
+                            formatWithDecimal(point.getTime()),
+                            formatWithDecimal(point.getTemperature())
+                    });
+                }
+            }
+        }
+
+        int firstAdded = experimentalData.size() - (int) added;
+        boolean incremental = false;
+        if (fitMode == FitMode.LINEAR && liveAccumulator.getCount() >= 2) {
+            try {
+                double[] coefficients = liveAccumulator.getCoefficients();
+                line = new LinearModel(coefficients[0], coefficients[1]);
+                model = line;
+                calculateStatistics();
+                incremental = true;
+            } catch (ArithmeticException e) {
+                // Вырожденные данные - полный пересчет покажет ошибку
+            }
+        }
+        if (!incremental) {
+            calculateCoefficients();
+        }
+
+        updateEquationLabel();
+        long anomalyCount = anomalies.cardinality();
+        if (replaced || anomalyDetector == null) {
+            updateAnomalies();
+        } else {
+            // Новые показания проверяются по обновленному тренду без пересчета прежних
+            anomalyDetector.setModel(model);
+            detectAnomalies(firstAdded);
+        }
+        anomalyCount = anomalies.cardinality() - anomalyCount;
+        updateInterpolationTemperatures();
+        updateStatus("Из папки загружено файлов: " + batches.size() + ", точек: " + added +
+                ". Всего точек: " + experimentalData.size() +
+                (anomalyCount > 0 ? ". Аномальных показаний: " + anomalyCount : ""));
+
+        refreshGraph();
+    }
+
     /**
      * Метод для форматирования чисел.
      * Целые числа показываются с .0, дробные - с двумя знаками после запятой.
@@ -948,6 +1983,111 @@ public class MainFrame extends JFrame {
         }
     }
 
+    /**
+     * Добавляет в историю версию с текущими данными после действия пользователя.
+     *
+     * @param description описание действия
+     */
+    private void recordVersion(String description) {
+        if (history.commit(description, experimentalData, interpolationTimes)) {
+            updateUndoMenu();
+        }
+    }
+
+    /**
+     * Добавляет в историю версию, в которой изменились только времена интерполяции.
+     *
+     * @param description описание действия
+     */
+    private void recordInterpolationVersion(String description) {
+        if (history.commitInterpolationTimes(description, interpolationTimes)) {
+            updateUndoMenu();
+        }
+    }
+
+    /**
+     * Отменяет последнее действие с данными.
+     */
+    private void undo() {
+        if (!history.canUndo()) {
+            return;
+        }
+        String description = history.getUndoDescription();
+        applyVersion(history.undo());
+        updateStatus("Отменено: " + description + ". Всего точек: " + experimentalData.size());
+    }
+
+    /**
+     * Повторяет отмененное действие с данными.
+     */
+    private void redo() {
+        if (!history.canRedo()) {
+            return;
+        }
+        String description = history.getRedoDescription();
+        applyVersion(history.redo());
+        updateStatus("Повторено: " + description + ". Всего точек: " + experimentalData.size());
+    }
+
+    /**
+     * Делает версию из истории текущими данными. Для МНК коэффициенты
+     * берутся из моментов, сохраненных в версии, без прохода по точкам.
+     *
+     * @param version версия данных
+     */
+    private void applyVersion(EditHistory.Version version) {
+        experimentalData = new ArrayList<>(version.getPoints());
+        rebuildWatchedContributions();
+        interpolationTimes.clear();
+        interpolationTimes.addAll(version.getInterpolationTimes());
+        logExperimentalData();
+        logInterpolationTimes();
+
+        boolean restored = false;
+        if (version.getPoints().size() < 2) {
+            // Как после очистки данных - коэффициенты по умолчанию
+            line = ModelFitter.DEFAULT_LINE;
+            model = line;
+            statistics = null;
+            bootstrapResult = null;
+            liveAccumulator = null;
+            restored = true;
+        } else if (fitMode == FitMode.LINEAR) {
+            RegressionAccumulator moments = version.getPoints().getMoments();
+            try {
+                double[] coefficients = moments.getCoefficients();
+                line = new LinearModel(coefficients[0], coefficients[1]);
+                model = line;
+                calculateStatistics();
+                liveAccumulator = moments;
+                restored = true;
+            } catch (ArithmeticException e) {
+                // Вырожденные данные - полный пересчет покажет ошибку
+            }
+        }
+        if (!restored) {
+            calculateCoefficients();
+        }
+
+        updateExperimentalTable();
+        updateEquationLabel();
+        updateAnomalies();
+        updateInterpolationTemperatures();
+        updateUndoMenu();
+
+        refreshGraph();
+    }
+
+    /**
+     * Обновляет названия и доступность пунктов меню отмены и повтора.
+     */
+    private void updateUndoMenu() {
+        undoItem.setEnabled(history.canUndo());
+        undoItem.setText(history.canUndo() ? "Отменить: " + history.getUndoDescription() : "Отменить");
+        redoItem.setEnabled(history.canRedo());
+        redoItem.setText(history.canRedo() ? "Повторить: " + history.getRedoDescription() : "Повторить");
+    }
+
     /**
      * Очищает все данные приложения.
      * Удаляет экспериментальные и интерполяционные данные,
@@ -958,19 +2098,26 @@ public class MainFrame extends JFrame {
         interpolationTimes.clear();
 
         experimentalModel.setRowCount(0);
-        interpolationModel.setRowCount(0);
+        interpolationModel.setGrid(null);
 
         // Устанавливаем коэффициенты по умолчанию
-        a = 0.8904;
-        b = 1.6644;
+        line = ModelFitter.DEFAULT_LINE;
+        model = line;
+        interpolant = null;
+        statistics = null;
+        bootstrapResult = null;
+        liveAccumulator = null;
+        watchedContributions.clear();
+        logExperimentalData();
+        logInterpolationTimes();
+        recordVersion("очистка данных");
 
         updateEquationLabel();
+        updateAnomalies();
         updateStatus("Все данные очищены. Начните с добавления экспериментальных точек.");
 
         // Обновляем график если он открыт
-        if (graphFrame != null && graphFrame.isVisible()) {
-            graphFrame.updateGraph(experimentalData, a, b, interpolationTimes);
-        }
+        refreshGraph();
     }
 
     /**
@@ -980,7 +2127,7 @@ public class MainFrame extends JFrame {
     private void clearAllDataWithConfirmation() {
         int confirm = JOptionPane.showConfirmDialog(this,
                 "Вы действительно хотите очистить ВСЕ данные?\n" +
-                        "Это действие нельзя отменить.\n\n" +
+                        "Действие можно отменить (Ctrl+Z).\n\n" +
                         "Будут очищены:\n" +
                         "• Все экспериментальные точки\n" +
                         "• Все времена интерполяции\n" +
@@ -998,6 +2145,34 @@ public class MainFrame extends JFrame {
         }
     }
 
+    /**
+     * Заново проверяет все экспериментальные точки на аномалии по текущей
+     * модели. Вызывается после пересчета модели; порядок точек в таблице
+     * считается порядком поступления показаний.
+     */
+    private void updateAnomalies() {
+        anomalyDetector = new AnomalyDetector(model, AnomalyDetector.DEFAULT_THRESHOLD,
+                AnomalyDetector.DEFAULT_SMOOTHING);
+        anomalies.clear();
+        detectAnomalies(0);
+    }
+
+    /**
+     * Передает детектору точки experimentalData, начиная с заданной,
+     * и отмечает аномальные в таблице и на графике.
+     *
+     * @param from номер первой непроверенной точки
+     */
+    private void detectAnomalies(int from) {
+        for (int i = from; i < experimentalData.size(); i++) {
+            DataPoint point = experimentalData.get(i);
+            if (anomalyDetector.add(point.getTime(), point.getTemperature())) {
+                anomalies.set(i);
+            }
+        }
+        experimentalTable.repaint();
+    }
+
     /**
      * Обновляет таблицу экспериментальных данных в интерфейсе.
      * Заполняет таблицу текущими значениями из списка experimentalData.
@@ -1017,7 +2192,44 @@ public class MainFrame extends JFrame {
      * Отображает текущие значения коэффициентов a и b.
      */
     private void updateEquationLabel() {
-        equationLabel.setText("Уравнение: T = " + String.format("%.4f", a) + " * t + " + String.format("%.4f", b));
+        equationLabel.setText(getEquationLabelText());
+    }
+
+    /**
+     * Формирует текст метки уравнения вместе со статистиками
+     * и доверительными интервалами, если они рассчитаны.
+     *
+     * @return HTML-текст для метки уравнения
+     */
+    private String getEquationLabelText() {
+        StringBuilder text = new StringBuilder("<html><center>");
+        text.append(getEquationText());
+
+        if (statistics != null && model == line) {
+            text.append("<br><font size='-1'>").append(statistics).append("</font>");
+        }
+
+        if (bootstrapResult != null && model == line) {
+            text.append("<br><font size='-1'>").append(bootstrapResult).append("</font>");
+        }
+
+        return text.append("</center></html>").toString();
+    }
+
+    /**
+     * Формирует текст уравнения для текущей модели.
+     *
+     * @return строка с уравнением регрессии
+     */
+    private String getEquationText() {
+        if (model != line) {
+            return "Модель: " + model.getEquationString();
+        }
+        String equation = "Уравнение: " + line.getEquationString();
+        if (fitMode == FitMode.THEIL_SEN || fitMode == FitMode.RANSAC) {
+            equation += " [" + fitMode.getDisplayName() + "]";
+        }
+        return equation;
     }
 
     /**
@@ -1038,33 +2250,43 @@ public class MainFrame extends JFrame {
         // Сохраняем текущие экспериментальные данные
         saveExperimentalData();
 
-        // Собираем интерполяционные данные из таблицы
-        List<DataPoint> interpolatedData = new ArrayList<>();
-        for (int i = 0; i < interpolationModel.getRowCount(); i++) {
-            try {
-                Object timeObj = interpolationModel.getValueAt(i, 0);
-                Object tempObj = interpolationModel.getValueAt(i, 1);
-
-                if (timeObj == null || tempObj == null) {
-                    continue; // Пропускаем пустые строки
-                }
+        // Интерполяционные точки вычисляются по мере записи, без копирования таблицы
+        List<DataPoint> interpolatedData = interpolationModel.asDataPoints();
 
-                // Исправляем форматирование чисел с запятыми
-                String timeStr = timeObj.toString().trim().replace(',', '.');
-                String tempStr = tempObj.toString().trim().replace(',', '.');
+        // Вызываем экспорт в Excel
+        // Статистики и интервалы относятся к прямой и выгружаются только вместе с ней
+        boolean lineModel = model == line;
+        SpreadsheetService.get().exportToExcel(experimentalData, interpolatedData, model,
+                lineModel ? statistics : null, lineModel ? bootstrapResult : null, getDistribution(), this);
+    }
 
-                double time = Double.parseDouble(timeStr);
-                double temp = Double.parseDouble(tempStr);
+    /**
+     * Проверяет, построено ли распределение температур по текущей версии данных.
+     *
+     * @return true, если распределение можно использовать без пересчета
+     */
+    private boolean isDistributionCurrent() {
+        PersistentPointList version = history.getCurrent().getPoints();
+        return distribution != null && version.size() == experimentalData.size()
+                && version.getFingerprint() == distributionFingerprint;
+    }
 
-                interpolatedData.add(new DataPoint(time, temp));
-            } catch (NumberFormatException e) {
-                // Пропускаем некорректные строки
-                System.err.println("Ошибка парсинга в строке " + i + ": " + e.getMessage());
+    /**
+     * Возвращает распределение температур экспериментальных данных.
+     * Если данные изменились, распределение строится заново за один проход
+     * без сортировки; при загрузке файлов из папки оно пополняется слиянием.
+     *
+     * @return распределение температур
+     */
+    private QuantileSketch getDistribution() {
+        if (!isDistributionCurrent()) {
+            distribution = new QuantileSketch();
+            for (DataPoint point : experimentalData) {
+                distribution.add(point.getTemperature());
             }
+            distributionFingerprint = history.getCurrent().getPoints().getFingerprint();
         }
-
-        // Вызываем экспорт в Excel
-        FileExporter.exportToExcel(experimentalData, interpolatedData, a, b, this);
+        return distribution;
     }
 
     /**
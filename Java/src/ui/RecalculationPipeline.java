@@ -0,0 +1,123 @@
+package ui;
+
+import javax.swing.*;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Класс RecalculationPipeline - отложенный пересчет в фоновом потоке.
+ *
+ * Каждый вызов schedule перезапускает таймер, поэтому серия быстрых правок
+ * приводит к одному пересчету после паузы. Когда таймер срабатывает, в потоке
+ * обработки событий снимается снимок входных данных, расчет по снимку
+ * выполняется в фоновом потоке (SwingWorker), а результат передается
+ * обратно в поток обработки событий одним вызовом publish.
+ *
+ * Одновременно выполняется не больше одного расчета. Если за время расчета
+ * поступили новые правки, его результат не публикуется, а сразу запускается
+ * расчет по новому снимку - так в интерфейс попадает только результат,
+ * соответствующий последнему состоянию данных.
+ *
+ * @param <S> тип снимка входных данных
+ * @param <R> тип результата расчета
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class RecalculationPipeline<S, R> {
+
+    /**
+     * Задержка пересчета после последней правки по умолчанию (мс).
+     */
+    public static final int DEFAULT_DELAY_MS = 300;
+
+    private final Supplier<S> snapshot;
+    private final Function<S, R> compute;
+    private final Consumer<R> publish;
+    private final Consumer<Throwable> failure;
+    private final Timer timer;
+
+    private SwingWorker<R, Void> running;
+    private boolean dirty;
+    private long generation;
+
+    /**
+     * Создает конвейер пересчета. Все методы вызываются в потоке обработки событий.
+     *
+     * @param delayMillis задержка пересчета после последней правки (мс)
+     * @param snapshot снимок входных данных (вызывается в потоке обработки событий)
+     * @param compute расчет по снимку (вызывается в фоновом потоке)
+     * @param publish публикация результата (вызывается в потоке обработки событий)
+     * @param failure обработка исключения расчета (вызывается в потоке обработки событий)
+     */
+    public RecalculationPipeline(int delayMillis, Supplier<S> snapshot, Function<S, R> compute,
+                                 Consumer<R> publish, Consumer<Throwable> failure) {
+        this.snapshot = snapshot;
+        this.compute = compute;
+        this.publish = publish;
+        this.failure = failure;
+        this.timer = new Timer(delayMillis, e -> start());
+        this.timer.setRepeats(false);
+    }
+
+    /**
+     * Планирует пересчет после паузы в правках.
+     */
+    public void schedule() {
+        timer.restart();
+    }
+
+    /**
+     * Отменяет запланированный пересчет и отбрасывает результат
+     * выполняющегося (например, если данные заменены другим способом).
+     */
+    public void cancel() {
+        timer.stop();
+        dirty = false;
+        generation++;
+    }
+
+    /**
+     * Запускает расчет по текущему снимку или откладывает его
+     * до завершения выполняющегося расчета.
+     */
+    private void start() {
+        if (running != null) {
+            dirty = true;
+            return;
+        }
+
+        S input = snapshot.get();
+        long startedGeneration = generation;
+        running = new SwingWorker<>() {
+            @Override
+            protected R doInBackground() {
+                return compute.apply(input);
+            }
+
+            @Override
+            protected void done() {
+                running = null;
+                if (dirty) {
+                    // Данные изменились во время расчета - результат устарел
+                    dirty = false;
+                    start();
+                    return;
+                }
+                if (startedGeneration != generation) {
+                    return;
+                }
+                try {
+                    publish.accept(get());
+                } catch (ExecutionException e) {
+                    failure.accept(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        running.execute();
+    }
+}
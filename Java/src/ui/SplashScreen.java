@@ -1,35 +1,43 @@
 package ui;
 
+import util.SpreadsheetService;
+import util.WriteAheadLog;
+
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Класс SplashScreen представляет собой стартовый экран приложения.
  * Отображает информацию о курсовой работе и университете с прогресс-баром загрузки.
+ * Прогресс-бар отражает выполнение задач подготовки (StartupWarmup),
+ * а экран закрывается, как только все задачи завершены.
  *
  * @author Petrushchenko A.A.
  * @version 1.0
  */
 public class SplashScreen extends JWindow {
     /**
-     * Прогресс-бар для отображения процесса загрузки.
+     * Логотип университета и его размер на экране.
      */
-    private JProgressBar progressBar;
+    private static final String PHOTO_FILE = "logo.png";
+    private static final int PHOTO_WIDTH = 283;
+    private static final int PHOTO_HEIGHT = 283;
 
     /**
-     * Таймер для анимации прогресс-бара.
+     * Прогресс-бар для отображения процесса загрузки.
      */
-    private Timer timer;
+    private JProgressBar progressBar;
 
     /**
-     * Текущее значение прогресса (0-100).
+     * Подготовка программы, выполняемая в фоне.
      */
-    private int progress = 0;
+    private StartupWarmup warmup;
 
     /**
-     * Флаг для отслеживания нажатия кнопки "Пропустить".
+     * Флаг, что главное окно уже открывается (по кнопке "Пропустить" или после подготовки).
      */
-    private boolean isSkipped = false;
+    private boolean mainOpened = false;
 
     /**
      * Конструктор создает и настраивает стартовый экран.
@@ -58,8 +66,9 @@ public class SplashScreen extends JWindow {
         setSize(900, 800);
         setLocationRelativeTo(null); // Центрируем окно
 
-        // Запускаем таймер для прогресс-бара
-        startTimer();
+        // Запускаем подготовку программы
+        startWarmup();
+        StartupProfile.mark("Стартовый экран создан");
     }
 
     /**
@@ -201,28 +210,16 @@ public class SplashScreen extends JWindow {
     }
 
     /**
-     * Запускает таймер для анимации прогресс-бара.
-     * Таймер обновляет прогресс каждые 50 миллисекунд.
+     * Запускает параллельную подготовку программы.
+     * Прогресс-бар продвигается по мере завершения задач.
      */
-    private void startTimer() {
-        timer = new Timer(600, e -> {
-            // Проверяем, не была ли нажата кнопка "Пропустить"
-            if (isSkipped) {
-                timer.stop();
-                return;
-            }
-
-            progress += 1;
-            progressBar.setValue(progress);
-            progressBar.setString("Загрузка: " + progress + "%");
-
-            // Завершение загрузки при достижении 100%
-            if (progress >= 100) {
-                timer.stop();
-                closeAndOpenMain();
-            }
+    private void startWarmup() {
+        warmup = new StartupWarmup((taskName, completed, total) -> {
+            progressBar.setValue(completed);
+            progressBar.setString("Загрузка: " + taskName + " (" + completed + " из " + total + ")");
         });
-        timer.start();
+        progressBar.setMaximum(warmup.getTaskCount());
+        warmup.getCompletion().thenRun(() -> SwingUtilities.invokeLater(this::closeAndOpenMain));
     }
 
     /**
@@ -235,24 +232,12 @@ public class SplashScreen extends JWindow {
         JLabel photoLabel = new JLabel("", SwingConstants.CENTER);
         photoLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        try {
-            // Пробуем загрузить картинку из ресурсов
-            ImageIcon originalIcon = loadImageFromResources();
-
-            if (originalIcon != null) {
-                // Масштабируем картинку до нужного размера
-                Image image = originalIcon.getImage();
-                Image scaledImage = image.getScaledInstance(283, 283, Image.SCALE_SMOOTH);
-                ImageIcon scaledIcon = new ImageIcon(scaledImage);
-                photoLabel.setIcon(scaledIcon);
-            } else {
-                // Используем эмодзи если картинка не найдена
-                photoLabel.setText("📊");
-                photoLabel.setFont(new Font("Arial", Font.PLAIN, 60));
-            }
-
-        } catch (Exception e) {
-            // Запасной вариант - эмодзи при ошибке загрузки
+        // Логотип маленький и нужен сразу, поэтому загружается синхронно
+        ImageIcon icon = ImageLoader.getScaledIcon(PHOTO_FILE, PHOTO_WIDTH, PHOTO_HEIGHT);
+        if (icon != null) {
+            photoLabel.setIcon(icon);
+        } else {
+            // Используем эмодзи если изображение не найдено
             photoLabel.setText("📊");
             photoLabel.setFont(new Font("Arial", Font.PLAIN, 60));
         }
@@ -260,33 +245,12 @@ public class SplashScreen extends JWindow {
         return photoLabel;
     }
 
-    /**
-     * Загружает изображение логотипа из ресурсов.
-     *
-     * @return ImageIcon загруженного изображения или null в случае ошибки
-     */
-    private ImageIcon loadImageFromResources() {
-        try {
-            // Пытаемся загрузить логотип из папки resources
-            return new ImageIcon("Java/src/resources/logo.png");
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
     /**
      * Обрабатывает нажатие кнопки "Пропустить".
-     * Останавливает таймер и открывает главное окно.
+     * Открывает главное окно, не дожидаясь окончания подготовки:
+     * незавершенные задачи продолжают выполняться в фоне.
      */
     private void skipAndOpenMain() {
-        // Устанавливаем флаг, что кнопка была нажата
-        isSkipped = true;
-
-        // Останавливаем таймер прогресса
-        if (timer != null && timer.isRunning()) {
-            timer.stop();
-        }
-
         closeAndOpenMain();
     }
 
@@ -295,11 +259,19 @@ public class SplashScreen extends JWindow {
      * Выполняется в потоке обработки событий EDT.
      */
     private void closeAndOpenMain() {
+        if (mainOpened) {
+            return;
+        }
+        mainOpened = true;
         dispose(); // Закрываем splash screen
 
-        // Запускаем главное окно в потоке обработки событий
+        // Главному окну нужен журнал сеанса: если он еще читается, ждем только его
+        CompletableFuture<WriteAheadLog> sessionLog = warmup.getSessionLog();
         SwingUtilities.invokeLater(() -> {
-            new MainFrame().setVisible(true);
+            new MainFrame(sessionLog.join()).setVisible(true);
+
+            // Модуль Excel загружаем, когда окно уже на экране
+            SwingUtilities.invokeLater(SpreadsheetService::preloadInBackground);
         });
     }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package ui;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Класс StartupProfile замеряет время запуска программы.
+ *
+ * В режиме замера этапы запуска отмечаются временем от старта JVM,
+ * а после первой отрисовки главного окна отчет выводится в консоль
+ * и выполняется заданное действие (например, выход из программы).
+ * Вне режима замера отметки ничего не делают.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class StartupProfile {
+
+    private static final List<String> phases = new ArrayList<>();
+    private static volatile boolean enabled;
+    private static Runnable afterFirstPaint;
+    private static boolean reported;
+
+    /**
+     * Включает режим замера.
+     *
+     * @param action действие после вывода отчета (вызывается в потоке обработки событий) или null
+     */
+    public static void enable(Runnable action) {
+        afterFirstPaint = action;
+        enabled = true;
+        mark("Запуск main");
+    }
+
+    /**
+     * Проверяет, включен ли режим замера.
+     *
+     * @return true если замер включен
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Отмечает завершение этапа запуска.
+     *
+     * @param phase название этапа
+     */
+    public static void mark(String phase) {
+        if (!enabled) {
+            return;
+        }
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        synchronized (phases) {
+            phases.add(String.format("%6d мс  %s", uptime, phase));
+        }
+    }
+
+    /**
+     * Вызывается главным окном после первой отрисовки: выводит отчет
+     * и выполняет действие, заданное при включении замера.
+     */
+    static void mainFramePainted() {
+        if (!enabled || reported) {
+            return;
+        }
+        reported = true;
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        mark("Главное окно отрисовано");
+
+        System.out.println("Этапы запуска (время от старта JVM):");
+        synchronized (phases) {
+            phases.forEach(phase -> System.out.println("  " + phase));
+        }
+        System.out.println("Время до отрисовки главного окна: " + uptime + " мс");
+
+        if (afterFirstPaint != null) {
+            afterFirstPaint.run();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package ui;
+
+import logic.FitMode;
+import logic.LeastSquaresCalculator;
+import logic.ModelFitter;
+import model.DataPoint;
+import util.Diagnostics;
+import util.WriteAheadLog;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Класс StartupWarmup выполняет подготовку программы к работе,
+ * пока отображается стартовый экран.
+ *
+ * Независимые задачи запускаются параллельно: восстановление сеанса
+ * из журнала, прогрев расчетных методов JIT-компилятором и декодирование
+ * изображений. Apache POI здесь не загружается: он нужен только для
+ * импорта и экспорта и загружается в фоне после открытия главного окна
+ * (SpreadsheetService.preloadInBackground). Стартовый экран
+ * показывает ход выполнения и закрывается, как только все задачи
+ * завершены. Ошибка задачи не мешает запуску - программа выполнит
+ * соответствующую работу позже, при первом обращении.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class StartupWarmup {
+
+    /**
+     * Получатель сообщений о ходе подготовки (вызывается в потоке обработки событий).
+     */
+    public interface Listener {
+        /**
+         * Вызывается после завершения очередной задачи.
+         *
+         * @param taskName название завершенной задачи
+         * @param completed количество завершенных задач
+         * @param total общее количество задач
+         */
+        void taskCompleted(String taskName, int completed, int total);
+    }
+
+    /**
+     * Количество точек синтетических данных для прогрева расчетов.
+     */
+    private static final int WARMUP_POINTS = 500;
+
+    /**
+     * Количество повторов расчета при прогреве.
+     */
+    private static final int WARMUP_ROUNDS = 200;
+
+    private final ExecutorService executor;
+    private final CompletableFuture<WriteAheadLog> sessionLog;
+    private final CompletableFuture<Void> completion;
+    private final AtomicInteger completed = new AtomicInteger();
+    private final int total;
+
+    /**
+     * Запускает подготовку программы.
+     *
+     * @param listener получатель сообщений о ходе подготовки
+     */
+    public StartupWarmup(Listener listener) {
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "startup-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        sessionLog = CompletableFuture.supplyAsync(MainFrame::openDefaultSessionLog, executor);
+        Map<String, CompletableFuture<?>> tasks = new LinkedHashMap<>();
+        tasks.put("Восстановление сеанса", sessionLog);
+        tasks.put("Подготовка расчетов", run(StartupWarmup::warmUpCalculations));
+        tasks.put("Загрузка изображений", CompletableFuture.allOf(
+                ImageLoader.preload(AboutAuthorDialog.PHOTO_FILE,
+                        AboutAuthorDialog.PHOTO_WIDTH, AboutAuthorDialog.PHOTO_HEIGHT, executor),
+                ImageLoader.preload(AboutProgramDialog.PHOTO_FILE,
+                        AboutProgramDialog.PHOTO_WIDTH, AboutProgramDialog.PHOTO_HEIGHT, executor)));
+        total = tasks.size();
+
+        List<CompletableFuture<Void>> tracked = new ArrayList<>();
+        tasks.forEach((taskName, task) -> tracked.add(track(task, taskName, listener)));
+
+        long startNanos = System.nanoTime();
+        completion = CompletableFuture.allOf(tracked.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((result, error) -> {
+                    executor.shutdown();
+                    StartupProfile.mark("Подготовка завершена");
+                    Diagnostics.info("Подготовка к запуску завершена за %d мс",
+                            Diagnostics.elapsedMillis(startNanos));
+                });
+    }
+
+    /**
+     * Возвращает журнал сеанса, открываемый в фоне.
+     *
+     * @return журнал или null (если журнал недоступен)
+     */
+    public CompletableFuture<WriteAheadLog> getSessionLog() {
+        return sessionLog;
+    }
+
+    /**
+     * Возвращает завершение всех задач подготовки.
+     *
+     * @return завершение подготовки (всегда успешное)
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Возвращает общее количество задач подготовки.
+     *
+     * @return количество задач
+     */
+    public int getTaskCount() {
+        return total;
+    }
+
+    /**
+     * Запускает задачу в пуле потоков подготовки.
+     *
+     * @param task задача
+     * @return выполнение задачи
+     */
+    private CompletableFuture<Void> run(Runnable task) {
+        return CompletableFuture.runAsync(task, executor);
+    }
+
+    /**
+     * Сообщает о завершении задачи и скрывает ее ошибку.
+     *
+     * @param task выполнение задачи
+     * @param taskName название задачи
+     * @param listener получатель сообщений
+     * @return выполнение задачи, которое всегда завершается успешно
+     */
+    private CompletableFuture<Void> track(CompletableFuture<?> task, String taskName, Listener listener) {
+        return task.handle((result, error) -> {
+            if (error != null) {
+                Diagnostics.warn("Задача запуска \"%s\" не выполнена: %s", taskName, error.getMessage());
+            }
+            int done = completed.incrementAndGet();
+            SwingUtilities.invokeLater(() -> listener.taskCompleted(taskName, done, total));
+            return null;
+        });
+    }
+
+    /**
+     * Прогревает расчет прямой и модели на синтетических данных,
+     * чтобы первые расчеты пользователя выполнялись скомпилированным кодом.
+     */
+    private static void warmUpCalculations() {
+        double[] times = new double[WARMUP_POINTS];
+        double[] temperatures = new double[WARMUP_POINTS];
+        List<DataPoint> points = new ArrayList<>(WARMUP_POINTS);
+        for (int i = 0; i < WARMUP_POINTS; i++) {
+            times[i] = 24.0 * i / WARMUP_POINTS;
+            temperatures[i] = 0.9 * times[i] + 1.7 + Math.sin(i);
+            points.add(new DataPoint(times[i], temperatures[i]));
+        }
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            LeastSquaresCalculator.calculateCoefficients(times, temperatures, WARMUP_POINTS);
+            LeastSquaresCalculator.calculateCoefficients(points);
+        }
+        ModelFitter.fit(points, FitMode.LINEAR, 1);
+    }
+}
@@ -0,0 +1,254 @@
+package ui;
+
+import logic.FitMode;
+import logic.WorkspaceFitter;
+import model.SeriesWorkspace;
+import model.TimeSeries;
+import util.SpreadsheetService;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Диалоговое окно рабочей области с несколькими рядами измерений.
+ * Показывает сводную таблицу по всем рядам (количество точек, диапазон
+ * времени, коэффициенты прямой, R², медиана и 5–95% температуры),
+ * позволяет загрузить ряды из Excel,
+ * пересчитать все ряды сразу и открыть выбранный ряд в главном окне.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class WorkspaceDialog extends JDialog {
+    private final SeriesWorkspace workspace;
+    private final FitMode requestedMode;
+    private final FitMode fitMode;
+    private final Consumer<TimeSeries> openAction;
+
+    private JTable summaryTable;
+    private DefaultTableModel summaryModel;
+    private JLabel statusLabel;
+    private JButton recalculateButton;
+
+    /**
+     * Конструктор диалогового окна рабочей области.
+     *
+     * @param parent родительское окно
+     * @param workspace рабочая область с рядами
+     * @param fitMode режим аппроксимации для пересчета (режимы, не сводящиеся
+     *                к прямой, заменяются МНК, о чем сообщается в строке состояния)
+     * @param openAction действие открытия выбранного ряда в главном окне
+     */
+    public WorkspaceDialog(JFrame parent, SeriesWorkspace workspace, FitMode fitMode,
+                           Consumer<TimeSeries> openAction) {
+        super(parent, "Рабочая область", true);
+        this.workspace = workspace;
+        this.requestedMode = fitMode;
+        this.fitMode = WorkspaceFitter.effectiveMode(fitMode);
+        this.openAction = openAction;
+        setupUI();
+        updateSummaryTable(null);
+        statusLabel.setText(getModeNotice().isEmpty() ? " " : getModeNotice());
+    }
+
+    /**
+     * Возвращает предупреждение о том, что выбранный в главном окне режим
+     * не применяется к отдельным рядам рабочей области.
+     *
+     * @return текст предупреждения или пустая строка
+     */
+    private String getModeNotice() {
+        if (requestedMode == fitMode) {
+            return "";
+        }
+        return "Режим «" + requestedMode.getDisplayName() + "» к рядам рабочей области не применяется, "
+                + "прямые рассчитываются режимом «" + fitMode.getDisplayName() + "»";
+    }
+
+    /**
+     * Настраивает пользовательский интерфейс диалогового окна.
+     */
+    private void setupUI() {
+        setLayout(new BorderLayout());
+        setSize(750, 450);
+        setLocationRelativeTo(getParent());
+
+        String[] columns = {"Ряд", "Точек", "Время, ч", "a", "b", "R²", "Медиана, °C", "5–95%, °C"};
+        summaryModel = new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        summaryTable = new JTable(summaryModel);
+        summaryTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        summaryTable.getColumnModel().getColumn(0).setPreferredWidth(200);
+
+        add(new JScrollPane(summaryTable), BorderLayout.CENTER);
+
+        statusLabel = new JLabel(" ");
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+        add(statusLabel, BorderLayout.NORTH);
+
+        // Панель кнопок
+        JPanel buttonPanel = new JPanel();
+
+        JButton importButton = new JButton("Загрузить из Excel...");
+        importButton.addActionListener(e -> importSeries());
+
+        recalculateButton = new JButton("Пересчитать все");
+        recalculateButton.addActionListener(e -> recalculateAll());
+
+        JButton openButton = new JButton("Открыть ряд");
+        openButton.addActionListener(e -> openSelected());
+
+        JButton deleteButton = new JButton("Удалить ряд");
+        deleteButton.addActionListener(e -> deleteSelected());
+
+        JButton closeButton = new JButton("Закрыть");
+        closeButton.addActionListener(e -> dispose());
+
+        buttonPanel.add(importButton);
+        buttonPanel.add(recalculateButton);
+        buttonPanel.add(openButton);
+        buttonPanel.add(deleteButton);
+        buttonPanel.add(closeButton);
+
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Загружает ряды из Excel файла и добавляет их в рабочую область.
+     */
+    private void importSeries() {
+        SeriesWorkspace loaded = SpreadsheetService.get().importWorkspaceFromExcel((JFrame) getParent());
+        if (loaded == null) {
+            return;
+        }
+        for (TimeSeries series : loaded.getAll()) {
+            workspace.add(series);
+        }
+        updateSummaryTable(null);
+        statusLabel.setText("Загружено рядов: " + loaded.size() + ", точек: " + loaded.getTotalPoints());
+    }
+
+    /**
+     * Пересчитывает прямые для всех рядов в фоновом потоке.
+     * Ряды обрабатываются параллельно на всех ядрах процессора.
+     */
+    private void recalculateAll() {
+        if (workspace.size() == 0) {
+            return;
+        }
+
+        recalculateButton.setEnabled(false);
+        statusLabel.setText("Пересчет " + workspace.size() + " рядов...");
+        long start = System.nanoTime();
+
+        new SwingWorker<List<WorkspaceFitter.SeriesFit>, Void>() {
+            @Override
+            protected List<WorkspaceFitter.SeriesFit> doInBackground() {
+                return WorkspaceFitter.fitAll(workspace, fitMode);
+            }
+
+            @Override
+            protected void done() {
+                recalculateButton.setEnabled(true);
+                try {
+                    List<WorkspaceFitter.SeriesFit> fits = get();
+                    updateSummaryTable(fits);
+                    long elapsed = (System.nanoTime() - start) / 1_000_000;
+                    String notice = getModeNotice();
+                    statusLabel.setText(String.format("Пересчитано рядов: %d (%s), точек: %d, время: %d мс%s",
+                            fits.size(), fitMode.getDisplayName(), workspace.getTotalPoints(), elapsed,
+                            notice.isEmpty() ? "" : ". " + notice));
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    statusLabel.setText("Ошибка пересчета: " + cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Открывает выбранный ряд в главном окне и закрывает диалог.
+     */
+    private void openSelected() {
+        TimeSeries series = getSelectedSeries();
+        if (series != null) {
+            openAction.accept(series);
+            dispose();
+        }
+    }
+
+    /**
+     * Удаляет выбранный ряд из рабочей области.
+     */
+    private void deleteSelected() {
+        TimeSeries series = getSelectedSeries();
+        if (series != null) {
+            workspace.remove(series.getName());
+            summaryModel.removeRow(summaryTable.getSelectedRow());
+        }
+    }
+
+    /**
+     * Возвращает ряд, выбранный в таблице.
+     *
+     * @return выбранный ряд или null
+     */
+    private TimeSeries getSelectedSeries() {
+        int selectedRow = summaryTable.getSelectedRow();
+        if (selectedRow == -1) {
+            return null;
+        }
+        return workspace.get((String) summaryModel.getValueAt(selectedRow, 0));
+    }
+
+    /**
+     * Заполняет сводную таблицу. Если результаты расчета не переданы,
+     * колонки коэффициентов остаются пустыми.
+     *
+     * @param fits результаты расчета в порядке рядов или null
+     */
+    private void updateSummaryTable(List<WorkspaceFitter.SeriesFit> fits) {
+        summaryModel.setRowCount(0);
+
+        if (fits == null) {
+            for (TimeSeries series : workspace.getAll()) {
+                summaryModel.addRow(new Object[]{series.getName(), series.size(), "", "", "", "", "", ""});
+            }
+            return;
+        }
+
+        for (WorkspaceFitter.SeriesFit fit : fits) {
+            String range = fit.getCount() > 0
+                    ? String.format(Locale.US, "%.2f – %.2f", fit.getMinTime(), fit.getMaxTime())
+                    : "";
+            String median = fit.getCount() > 0
+                    ? String.format(Locale.US, "%.2f", fit.getTemperatureQuantile(0.5))
+                    : "";
+            String spread = fit.getCount() > 0
+                    ? String.format(Locale.US, "%.2f – %.2f",
+                            fit.getTemperatureQuantile(0.05), fit.getTemperatureQuantile(0.95))
+                    : "";
+            if (fit.isSuccessful()) {
+                summaryModel.addRow(new Object[]{
+                        fit.getName(), fit.getCount(), range,
+                        String.format(Locale.US, "%.4f", fit.getA()),
+                        String.format(Locale.US, "%.4f", fit.getB()),
+                        Double.isNaN(fit.getRSquared()) ? "" : String.format(Locale.US, "%.4f", fit.getRSquared()),
+                        median, spread
+                });
+            } else {
+                summaryModel.addRow(new Object[]{
+                        fit.getName(), fit.getCount(), range, fit.getErrorMessage(), "", "", median, spread
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package util;
+
+import logic.TimeOrder;
+import model.DataPoint;
+import model.TimeSeries;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Класс BulkImporter загружает сразу много Excel файлов (например, папку
+ * суточных книг регистратора), читая из каждого файла все листы с таблицей точек.
+ *
+ * Каждый файл обрабатывается в отдельном виртуальном потоке. Количество
+ * одновременно открытых книг ограничено семафором: разобранная книга POI
+ * занимает в памяти во много раз больше самого файла, поэтому без
+ * ограничения сотни файлов быстро исчерпали бы память. Время загрузки
+ * определяется скоростью диска и числом ядер, а не последовательным разбором.
+ * Листы внутри одного файла читаются последовательно, так как книга POI
+ * не допускает одновременного обращения из нескольких потоков.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class BulkImporter {
+
+    /**
+     * Ограничение числа одновременно открытых книг по умолчанию.
+     */
+    public static final int DEFAULT_MAX_OPEN_WORKBOOKS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Данные одного листа одного файла.
+     */
+    public static class SourceResult {
+        private final File file;
+        private final String sheetName;
+        private final TimeSeries series;
+        private final String errorMessage;
+
+        /**
+         * Создает результат загрузки листа.
+         *
+         * @param file исходный файл
+         * @param sheetName название листа (null, если файл не удалось прочитать)
+         * @param series экспериментальные точки листа (null при ошибке)
+         * @param errorMessage сообщение об ошибке или null
+         */
+        SourceResult(File file, String sheetName, TimeSeries series, String errorMessage) {
+            this.file = file;
+            this.sheetName = sheetName;
+            this.series = series;
+            this.errorMessage = errorMessage;
+        }
+
+        /**
+         * Возвращает исходный файл.
+         *
+         * @return файл
+         */
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * Возвращает название листа.
+         *
+         * @return название листа или null при ошибке чтения файла
+         */
+        public String getSheetName() {
+            return sheetName;
+        }
+
+        /**
+         * Возвращает экспериментальные точки листа в виде ряда
+         * с названием "файл / лист".
+         *
+         * @return ряд или null при ошибке
+         */
+        public TimeSeries getSeries() {
+            return series;
+        }
+
+        /**
+         * Возвращает сообщение об ошибке.
+         *
+         * @return сообщение или null, если лист загружен
+         */
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+
+        /**
+         * Проверяет, успешно ли загружен источник.
+         *
+         * @return true если данные прочитаны
+         */
+        public boolean isSuccessful() {
+            return errorMessage == null;
+        }
+    }
+
+    /**
+     * Результат пакетной загрузки: данные по источникам в порядке файлов и листов.
+     */
+    public static class BulkResult {
+        private final List<SourceResult> sources;
+        private final long elapsedMillis;
+
+        /**
+         * Создает результат пакетной загрузки.
+         *
+         * @param sources результаты по источникам
+         * @param elapsedMillis время загрузки в миллисекундах
+         */
+        BulkResult(List<SourceResult> sources, long elapsedMillis) {
+            this.sources = sources;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /**
+         * Возвращает результаты по источникам (файл + лист).
+         *
+         * @return неизменяемый список результатов
+         */
+        public List<SourceResult> getSources() {
+            return sources;
+        }
+
+        /**
+         * Возвращает время загрузки.
+         *
+         * @return время в миллисекундах
+         */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * Возвращает суммарное количество загруженных точек.
+         *
+         * @return количество точек
+         */
+        public long getTotalPoints() {
+            long total = 0;
+            for (SourceResult source : sources) {
+                if (source.isSuccessful()) {
+                    total += source.getSeries().size();
+                }
+            }
+            return total;
+        }
+
+        /**
+         * Возвращает количество источников, которые не удалось загрузить.
+         *
+         * @return количество ошибок
+         */
+        public int getErrorCount() {
+            int errors = 0;
+            for (SourceResult source : sources) {
+                if (!source.isSuccessful()) {
+                    errors++;
+                }
+            }
+            return errors;
+        }
+
+        /**
+         * Объединяет все загруженные точки в один ряд, упорядоченный по времени.
+         * Точки с одинаковым временем сохраняют порядок источников.
+         *
+         * @param name название объединенного ряда
+         * @return объединенный ряд
+         */
+        public TimeSeries merge(String name) {
+            int n = (int) getTotalPoints();
+            double[] times = new double[n];
+            double[] temperatures = new double[n];
+
+            int offset = 0;
+            for (SourceResult source : sources) {
+                if (source.isSuccessful()) {
+                    TimeSeries series = source.getSeries();
+                    System.arraycopy(series.getTimeArray(), 0, times, offset, series.size());
+                    System.arraycopy(series.getTemperatureArray(), 0, temperatures, offset, series.size());
+                    offset += series.size();
+                }
+            }
+
+            TimeOrder.sort(times, temperatures, n);
+
+            TimeSeries merged = new TimeSeries(name, n);
+            for (int i = 0; i < n; i++) {
+                merged.add(times[i], temperatures[i]);
+            }
+            return merged;
+        }
+    }
+
+    /**
+     * Возвращает Excel файлы папки, упорядоченные по имени.
+     *
+     * @param directory папка
+     * @return список файлов .xlsx и .xls
+     */
+    public static List<File> listWorkbooks(File directory) {
+        File[] files = directory.listFiles(file -> file.isFile() &&
+                (file.getName().toLowerCase().endsWith(".xlsx") || file.getName().toLowerCase().endsWith(".xls")));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        Arrays.sort(files);
+        return new ArrayList<>(Arrays.asList(files));
+    }
+
+    /**
+     * Загружает файлы с ограничением числа открытых книг по умолчанию.
+     *
+     * @param files список Excel файлов
+     * @return результат загрузки
+     */
+    public static BulkResult importFiles(List<File> files) {
+        return importFiles(files, DEFAULT_MAX_OPEN_WORKBOOKS);
+    }
+
+    /**
+     * Загружает все листы с таблицами точек из всех файлов параллельно.
+     * Ошибка чтения одного файла не прерывает загрузку остальных.
+     *
+     * @param files список Excel файлов
+     * @param maxOpenWorkbooks максимальное число одновременно открытых книг
+     * @return результат загрузки
+     * @throws IllegalArgumentException если maxOpenWorkbooks меньше 1
+     */
+    public static BulkResult importFiles(List<File> files, int maxOpenWorkbooks) {
+        if (maxOpenWorkbooks < 1) {
+            throw new IllegalArgumentException("Число открытых книг должно быть не меньше 1");
+        }
+
+        long start = System.nanoTime();
+        Semaphore openWorkbooks = new Semaphore(maxOpenWorkbooks);
+        List<Future<List<SourceResult>>> futures = new ArrayList<>(files.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (File file : files) {
+                futures.add(executor.submit(() -> loadFile(file, openWorkbooks)));
+            }
+
+            List<SourceResult> sources = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    sources.addAll(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    sources.add(new SourceResult(files.get(i), null, null, e.getCause().getMessage()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    sources.add(new SourceResult(files.get(i), null, null, "Загрузка прервана"));
+                }
+            }
+
+            return new BulkResult(List.copyOf(sources), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Загружает все листы одного файла, дождавшись разрешения открыть книгу.
+     *
+     * @param file Excel файл
+     * @param openWorkbooks семафор открытых книг
+     * @return результаты по листам файла
+     * @throws InterruptedException если поток прерван во время ожидания
+     */
+    private static List<SourceResult> loadFile(File file, Semaphore openWorkbooks) throws InterruptedException {
+        List<SourceResult> results = new ArrayList<>();
+
+        openWorkbooks.acquire();
+        try {
+            Map<String, FileImporter.ImportResult> tables = SpreadsheetService.get().loadAllTables(file);
+            for (Map.Entry<String, FileImporter.ImportResult> table : tables.entrySet()) {
+                List<DataPoint> points = table.getValue().experimentalData;
+                if (points.isEmpty()) {
+                    continue;
+                }
+                TimeSeries series = TimeSeries.fromDataPoints(file.getName() + " / " + table.getKey(), points);
+                results.add(new SourceResult(file, table.getKey(), series, null));
+            }
+        } catch (Exception e) {
+            results.add(new SourceResult(file, null, null, e.getMessage()));
+        } finally {
+            openWorkbooks.release();
+        }
+
+        return results;
+    }
+}
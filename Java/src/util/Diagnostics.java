@@ -0,0 +1,204 @@
+package util;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Класс Diagnostics - канал диагностических сообщений с уровнями.
+ * Заменяет разрозненные вызовы System.out.println.
+ *
+ * Уровень задается системным свойством diagnostics.level
+ * (OFF, ERROR, WARN, INFO, DEBUG; по умолчанию INFO) или методом setLevel.
+ * Сообщения форматируются только если уровень включен. В циклах
+ * по строкам вызовы нужно оборачивать проверкой isEnabled, чтобы
+ * выключенный уровень не требовал даже создания массива аргументов.
+ * Для однотипных сообщений (например, об отклоненных строках)
+ * используется Sampler, который пропускает только первые несколько.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class Diagnostics {
+
+    /**
+     * Уровни сообщений в порядке увеличения подробности.
+     */
+    public enum Level {
+        OFF, ERROR, WARN, INFO, DEBUG
+    }
+
+    /**
+     * Текущий уровень.
+     */
+    private static volatile Level level = parseLevel(System.getProperty("diagnostics.level"));
+
+    /**
+     * Поток вывода сообщений.
+     */
+    private static volatile PrintStream output = System.out;
+
+    /**
+     * Ограничитель количества однотипных сообщений: пропускает первые
+     * limit сообщений и считает остальные. Не потокобезопасен -
+     * создается на один проход импорта.
+     */
+    public static class Sampler {
+        private final int limit;
+        private long count;
+
+        /**
+         * Создает ограничитель.
+         *
+         * @param limit количество сообщений, которые будут выведены
+         */
+        public Sampler(int limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * Учитывает очередное событие.
+         *
+         * @return true если сообщение о событии нужно вывести
+         */
+        public boolean sample() {
+            return ++count <= limit;
+        }
+
+        /**
+         * Возвращает общее количество событий.
+         *
+         * @return количество событий
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Возвращает количество событий, сообщения о которых не выводились.
+         *
+         * @return количество пропущенных сообщений
+         */
+        public long getSuppressed() {
+            return Math.max(0, count - limit);
+        }
+    }
+
+    /**
+     * Проверяет, выводятся ли сообщения заданного уровня.
+     *
+     * @param messageLevel уровень сообщения
+     * @return true если уровень включен
+     */
+    public static boolean isEnabled(Level messageLevel) {
+        return messageLevel != Level.OFF && messageLevel.ordinal() <= level.ordinal();
+    }
+
+    /**
+     * Возвращает текущий уровень.
+     *
+     * @return уровень
+     */
+    public static Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Устанавливает уровень сообщений.
+     *
+     * @param newLevel новый уровень
+     */
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    /**
+     * Устанавливает поток вывода сообщений.
+     *
+     * @param stream поток вывода
+     */
+    public static void setOutput(PrintStream stream) {
+        output = stream;
+    }
+
+    /**
+     * Выводит сообщение об ошибке.
+     *
+     * @param format шаблон сообщения (String.format)
+     * @param args аргументы шаблона
+     */
+    public static void error(String format, Object... args) {
+        log(Level.ERROR, format, args);
+    }
+
+    /**
+     * Выводит предупреждение.
+     *
+     * @param format шаблон сообщения (String.format)
+     * @param args аргументы шаблона
+     */
+    public static void warn(String format, Object... args) {
+        log(Level.WARN, format, args);
+    }
+
+    /**
+     * Выводит информационное сообщение.
+     *
+     * @param format шаблон сообщения (String.format)
+     * @param args аргументы шаблона
+     */
+    public static void info(String format, Object... args) {
+        log(Level.INFO, format, args);
+    }
+
+    /**
+     * Выводит отладочное сообщение.
+     *
+     * @param format шаблон сообщения (String.format)
+     * @param args аргументы шаблона
+     */
+    public static void debug(String format, Object... args) {
+        log(Level.DEBUG, format, args);
+    }
+
+    /**
+     * Выводит сообщение, если его уровень включен.
+     *
+     * @param messageLevel уровень сообщения
+     * @param format шаблон сообщения (String.format)
+     * @param args аргументы шаблона
+     */
+    public static void log(Level messageLevel, String format, Object... args) {
+        if (!isEnabled(messageLevel)) {
+            return;
+        }
+        String message = args.length == 0 ? format : String.format(Locale.US, format, args);
+        output.println("[" + messageLevel + "] " + message);
+    }
+
+    /**
+     * Возвращает время в миллисекундах, прошедшее с момента startNanos.
+     *
+     * @param startNanos момент начала, полученный из System.nanoTime()
+     * @return прошедшее время в миллисекундах
+     */
+    public static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Разбирает уровень из строки.
+     *
+     * @param value название уровня
+     * @return уровень (INFO, если строка пустая или неизвестная)
+     */
+    private static Level parseLevel(String value) {
+        if (value == null) {
+            return Level.INFO;
+        }
+        try {
+            return Level.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package util;
 
+import logic.FittedModel;
+import logic.QuantileSketch;
+import logic.RegressionStatistics;
 import model.DataPoint;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import javax.swing.*;
 import java.io.File;
 import java.io.FileOutputStream;
@@ -21,19 +26,72 @@ import java.util.List;
  */
 public class FileExporter {
 
+    /**
+     * Количество строк листа, которые держатся в памяти при потоковой записи.
+     * Остальные строки сразу сбрасываются во временный файл.
+     */
+    private static final int STREAMING_WINDOW_ROWS = 100;
+
+    /**
+     * Максимальное количество строк, для которого ширина колонок подбирается
+     * по содержимому. Для больших таблиц подбор слишком дорог,
+     * и используется фиксированная ширина.
+     */
+    private static final int AUTO_SIZE_MAX_ROWS = 2000;
+
+    /**
+     * Фиксированная ширина колонки (в 1/256 ширины символа).
+     */
+    private static final int FIXED_COLUMN_WIDTH = 20 * 256;
+
+    /**
+     * Количество интервалов гистограммы температур.
+     */
+    private static final int HISTOGRAM_BINS = 20;
+
+    /**
+     * Максимальное количество строк на листе xlsx. Точки, которые
+     * не помещаются на лист, переносятся на следующие листы.
+     */
+    private static final int MAX_SHEET_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
     /**
      * Экспортирует данные в Excel файл.
-     * Создает файл с одним листом "Все точки", содержащим все типы данных.
+     * Создает файл с листом "Все точки", содержащим все типы данных.
      *
      * @param experimentalData список экспериментальных точек
      * @param interpolatedData список интерполяционных точек (уже с рассчитанной температурой)
-     * @param a коэффициент наклона прямой
-     * @param b коэффициент смещения прямой
+     * @param model модель, по которой рассчитаны интерполяционные точки
      * @param parentFrame родительское окно для диалогов
      */
     public static void exportToExcel(List<DataPoint> experimentalData,
                                      List<DataPoint> interpolatedData,
-                                     double a, double b,
+                                     FittedModel model,
+                                     JFrame parentFrame) {
+        exportToExcel(experimentalData, interpolatedData, model, null, null, null, parentFrame);
+    }
+
+    /**
+     * Экспортирует данные в Excel файл вместе со статистиками регрессии.
+     * Под строкой уравнения добавляются R², стандартные ошибки коэффициентов
+     * и доверительные интервалы бутстрэпа, если они переданы. Если передано
+     * распределение температур, в сводку добавляются медиана и процентили,
+     * а на лист "Распределение" - гистограмма.
+     *
+     * @param experimentalData список экспериментальных точек
+     * @param interpolatedData список интерполяционных точек (уже с рассчитанной температурой)
+     * @param model модель, по которой рассчитаны интерполяционные точки
+     * @param statistics статистики прямой или null
+     * @param bootstrap доверительные интервалы бутстрэпа или null
+     * @param distribution распределение температур экспериментальных точек или null
+     * @param parentFrame родительское окно для диалогов
+     */
+    public static void exportToExcel(List<DataPoint> experimentalData,
+                                     List<DataPoint> interpolatedData,
+                                     FittedModel model,
+                                     RegressionStatistics.Summary statistics,
+                                     RegressionStatistics.BootstrapResult bootstrap,
+                                     QuantileSketch distribution,
                                      JFrame parentFrame) {
 
         // Создаем диалоговое окно выбора файла
@@ -72,17 +130,29 @@ public class FileExporter {
                 fileToSave = new File(filePath + ".xlsx");
             }
 
-            try (Workbook workbook = new XSSFWorkbook()) {
+            // Потоковая книга: в памяти только окно строк, поэтому экспорт
+            // сетки интерполяции на сотни тысяч строк не требует много памяти
+            SXSSFWorkbook workbook = new SXSSFWorkbook(STREAMING_WINDOW_ROWS);
+            try {
                 // Создаем стили для ячеек
                 CellStyle headerStyle = createHeaderStyle(workbook);
                 CellStyle dataStyle = createDataStyle(workbook);
                 CellStyle infoStyle = createInfoStyle(workbook);
 
                 // Создаем лист "Все точки" и заполняем его данными
-                Sheet allPointsSheet = workbook.createSheet("Все точки");
+                SXSSFSheet allPointsSheet = workbook.createSheet("Все точки");
+                boolean autoSize = experimentalData.size() + interpolatedData.size() <= AUTO_SIZE_MAX_ROWS;
+                if (autoSize) {
+                    allPointsSheet.trackAllColumnsForAutoSizing();
+                }
                 createSimpleTable(allPointsSheet, experimentalData,
-                        interpolatedData, a, b,
-                        headerStyle, dataStyle, infoStyle);
+                        interpolatedData, model, statistics, bootstrap, distribution,
+                        headerStyle, dataStyle, infoStyle, autoSize);
+
+                if (distribution != null && distribution.getCount() > 0) {
+                    createDistributionTable(workbook.createSheet("Распределение"), distribution,
+                            headerStyle, dataStyle, infoStyle);
+                }
 
                 // Сохраняем файл на диск
                 try (FileOutputStream fileOut = new FileOutputStream(fileToSave)) {
@@ -95,12 +165,15 @@ public class FileExporter {
                         "Экспорт завершен",
                         JOptionPane.INFORMATION_MESSAGE);
 
-            } catch (IOException e) {
-                // Обрабатываем ошибки ввода-вывода
+            } catch (IOException | RuntimeException e) {
+                // Обрабатываем ошибки ввода-вывода и ошибки построения книги
                 JOptionPane.showMessageDialog(parentFrame,
                         "Ошибка при сохранении Excel файла:\n" + e.getMessage(),
                         "Ошибка экспорта",
                         JOptionPane.ERROR_MESSAGE);
+            } finally {
+                // Удаляем временные файлы потоковой записи
+                workbook.dispose();
             }
         }
     }
@@ -108,71 +181,188 @@ public class FileExporter {
     /**
      * Создает простую таблицу на листе Excel.
      * Таблица содержит все типы точек: экспериментальные, интерполяционные и пользовательские.
+     * Если точки не помещаются на лист, остальные записываются на листы
+     * "Все точки (2)", "Все точки (3)" и т.д. с той же строкой заголовков.
      *
      * @param sheet лист Excel для заполнения
      * @param experimentalData список экспериментальных точек
      * @param interpolatedData список интерполяционных точек
-     * @param a коэффициент наклона прямой
-     * @param b коэффициент смещения прямой
+     * @param model модель, по которой рассчитаны интерполяционные точки
+     * @param statistics статистики прямой или null
+     * @param bootstrap доверительные интервалы бутстрэпа или null
+     * @param distribution распределение температур или null
      * @param headerStyle стиль для заголовков таблицы
      * @param dataStyle стиль для данных таблицы
      * @param infoStyle стиль для информационной строки
+     * @param autoSize подбирать ли ширину колонок по содержимому
      */
     private static void createSimpleTable(Sheet sheet,
                                           List<DataPoint> experimentalData,
                                           List<DataPoint> interpolatedData,
-                                          double a, double b,
+                                          FittedModel model,
+                                          RegressionStatistics.Summary statistics,
+                                          RegressionStatistics.BootstrapResult bootstrap,
+                                          QuantileSketch distribution,
                                           CellStyle headerStyle,
                                           CellStyle dataStyle,
-                                          CellStyle infoStyle) {
+                                          CellStyle infoStyle,
+                                          boolean autoSize) {
 
         int rowIndex = 0;
 
-        // Строка с уравнением регрессии
+        // Строка с уравнением модели
         Row infoRow = sheet.createRow(rowIndex++);
-        infoRow.createCell(0).setCellValue("Уравнение: T = " +
-                String.format("%.4f", a) + " * t + " + String.format("%.4f", b));
+        infoRow.createCell(0).setCellValue("Уравнение: " + model.getEquationString());
         infoRow.getCell(0).setCellStyle(infoStyle);
 
+        // Строки со статистиками и доверительными интервалами
+        if (statistics != null) {
+            Row statsRow = sheet.createRow(rowIndex++);
+            statsRow.createCell(0).setCellValue("Статистика: " + statistics);
+            statsRow.getCell(0).setCellStyle(infoStyle);
+        }
+
+        if (bootstrap != null) {
+            Row bootstrapRow = sheet.createRow(rowIndex++);
+            bootstrapRow.createCell(0).setCellValue(bootstrap.toString());
+            bootstrapRow.getCell(0).setCellStyle(infoStyle);
+        }
+
+        if (distribution != null && distribution.getCount() > 0) {
+            Row distributionRow = sheet.createRow(rowIndex++);
+            distributionRow.createCell(0).setCellValue("Распределение температуры: " + distribution);
+            distributionRow.getCell(0).setCellStyle(infoStyle);
+        }
+
         // Пустая строка для разделения
         rowIndex++;
 
         // Заголовки таблицы
-        Row headerRow = sheet.createRow(rowIndex++);
+        createPointHeaderRow(sheet, rowIndex++, headerStyle);
+
+        // Экспериментальные, затем интерполяционные точки
+        // (для интерполяционных сохраняем рассчитанную температуру)
+        Sheet current = sheet;
+        int sheetNumber = 1;
+        for (int part = 0; part < 2; part++) {
+            List<DataPoint> points = part == 0 ? experimentalData : interpolatedData;
+            String type = part == 0 ? "Экспериментальная" : "Интерполяция";
+            for (DataPoint point : points) {
+                if (rowIndex == MAX_SHEET_ROWS) {
+                    // Лист заполнен - продолжаем таблицу на следующем
+                    setColumnWidths(current, autoSize);
+                    sheetNumber++;
+                    current = sheet.getWorkbook().createSheet(sheet.getSheetName() + " (" + sheetNumber + ")");
+                    rowIndex = 0;
+                    createPointHeaderRow(current, rowIndex++, headerStyle);
+                }
+                Row dataRow = current.createRow(rowIndex++);
+                dataRow.createCell(0).setCellValue(type);
+                dataRow.createCell(1).setCellValue(point.getTime());
+                dataRow.createCell(2).setCellValue(point.getTemperature());
+
+                for (int i = 0; i < 3; i++) {
+                    dataRow.getCell(i).setCellStyle(dataStyle);
+                }
+            }
+        }
+        setColumnWidths(current, autoSize);
+    }
+
+    /**
+     * Создает строку заголовков таблицы точек.
+     *
+     * @param sheet лист Excel
+     * @param rowIndex номер строки
+     * @param headerStyle стиль для заголовков таблицы
+     */
+    private static void createPointHeaderRow(Sheet sheet, int rowIndex, CellStyle headerStyle) {
+        Row headerRow = sheet.createRow(rowIndex);
         String[] headers = {"Тип точки", "Время (час)", "Температура (°C)"};
         for (int i = 0; i < headers.length; i++) {
             Cell cell = headerRow.createCell(i);
             cell.setCellValue(headers[i]);
             cell.setCellStyle(headerStyle);
         }
+    }
 
-        // Экспериментальные точки
-        for (DataPoint point : experimentalData) {
-            Row dataRow = sheet.createRow(rowIndex++);
-            dataRow.createCell(0).setCellValue("Экспериментальная");
-            dataRow.createCell(1).setCellValue(point.getTime());
-            dataRow.createCell(2).setCellValue(point.getTemperature());
-
-            for (int i = 0; i < 3; i++) {
-                dataRow.getCell(i).setCellStyle(dataStyle);
+    /**
+     * Настраивает ширину колонок таблицы точек: по содержимому
+     * для небольших таблиц, иначе фиксированную.
+     *
+     * @param sheet лист Excel
+     * @param autoSize подбирать ли ширину колонок по содержимому
+     */
+    private static void setColumnWidths(Sheet sheet, boolean autoSize) {
+        for (int i = 0; i < 3; i++) {
+            if (autoSize) {
+                sheet.autoSizeColumn(i);
+            } else {
+                sheet.setColumnWidth(i, FIXED_COLUMN_WIDTH);
             }
         }
+    }
+
+    /**
+     * Заполняет лист распределения температур: процентили и гистограмму
+     * в равных интервалах от минимума до максимума. Значения оцениваются
+     * по скетчу, поэтому лист строится без сортировки точек.
+     *
+     * @param sheet лист Excel для заполнения
+     * @param distribution распределение температур
+     * @param headerStyle стиль для заголовков таблицы
+     * @param dataStyle стиль для данных таблицы
+     * @param infoStyle стиль для информационной строки
+     */
+    private static void createDistributionTable(Sheet sheet,
+                                                QuantileSketch distribution,
+                                                CellStyle headerStyle,
+                                                CellStyle dataStyle,
+                                                CellStyle infoStyle) {
+        int rowIndex = 0;
+
+        Row titleRow = sheet.createRow(rowIndex++);
+        titleRow.createCell(0).setCellValue("Распределение температуры, точек: " + distribution.getCount());
+        titleRow.getCell(0).setCellStyle(infoStyle);
+
+        // Процентили
+        String[] names = {"Минимум", "5%", "Медиана", "95%", "Максимум"};
+        double[] fractions = {0, 0.05, 0.5, 0.95, 1};
+        for (int i = 0; i < names.length; i++) {
+            Row row = sheet.createRow(rowIndex++);
+            row.createCell(0).setCellValue(names[i]);
+            row.createCell(1).setCellValue(distribution.getQuantile(fractions[i]));
+            row.getCell(0).setCellStyle(dataStyle);
+            row.getCell(1).setCellStyle(dataStyle);
+        }
 
-        // Интерполяционные точки (сохраняем рассчитанную температуру)
-        for (DataPoint point : interpolatedData) {
-            Row dataRow = sheet.createRow(rowIndex++);
-            dataRow.createCell(0).setCellValue("Интерполяция");
-            dataRow.createCell(1).setCellValue(point.getTime());
-            dataRow.createCell(2).setCellValue(point.getTemperature());
+        // Пустая строка для разделения
+        rowIndex++;
+
+        // Гистограмма
+        Row headerRow = sheet.createRow(rowIndex++);
+        String[] headers = {"От, °C", "До, °C", "Количество точек"};
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
 
+        long[] counts = distribution.getHistogram(HISTOGRAM_BINS);
+        double min = distribution.getMin();
+        double width = (distribution.getMax() - min) / HISTOGRAM_BINS;
+        for (int bin = 0; bin < HISTOGRAM_BINS; bin++) {
+            Row row = sheet.createRow(rowIndex++);
+            row.createCell(0).setCellValue(min + bin * width);
+            row.createCell(1).setCellValue(bin == HISTOGRAM_BINS - 1 ? distribution.getMax() : min + (bin + 1) * width);
+            row.createCell(2).setCellValue(counts[bin]);
             for (int i = 0; i < 3; i++) {
-                dataRow.getCell(i).setCellStyle(dataStyle);
+                row.getCell(i).setCellStyle(dataStyle);
             }
         }
 
-        // Автоматически настраиваем ширину колонок
         for (int i = 0; i < 3; i++) {
-            sheet.autoSizeColumn(i);
+            sheet.setColumnWidth(i, FIXED_COLUMN_WIDTH);
         }
     }
 
@@ -1,19 +1,28 @@
 package util;
 
 import model.DataPoint;
+import model.SeriesWorkspace;
+import model.TimeSeries;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import javax.swing.*;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Класс для импорта данных из Excel файлов.
- * Поддерживает форматы .xlsx и .xls. Ищет данные в формате,
+ * Класс для импорта данных из Excel и CSV файлов.
+ * Поддерживает форматы .xlsx, .xls и .csv. Ищет данные в формате,
  * соответствующем экспорту из FileExporter.
  *
  * @author Petrushchenko A.A.
@@ -21,6 +30,11 @@ import java.util.List;
  */
 public class FileImporter {
 
+    /**
+     * Ключевые слова заголовка колонки с названием датчика (ряда).
+     */
+    private static final String[] SENSOR_KEYWORDS = {"датчик", "sensor", "зонд", "помещение"};
+
     /**
      * Результат импорта данных из Excel файла.
      * Содержит отдельные списки для экспериментальных и интерполяционных данных.
@@ -41,6 +55,12 @@ public class FileImporter {
          */
         public String errorMessage;
 
+        /**
+         * Отчет об отклоненных строках (null, если таблица не читалась
+         * или результат получен без разбора файла).
+         */
+        public ImportReport report;
+
         /**
          * Создает новый пустой результат импорта.
          */
@@ -92,11 +112,10 @@ public class FileImporter {
             File fileToLoad = fileChooser.getSelectedFile();
 
             try {
-                System.out.println("=== ИМПОРТ ДАННЫХ ===");
-                System.out.println("Файл: " + fileToLoad.getName());
+                Diagnostics.info("Импорт данных из файла %s", fileToLoad.getName());
 
-                // Загружаем данные из файла
-                ImportResult result = loadSimpleTable(fileToLoad);
+                // Загружаем данные из файла (или из кэша, если файл не изменился)
+                ImportResult result = loadSimpleTableCached(fileToLoad);
 
                 if (!result.hasData()) {
                     // Показываем предупреждение если данных не найдено
@@ -132,6 +151,29 @@ public class FileImporter {
         return null; // Пользователь отменил операцию
     }
 
+    /**
+     * Загружает таблицу точек с использованием кэша разобранных файлов.
+     * Если файл уже загружался и его содержимое не изменилось,
+     * точки читаются из кэша без разбора Excel файла.
+     *
+     * @param file файл Excel для загрузки
+     * @return результат импорта
+     * @throws IOException если возникает ошибка чтения файла
+     */
+    private static ImportResult loadSimpleTableCached(File file) throws IOException {
+        ImportResult cached = ImportCache.get(file);
+        if (cached != null) {
+            Diagnostics.info("Данные загружены из кэша: %s", file.getName());
+            return cached;
+        }
+
+        ImportResult result = loadSimpleTable(file);
+        if (result.errorMessage == null && result.hasData()) {
+            ImportCache.put(file, result);
+        }
+        return result;
+    }
+
     /**
      * Загружает данные из Excel файла в простом табличном формате.
      * Ищет лист "Все точки" с определенной структурой.
@@ -142,6 +184,7 @@ public class FileImporter {
      */
     private static ImportResult loadSimpleTable(File file) throws IOException {
         ImportResult result = new ImportResult();
+        long start = System.nanoTime();
 
         try (FileInputStream fis = new FileInputStream(file);
              Workbook workbook = createWorkbook(file, fis)) {
@@ -153,8 +196,7 @@ public class FileImporter {
                 return result;
             }
 
-            System.out.println("Найден лист 'Все точки'");
-            System.out.println("Всего строк: " + (allPointsSheet.getLastRowNum() + 1));
+            Diagnostics.debug("Найден лист 'Все точки', всего строк: %d", allPointsSheet.getLastRowNum() + 1);
 
             // Находим строку с заголовками таблицы
             int headerRowIndex = findHeaderRow(allPointsSheet);
@@ -163,7 +205,7 @@ public class FileImporter {
                 return result;
             }
 
-            System.out.println("Заголовки найдены в строке: " + headerRowIndex);
+            Diagnostics.debug("Заголовки найдены в строке: %d", headerRowIndex);
 
             // Определяем индексы колонок
             Row headerRow = allPointsSheet.getRow(headerRowIndex);
@@ -177,62 +219,473 @@ public class FileImporter {
                 return result;
             }
 
-            System.out.println("Колонки: тип=" + typeCol + ", время=" + timeCol + ", темп=" + tempCol);
+            Diagnostics.debug("Колонки: тип=%d, время=%d, темп=%d", typeCol, timeCol, tempCol);
 
             // Читаем данные начиная со следующей строки после заголовков
             int dataStartRow = headerRowIndex + 1;
-            System.out.println("Чтение данных начиная со строки: " + dataStartRow);
+            readRows(allPointsSheet, dataStartRow, typeCol, timeCol, tempCol, result);
 
-            for (int row = dataStartRow; row <= allPointsSheet.getLastRowNum(); row++) {
-                Row dataRow = allPointsSheet.getRow(row);
-                if (dataRow == null || isRowEmpty(dataRow)) {
-                    continue; // Пропускаем пустые строки
-                }
+            Diagnostics.info("Итого из %s: экспериментальных точек %d, интерполяционных %d, время %d мс",
+                    file.getName(), result.experimentalData.size(), result.interpolationData.size(),
+                    Diagnostics.elapsedMillis(start));
 
-                Cell typeCell = dataRow.getCell(typeCol);
-                Cell timeCell = dataRow.getCell(timeCol);
-                Cell tempCell = dataRow.getCell(tempCol);
+        } catch (Exception e) {
+            result.errorMessage = "Ошибка: " + e.getMessage();
+            e.printStackTrace();
+        }
 
-                if (typeCell == null || timeCell == null || tempCell == null) {
-                    continue; // Пропускаем строки с отсутствующими данными
-                }
+        return result;
+    }
+
+    /**
+     * Количество выводимых сообщений для каждой причины отклонения строки.
+     */
+    private static final int REJECTED_ROW_SAMPLES = 5;
+
+    /**
+     * Читает строки таблицы точек и распределяет их по типам.
+     * Строки с некорректными или отсутствующими значениями не импортируются,
+     * а записываются в отчет result.report с причиной и исходным значением.
+     * В диагностику по каждой причине выводятся только первые несколько строк
+     * и общее количество.
+     *
+     * @param sheet лист Excel
+     * @param dataStartRow индекс первой строки данных
+     * @param typeCol индекс колонки типа точки или -1 (все точки экспериментальные)
+     * @param timeCol индекс колонки времени
+     * @param tempCol индекс колонки температуры
+     * @param result результат, в который добавляются точки и отчет
+     */
+    private static void readRows(Sheet sheet, int dataStartRow, int typeCol, int timeCol, int tempCol,
+                                 ImportResult result) {
+        ImportReport report = new ImportReport(sheet.getSheetName());
+        result.report = report;
+
+        boolean warn = Diagnostics.isEnabled(Diagnostics.Level.WARN);
+        Diagnostics.Sampler[] samplers = new Diagnostics.Sampler[ImportReport.getReasonCount()];
+        for (int i = 0; i < samplers.length; i++) {
+            samplers[i] = new Diagnostics.Sampler(REJECTED_ROW_SAMPLES);
+        }
 
+        for (int row = dataStartRow; row <= sheet.getLastRowNum(); row++) {
+            Row dataRow = sheet.getRow(row);
+            if (dataRow == null || isRowEmpty(dataRow)) {
+                continue; // Пропускаем пустые строки
+            }
+
+            // Номер строки в отчете - как в Excel, с единицы
+            int excelRow = row + 1;
+            byte reason;
+            double value = Double.NaN;
+            String text = null;
+
+            Cell typeCell = typeCol != -1 ? dataRow.getCell(typeCol) : null;
+            Cell timeCell = dataRow.getCell(timeCol);
+            Cell tempCell = dataRow.getCell(tempCol);
+
+            if ((typeCol != -1 && typeCell == null) || timeCell == null || tempCell == null) {
+                reason = ImportReport.MISSING_VALUE;
+            } else {
                 try {
-                    String type = getCellValueAsString(typeCell).toLowerCase().trim();
+                    // Без колонки типа все точки считаются экспериментальными
+                    String type = typeCell != null
+                            ? getCellValueAsString(typeCell).toLowerCase().trim()
+                            : "эксперимент";
                     double time = getNumericValue(timeCell);
                     double temperature = getNumericValue(tempCell);
 
                     // Проверяем корректность значений
-                    if (time < 0 || time > 24 || temperature < -100 || temperature > 100) {
-                        System.out.println("Пропускаем строку " + row + ": некорректные данные");
+                    if (time < 0 || time > 24) {
+                        reason = ImportReport.TIME_OUT_OF_RANGE;
+                        value = time;
+                    } else if (temperature < -100 || temperature > 100) {
+                        reason = ImportReport.TEMPERATURE_OUT_OF_RANGE;
+                        value = temperature;
+                    } else if (type.contains("эксперимент") || type.contains("исход")) {
+                        // Распределяем точки по типам
+                        result.experimentalData.add(new DataPoint(time, temperature));
+                        report.accept();
                         continue;
+                    } else if (type.contains("интерполяция") || type.contains("расчет")) {
+                        result.interpolationData.add(new DataPoint(time, temperature));
+                        report.accept();
+                        continue;
+                    } else {
+                        reason = ImportReport.UNKNOWN_TYPE;
                     }
+                } catch (Exception e) {
+                    reason = ImportReport.NOT_A_NUMBER;
+                    text = getNonNumericText(timeCell, tempCell);
+                }
+            }
 
-                    // Распределяем точки по типам
-                    if (type.contains("эксперимент") || type.contains("исход")) {
-                        result.experimentalData.add(new DataPoint(time, temperature));
-                        System.out.println("Экспериментальная: " + time + " час, " + temperature + "°C");
+            report.reject(excelRow, reason, value, text);
+            if (samplers[reason].sample() && warn) {
+                String shown = text != null ? " ('" + text + "')" : Double.isNaN(value) ? "" : " (" + value + ")";
+                Diagnostics.warn("Строка %d листа '%s': %s%s", excelRow, sheet.getSheetName(),
+                        ImportReport.getReasonName(reason), shown);
+            }
+        }
+
+        if (report.getRejectedCount() > 0 && warn) {
+            Diagnostics.warn("Лист '%s': %s", sheet.getSheetName(), report.toString().replace("\n  ", "; "));
+        }
+    }
+
+    /**
+     * Загружает таблицы точек со всех листов Excel файла, на которых
+     * есть колонки времени и температуры. Колонка типа точки не обязательна:
+     * без нее все точки листа считаются экспериментальными.
+     *
+     * Листы одной книги читаются последовательно: книга POI не
+     * потокобезопасна даже при чтении разных листов (таблица общих строк,
+     * стили и формулы общие для всей книги). Параллельность при массовой
+     * загрузке дают разные файлы (см. BulkImporter).
+     *
+     * @param file файл Excel для загрузки
+     * @return результаты импорта по названиям листов (только листы с данными)
+     * @throws IOException если возникает ошибка чтения файла
+     */
+    public static Map<String, ImportResult> loadAllTables(File file) throws IOException {
+        Map<String, ImportResult> tables = new LinkedHashMap<>();
+
+        try (FileInputStream fis = new FileInputStream(file);
+             Workbook workbook = createWorkbook(file, fis)) {
+
+            for (int sheetIndex = 0; sheetIndex < workbook.getNumberOfSheets(); sheetIndex++) {
+                Sheet sheet = workbook.getSheetAt(sheetIndex);
+                int headerRowIndex = findSeriesHeaderRow(sheet);
+                if (headerRowIndex == -1) {
+                    continue;
+                }
+
+                Row headerRow = sheet.getRow(headerRowIndex);
+                int typeCol = findColumnIndex(headerRow, "тип");
+                int timeCol = findColumnIndex(headerRow, "время", "час");
+                int tempCol = findColumnIndex(headerRow, "температура", "°c");
+
+                ImportResult result = new ImportResult();
+                readRows(sheet, headerRowIndex + 1, typeCol, timeCol, tempCol, result);
+                if (result.hasData()) {
+                    tables.put(sheet.getSheetName(), result);
+                }
+            }
+        }
+
+        return tables;
+    }
+
+    /**
+     * Импортирует рабочую область с несколькими рядами из Excel файла
+     * через диалоговое окно выбора файла.
+     *
+     * @param parentFrame родительское окно для диалогов
+     * @return рабочая область или null, если пользователь отменил операцию или данных нет
+     */
+    public static SeriesWorkspace importWorkspaceFromExcel(JFrame parentFrame) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Загрузить ряды из Excel файла");
+        fileChooser.setFileFilter(new javax.swing.filechooser.FileFilter() {
+            @Override
+            public boolean accept(File f) {
+                return f.isDirectory() ||
+                        f.getName().toLowerCase().endsWith(".xlsx") ||
+                        f.getName().toLowerCase().endsWith(".xls");
+            }
+
+            @Override
+            public String getDescription() {
+                return "Excel файлы (*.xlsx, *.xls)";
+            }
+        });
+
+        if (fileChooser.showOpenDialog(parentFrame) != JFileChooser.APPROVE_OPTION) {
+            return null;
+        }
+
+        try {
+            SeriesWorkspace workspace = loadWorkspace(fileChooser.getSelectedFile());
+            if (workspace.size() == 0) {
+                JOptionPane.showMessageDialog(parentFrame,
+                        "В файле не найдены ряды данных.\n" +
+                                "Листы должны содержать колонки 'Время (час)' и 'Температура (°C)'.\n" +
+                                "Ряды разделяются по листам или по колонке 'Датчик'.",
+                        "Ошибка загрузки",
+                        JOptionPane.WARNING_MESSAGE);
+                return null;
+            }
+            return workspace;
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(parentFrame,
+                    "Ошибка при чтении Excel файла:\n" + e.getMessage(),
+                    "Ошибка загрузки",
+                    JOptionPane.ERROR_MESSAGE);
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    /**
+     * Загружает несколько рядов из Excel файла.
+     * Просматриваются все листы с колонками времени и температуры.
+     * Если на листе есть колонка "Датчик", строки распределяются по рядам
+     * с названиями датчиков (одноименные ряды с разных листов объединяются),
+     * иначе каждый лист становится отдельным рядом.
+     * Если есть колонка типа точки, берутся только экспериментальные точки.
+     *
+     * @param file файл Excel для загрузки
+     * @return рабочая область с найденными рядами
+     * @throws IOException если возникает ошибка чтения файла
+     */
+    public static SeriesWorkspace loadWorkspace(File file) throws IOException {
+        SeriesWorkspace workspace = new SeriesWorkspace();
+
+        try (FileInputStream fis = new FileInputStream(file);
+             Workbook workbook = createWorkbook(file, fis)) {
+
+            for (int sheetIndex = 0; sheetIndex < workbook.getNumberOfSheets(); sheetIndex++) {
+                Sheet sheet = workbook.getSheetAt(sheetIndex);
+                int headerRowIndex = findSeriesHeaderRow(sheet);
+                if (headerRowIndex == -1) {
+                    continue; // Лист без таблицы измерений
+                }
+
+                Row headerRow = sheet.getRow(headerRowIndex);
+                int typeCol = findColumnIndex(headerRow, "тип");
+                int timeCol = findColumnIndex(headerRow, "время", "час");
+                int tempCol = findColumnIndex(headerRow, "температура", "°c");
+                int sensorCol = findColumnIndex(headerRow, SENSOR_KEYWORDS);
+
+                Map<String, TimeSeries> sheetSeries = new LinkedHashMap<>();
+
+                for (int row = headerRowIndex + 1; row <= sheet.getLastRowNum(); row++) {
+                    Row dataRow = sheet.getRow(row);
+                    if (dataRow == null || isRowEmpty(dataRow)) {
+                        continue;
                     }
-                    else if (type.contains("интерполяция") || type.contains("расчет")) {
-                        result.interpolationData.add(new DataPoint(time, temperature));
-                        System.out.println("Интерполяция (импорт): " + time + " час, " + temperature + "°C");
+
+                    Cell timeCell = dataRow.getCell(timeCol);
+                    Cell tempCell = dataRow.getCell(tempCol);
+                    if (timeCell == null || tempCell == null) {
+                        continue;
                     }
 
-                } catch (Exception e) {
-                    System.out.println("Ошибка в строке " + row + ": " + e.getMessage());
+                    // Интерполяционные точки в ряды не включаем
+                    if (typeCol != -1) {
+                        String type = getCellValueAsString(dataRow.getCell(typeCol)).toLowerCase().trim();
+                        if (!type.isEmpty() && !type.contains("эксперимент") && !type.contains("исход")) {
+                            continue;
+                        }
+                    }
+
+                    try {
+                        double time = getNumericValue(timeCell);
+                        double temperature = getNumericValue(tempCell);
+                        if (time < 0 || time > 24 || temperature < -100 || temperature > 100) {
+                            continue;
+                        }
+
+                        String name = sheet.getSheetName();
+                        if (sensorCol != -1) {
+                            String sensor = getCellValueAsString(dataRow.getCell(sensorCol)).trim();
+                            if (!sensor.isEmpty()) {
+                                name = sensor;
+                            }
+                        }
+
+                        sheetSeries.computeIfAbsent(name, TimeSeries::new).add(time, temperature);
+                    } catch (IllegalArgumentException e) {
+                        // Нечисловые значения пропускаем
+                    }
+                }
+
+                for (TimeSeries series : sheetSeries.values()) {
+                    workspace.add(series);
                 }
             }
+        }
 
-            System.out.println("\nИтого:");
-            System.out.println("Экспериментальных точек: " + result.experimentalData.size());
-            System.out.println("Интерполяционных точек: " + result.interpolationData.size());
+        return workspace;
+    }
 
-        } catch (Exception e) {
-            result.errorMessage = "Ошибка: " + e.getMessage();
-            e.printStackTrace();
+    /**
+     * Загружает ряды из файла регистратора: Excel (.xlsx, .xls) или CSV.
+     *
+     * @param file файл с измерениями
+     * @return рабочая область с найденными рядами
+     * @throws IOException если возникает ошибка чтения файла
+     * @throws IllegalArgumentException если формат файла не поддерживается
+     */
+    public static SeriesWorkspace loadSeriesFile(File file) throws IOException {
+        String name = file.getName().toLowerCase();
+        if (name.endsWith(".csv")) {
+            return loadCsv(file);
+        }
+        if (name.endsWith(".xlsx") || name.endsWith(".xls")) {
+            return loadWorkspace(file);
         }
+        throw new IllegalArgumentException("Неподдерживаемый формат файла: " + file.getName());
+    }
 
-        return result;
+    /**
+     * Проверяет, может ли файл быть загружен методом loadSeriesFile.
+     *
+     * @param fileName имя файла
+     * @return true для файлов .xlsx, .xls и .csv
+     */
+    public static boolean isSupportedFile(String fileName) {
+        return SpreadsheetService.isSupportedFile(fileName);
+    }
+
+    /**
+     * Прогревает библиотеку Apache POI: записывает и читает в памяти
+     * небольшую книгу Excel. Первая работа с POI загружает несколько тысяч
+     * классов и схемы XML, поэтому при запуске программы это выполняется
+     * в фоне, а первый импорт или экспорт пользователя не ждет загрузки.
+     *
+     * @throws IOException если не удалось записать или прочитать книгу
+     */
+    public static void warmUp() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Row row = workbook.createSheet("Данные").createRow(0);
+            row.createCell(0).setCellValue("Время (час)");
+            row.createCell(1).setCellValue(1.0);
+            workbook.write(buffer);
+        }
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(buffer.toByteArray()))) {
+            getNumericValue(workbook.getSheetAt(0).getRow(0).getCell(1));
+        }
+    }
+
+    /**
+     * Загружает ряды из CSV файла.
+     * Разделитель определяется по первой строке (";", табуляция или ",").
+     * Если первая строка содержит заголовки, колонки времени, температуры
+     * и датчика находятся по ключевым словам, иначе используются
+     * первые две колонки. При разделителе ";" допускается десятичная запятая.
+     * Без колонки датчика все точки попадают в ряд с именем файла.
+     *
+     * @param file CSV файл
+     * @return рабочая область с найденными рядами
+     * @throws IOException если возникает ошибка чтения файла
+     */
+    public static SeriesWorkspace loadCsv(File file) throws IOException {
+        SeriesWorkspace workspace = new SeriesWorkspace();
+        Map<String, TimeSeries> fileSeries = new LinkedHashMap<>();
+
+        String defaultName = file.getName();
+        int dot = defaultName.lastIndexOf('.');
+        if (dot > 0) {
+            defaultName = defaultName.substring(0, dot);
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line == null) {
+                return workspace;
+            }
+            if (line.startsWith("\uFEFF")) {
+                line = line.substring(1); // Метка порядка байтов из Excel
+            }
+
+            String separator = line.contains(";") ? ";" : line.contains("\t") ? "\t" : ",";
+            int timeCol = 0, tempCol = 1, sensorCol = -1;
+
+            String[] header = line.split(separator, -1);
+            boolean hasHeader = false;
+            for (String cell : header) {
+                if (!cell.trim().isEmpty() && Character.isLetter(cell.trim().charAt(0))) {
+                    hasHeader = true;
+                    break;
+                }
+            }
+
+            if (hasHeader) {
+                timeCol = findCsvColumn(header, "время", "час", "time");
+                tempCol = findCsvColumn(header, "температура", "°c", "temp");
+                sensorCol = findCsvColumn(header, SENSOR_KEYWORDS);
+                if (timeCol == -1 || tempCol == -1) {
+                    return workspace;
+                }
+                line = reader.readLine();
+            }
+
+            for (; line != null; line = reader.readLine()) {
+                String[] cells = line.split(separator, -1);
+                if (cells.length <= Math.max(timeCol, tempCol)) {
+                    continue;
+                }
+
+                try {
+                    double time = Double.parseDouble(cells[timeCol].trim().replace(',', '.'));
+                    double temperature = Double.parseDouble(cells[tempCol].trim().replace(',', '.'));
+                    if (time < 0 || time > 24 || temperature < -100 || temperature > 100) {
+                        continue;
+                    }
+
+                    String name = defaultName;
+                    if (sensorCol != -1 && sensorCol < cells.length && !cells[sensorCol].trim().isEmpty()) {
+                        name = cells[sensorCol].trim();
+                    }
+
+                    fileSeries.computeIfAbsent(name, TimeSeries::new).add(time, temperature);
+                } catch (NumberFormatException e) {
+                    // Нечисловые значения пропускаем
+                }
+            }
+        }
+
+        for (TimeSeries series : fileSeries.values()) {
+            workspace.add(series);
+        }
+        return workspace;
+    }
+
+    /**
+     * Находит индекс колонки CSV по ключевым словам в заголовке.
+     *
+     * @param header ячейки строки заголовков
+     * @param keywords ключевые слова для поиска
+     * @return индекс колонки или -1 если не найдена
+     */
+    private static int findCsvColumn(String[] header, String... keywords) {
+        for (int col = 0; col < header.length; col++) {
+            String value = header[col].toLowerCase().trim();
+            for (String keyword : keywords) {
+                if (value.contains(keyword)) {
+                    return col;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Находит строку заголовков таблицы измерений: она должна содержать
+     * колонки времени и температуры (колонка типа не обязательна).
+     *
+     * @param sheet лист Excel
+     * @return индекс строки с заголовками или -1 если не найдено
+     */
+    private static int findSeriesHeaderRow(Sheet sheet) {
+        for (int row = 0; row <= Math.min(10, sheet.getLastRowNum()); row++) {
+            Row currentRow = sheet.getRow(row);
+            if (currentRow == null) continue;
+
+            boolean hasTime = false, hasTemp = false;
+            for (int col = 0; col < currentRow.getLastCellNum(); col++) {
+                String value = getCellValueAsString(currentRow.getCell(col)).toLowerCase().trim();
+                if (value.contains("время") || value.contains("час")) hasTime = true;
+                if (value.contains("температура") || value.contains("°c")) hasTemp = true;
+            }
+
+            if (hasTime && hasTemp) {
+                return row;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -349,6 +802,24 @@ public class FileImporter {
         }
     }
 
+    /**
+     * Возвращает исходный текст первой ячейки, которую не удалось
+     * преобразовать в число (для отчета об импорте).
+     *
+     * @param cells проверяемые ячейки
+     * @return текст ячейки или null, если все ячейки числовые
+     */
+    private static String getNonNumericText(Cell... cells) {
+        for (Cell cell : cells) {
+            try {
+                getNumericValue(cell);
+            } catch (IllegalArgumentException e) {
+                return getCellValueAsString(cell);
+            }
+        }
+        return null;
+    }
+
     /**
      * Получает строковое значение из ячейки Excel.
      * Конвертирует различные типы ячеек в строку.
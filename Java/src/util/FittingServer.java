@@ -0,0 +1,672 @@
+package util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import logic.FitMode;
+import logic.LinearModel;
+import logic.LinearRegressor;
+import logic.RegressionStatistics;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Класс FittingServer - локальный HTTP-сервис расчета прямой по точкам
+ * для других программ (JSON, без внешних зависимостей).
+ *
+ * Запросы обрабатываются встроенным HttpServer из JDK, каждый запрос
+ * в своем виртуальном потоке. Тело запроса разбирается потоково
+ * (JsonStreamReader), без построения дерева JSON и без промежуточных строк.
+ *
+ * Методы:
+ * <ul>
+ *     <li>POST /fit?mode=linear - рассчитать прямую по точкам из тела запроса,
+ *     ничего не сохраняя: {"points": [[t, T], ...]};</li>
+ *     <li>POST /series - сохранить ряд {"points": [[t, T], ...]}, ответ {"id": ..., "count": ...};</li>
+ *     <li>GET /series/{id} - размер ряда и последний расчет;</li>
+ *     <li>DELETE /series/{id} - удалить ряд;</li>
+ *     <li>POST /series/{id}/fit?mode=linear - рассчитать и запомнить прямую ряда;</li>
+ *     <li>GET /series/{id}/fit - последний расчет ряда;</li>
+ *     <li>POST /series/{id}/predict - температуры по прямой ряда
+ *     для времен {"times": [t, ...]}, ответ {"temperatures": [T, ...]}.</li>
+ * </ul>
+ * Режимы расчета: linear (МНК), theil_sen, ransac. Ошибки возвращаются
+ * в виде {"error": "..."} с кодом 400 (некорректный запрос), 404 (ряд
+ * не найден), 409 (ряд еще не рассчитан), 422 (расчет невозможен)
+ * или 507 (исчерпан объем хранилища рядов).
+ *
+ * Сохраненные ряды ограничены и по количеству (MAX_SERIES), и по общему
+ * числу точек (MAX_STORED_POINTS). Место под ряд резервируется атомарно
+ * до сохранения, поэтому одновременные запросы не превышают ограничений,
+ * и освобождается при удалении ряда.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class FittingServer implements Closeable {
+
+    /**
+     * Порт по умолчанию.
+     */
+    public static final int DEFAULT_PORT = 8085;
+
+    /**
+     * Максимальное количество точек в одном запросе.
+     */
+    public static final int MAX_POINTS = 5_000_000;
+
+    /**
+     * Максимальное количество сохраненных рядов.
+     */
+    public static final int MAX_SERIES = 10_000;
+
+    /**
+     * Максимальное общее количество точек во всех сохраненных рядах
+     * (16 байт на точку, около 320 МБ).
+     */
+    public static final long MAX_STORED_POINTS = 20_000_000;
+
+    /**
+     * Минимальное количество потоков-носителей виртуальных потоков.
+     */
+    public static final int MIN_CARRIER_THREADS = 32;
+
+    /**
+     * Длина очереди входящих соединений.
+     */
+    private static final int BACKLOG = 1024;
+
+    /**
+     * Ошибка обработки запроса с кодом ответа HTTP.
+     */
+    private static class HttpError extends RuntimeException {
+        private final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Обработчик запроса, которому разрешено бросать IOException.
+     */
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * Сохраненный ряд точек и его последний расчет.
+     */
+    private static class StoredSeries {
+        private final double[] times;
+        private final double[] temperatures;
+        private final int count;
+        private volatile Fit fit;
+
+        StoredSeries(double[] times, double[] temperatures, int count) {
+            this.times = times;
+            this.temperatures = temperatures;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Результат расчета прямой.
+     */
+    private static class Fit {
+        private final FitMode mode;
+        private final LinearModel line;
+        private final int count;
+        private final RegressionStatistics.Summary statistics;
+
+        Fit(FitMode mode, LinearModel line, int count, RegressionStatistics.Summary statistics) {
+            this.mode = mode;
+            this.line = line;
+            this.count = count;
+            this.statistics = statistics;
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, StoredSeries> series = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * Количество рядов и точек, под которые зарезервировано место.
+     */
+    private final AtomicLong storedSeries = new AtomicLong();
+    private final AtomicLong storedPoints = new AtomicLong();
+    private final long maxStoredPoints;
+
+    /**
+     * Создает и запускает сервис.
+     *
+     * @param address адрес и порт для приема запросов
+     * @throws IOException если не удалось открыть порт
+     */
+    public FittingServer(InetSocketAddress address) throws IOException {
+        this(address, MAX_STORED_POINTS);
+    }
+
+    /**
+     * Создает и запускает сервис с заданным объемом хранилища рядов.
+     *
+     * @param address адрес и порт для приема запросов
+     * @param maxStoredPoints максимальное общее количество точек в сохраненных рядах
+     * @throws IOException если не удалось открыть порт
+     */
+    FittingServer(InetSocketAddress address, long maxStoredPoints) throws IOException {
+        this.maxStoredPoints = maxStoredPoints;
+        server = HttpServer.create(address, BACKLOG);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/fit", exchange -> handle(exchange, this::fitPoints));
+        server.createContext("/series", exchange -> handle(exchange, this::routeSeries));
+        server.start();
+    }
+
+    /**
+     * Увеличивает количество потоков-носителей виртуальных потоков
+     * до MIN_CARRIER_THREADS, если оно не задано явно. Вызывается
+     * до создания первого виртуального потока в программе.
+     *
+     * HttpServer читает тело запроса под монитором (synchronized), и на время
+     * ожидания данных виртуальный поток не отпускает свой поток-носитель.
+     * По умолчанию носителей столько же, сколько ядер, и несколько медленных
+     * клиентов могли бы занять их все, остановив обработку остальных запросов.
+     */
+    public static void configureCarrierThreads() {
+        String property = "jdk.virtualThreadScheduler.parallelism";
+        if (System.getProperty(property) == null) {
+            int carriers = Math.max(MIN_CARRIER_THREADS, Runtime.getRuntime().availableProcessors());
+            System.setProperty(property, Integer.toString(carriers));
+        }
+    }
+
+    /**
+     * Возвращает адрес, на котором работает сервис.
+     *
+     * @return адрес и порт
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Останавливает сервис. Выполняющиеся запросы прерываются.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Выполняет обработчик и превращает исключения в ответы с ошибкой.
+     *
+     * @param exchange запрос
+     * @param handler обработчик
+     */
+    private void handle(HttpExchange exchange, Handler handler) {
+        try (exchange) {
+            try {
+                handler.handle(exchange);
+            } catch (HttpError e) {
+                sendError(exchange, e.status, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+            } catch (ArithmeticException e) {
+                sendError(exchange, 422, e.getMessage());
+            } catch (IOException e) {
+                // Клиент закрыл соединение - отвечать некому
+                Diagnostics.debug("Запрос %s прерван: %s", exchange.getRequestURI(), e.getMessage());
+            } catch (RuntimeException e) {
+                Diagnostics.error("Ошибка обработки запроса %s: %s", exchange.getRequestURI(), e);
+                sendError(exchange, 500, "Внутренняя ошибка сервиса");
+            }
+        }
+    }
+
+    /**
+     * POST /fit - расчет прямой без сохранения ряда.
+     *
+     * @param exchange запрос
+     * @throws IOException если возникает ошибка чтения или записи
+     */
+    private void fitPoints(HttpExchange exchange) throws IOException {
+        requireMethod(exchange, "POST");
+        if (!exchange.getRequestURI().getPath().equals("/fit")) {
+            throw new HttpError(404, "Неизвестный адрес: " + exchange.getRequestURI().getPath());
+        }
+        FitMode mode = parseMode(exchange);
+        StoredSeries points = readPoints(exchange.getRequestBody());
+        sendJson(exchange, 200, fitToJson(fit(points, mode)));
+    }
+
+    /**
+     * Разбирает адрес /series[/{id}[/fit|/predict]] и вызывает нужный метод.
+     *
+     * @param exchange запрос
+     * @throws IOException если возникает ошибка чтения или записи
+     */
+    private void routeSeries(HttpExchange exchange) throws IOException {
+        String[] parts = exchange.getRequestURI().getPath().split("/");
+        // parts: "", "series", id, действие
+        String method = exchange.getRequestMethod();
+        if (parts.length < 2 || !parts[1].equals("series")) {
+            throw new HttpError(404, "Неизвестный адрес: " + exchange.getRequestURI().getPath());
+        }
+
+        if (parts.length == 2) {
+            requireMethod(exchange, "POST");
+            createSeries(exchange);
+            return;
+        }
+
+        StoredSeries stored = series.get(parts[2]);
+        if (stored == null || parts.length > 4) {
+            throw new HttpError(404, "Ряд не найден: " + parts[2]);
+        }
+
+        if (parts.length == 3) {
+            switch (method) {
+                case "GET" -> sendJson(exchange, 200, seriesToJson(parts[2], stored));
+                case "DELETE" -> {
+                    StoredSeries removed = series.remove(parts[2]);
+                    if (removed != null) {
+                        storedPoints.addAndGet(-removed.count);
+                        storedSeries.decrementAndGet();
+                    }
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> throw new HttpError(405, "Метод не поддерживается: " + method);
+            }
+            return;
+        }
+
+        switch (parts[3]) {
+            case "fit" -> {
+                if (method.equals("GET")) {
+                    sendJson(exchange, 200, fitToJson(requireFit(stored)));
+                } else {
+                    requireMethod(exchange, "POST");
+                    Fit fit = fit(stored, parseMode(exchange));
+                    stored.fit = fit;
+                    sendJson(exchange, 200, fitToJson(fit));
+                }
+            }
+            case "predict" -> {
+                requireMethod(exchange, "POST");
+                predict(exchange, requireFit(stored));
+            }
+            default -> throw new HttpError(404, "Неизвестный адрес: " + exchange.getRequestURI().getPath());
+        }
+    }
+
+    /**
+     * POST /series - сохранение ряда.
+     *
+     * @param exchange запрос
+     * @throws IOException если возникает ошибка чтения или записи
+     */
+    private void createSeries(HttpExchange exchange) throws IOException {
+        // Место под ряд занимаем до чтения тела, чтобы одновременные
+        // запросы не превысили ограничение
+        if (!reserve(storedSeries, 1, MAX_SERIES)) {
+            throw new HttpError(507, "Сохранено слишком много рядов (максимум " + MAX_SERIES + ")");
+        }
+        long reservedPoints = 0;
+        boolean saved = false;
+        try {
+            StoredSeries points = readPoints(exchange.getRequestBody());
+            if (!reserve(storedPoints, points.count, maxStoredPoints)) {
+                throw new HttpError(507, "Недостаточно места для ряда из " + points.count
+                        + " точек (всего в рядах можно хранить " + maxStoredPoints + " точек)");
+            }
+            reservedPoints = points.count;
+            // Ряд хранится долго - отдаем запас массивов, оставшийся после чтения
+            StoredSeries stored = new StoredSeries(Arrays.copyOf(points.times, points.count),
+                    Arrays.copyOf(points.temperatures, points.count), points.count);
+            String id = Long.toString(nextId.getAndIncrement());
+            series.put(id, stored);
+            saved = true;
+            sendJson(exchange, 201, "{\"id\":\"" + id + "\",\"count\":" + stored.count + "}");
+        } finally {
+            if (!saved) {
+                storedPoints.addAndGet(-reservedPoints);
+                storedSeries.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Атомарно увеличивает счетчик, если новое значение не превышает предела.
+     *
+     * @param counter счетчик
+     * @param amount прибавляемое значение
+     * @param limit предел
+     * @return true если место зарезервировано
+     */
+    private static boolean reserve(AtomicLong counter, long amount, long limit) {
+        while (true) {
+            long current = counter.get();
+            if (current + amount > limit) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + amount)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * POST /series/{id}/predict - температуры по прямой для списка времен.
+     * Времена читаются целиком до начала ответа: многие клиенты HTTP/1.1
+     * (в том числе HttpClient из JDK) не читают ответ, пока не передадут
+     * тело запроса, и встречная запись привела бы к взаимной блокировке.
+     * Температуры рассчитываются сразу для всех времен, ответ пишется
+     * без промежуточной строки.
+     *
+     * @param exchange запрос
+     * @param fit рассчитанная прямая
+     * @throws IOException если возникает ошибка чтения или записи
+     */
+    private void predict(HttpExchange exchange, Fit fit) throws IOException {
+        JsonStreamReader json = new JsonStreamReader(exchange.getRequestBody());
+        double[] times = new double[64];
+        int count = 0;
+        boolean found = false;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            if (!json.nextName().equals("times")) {
+                json.skipValue();
+                continue;
+            }
+            found = true;
+            json.beginArray();
+            while (json.hasNext()) {
+                if (count == MAX_POINTS) {
+                    throw new IllegalArgumentException("Слишком много времен (максимум " + MAX_POINTS + ")");
+                }
+                if (count == times.length) {
+                    times = Arrays.copyOf(times, count * 2);
+                }
+                times[count++] = json.nextDouble();
+            }
+            json.endArray();
+        }
+        json.endObject();
+        json.endDocument();
+        if (!found) {
+            throw new IllegalArgumentException("Ожидалось поле \"times\"");
+        }
+
+        double[] temperatures = new double[count];
+        fit.line.predict(times, temperatures, count);
+        for (int i = 0; i < count; i++) {
+            if (!Double.isFinite(temperatures[i])) {
+                throw new IllegalArgumentException("Недопустимое время: " + times[i]);
+            }
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = new BufferedOutputStream(exchange.getResponseBody(), 16384);
+        out.write("{\"temperatures\":[".getBytes(StandardCharsets.US_ASCII));
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(number(temperatures[i]).getBytes(StandardCharsets.US_ASCII));
+        }
+        out.write("]}".getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    /**
+     * Читает точки {"points": [[t, T], ...]} из тела запроса.
+     *
+     * @param body тело запроса
+     * @return ряд точек
+     * @throws IOException если возникает ошибка чтения
+     */
+    private static StoredSeries readPoints(InputStream body) throws IOException {
+        JsonStreamReader json = new JsonStreamReader(body);
+        double[] times = new double[64];
+        double[] temperatures = new double[64];
+        int count = 0;
+        boolean found = false;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            if (!json.nextName().equals("points")) {
+                json.skipValue();
+                continue;
+            }
+            found = true;
+            json.beginArray();
+            while (json.hasNext()) {
+                if (count == MAX_POINTS) {
+                    throw new IllegalArgumentException("Слишком много точек (максимум " + MAX_POINTS + ")");
+                }
+                if (count == times.length) {
+                    times = Arrays.copyOf(times, count * 2);
+                    temperatures = Arrays.copyOf(temperatures, count * 2);
+                }
+                json.beginArray();
+                times[count] = json.nextDouble();
+                if (!json.hasNext()) {
+                    throw new IllegalArgumentException("Точка " + (count + 1) + " должна содержать время и температуру");
+                }
+                temperatures[count] = json.nextDouble();
+                json.endArray();
+                count++;
+            }
+            json.endArray();
+        }
+        json.endObject();
+        json.endDocument();
+
+        if (!found) {
+            throw new IllegalArgumentException("Ожидалось поле \"points\"");
+        }
+        return new StoredSeries(times, temperatures, count);
+    }
+
+    /**
+     * Рассчитывает прямую по точкам ряда.
+     *
+     * @param points точки
+     * @param mode режим расчета
+     * @return результат расчета
+     * @throws IllegalArgumentException если точек недостаточно
+     * @throws ArithmeticException если расчет невозможен
+     */
+    private static Fit fit(StoredSeries points, FitMode mode) {
+        LinearModel line = new LinearRegressor(mode).fit(points.times, points.temperatures, points.count);
+        RegressionStatistics.Summary statistics = points.count >= 3
+                ? RegressionStatistics.analyze(points.times, points.temperatures, points.count,
+                line.getA(), line.getB())
+                : null;
+        return new Fit(mode, line, points.count, statistics);
+    }
+
+    /**
+     * Определяет режим расчета по параметру mode (по умолчанию linear).
+     *
+     * @param exchange запрос
+     * @return режим расчета
+     * @throws IllegalArgumentException если режим неизвестен или не поддерживается сервисом
+     */
+    private static FitMode parseMode(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getQuery();
+        if (query == null) {
+            return FitMode.LINEAR;
+        }
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("mode=")) {
+                String value = parameter.substring(5);
+                return switch (value.toLowerCase(Locale.ROOT)) {
+                    case "linear" -> FitMode.LINEAR;
+                    case "theil_sen" -> FitMode.THEIL_SEN;
+                    case "ransac" -> FitMode.RANSAC;
+                    default -> throw new IllegalArgumentException(
+                            "Режим не поддерживается: " + value + " (доступны linear, theil_sen, ransac)");
+                };
+            }
+        }
+        return FitMode.LINEAR;
+    }
+
+    /**
+     * Проверяет метод запроса.
+     *
+     * @param exchange запрос
+     * @param method ожидаемый метод
+     */
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equals(method)) {
+            throw new HttpError(405, "Метод не поддерживается: " + exchange.getRequestMethod());
+        }
+    }
+
+    /**
+     * Возвращает последний расчет ряда.
+     *
+     * @param stored ряд
+     * @return расчет
+     */
+    private static Fit requireFit(StoredSeries stored) {
+        Fit fit = stored.fit;
+        if (fit == null) {
+            throw new HttpError(409, "Ряд еще не рассчитан (POST /series/{id}/fit)");
+        }
+        return fit;
+    }
+
+    /**
+     * Формирует описание ряда в JSON.
+     *
+     * @param id идентификатор
+     * @param stored ряд
+     * @return текст JSON
+     */
+    private static String seriesToJson(String id, StoredSeries stored) {
+        Fit fit = stored.fit;
+        return "{\"id\":\"" + id + "\",\"count\":" + stored.count +
+                ",\"fit\":" + (fit != null ? fitToJson(fit) : "null") + "}";
+    }
+
+    /**
+     * Формирует результат расчета в JSON.
+     *
+     * @param fit результат расчета
+     * @return текст JSON
+     */
+    private static String fitToJson(Fit fit) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"mode\":\"").append(fit.mode.name().toLowerCase(Locale.ROOT)).append('"')
+                .append(",\"a\":").append(number(fit.line.getA()))
+                .append(",\"b\":").append(number(fit.line.getB()))
+                .append(",\"count\":").append(fit.count);
+        RegressionStatistics.Summary s = fit.statistics;
+        if (s != null) {
+            json.append(",\"statistics\":{")
+                    .append("\"rSquared\":").append(number(s.getRSquared()))
+                    .append(",\"slopeError\":").append(number(s.getSlopeError()))
+                    .append(",\"interceptError\":").append(number(s.getInterceptError()))
+                    .append(",\"residualStdError\":").append(number(s.getResidualStdError()))
+                    .append(",\"rmse\":").append(number(s.getRmse()))
+                    .append(",\"maxAbsResidual\":").append(number(s.getMaxAbsResidual()))
+                    .append('}');
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Записывает число в JSON (NaN и бесконечность записываются как null).
+     *
+     * @param value число
+     * @return текст числа
+     */
+    private static String number(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+
+    /**
+     * Отправляет ответ JSON.
+     *
+     * @param exchange запрос
+     * @param status код ответа
+     * @param json текст JSON
+     * @throws IOException если возникает ошибка записи
+     */
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /**
+     * Отправляет ответ с ошибкой, если заголовки ответа еще не отправлены.
+     *
+     * @param exchange запрос
+     * @param status код ответа
+     * @param message сообщение об ошибке
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        if (exchange.getResponseCode() != -1) {
+            return; // Ответ уже начат - остается только оборвать его
+        }
+        try {
+            sendJson(exchange, status, "{\"error\":\"" + escape(message == null ? "" : message) + "\"}");
+        } catch (IOException e) {
+            Diagnostics.debug("Не удалось отправить ошибку: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Экранирует строку для вставки в JSON: кавычки, обратную косую черту
+     * и все управляющие символы.
+     *
+     * @param text строка
+     * @return экранированная строка
+     */
+    static String escape(String text) {
+        StringBuilder result = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> result.append("\\\"");
+                case '\\' -> result.append("\\\\");
+                case '\n' -> result.append("\\n");
+                case '\r' -> result.append("\\r");
+                case '\t' -> result.append("\\t");
+                default -> {
+                    if (c < 0x20 || c == 0x7F) {
+                        result.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        result.append(c);
+                    }
+                }
+            }
+        }
+        return result.toString();
+    }
+}
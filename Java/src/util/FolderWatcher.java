@@ -0,0 +1,279 @@
+package util;
+
+import model.SeriesWorkspace;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс FolderWatcher отслеживает папку, в которую регистраторы выкладывают
+ * файлы измерений (.xlsx, .xls, .csv), и загружает новые и измененные файлы
+ * через FileImporter на ограниченном пуле рабочих потоков.
+ *
+ * Каждый файл обрабатывается один раз для каждой версии (размер + время
+ * изменения). Повторные события по файлу, пока он ждет обработки,
+ * объединяются в одну задачу, поэтому одновременное появление сотен
+ * файлов не переполняет очередь. Файл читается только после того,
+ * как он перестал изменяться, чтобы не захватить недописанные данные.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class FolderWatcher {
+
+    /**
+     * Время (мс), в течение которого файл не должен изменяться перед загрузкой.
+     */
+    public static final long SETTLE_DELAY_MS = 500;
+
+    /**
+     * Получатель результатов загрузки. Методы вызываются в рабочих потоках.
+     */
+    public interface Listener {
+        /**
+         * Вызывается после успешной загрузки нового или измененного файла.
+         *
+         * @param file загруженный файл
+         * @param data ряды, прочитанные из файла
+         * @param changed true если файл уже загружался ранее и был изменен
+         */
+        void fileImported(Path file, SeriesWorkspace data, boolean changed);
+
+        /**
+         * Вызывается при ошибке чтения файла.
+         *
+         * @param file файл
+         * @param error возникшая ошибка
+         */
+        void fileFailed(Path file, Exception error);
+    }
+
+    /**
+     * Версия обработанного файла: размер и время последнего изменения.
+     */
+    private static class FileStamp {
+        private final long size;
+        private final long modified;
+
+        FileStamp(File file) {
+            this.size = file.length();
+            this.modified = file.lastModified();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof FileStamp stamp && stamp.size == size && stamp.modified == modified;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(size) * 31 + Long.hashCode(modified);
+        }
+    }
+
+    private final Path directory;
+    private final Listener listener;
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * Версии уже обработанных файлов.
+     */
+    private final Map<Path, FileStamp> processed = new ConcurrentHashMap<>();
+
+    /**
+     * Файлы, ожидающие обработки (для объединения повторных событий).
+     */
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+
+    private WatchService watchService;
+
+    /**
+     * Создает наблюдатель за папкой.
+     *
+     * @param directory отслеживаемая папка
+     * @param threads количество рабочих потоков для загрузки файлов
+     * @param listener получатель результатов
+     * @throws IllegalArgumentException если путь не является папкой или threads меньше 1
+     */
+    public FolderWatcher(Path directory, int threads, Listener listener) {
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("Папка не найдена: " + directory);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Количество потоков должно быть не меньше 1");
+        }
+        this.directory = directory;
+        this.listener = listener;
+        this.executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "folder-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Запускает отслеживание папки. Файлы, которые уже лежат в папке,
+     * также ставятся в очередь на загрузку.
+     *
+     * @throws IOException если не удается зарегистрировать папку
+     */
+    public synchronized void start() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+
+        Thread watchThread = new Thread(this::watchLoop, "folder-watch");
+        watchThread.setDaemon(true);
+        watchThread.start();
+
+        scanDirectory();
+    }
+
+    /**
+     * Останавливает отслеживание и рабочие потоки.
+     * Файлы, которые загружаются в этот момент, дочитываются.
+     */
+    public synchronized void stop() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // Служба уже закрыта
+        }
+        watchService = null;
+        executor.shutdown();
+    }
+
+    /**
+     * Возвращает отслеживаемую папку.
+     *
+     * @return путь к папке
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Возвращает количество обработанных файлов.
+     *
+     * @return количество файлов
+     */
+    public int getProcessedCount() {
+        return processed.size();
+    }
+
+    /**
+     * Цикл ожидания событий файловой системы.
+     */
+    private void watchLoop() {
+        WatchService service = watchService;
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // События потеряны - перечитываем папку целиком
+                        scanDirectory();
+                    } else {
+                        schedule(directory.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    break; // Папка удалена или недоступна
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Отслеживание остановлено
+        }
+    }
+
+    /**
+     * Ставит в очередь все подходящие файлы папки.
+     */
+    private void scanDirectory() {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                schedule(file);
+            }
+        } catch (IOException e) {
+            listener.fileFailed(directory, e);
+        }
+    }
+
+    /**
+     * Ставит файл в очередь, если он еще не ожидает обработки.
+     *
+     * @param file файл
+     */
+    private void schedule(Path file) {
+        if (!SpreadsheetService.isSupportedFile(file.getFileName().toString())) {
+            return;
+        }
+        if (pending.add(file) && !executor.isShutdown()) {
+            executor.schedule(() -> process(file), SETTLE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Загружает файл, если его версия еще не обрабатывалась.
+     * Файл, который продолжает изменяться, откладывается.
+     *
+     * @param file файл
+     */
+    private void process(Path file) {
+        File ioFile = file.toFile();
+        FileStamp stamp = new FileStamp(ioFile);
+
+        // Файл удален или еще дописывается - ждем следующего события
+        if (stamp.modified == 0 || System.currentTimeMillis() - stamp.modified < SETTLE_DELAY_MS) {
+            if (stamp.modified != 0 && !executor.isShutdown()) {
+                executor.schedule(() -> process(file), SETTLE_DELAY_MS, TimeUnit.MILLISECONDS);
+            } else {
+                pending.remove(file);
+            }
+            return;
+        }
+
+        // События, пришедшие во время загрузки, поставят файл в очередь заново
+        pending.remove(file);
+
+        // Версия отмечается обработанной до чтения одной атомарной заменой:
+        // задача, запущенная по тому же файлу параллельно, получит эту версию
+        // как предыдущую и не загрузит файл второй раз. Испорченный файл
+        // тоже не читается повторно, пока не изменится.
+        FileStamp previous = processed.put(file, stamp);
+        if (stamp.equals(previous)) {
+            return;
+        }
+
+        try {
+            SeriesWorkspace data = SpreadsheetService.get().loadSeriesFile(ioFile);
+            listener.fileImported(file, data, previous != null);
+        } catch (Exception e) {
+            listener.fileFailed(file, e);
+        }
+    }
+}
@@ -0,0 +1,524 @@
+package util;
+
+import model.CompressedTimeSeries;
+import model.DataPoint;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Класс ImportCache хранит на диске результаты разбора Excel файлов,
+ * чтобы повторное открытие неизмененного файла не требовало разбора через POI.
+ *
+ * Записи адресуются содержимым: ключ - хеш SHA-256 и размер файла,
+ * поэтому одинаковые файлы по разным путям используют одну запись,
+ * а разные файлы не могут получить один ключ.
+ * Чтобы не читать файл целиком при каждом открытии, для каждого пути
+ * запоминается ключ вместе с размером и временем изменения файла:
+ * в памяти и в небольшом файле отметки в папке кэша, так что
+ * неизмененный файл не хешируется заново и в следующих сеансах.
+ * Точки хранятся в сжатом виде (CompressedTimeSeries) вместе
+ * с отчетом об отклоненных строках.
+ * При превышении объема кэша удаляются давно не использованные записи.
+ *
+ * Настройки (системные свойства):
+ * importCache.dir - папка кэша (по умолчанию ~/.temperature-import-cache),
+ * importCache.maxBytes - максимальный объем кэша в байтах (по умолчанию 64 МБ,
+ * 0 отключает кэш).
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class ImportCache {
+
+    /**
+     * Объем кэша по умолчанию в байтах.
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Сигнатура и версия формата записи.
+     */
+    private static final int MAGIC = 0x54494331; // "TIC1"
+    private static final int FORMAT_VERSION = 4;
+
+    /**
+     * Расширение файлов записей.
+     */
+    private static final String ENTRY_SUFFIX = ".bin";
+
+    /**
+     * Расширение файлов отметок путей (размер, время изменения и ключ файла).
+     */
+    private static final String STAMP_SUFFIX = ".stamp";
+
+    /**
+     * Ключ содержимого файла, известный для пути при данных размере и времени изменения.
+     */
+    private static class PathStamp {
+        final long size;
+        final long modified;
+        final String key;
+
+        PathStamp(long size, long modified, String key) {
+            this.size = size;
+            this.modified = modified;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Ключи содержимого по путям файлов, уже прочитанные в этом сеансе.
+     */
+    private static final Map<String, PathStamp> keysByPath = new ConcurrentHashMap<>();
+
+    /**
+     * Возвращает результат импорта из кэша.
+     *
+     * @param file исходный Excel файл
+     * @return результат импорта или null, если записи нет или кэш отключен
+     */
+    public static FileImporter.ImportResult get(File file) {
+        if (getMaxBytes() <= 0) {
+            return null;
+        }
+
+        try {
+            Path entry = getEntryPath(getKey(file));
+            if (!Files.exists(entry)) {
+                return null;
+            }
+
+            FileImporter.ImportResult result = readEntry(entry);
+            // Время изменения записи используется как время последнего обращения
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            return result;
+        } catch (IOException e) {
+            // Поврежденная или недоступная запись - читаем исходный файл
+            return null;
+        }
+    }
+
+    /**
+     * Сохраняет результат импорта в кэш и при необходимости
+     * удаляет давно не использованные записи.
+     *
+     * @param file исходный Excel файл
+     * @param result результат импорта
+     */
+    public static void put(File file, FileImporter.ImportResult result) {
+        long maxBytes = getMaxBytes();
+        if (maxBytes <= 0) {
+            return;
+        }
+
+        try {
+            Path entry = getEntryPath(getKey(file));
+            Files.createDirectories(entry.getParent());
+
+            // Пишем во временный файл, чтобы параллельное чтение не увидело неполную запись
+            Path temp = Files.createTempFile(entry.getParent(), "entry", ".tmp");
+            try {
+                writeEntry(temp, result);
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+
+            evict(entry.getParent(), maxBytes);
+        } catch (IOException e) {
+            // Кэш не обязателен для работы
+            Diagnostics.warn("Не удалось сохранить данные в кэш: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Удаляет все записи кэша.
+     *
+     * @throws IOException если возникает ошибка удаления
+     */
+    public static void clear() throws IOException {
+        keysByPath.clear();
+        Path directory = getDirectory();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> entries = Files.list(directory)) {
+            for (Path entry : (Iterable<Path>) entries::iterator) {
+                if (isCacheFile(entry)) {
+                    Files.deleteIfExists(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Возвращает ключ содержимого файла. Если размер и время изменения
+     * совпадают с запомненными для этого пути (в этом сеансе или в файле
+     * отметки), файл не читается.
+     *
+     * @param file файл
+     * @return ключ вида "sha256-размер"
+     * @throws IOException если возникает ошибка чтения файла
+     */
+    private static String getKey(File file) throws IOException {
+        String path = file.getAbsolutePath();
+        long size = file.length();
+        long modified = file.lastModified();
+
+        PathStamp stamp = keysByPath.get(path);
+        if (stamp == null) {
+            stamp = readStamp(path);
+        }
+        if (stamp != null && stamp.size == size && stamp.modified == modified) {
+            keysByPath.put(path, stamp);
+            return stamp.key;
+        }
+
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+
+        String key = HexFormat.of().formatHex(digest.digest()) + "-" + size;
+        stamp = new PathStamp(size, modified, key);
+        keysByPath.put(path, stamp);
+        writeStamp(path, stamp);
+        return key;
+    }
+
+    /**
+     * Читает отметку пути, сохраненную в папке кэша.
+     *
+     * @param path абсолютный путь исходного файла
+     * @return отметка или null, если ее нет или она повреждена
+     */
+    private static PathStamp readStamp(String path) {
+        Path stampPath = getStampPath(path);
+        if (!Files.exists(stampPath)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(stampPath)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !in.readUTF().equals(path)) {
+                return null;
+            }
+            return new PathStamp(in.readLong(), in.readLong(), in.readUTF());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Сохраняет отметку пути в папке кэша. Ошибка записи не мешает
+     * импорту: файл будет хеширован заново в следующем сеансе.
+     *
+     * @param path абсолютный путь исходного файла
+     * @param stamp отметка
+     */
+    private static void writeStamp(String path, PathStamp stamp) {
+        if (getMaxBytes() <= 0) {
+            return;
+        }
+        Path stampPath = getStampPath(path);
+        try {
+            Files.createDirectories(stampPath.getParent());
+            Path temp = Files.createTempFile(stampPath.getParent(), "stamp", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(FORMAT_VERSION);
+                    out.writeUTF(path);
+                    out.writeLong(stamp.size);
+                    out.writeLong(stamp.modified);
+                    out.writeUTF(stamp.key);
+                }
+                Files.move(temp, stampPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            Diagnostics.debug("Не удалось сохранить отметку файла в кэше: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Возвращает путь к файлу отметки: имя файла - хеш пути,
+     * поэтому путь любой длины и с любыми символами дает допустимое имя.
+     *
+     * @param path абсолютный путь исходного файла
+     * @return путь к файлу отметки
+     */
+    private static Path getStampPath(String path) {
+        byte[] hash = sha256().digest(path.getBytes(StandardCharsets.UTF_8));
+        return getDirectory().resolve(HexFormat.of().formatHex(hash) + STAMP_SUFFIX);
+    }
+
+    /**
+     * Создает вычислитель хеша SHA-256.
+     *
+     * @return вычислитель хеша
+     */
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 обязателен для любой реализации Java
+            throw new IllegalStateException("Алгоритм SHA-256 недоступен", e);
+        }
+    }
+
+    /**
+     * Записывает результат импорта в двоичном виде.
+     *
+     * @param path файл записи
+     * @param result результат импорта
+     * @throws IOException если возникает ошибка записи
+     */
+    private static void writeEntry(Path path, FileImporter.ImportResult result) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            writePoints(out, result.experimentalData);
+            writePoints(out, result.interpolationData);
+            writeReport(out, result.report);
+        }
+    }
+
+    /**
+     * Читает результат импорта из двоичной записи.
+     *
+     * @param path файл записи
+     * @return результат импорта
+     * @throws IOException если запись повреждена или не читается
+     */
+    private static FileImporter.ImportResult readEntry(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Неизвестный формат записи кэша: " + path.getFileName());
+            }
+            FileImporter.ImportResult result = new FileImporter.ImportResult();
+            result.experimentalData = readPoints(in);
+            result.interpolationData = readPoints(in);
+            result.report = readReport(in);
+            return result;
+        }
+    }
+
+    /**
+     * Записывает список точек в сжатом виде.
+     *
+     * @param out поток записи
+     * @param points список точек
+     * @throws IOException если возникает ошибка записи
+     */
+    private static void writePoints(DataOutputStream out, List<DataPoint> points) throws IOException {
+        int n = points.size();
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        for (int i = 0; i < n; i++) {
+            times[i] = points.get(i).getTime();
+            temperatures[i] = points.get(i).getTemperature();
+        }
+        CompressedTimeSeries.encode("points", times, temperatures, n,
+                CompressedTimeSeries.DEFAULT_CHUNK_SIZE).writeTo(out);
+    }
+
+    /**
+     * Читает список точек, записанный методом writePoints.
+     *
+     * @param in поток чтения
+     * @return список точек
+     * @throws IOException если данные повреждены
+     */
+    private static List<DataPoint> readPoints(DataInputStream in) throws IOException {
+        CompressedTimeSeries series = CompressedTimeSeries.readFrom(in);
+        int n = series.size();
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        series.decode(times, temperatures);
+
+        List<DataPoint> points = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            points.add(new DataPoint(times[i], temperatures[i]));
+        }
+        return points;
+    }
+
+    /**
+     * Записывает отчет об отклоненных строках.
+     *
+     * @param out поток записи
+     * @param report отчет или null
+     * @throws IOException если возникает ошибка записи
+     */
+    private static void writeReport(DataOutputStream out, ImportReport report) throws IOException {
+        out.writeBoolean(report != null);
+        if (report == null) {
+            return;
+        }
+        out.writeUTF(report.getSheetName());
+        out.writeInt(report.getAcceptedCount());
+        out.writeInt(report.getRejectedCount());
+        for (int i = 0; i < report.getRejectedCount(); i++) {
+            out.writeInt(report.getRow(i));
+            out.writeByte(report.getReason(i));
+            out.writeDouble(report.getValue(i));
+            String text = report.getText(i);
+            out.writeBoolean(text != null);
+            if (text != null) {
+                out.writeUTF(text);
+            }
+        }
+    }
+
+    /**
+     * Читает отчет, записанный методом writeReport.
+     *
+     * @param in поток чтения
+     * @return отчет или null
+     * @throws IOException если данные повреждены
+     */
+    private static ImportReport readReport(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        ImportReport report = new ImportReport(in.readUTF(), in.readInt());
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int row = in.readInt();
+            byte reason = in.readByte();
+            if (reason < 0 || reason >= ImportReport.getReasonCount()) {
+                throw new IOException("Некорректный код причины в записи кэша: " + reason);
+            }
+            double value = in.readDouble();
+            report.reject(row, reason, value, in.readBoolean() ? in.readUTF() : null);
+        }
+        return report;
+    }
+
+    /**
+     * Удаляет давно не использованные записи, пока объем кэша больше допустимого.
+     * Отметки путей удаляются по тому же правилу; без отметки файл просто
+     * хешируется заново.
+     *
+     * @param directory папка кэша
+     * @param maxBytes допустимый объем в байтах
+     * @throws IOException если не удается прочитать папку
+     */
+    private static void evict(Path directory, long maxBytes) throws IOException {
+        List<Path> entries = new ArrayList<>();
+        long total = 0;
+        try (Stream<Path> stream = Files.list(directory)) {
+            for (Path entry : (Iterable<Path>) stream::iterator) {
+                if (isCacheFile(entry)) {
+                    entries.add(entry);
+                    total += Files.size(entry);
+                }
+            }
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+
+        // Сначала удаляем записи с самым старым временем обращения
+        long[] accessTimes = new long[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            accessTimes[i] = Files.getLastModifiedTime(entries.get(i)).toMillis();
+        }
+        Integer[] order = new Integer[entries.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (x, y) -> Long.compare(accessTimes[x], accessTimes[y]));
+
+        for (int i = 0; i < order.length && total > maxBytes; i++) {
+            Path entry = entries.get(order[i]);
+            long size = Files.size(entry);
+            if (Files.deleteIfExists(entry)) {
+                total -= size;
+            }
+        }
+    }
+
+    /**
+     * Проверяет, является ли файл записью или отметкой кэша.
+     *
+     * @param path файл в папке кэша
+     * @return true для файлов записей и отметок
+     */
+    private static boolean isCacheFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.endsWith(ENTRY_SUFFIX) || name.endsWith(STAMP_SUFFIX);
+    }
+
+    /**
+     * Возвращает путь к записи с заданным ключом.
+     *
+     * @param key ключ содержимого
+     * @return путь к файлу записи
+     */
+    private static Path getEntryPath(String key) {
+        return getDirectory().resolve(key + ENTRY_SUFFIX);
+    }
+
+    /**
+     * Возвращает папку кэша.
+     *
+     * @return путь к папке
+     */
+    private static Path getDirectory() {
+        String directory = System.getProperty("importCache.dir");
+        if (directory != null && !directory.isBlank()) {
+            return Paths.get(directory);
+        }
+        return Paths.get(System.getProperty("user.home"), ".temperature-import-cache");
+    }
+
+    /**
+     * Возвращает допустимый объем кэша из системного свойства.
+     *
+     * @return объем в байтах (0 - кэш отключен)
+     */
+    private static long getMaxBytes() {
+        String value = System.getProperty("importCache.maxBytes");
+        if (value == null) {
+            return DEFAULT_MAX_BYTES;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return DEFAULT_MAX_BYTES;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Класс ImportReport - отчет о строках, отклоненных при импорте таблицы.
+ * Заполняется в том же проходе, что и чтение точек.
+ *
+ * Для каждой отклоненной строки хранятся номер строки, код причины
+ * и исходное значение (NaN, если значение не числовое или отсутствует).
+ * Данные лежат в трех параллельных примитивных массивах без создания
+ * объекта на каждую строку, поэтому отчет по файлу с сотнями тысяч
+ * отклоненных строк занимает около 13 байт на строку. Для нечисловых
+ * значений дополнительно хранится исходный текст ячейки (не длиннее
+ * MAX_TEXT_LENGTH символов); массив текстов создается только при первом
+ * таком значении.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class ImportReport {
+
+    /**
+     * В строке отсутствует значение времени, температуры или типа.
+     */
+    public static final byte MISSING_VALUE = 0;
+
+    /**
+     * Время вне диапазона 0..24 часа.
+     */
+    public static final byte TIME_OUT_OF_RANGE = 1;
+
+    /**
+     * Температура вне диапазона -100..100 °C.
+     */
+    public static final byte TEMPERATURE_OUT_OF_RANGE = 2;
+
+    /**
+     * Значение не является числом.
+     */
+    public static final byte NOT_A_NUMBER = 3;
+
+    /**
+     * Неизвестный тип точки.
+     */
+    public static final byte UNKNOWN_TYPE = 4;
+
+    /**
+     * Максимальная длина сохраняемого текста ячейки.
+     */
+    public static final int MAX_TEXT_LENGTH = 100;
+
+    /**
+     * Названия причин по кодам.
+     */
+    private static final String[] REASON_NAMES = {
+            "Нет значения",
+            "Время вне диапазона 0..24",
+            "Температура вне диапазона -100..100",
+            "Не число",
+            "Неизвестный тип точки"
+    };
+
+    private final String sheetName;
+    private int[] rows = new int[16];
+    private byte[] reasons = new byte[16];
+    private double[] values = new double[16];
+    private String[] texts;
+    private int size;
+    private final int[] counts = new int[REASON_NAMES.length];
+    private int acceptedRows;
+
+    /**
+     * Создает пустой отчет.
+     *
+     * @param sheetName название листа, к которому относится отчет
+     */
+    public ImportReport(String sheetName) {
+        this(sheetName, 0);
+    }
+
+    /**
+     * Создает отчет с заданным количеством уже принятых строк
+     * (используется при чтении отчета из кэша импорта).
+     *
+     * @param sheetName название листа
+     * @param acceptedRows количество принятых строк
+     */
+    ImportReport(String sheetName, int acceptedRows) {
+        this.sheetName = sheetName;
+        this.acceptedRows = acceptedRows;
+    }
+
+    /**
+     * Учитывает принятую строку.
+     */
+    public void accept() {
+        acceptedRows++;
+    }
+
+    /**
+     * Добавляет отклоненную строку.
+     *
+     * @param row номер строки (как в Excel, начиная с 1)
+     * @param reason код причины
+     * @param value исходное значение или NaN
+     */
+    public void reject(int row, byte reason, double value) {
+        reject(row, reason, value, null);
+    }
+
+    /**
+     * Добавляет отклоненную строку вместе с исходным текстом ячейки.
+     *
+     * @param row номер строки (как в Excel, начиная с 1)
+     * @param reason код причины
+     * @param value исходное значение или NaN
+     * @param text исходный текст ячейки или null (обрезается до MAX_TEXT_LENGTH символов)
+     */
+    public void reject(int row, byte reason, double value, String text) {
+        if (size == rows.length) {
+            int capacity = rows.length * 2;
+            rows = Arrays.copyOf(rows, capacity);
+            reasons = Arrays.copyOf(reasons, capacity);
+            values = Arrays.copyOf(values, capacity);
+            if (texts != null) {
+                texts = Arrays.copyOf(texts, capacity);
+            }
+        }
+        rows[size] = row;
+        reasons[size] = reason;
+        values[size] = value;
+        if (text != null) {
+            if (texts == null) {
+                texts = new String[rows.length];
+            }
+            texts[size] = text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH) : text;
+        }
+        size++;
+        counts[reason]++;
+    }
+
+    /**
+     * Возвращает название листа.
+     *
+     * @return название листа
+     */
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    /**
+     * Возвращает количество принятых строк.
+     *
+     * @return количество строк
+     */
+    public int getAcceptedCount() {
+        return acceptedRows;
+    }
+
+    /**
+     * Возвращает количество отклоненных строк.
+     *
+     * @return количество строк
+     */
+    public int getRejectedCount() {
+        return size;
+    }
+
+    /**
+     * Возвращает количество отклоненных строк по заданной причине.
+     *
+     * @param reason код причины
+     * @return количество строк
+     */
+    public int getCount(byte reason) {
+        return counts[reason];
+    }
+
+    /**
+     * Возвращает номер отклоненной строки.
+     *
+     * @param index индекс записи в отчете
+     * @return номер строки (как в Excel)
+     */
+    public int getRow(int index) {
+        checkIndex(index);
+        return rows[index];
+    }
+
+    /**
+     * Возвращает код причины отклонения.
+     *
+     * @param index индекс записи в отчете
+     * @return код причины
+     */
+    public byte getReason(int index) {
+        checkIndex(index);
+        return reasons[index];
+    }
+
+    /**
+     * Возвращает исходное значение отклоненной строки.
+     *
+     * @param index индекс записи в отчете
+     * @return значение или NaN
+     */
+    public double getValue(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * Возвращает исходный текст ячейки отклоненной строки.
+     *
+     * @param index индекс записи в отчете
+     * @return текст или null, если он не сохранялся
+     */
+    public String getText(int index) {
+        checkIndex(index);
+        return texts == null ? null : texts[index];
+    }
+
+    /**
+     * Возвращает количество кодов причин.
+     *
+     * @return количество причин
+     */
+    public static int getReasonCount() {
+        return REASON_NAMES.length;
+    }
+
+    /**
+     * Возвращает название причины отклонения.
+     *
+     * @param reason код причины
+     * @return название причины
+     */
+    public static String getReasonName(byte reason) {
+        return REASON_NAMES[reason];
+    }
+
+    /**
+     * Проверяет корректность индекса записи.
+     *
+     * @param index индекс записи
+     * @throws IndexOutOfBoundsException если индекс вне отчета
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс " + index + " вне отчета из " + size + " записей");
+        }
+    }
+
+    /**
+     * Возвращает краткую сводку отчета.
+     *
+     * @return строка с количеством принятых и отклоненных строк по причинам
+     */
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder();
+        summary.append("Принято строк: ").append(acceptedRows)
+                .append(", отклонено: ").append(size);
+        for (byte reason = 0; reason < REASON_NAMES.length; reason++) {
+            if (counts[reason] > 0) {
+                summary.append("\n  ").append(REASON_NAMES[reason]).append(": ").append(counts[reason]);
+            }
+        }
+        return summary.toString();
+    }
+}
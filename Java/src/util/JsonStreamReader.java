@@ -0,0 +1,602 @@
+package util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Класс JsonStreamReader - потоковое чтение JSON без построения дерева.
+ *
+ * Текст читается из потока блоками и разбирается по мере чтения, поэтому
+ * тело запроса с миллионом чисел не копируется в память целиком. Числа
+ * разбираются прямо из байтов: если мантисса содержит не больше 15 цифр,
+ * а десятичный порядок не больше 22, результат получается одним точным
+ * умножением или делением (как в Double.parseDouble), иначе текст числа
+ * передается в Double.parseDouble.
+ *
+ * Поддерживается то, что нужно для запросов сервиса расчета: объекты,
+ * массивы, числа, строки (включая последовательности \\uXXXX и суррогатные
+ * пары), true/false/null (последние можно только пропустить). Элементы объектов
+ * и массивов обязательно разделяются запятыми, а вложенность ограничена
+ * MAX_DEPTH уровнями, чтобы пропуск значения не переполнял стек.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class JsonStreamReader {
+
+    /**
+     * Точные степени десяти, представимые в double.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Максимальная вложенность объектов и массивов.
+     */
+    public static final int MAX_DEPTH = 256;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long offset;
+
+    /**
+     * Текущая вложенность и признаки того, что на уровне уже был элемент.
+     */
+    private int depth;
+    private final boolean[] hasElement = new boolean[MAX_DEPTH + 1];
+    private boolean separated;
+    private boolean afterName;
+
+    /**
+     * Создает читателя JSON из потока (поток не закрывается).
+     *
+     * @param in поток с текстом JSON в кодировке UTF-8
+     */
+    public JsonStreamReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Читает начало объекта "{".
+     *
+     * @throws IOException если возникает ошибка чтения
+     * @throws IllegalArgumentException если в потоке не начало объекта
+     */
+    public void beginObject() throws IOException {
+        beforeElement();
+        expect('{');
+        push();
+    }
+
+    /**
+     * Читает конец объекта "}".
+     *
+     * @throws IOException если возникает ошибка чтения
+     * @throws IllegalArgumentException если в потоке не конец объекта
+     */
+    public void endObject() throws IOException {
+        beforeEnd();
+        expect('}');
+        depth--;
+    }
+
+    /**
+     * Читает начало массива "[".
+     *
+     * @throws IOException если возникает ошибка чтения
+     * @throws IllegalArgumentException если в потоке не начало массива
+     */
+    public void beginArray() throws IOException {
+        beforeElement();
+        expect('[');
+        push();
+    }
+
+    /**
+     * Читает конец массива "]".
+     *
+     * @throws IOException если возникает ошибка чтения
+     * @throws IllegalArgumentException если в потоке не конец массива
+     */
+    public void endArray() throws IOException {
+        beforeEnd();
+        expect(']');
+        depth--;
+    }
+
+    /**
+     * Проверяет, есть ли в текущем объекте или массиве еще элементы.
+     * Пропускает запятую перед следующим элементом.
+     *
+     * @return true если следующий элемент есть, false перед "}" или "]"
+     * @throws IOException если возникает ошибка чтения
+     * @throws IllegalArgumentException если элементы не разделены запятой
+     */
+    public boolean hasNext() throws IOException {
+        int c = peekSignificant();
+        if (hasElement[depth] && !separated && c != '}' && c != ']' && c != -1) {
+            if (c != ',') {
+                throw error("Ожидалась запятая");
+            }
+            position++;
+            separated = true;
+            c = peekSignificant();
+        }
+        if (c == '}' || c == ']') {
+            beforeEnd();
+            return false;
+        }
+        return c != -1;
+    }
+
+    /**
+     * Читает имя поля объекта вместе с двоеточием.
+     *
+     * @return имя поля
+     * @throws IOException если возникает ошибка чтения
+     * @throws IllegalArgumentException если в потоке не имя поля
+     */
+    public String nextName() throws IOException {
+        beforeElement();
+        String name = readString();
+        expect(':');
+        afterName = true;
+        return name;
+    }
+
+    /**
+     * Читает строку.
+     *
+     * @return строка
+     * @throws IOException если возникает ошибка чтения
+     * @throws IllegalArgumentException если в потоке не строка
+     */
+    public String nextString() throws IOException {
+        beforeElement();
+        return readString();
+    }
+
+    /**
+     * Читает строку, не проверяя разделители.
+     *
+     * @return строка
+     * @throws IOException если возникает ошибка чтения
+     */
+    private String readString() throws IOException {
+        expect('"');
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw error("Незавершенная строка");
+            }
+            if (c == '"') {
+                return bytes.toString(StandardCharsets.UTF_8);
+            }
+            if (c == '\\') {
+                int escaped = read();
+                switch (escaped) {
+                    case '"', '\\', '/' -> bytes.write(escaped);
+                    case 'n' -> bytes.write('\n');
+                    case 't' -> bytes.write('\t');
+                    case 'r' -> bytes.write('\r');
+                    case 'b' -> bytes.write('\b');
+                    case 'f' -> bytes.write('\f');
+                    case 'u' -> writeUtf8(bytes, readCodePoint());
+                    default -> throw error("Неподдерживаемая последовательность в строке");
+                }
+            } else {
+                bytes.write(c);
+            }
+        }
+    }
+
+    /**
+     * Читает символ, заданный последовательностью \\uXXXX (после \\u).
+     * Символ вне основной плоскости записывается суррогатной парой
+     * из двух последовательностей подряд.
+     *
+     * @return код символа
+     * @throws IOException если возникает ошибка чтения
+     */
+    private int readCodePoint() throws IOException {
+        char unit = readHexUnit();
+        if (Character.isLowSurrogate(unit)) {
+            throw error("Непарный суррогат в строке");
+        }
+        if (!Character.isHighSurrogate(unit)) {
+            return unit;
+        }
+        if (read() != '\\' || read() != 'u') {
+            throw error("Непарный суррогат в строке");
+        }
+        char low = readHexUnit();
+        if (!Character.isLowSurrogate(low)) {
+            throw error("Непарный суррогат в строке");
+        }
+        return Character.toCodePoint(unit, low);
+    }
+
+    /**
+     * Читает четыре шестнадцатеричные цифры последовательности \\uXXXX.
+     *
+     * @return кодовая единица UTF-16
+     * @throws IOException если возникает ошибка чтения
+     */
+    private char readHexUnit() throws IOException {
+        int unit = 0;
+        for (int i = 0; i < 4; i++) {
+            int c = read();
+            int digit = c == -1 ? -1 : Character.digit(c, 16);
+            if (digit < 0) {
+                throw error("Некорректная последовательность \\u в строке");
+            }
+            unit = unit << 4 | digit;
+        }
+        return (char) unit;
+    }
+
+    /**
+     * Дописывает символ в кодировке UTF-8.
+     *
+     * @param bytes байты строки
+     * @param codePoint код символа
+     */
+    private static void writeUtf8(ByteArrayOutputStream bytes, int codePoint) {
+        if (codePoint < 0x80) {
+            bytes.write(codePoint);
+        } else if (codePoint < 0x800) {
+            bytes.write(0xC0 | codePoint >> 6);
+            bytes.write(0x80 | codePoint & 0x3F);
+        } else if (codePoint < 0x10000) {
+            bytes.write(0xE0 | codePoint >> 12);
+            bytes.write(0x80 | codePoint >> 6 & 0x3F);
+            bytes.write(0x80 | codePoint & 0x3F);
+        } else {
+            bytes.write(0xF0 | codePoint >> 18);
+            bytes.write(0x80 | codePoint >> 12 & 0x3F);
+            bytes.write(0x80 | codePoint >> 6 & 0x3F);
+            bytes.write(0x80 | codePoint & 0x3F);
+        }
+    }
+
+    /**
+     * Читает число.
+     *
+     * @return значение числа
+     * @throws IOException если возникает ошибка чтения
+     * @throws IllegalArgumentException если в потоке не число
+     */
+    public double nextDouble() throws IOException {
+        beforeElement();
+        int c = peekSignificant();
+        int start = position;
+        if (c == '-' || (c >= '0' && c <= '9')) {
+            // Число целиком в буфере - разбираем без копирования
+            int end = scanNumber(start);
+            if (end < limit) {
+                position = end;
+                return parseNumber(buffer, start, end);
+            }
+        } else {
+            throw error("Ожидалось число");
+        }
+
+        // Число на границе буфера - собираем его текст отдельно
+        byte[] text = new byte[64];
+        int length = 0;
+        while (true) {
+            c = peek();
+            if (c == -1 || !isNumberChar(c)) {
+                break;
+            }
+            if (length == text.length) {
+                if (length >= 1024) {
+                    throw error("Слишком длинное число");
+                }
+                text = Arrays.copyOf(text, length * 2);
+            }
+            text[length++] = (byte) c;
+            position++;
+        }
+        return parseNumber(text, 0, length);
+    }
+
+    /**
+     * Пропускает следующее значение любого типа. Глубина рекурсии
+     * не превышает MAX_DEPTH.
+     *
+     * @throws IOException если возникает ошибка чтения
+     * @throws IllegalArgumentException если в потоке некорректный JSON
+     */
+    public void skipValue() throws IOException {
+        int c = peekSignificant();
+        switch (c) {
+            case '{' -> {
+                beginObject();
+                while (hasNext()) {
+                    nextName();
+                    skipValue();
+                }
+                endObject();
+            }
+            case '[' -> {
+                beginArray();
+                while (hasNext()) {
+                    skipValue();
+                }
+                endArray();
+            }
+            case '"' -> nextString();
+            case 't', 'f', 'n' -> {
+                beforeElement();
+                StringBuilder word = new StringBuilder();
+                while (peek() >= 'a' && peek() <= 'z' && word.length() < 5) {
+                    word.append((char) read());
+                }
+                String literal = word.toString();
+                if (!literal.equals("true") && !literal.equals("false") && !literal.equals("null")) {
+                    throw error("Некорректное значение '" + literal + "'");
+                }
+            }
+            default -> nextDouble();
+        }
+    }
+
+    /**
+     * Проверяет, что после последнего значения в потоке ничего нет.
+     *
+     * @throws IOException если возникает ошибка чтения
+     * @throws IllegalArgumentException если после значения есть еще данные
+     */
+    public void endDocument() throws IOException {
+        if (peekSignificant() != -1) {
+            throw error("Лишние данные после конца JSON");
+        }
+    }
+
+    /**
+     * Проверяет разделитель перед очередным элементом объекта или массива:
+     * перед каждым элементом, кроме первого, должна быть запятая.
+     * Значение поля объекта элементом не считается.
+     *
+     * @throws IOException если возникает ошибка чтения
+     */
+    private void beforeElement() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (hasElement[depth] && !separated) {
+            expect(',');
+        }
+        hasElement[depth] = depth > 0;
+        separated = false;
+    }
+
+    /**
+     * Проверяет, что перед концом объекта или массива нет висячей запятой.
+     */
+    private void beforeEnd() {
+        if (separated) {
+            throw error("Ожидалось значение после запятой");
+        }
+        if (afterName) {
+            throw error("Ожидалось значение поля");
+        }
+    }
+
+    /**
+     * Переходит на следующий уровень вложенности.
+     */
+    private void push() {
+        if (depth == MAX_DEPTH) {
+            throw error("Слишком глубокая вложенность (максимум " + MAX_DEPTH + ")");
+        }
+        depth++;
+        hasElement[depth] = false;
+    }
+
+    /**
+     * Находит конец числа, начинающегося в буфере с позиции start.
+     *
+     * @param start позиция начала числа
+     * @return позиция первого символа после числа (limit, если число не закончилось в буфере)
+     */
+    private int scanNumber(int start) {
+        int i = start;
+        while (i < limit && isNumberChar(buffer[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Разбирает число из байтов.
+     *
+     * @param text байты
+     * @param start начало числа
+     * @param end конец числа (не включая)
+     * @return значение
+     */
+    private double parseNumber(byte[] text, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && text[i] == '-') {
+            negative = true;
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        for (; i < end && text[i] >= '0' && text[i] <= '9'; i++) {
+            anyDigit = true;
+            if (digits < 19) {
+                mantissa = mantissa * 10 + (text[i] - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                exponent++;
+                digits++;
+            }
+        }
+        if (i < end && text[i] == '.') {
+            i++;
+            for (; i < end && text[i] >= '0' && text[i] <= '9'; i++) {
+                anyDigit = true;
+                if (digits < 19) {
+                    mantissa = mantissa * 10 + (text[i] - '0');
+                    exponent--;
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                } else {
+                    digits++;
+                }
+            }
+        }
+        if (!anyDigit) {
+            throw error("Некорректное число");
+        }
+        if (i < end && (text[i] == 'e' || text[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (text[i] == '+' || text[i] == '-')) {
+                negativeExponent = text[i] == '-';
+                i++;
+            }
+            int value = 0;
+            boolean anyExponentDigit = false;
+            for (; i < end && text[i] >= '0' && text[i] <= '9'; i++) {
+                anyExponentDigit = true;
+                value = Math.min(value * 10 + (text[i] - '0'), 100_000);
+            }
+            if (!anyExponentDigit) {
+                throw error("Некорректное число");
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        if (i != end) {
+            throw error("Некорректное число");
+        }
+
+        if (digits <= 15 && Math.abs(exponent) <= 22) {
+            // Мантисса и степень десяти точны - одно округление, как у parseDouble
+            double value = exponent >= 0
+                    ? mantissa * POWERS_OF_TEN[exponent]
+                    : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(new String(text, start, end - start, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Проверяет, может ли символ входить в запись числа.
+     *
+     * @param c символ
+     * @return true для цифр, знаков, точки и показателя степени
+     */
+    private static boolean isNumberChar(int c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    /**
+     * Читает ожидаемый символ, пропуская пробелы.
+     *
+     * @param expected ожидаемый символ
+     * @throws IOException если возникает ошибка чтения
+     */
+    private void expect(char expected) throws IOException {
+        int c = peekSignificant();
+        if (c != expected) {
+            throw error("Ожидался символ '" + expected + "'");
+        }
+        position++;
+    }
+
+    /**
+     * Пропускает пробелы и возвращает следующий символ, не читая его.
+     *
+     * @return символ или -1 в конце потока
+     * @throws IOException если возникает ошибка чтения
+     */
+    private int peekSignificant() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+            position++;
+        }
+    }
+
+    /**
+     * Возвращает следующий символ, не читая его.
+     *
+     * @return символ или -1 в конце потока
+     * @throws IOException если возникает ошибка чтения
+     */
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position] & 0xFF;
+    }
+
+    /**
+     * Читает следующий символ.
+     *
+     * @return символ или -1 в конце потока
+     * @throws IOException если возникает ошибка чтения
+     */
+    private int read() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            position++;
+        }
+        return c;
+    }
+
+    /**
+     * Читает следующий блок потока в буфер. Непрочитанный остаток
+     * переносится в начало буфера.
+     *
+     * @return false если поток закончился
+     * @throws IOException если возникает ошибка чтения
+     */
+    private boolean fill() throws IOException {
+        int remaining = limit - position;
+        System.arraycopy(buffer, position, buffer, 0, remaining);
+        offset += position;
+        position = 0;
+        limit = remaining;
+        int count = in.read(buffer, limit, buffer.length - limit);
+        if (count <= 0) {
+            return false;
+        }
+        limit += count;
+        return true;
+    }
+
+    /**
+     * Создает исключение с позицией ошибки.
+     *
+     * @param message описание ошибки
+     * @return исключение
+     */
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " (позиция " + (offset + position) + ")");
+    }
+}
@@ -0,0 +1,88 @@
+package util;
+
+import logic.FittedModel;
+import logic.QuantileSketch;
+import logic.RegressionStatistics;
+import model.DataPoint;
+import model.SeriesWorkspace;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Реализация SpreadsheetService через Apache POI (FileImporter и FileExporter).
+ *
+ * Экземпляр создается в отдельном классе-держателе, поэтому загрузка
+ * этого класса (например, при проверке флага фоновой загрузки)
+ * еще не приводит к загрузке POI.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+final class PoiSpreadsheetService implements SpreadsheetService {
+
+    /**
+     * Флаг, что фоновая загрузка уже запущена.
+     */
+    static final AtomicBoolean PRELOAD_STARTED = new AtomicBoolean();
+
+    /**
+     * Держатель экземпляра: инициализируется при первом вызове getInstance().
+     */
+    private static class Holder {
+        private static final PoiSpreadsheetService INSTANCE = new PoiSpreadsheetService();
+    }
+
+    private PoiSpreadsheetService() {
+    }
+
+    /**
+     * Возвращает единственный экземпляр сервиса.
+     *
+     * @return сервис
+     */
+    static PoiSpreadsheetService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public FileImporter.ImportResult importFromExcel(JFrame parentFrame) {
+        return FileImporter.importFromExcel(parentFrame);
+    }
+
+    @Override
+    public SeriesWorkspace importWorkspaceFromExcel(JFrame parentFrame) {
+        return FileImporter.importWorkspaceFromExcel(parentFrame);
+    }
+
+    @Override
+    public SeriesWorkspace loadSeriesFile(File file) throws IOException {
+        return FileImporter.loadSeriesFile(file);
+    }
+
+    @Override
+    public Map<String, FileImporter.ImportResult> loadAllTables(File file) throws IOException {
+        return FileImporter.loadAllTables(file);
+    }
+
+    @Override
+    public void exportToExcel(List<DataPoint> experimentalData,
+                              List<DataPoint> interpolatedData,
+                              FittedModel model,
+                              RegressionStatistics.Summary statistics,
+                              RegressionStatistics.BootstrapResult bootstrap,
+                              QuantileSketch distribution,
+                              JFrame parentFrame) {
+        FileExporter.exportToExcel(experimentalData, interpolatedData, model, statistics, bootstrap,
+                distribution, parentFrame);
+    }
+
+    @Override
+    public void warmUp() throws IOException {
+        FileImporter.warmUp();
+    }
+}
@@ -0,0 +1,135 @@
+package util;
+
+import logic.FittedModel;
+import logic.QuantileSketch;
+import logic.RegressionStatistics;
+import model.DataPoint;
+import model.SeriesWorkspace;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Интерфейс SpreadsheetService - импорт и экспорт данных в файлы Excel.
+ *
+ * Реализация работает через Apache POI, а POI вместе с xmlbeans и схемами
+ * OOXML - это несколько тысяч классов и десятки мегабайт в памяти. Поэтому
+ * окна программы обращаются к файлам Excel только через этот интерфейс:
+ * реализация (и вместе с ней POI) загружается при первом вызове get(),
+ * то есть при первом импорте или экспорте. Чтобы первый импорт не ждал
+ * загрузки, после открытия главного окна можно вызвать preloadInBackground().
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public interface SpreadsheetService {
+
+    /**
+     * Импортирует данные из Excel файла через диалоговое окно выбора файла.
+     *
+     * @param parentFrame родительское окно для диалогов
+     * @return результат импорта или null если пользователь отменил операцию
+     */
+    FileImporter.ImportResult importFromExcel(JFrame parentFrame);
+
+    /**
+     * Импортирует рабочую область с несколькими рядами из Excel файла
+     * через диалоговое окно выбора файла.
+     *
+     * @param parentFrame родительское окно для диалогов
+     * @return рабочая область или null, если пользователь отменил операцию или данных нет
+     */
+    SeriesWorkspace importWorkspaceFromExcel(JFrame parentFrame);
+
+    /**
+     * Загружает ряды из файла регистратора: Excel (.xlsx, .xls) или CSV.
+     *
+     * @param file файл с измерениями
+     * @return рабочая область с найденными рядами
+     * @throws IOException если возникает ошибка чтения файла
+     */
+    SeriesWorkspace loadSeriesFile(File file) throws IOException;
+
+    /**
+     * Загружает все таблицы экспериментальных данных из Excel файла.
+     *
+     * @param file Excel файл
+     * @return результаты импорта по названиям листов
+     * @throws IOException если возникает ошибка чтения файла
+     */
+    Map<String, FileImporter.ImportResult> loadAllTables(File file) throws IOException;
+
+    /**
+     * Экспортирует данные в Excel файл вместе со статистиками регрессии
+     * и распределением температур.
+     *
+     * @param experimentalData список экспериментальных точек
+     * @param interpolatedData список интерполяционных точек (уже с рассчитанной температурой)
+     * @param model модель, по которой рассчитаны интерполяционные точки
+     * @param statistics статистики прямой или null
+     * @param bootstrap доверительные интервалы бутстрэпа или null
+     * @param distribution распределение температур экспериментальных точек или null
+     * @param parentFrame родительское окно для диалогов
+     */
+    void exportToExcel(List<DataPoint> experimentalData,
+                       List<DataPoint> interpolatedData,
+                       FittedModel model,
+                       RegressionStatistics.Summary statistics,
+                       RegressionStatistics.BootstrapResult bootstrap,
+                       QuantileSketch distribution,
+                       JFrame parentFrame);
+
+    /**
+     * Загружает классы библиотеки, записывая и читая книгу в памяти.
+     *
+     * @throws IOException если не удалось записать или прочитать книгу
+     */
+    void warmUp() throws IOException;
+
+    /**
+     * Возвращает реализацию сервиса. Первый вызов загружает Apache POI.
+     *
+     * @return сервис работы с файлами Excel
+     */
+    static SpreadsheetService get() {
+        return PoiSpreadsheetService.getInstance();
+    }
+
+    /**
+     * Проверяет, может ли файл быть загружен методом loadSeriesFile.
+     * Проверка выполняется по имени и не загружает Apache POI.
+     *
+     * @param fileName имя файла
+     * @return true для файлов .xlsx, .xls и .csv
+     */
+    static boolean isSupportedFile(String fileName) {
+        String name = fileName.toLowerCase();
+        return name.endsWith(".xlsx") || name.endsWith(".xls") || name.endsWith(".csv");
+    }
+
+    /**
+     * Загружает и прогревает Apache POI в фоновом потоке с низким приоритетом.
+     * Повторные вызовы ничего не делают.
+     */
+    static void preloadInBackground() {
+        if (!PoiSpreadsheetService.PRELOAD_STARTED.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            long startNanos = System.nanoTime();
+            try {
+                get().warmUp();
+                Diagnostics.info("Модуль Excel загружен в фоне за %d мс", Diagnostics.elapsedMillis(startNanos));
+            } catch (Exception | LinkageError e) {
+                // Не страшно: модуль загрузится при первом импорте или экспорте
+                Diagnostics.warn("Фоновая загрузка модуля Excel не удалась: %s", e.getMessage());
+            }
+        }, "spreadsheet-preload");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+}
@@ -0,0 +1,827 @@
+package util;
+
+import logic.PersistentPointList;
+import model.CompressedTimeSeries;
+import model.DataPoint;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Класс WriteAheadLog - журнал изменений данных сеанса для восстановления
+ * после аварийного завершения программы.
+ *
+ * Каждое изменение (добавление точек, замена участка точек, изменение
+ * времен интерполяции) дописывается в конец двоичного журнала записью вида
+ * [длина][тип][данные][CRC32C]. При замене точек записывается только
+ * различающаяся середина старого и нового списка, поэтому правка одной
+ * строки занимает в журнале десятки байт, а не всю таблицу.
+ * Запись сначала попадает в буфер в памяти,
+ * а фоновый поток сбрасывает накопленные записи на диск одной операцией
+ * записи и одним fsync (групповая фиксация), поэтому добавление записи
+ * не ждет диска и журнал выдерживает сотни тысяч записей в секунду.
+ *
+ * При открытии журнал восстанавливает сеанс: читается снимок состояния
+ * (он защищен контрольной суммой CRC32C, и поврежденный снимок не
+ * восстанавливается молча), затем применяются записи журнала до первой
+ * поврежденной или недописанной.
+ * Когда журнал становится большим, тот же фоновый поток сохраняет состояние
+ * в новый снимок (в сжатом виде), а журнал начинается заново. Состояние,
+ * описываемое журналом, хранится как неизменяемая версия PersistentPointList,
+ * поэтому снимок строится без копирования данных и без участия потока,
+ * добавляющего записи. Снимок и журнал помечены
+ * номером поколения, чтобы сбой во время сжатия не привел к повторному
+ * применению уже учтенных записей.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+public class WriteAheadLog implements Closeable {
+
+    /**
+     * Максимальная задержка (мс) между добавлением записи и ее сбросом на диск.
+     */
+    public static final long FLUSH_INTERVAL_MS = 10;
+
+    /**
+     * Минимальный объем журнала (байт), после которого выполняется сжатие в снимок.
+     */
+    public static final long COMPACTION_BYTES = 8L * 1024 * 1024;
+
+    /**
+     * Типы записей журнала.
+     */
+    private static final byte ADD_POINTS = 1;
+    private static final byte REPLACE_POINTS = 2;
+    private static final byte INTERPOLATION_TIMES = 3;
+    private static final byte SPLICE_POINTS = 4;
+
+    /**
+     * Сигнатуры и версия файлов журнала и снимка.
+     */
+    private static final int LOG_MAGIC = 0x57414C31; // "WAL1"
+    private static final int SNAPSHOT_MAGIC = 0x534E5031; // "SNP1"
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Версия снимка: во второй версии в конце снимка хранится CRC32C
+     * всего содержимого. Снимки первой версии читаются без проверки.
+     */
+    private static final int SNAPSHOT_VERSION = 2;
+
+    /**
+     * Размер заголовка файла журнала: сигнатура, версия, поколение.
+     */
+    private static final int LOG_HEADER_BYTES = 16;
+
+    /**
+     * Размер служебных полей записи: длина, тип и контрольная сумма.
+     */
+    private static final int RECORD_OVERHEAD = 9;
+
+    private static final String LOG_FILE = "session.wal";
+    private static final String SNAPSHOT_FILE = "session.snapshot";
+
+    /**
+     * Сеанс, восстановленный из снимка и журнала.
+     */
+    public static class Session {
+        private final List<DataPoint> experimentalData;
+        private final List<Double> interpolationTimes;
+        private final boolean empty;
+
+        /**
+         * Создает восстановленный сеанс.
+         *
+         * @param experimentalData экспериментальные точки
+         * @param interpolationTimes времена интерполяции
+         * @param empty true если ни снимка, ни записей журнала не было
+         */
+        Session(List<DataPoint> experimentalData, List<Double> interpolationTimes, boolean empty) {
+            this.experimentalData = experimentalData;
+            this.interpolationTimes = interpolationTimes;
+            this.empty = empty;
+        }
+
+        /**
+         * Возвращает экспериментальные точки.
+         *
+         * @return список точек
+         */
+        public List<DataPoint> getExperimentalData() {
+            return experimentalData;
+        }
+
+        /**
+         * Возвращает времена интерполяции.
+         *
+         * @return список времен
+         */
+        public List<Double> getInterpolationTimes() {
+            return interpolationTimes;
+        }
+
+        /**
+         * Проверяет, есть ли что восстанавливать.
+         *
+         * @return true если сохраненного сеанса нет
+         */
+        public boolean isEmpty() {
+            return empty;
+        }
+    }
+
+    private final Path directory;
+    private final Session restoredSession;
+
+    /**
+     * Блокировка буфера записей и счетчиков.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Блокировка файла журнала (запись на диск и замена файла при сжатии).
+     */
+    private final Object channelLock = new Object();
+
+    private FileChannel channel;
+    private long generation;
+    private long logBytes;
+    private long snapshotBytes;
+
+    /**
+     * Состояние сеанса после всех добавленных записей.
+     */
+    private PersistentPointList loggedPoints;
+    private List<Double> loggedTimes;
+
+    private ByteBuffer pending = ByteBuffer.allocate(1 << 16);
+    private ByteBuffer spare = ByteBuffer.allocate(1 << 16);
+    private int recordStart;
+    private long appendedRecords;
+    private long durableRecords;
+    private IOException failure;
+    private boolean closed;
+    private boolean compactionRequested;
+    private long compactions;
+
+    private final Thread flusher;
+
+    /**
+     * Открывает журнал в папке по умолчанию (системное свойство session.dir
+     * или ~/.temperature-session) и восстанавливает сохраненный сеанс.
+     *
+     * @return открытый журнал
+     * @throws IOException если папку или файлы журнала не удается открыть
+     */
+    public static WriteAheadLog openDefault() throws IOException {
+        return open(defaultDirectory());
+    }
+
+    /**
+     * Возвращает папку журнала по умолчанию: системное свойство session.dir
+     * или ~/.temperature-session.
+     *
+     * @return папка журнала
+     */
+    public static Path defaultDirectory() {
+        String directory = System.getProperty("session.dir");
+        if (directory == null || directory.isBlank()) {
+            return Paths.get(System.getProperty("user.home"), ".temperature-session");
+        }
+        return Paths.get(directory);
+    }
+
+    /**
+     * Переименовывает файлы журнала и снимка в папке (добавляя суффикс .broken),
+     * чтобы следующее открытие начало пустой журнал. Используется, когда
+     * сохраненный сеанс не удается прочитать: файлы остаются для разбора,
+     * но больше не мешают запуску программы.
+     *
+     * @param directory папка журнала
+     * @throws IOException если файлы не удается переименовать
+     */
+    public static void moveAside(Path directory) throws IOException {
+        for (String name : new String[]{LOG_FILE, SNAPSHOT_FILE}) {
+            Path file = directory.resolve(name);
+            if (Files.exists(file)) {
+                Files.move(file, directory.resolve(name + ".broken"), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Открывает журнал в заданной папке и восстанавливает сохраненный сеанс.
+     * Недописанный хвост журнала отбрасывается.
+     *
+     * @param directory папка журнала
+     * @return открытый журнал
+     * @throws IOException если папку или файлы журнала не удается открыть
+     */
+    public static WriteAheadLog open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return new WriteAheadLog(directory);
+    }
+
+    /**
+     * Создает журнал: восстанавливает сеанс и открывает файл для дописывания.
+     *
+     * @param directory папка журнала
+     * @throws IOException если возникает ошибка чтения или записи
+     */
+    private WriteAheadLog(Path directory) throws IOException {
+        this.directory = directory;
+
+        loggedPoints = PersistentPointList.of(List.of());
+        loggedTimes = List.of();
+        boolean empty = true;
+
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            List<DataPoint> points = new ArrayList<>();
+            List<Double> times = new ArrayList<>();
+            generation = readSnapshot(snapshot, points, times);
+            loggedPoints = PersistentPointList.of(points);
+            loggedTimes = List.copyOf(times);
+            snapshotBytes = Files.size(snapshot);
+            empty = false;
+        }
+
+        Path log = directory.resolve(LOG_FILE);
+        long validLength = -1;
+        if (Files.exists(log)) {
+            long recordBytes = Files.size(log) - LOG_HEADER_BYTES;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(log)))) {
+                if (in.readInt() == LOG_MAGIC && in.readInt() == FORMAT_VERSION && in.readLong() == generation) {
+                    long replayed = replay(in, recordBytes);
+                    validLength = LOG_HEADER_BYTES + replayed;
+                    empty &= replayed == 0;
+                }
+            } catch (EOFException e) {
+                // Заголовок недописан - журнал пустой
+            }
+        }
+
+        if (validLength < 0) {
+            // Журнала нет или он относится к прежнему поколению (сбой во время сжатия)
+            writeNewLog(generation);
+            validLength = LOG_HEADER_BYTES;
+        }
+
+        channel = FileChannel.open(log, StandardOpenOption.WRITE);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        logBytes = validLength;
+
+        restoredSession = new Session(loggedPoints, loggedTimes, empty);
+
+        flusher = new Thread(this::flushLoop, "wal-flush");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Возвращает сеанс, восстановленный при открытии журнала.
+     *
+     * @return восстановленный сеанс
+     */
+    public Session getRestoredSession() {
+        return restoredSession;
+    }
+
+    /**
+     * Записывает добавление точек.
+     *
+     * @param points добавленные точки
+     * @return номер записи (для ожидания фиксации методом awaitDurable)
+     * @throws IOException если предыдущий сброс на диск завершился ошибкой
+     */
+    public long appendPoints(List<DataPoint> points) throws IOException {
+        synchronized (lock) {
+            ByteBuffer buffer = beginRecord(ADD_POINTS, 4 + 16 * points.size());
+            putPoints(buffer, points);
+            loggedPoints = loggedPoints.spliced(loggedPoints.size(), 0, points);
+            return endRecord(buffer);
+        }
+    }
+
+    /**
+     * Записывает новое содержимое списка экспериментальных точек.
+     * В журнал попадает только замена участка, которым новый список
+     * отличается от записанного ранее: позиция, количество удаляемых
+     * точек и вставляемые точки.
+     *
+     * @param points новый список точек
+     * @return номер записи (или номер последней записи, если точки не изменились)
+     * @throws IOException если предыдущий сброс на диск завершился ошибкой
+     */
+    public long appendReplace(List<DataPoint> points) throws IOException {
+        synchronized (lock) {
+            PersistentPointList.Splice splice = loggedPoints.diff(points);
+            if (splice == null) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return appendedRecords;
+            }
+            List<DataPoint> inserted = splice.getInserted();
+            ByteBuffer buffer = beginRecord(SPLICE_POINTS, 12 + 16 * inserted.size());
+            buffer.putInt(splice.getFrom());
+            buffer.putInt(splice.getRemovedCount());
+            putPoints(buffer, inserted);
+            loggedPoints = loggedPoints.spliced(splice.getFrom(), splice.getRemovedCount(), inserted);
+            return endRecord(buffer);
+        }
+    }
+
+    /**
+     * Записывает новый список времен интерполяции.
+     *
+     * @param times времена интерполяции
+     * @return номер записи
+     * @throws IOException если предыдущий сброс на диск завершился ошибкой
+     */
+    public long appendInterpolationTimes(List<Double> times) throws IOException {
+        synchronized (lock) {
+            ByteBuffer buffer = beginRecord(INTERPOLATION_TIMES, 4 + 8 * times.size());
+            buffer.putInt(times.size());
+            for (double time : times) {
+                buffer.putDouble(time);
+            }
+            loggedTimes = List.copyOf(times);
+            return endRecord(buffer);
+        }
+    }
+
+    /**
+     * Ожидает, пока запись с заданным номером будет сброшена на диск.
+     *
+     * @param record номер записи
+     * @throws IOException если сброс завершился ошибкой
+     * @throws InterruptedException если поток прерван во время ожидания
+     */
+    public void awaitDurable(long record) throws IOException, InterruptedException {
+        synchronized (lock) {
+            while (durableRecords < record && failure == null && !closed) {
+                lock.wait();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Сжимает журнал в снимок, не дожидаясь достижения порога размера,
+     * и ждет завершения сжатия. Обычно сжатие выполняется фоновым потоком
+     * автоматически, когда журнал становится большим.
+     *
+     * @throws IOException если журнал закрыт или снимок не удается записать
+     * @throws InterruptedException если поток прерван во время ожидания
+     */
+    public void compact() throws IOException, InterruptedException {
+        synchronized (lock) {
+            if (closed) {
+                throw new IOException("Журнал закрыт");
+            }
+            long target = compactions + 1;
+            compactionRequested = true;
+            lock.notifyAll();
+            while (compactions < target && failure == null && !closed) {
+                lock.wait();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Сбрасывает оставшиеся записи на диск и закрывает журнал.
+     *
+     * @throws IOException если файл журнала не удается закрыть
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (channelLock) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Дописывает в буфер количество точек и сами точки.
+     *
+     * @param buffer буфер записи
+     * @param points точки
+     */
+    private static void putPoints(ByteBuffer buffer, List<DataPoint> points) {
+        buffer.putInt(points.size());
+        for (DataPoint point : points) {
+            buffer.putDouble(point.getTime());
+            buffer.putDouble(point.getTemperature());
+        }
+    }
+
+    /**
+     * Начинает запись в буфере: проверяет состояние журнала, резервирует место,
+     * записывает длину и тип. Вызывается под блокировкой lock.
+     *
+     * @param type тип записи
+     * @param payloadBytes размер данных записи
+     * @return буфер, в который дописываются данные записи
+     * @throws IOException если журнал закрыт или сброс завершился ошибкой
+     */
+    private ByteBuffer beginRecord(byte type, int payloadBytes) throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        if (closed) {
+            throw new IOException("Журнал закрыт");
+        }
+
+        int required = RECORD_OVERHEAD + payloadBytes;
+        if (pending.remaining() < required) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + required));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+
+        recordStart = pending.position();
+        pending.putInt(1 + payloadBytes);
+        pending.put(type);
+        return pending;
+    }
+
+    /**
+     * Завершает запись: дописывает контрольную сумму типа и данных.
+     * Вызывается под блокировкой lock.
+     *
+     * @param buffer буфер с записью
+     * @return номер записи
+     */
+    private long endRecord(ByteBuffer buffer) {
+        // Контрольная сумма покрывает тип и данные (все после поля длины)
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), recordStart + 4, buffer.position() - recordStart - 4);
+        buffer.putInt((int) crc.getValue());
+
+        appendedRecords++;
+        return appendedRecords;
+    }
+
+    /**
+     * Цикл фонового потока: сбрасывает накопленные записи на диск.
+     * Все записи, добавленные во время предыдущего fsync, попадают в следующий.
+     * После сброса, если журнал стал большим, сжимает его в снимок.
+     */
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer batch;
+            long batchRecords;
+            boolean last;
+            boolean requested;
+            PersistentPointList points;
+            List<Double> times;
+            synchronized (lock) {
+                while (pending.position() == 0 && !closed && !compactionRequested) {
+                    try {
+                        lock.wait(FLUSH_INTERVAL_MS);
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                last = closed;
+                requested = compactionRequested;
+                compactionRequested = false;
+                batch = pending;
+                pending = spare;
+                batchRecords = appendedRecords;
+                // Состояние ровно после записей этой пачки
+                points = loggedPoints;
+                times = loggedTimes;
+            }
+
+            IOException error = null;
+            int written = batch.position();
+            if (written > 0) {
+                batch.flip();
+                try {
+                    synchronized (channelLock) {
+                        while (batch.hasRemaining()) {
+                            channel.write(batch);
+                        }
+                        channel.force(false);
+                    }
+                } catch (IOException e) {
+                    error = e;
+                }
+            }
+
+            boolean compact;
+            synchronized (lock) {
+                logBytes += written;
+                batch.clear();
+                spare = batch;
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableRecords = batchRecords;
+                }
+                compact = error == null && !last && (requested || needsCompaction());
+                lock.notifyAll();
+            }
+
+            if (compact) {
+                // Записи, добавленные во время сжатия, остаются в буфере
+                // и попадут уже в новый журнал
+                try {
+                    compactTo(points, times);
+                } catch (IOException e) {
+                    error = e;
+                }
+                synchronized (lock) {
+                    if (error != null) {
+                        failure = error;
+                    }
+                    compactions++;
+                    lock.notifyAll();
+                }
+            }
+
+            if (last) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Проверяет, пора ли сжать журнал в снимок: журнал больше порога
+     * и больше удвоенного размера последнего снимка.
+     * Вызывается под блокировкой lock.
+     *
+     * @return true если журнал стоит сжать
+     */
+    private boolean needsCompaction() {
+        return logBytes > COMPACTION_BYTES && logBytes > 2 * snapshotBytes;
+    }
+
+    /**
+     * Сохраняет состояние сеанса в снимок и начинает журнал заново.
+     * Вызывается только из фонового потока, когда все записи,
+     * описывающие это состояние, уже сброшены на диск.
+     *
+     * @param points экспериментальные точки
+     * @param times времена интерполяции
+     * @throws IOException если снимок не удается записать
+     */
+    private void compactTo(PersistentPointList points, List<Double> times) throws IOException {
+        long start = System.nanoTime();
+        synchronized (channelLock) {
+            long nextGeneration = generation + 1;
+
+            // 1. Новый снимок: временный файл, fsync, атомарная замена
+            Path snapshot = directory.resolve(SNAPSHOT_FILE);
+            Path snapshotTemp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+            writeSnapshot(snapshotTemp, nextGeneration, points, times);
+            Files.move(snapshotTemp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            // 2. Новый пустой журнал того же поколения. Если сбой произойдет до этого шага,
+            // старый журнал будет пропущен при восстановлении по номеру поколения
+            channel.close();
+            writeNewLog(nextGeneration);
+            channel = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.WRITE);
+            channel.position(LOG_HEADER_BYTES);
+
+            generation = nextGeneration;
+            synchronized (lock) {
+                logBytes = LOG_HEADER_BYTES;
+                snapshotBytes = Files.size(snapshot);
+            }
+        }
+        Diagnostics.debug("Журнал сеанса сжат за %d мс", Diagnostics.elapsedMillis(start));
+    }
+
+    /**
+     * Применяет записи журнала к состоянию сеанса до первой поврежденной записи.
+     * Вызывается из конструктора.
+     *
+     * @param in поток журнала после заголовка
+     * @param available количество байт журнала после заголовка
+     * @return количество байт корректных записей
+     */
+    private long replay(DataInputStream in, long available) {
+        long valid = 0;
+        CRC32C crc = new CRC32C();
+        try {
+            while (true) {
+                int length = in.readInt();
+                // Запись не может быть длиннее остатка файла: поврежденное поле длины
+                // не должно приводить к выделению гигабайтного буфера
+                if (length < 1 || length > available - valid - 8) {
+                    break;
+                }
+                byte[] body = new byte[length];
+                in.readFully(body);
+                int checksum = in.readInt();
+
+                crc.reset();
+                crc.update(body);
+                if ((int) crc.getValue() != checksum) {
+                    break; // Поврежденная запись - дальше не читаем
+                }
+
+                ByteBuffer record = ByteBuffer.wrap(body);
+                byte type = record.get();
+                switch (type) {
+                    case ADD_POINTS -> loggedPoints = loggedPoints.spliced(loggedPoints.size(), 0, readPoints(record));
+                    case REPLACE_POINTS -> loggedPoints = PersistentPointList.of(readPoints(record));
+                    case SPLICE_POINTS -> {
+                        int from = record.getInt();
+                        int removedCount = record.getInt();
+                        loggedPoints = loggedPoints.spliced(from, removedCount, readPoints(record));
+                    }
+                    case INTERPOLATION_TIMES -> {
+                        int count = record.getInt();
+                        List<Double> times = new ArrayList<>(count);
+                        for (int i = 0; i < count; i++) {
+                            times.add(record.getDouble());
+                        }
+                        loggedTimes = List.copyOf(times);
+                    }
+                    default -> {
+                        return valid; // Неизвестный тип - запись от другой версии
+                    }
+                }
+                valid += 4 + length + 4;
+            }
+        } catch (IOException | RuntimeException e) {
+            // Недописанный хвост журнала
+        }
+        return valid;
+    }
+
+    /**
+     * Читает точки из данных записи.
+     *
+     * @param record данные записи после типа
+     * @return прочитанные точки
+     */
+    private static List<DataPoint> readPoints(ByteBuffer record) {
+        int count = record.getInt();
+        List<DataPoint> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(new DataPoint(record.getDouble(), record.getDouble()));
+        }
+        return points;
+    }
+
+    /**
+     * Создает пустой журнал заданного поколения (через временный файл).
+     *
+     * @param logGeneration номер поколения
+     * @throws IOException если возникает ошибка записи
+     */
+    private void writeNewLog(long logGeneration) throws IOException {
+        Path temp = directory.resolve(LOG_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_BYTES);
+            header.putInt(LOG_MAGIC).putInt(FORMAT_VERSION).putLong(logGeneration).flip();
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            out.force(true);
+        }
+        Files.move(temp, directory.resolve(LOG_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Записывает снимок состояния сеанса. Точки хранятся в сжатом виде.
+     *
+     * @param path файл снимка
+     * @param snapshotGeneration номер поколения
+     * @param points экспериментальные точки
+     * @param times времена интерполяции
+     * @throws IOException если возникает ошибка записи
+     */
+    private static void writeSnapshot(Path path, long snapshotGeneration, List<DataPoint> points,
+                                      List<Double> times) throws IOException {
+        int n = points.size();
+        double[] pointTimes = new double[n];
+        double[] temperatures = new double[n];
+        Iterator<DataPoint> it = points.iterator();
+        for (int i = 0; i < n; i++) {
+            DataPoint point = it.next();
+            pointTimes[i] = point.getTime();
+            temperatures[i] = point.getTemperature();
+        }
+
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream stream = new BufferedOutputStream(Channels.newOutputStream(file));
+            CRC32C crc = new CRC32C();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(stream, crc));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(snapshotGeneration);
+            CompressedTimeSeries.encode("session", pointTimes, temperatures, n,
+                    CompressedTimeSeries.DEFAULT_CHUNK_SIZE).writeTo(out);
+            out.writeInt(times.size());
+            for (double time : times) {
+                out.writeDouble(time);
+            }
+            out.flush();
+
+            // Контрольная сумма всего содержимого снимка
+            DataOutputStream tail = new DataOutputStream(stream);
+            tail.writeInt((int) crc.getValue());
+            tail.flush();
+            file.force(true);
+        }
+    }
+
+    /**
+     * Читает снимок состояния сеанса. Контрольная сумма проверяется
+     * до разбора данных, а любая ошибка разбора считается повреждением.
+     *
+     * @param path файл снимка
+     * @param points список для экспериментальных точек
+     * @param times список для времен интерполяции
+     * @return номер поколения снимка
+     * @throws IOException если снимок поврежден
+     */
+    private static long readSnapshot(Path path, List<DataPoint> points, List<Double> times) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        int length = bytes.length;
+        if (length >= 8 && ByteBuffer.wrap(bytes).getInt(4) == SNAPSHOT_VERSION) {
+            length -= 4;
+            CRC32C crc = new CRC32C();
+            crc.update(bytes, 0, length);
+            if ((int) crc.getValue() != ByteBuffer.wrap(bytes).getInt(length)) {
+                throw new IOException("Контрольная сумма снимка сеанса не совпадает: " + path);
+            }
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, length))) {
+            int magic = in.readInt();
+            int version = in.readInt();
+            if (magic != SNAPSHOT_MAGIC || (version != SNAPSHOT_VERSION && version != FORMAT_VERSION)) {
+                throw new IOException("Неизвестный формат снимка сеанса: " + path);
+            }
+            long snapshotGeneration = in.readLong();
+
+            CompressedTimeSeries series = CompressedTimeSeries.readFrom(in);
+            double[] pointTimes = new double[series.size()];
+            double[] temperatures = new double[series.size()];
+            series.decode(pointTimes, temperatures);
+            for (int i = 0; i < series.size(); i++) {
+                points.add(new DataPoint(pointTimes[i], temperatures[i]));
+            }
+
+            int count = in.readInt();
+            if (count < 0 || count > in.available() / 8) {
+                throw new IOException("Некорректное количество времен интерполяции в снимке: " + path);
+            }
+            for (int i = 0; i < count; i++) {
+                times.add(in.readDouble());
+            }
+            return snapshotGeneration;
+        } catch (RuntimeException e) {
+            throw new IOException("Снимок сеанса поврежден: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты детектора аномалий: выбросы отмечаются, обычный шум - нет,
+ * в том числе после серии одинаковых показаний.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+class AnomalyDetectorTest {
+
+    private static AnomalyDetector detector(FittedModel model) {
+        return new AnomalyDetector(model, AnomalyDetector.DEFAULT_THRESHOLD, AnomalyDetector.DEFAULT_SMOOTHING);
+    }
+
+    @Test
+    void spikesAreFlaggedAndNoiseIsNot() {
+        LinearModel trend = new LinearModel(0.5, 20);
+        AnomalyDetector detector = detector(trend);
+        Random random = new Random(4);
+        int spikes = 0;
+        int falseAlarms = 0;
+        for (int i = 0; i < 20_000; i++) {
+            double time = i * 0.001;
+            double temperature = trend.predict(time) + random.nextGaussian() * 0.2;
+            boolean spike = i > 100 && i % 1000 == 0;
+            if (spike) {
+                temperature += 5;
+            }
+            boolean flagged = detector.add(time, temperature);
+            if (spike) {
+                assertTrue(flagged, "Выброс в показании " + i + " не отмечен");
+                spikes++;
+            } else if (flagged) {
+                falseAlarms++;
+            }
+        }
+        assertEquals(19, spikes);
+        assertTrue(falseAlarms < 100, "Ложных срабатываний: " + falseAlarms);
+        assertEquals(0.2, detector.getSigma(), 0.05);
+    }
+
+    @Test
+    void sigmaRecoversAfterIdenticalReadings() {
+        // Постоянная модель и серия одинаковых показаний: сигма не должна застрять на нуле
+        AnomalyDetector detector = detector(new LinearModel(0, 20));
+        for (int i = 0; i < AnomalyDetector.WARM_UP; i++) {
+            assertFalse(detector.add(i, 20.0));
+        }
+        assertEquals(AnomalyDetector.MIN_SIGMA, detector.getSigma());
+
+        Random random = new Random(1);
+        int flagged = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (detector.add(i, 20.0 + (random.nextBoolean() ? 0.1 : -0.1))) {
+                flagged++;
+            }
+        }
+        assertTrue(flagged < 50, "Отмечено " + flagged + " из 1000");
+        assertEquals(0.1 * 1.28, detector.getSigma(), 0.05);
+    }
+
+    @Test
+    void warmUpReadingsAreNeverFlagged() {
+        AnomalyDetector detector = detector(new LinearModel(0, 0));
+        for (int i = 0; i < AnomalyDetector.WARM_UP; i++) {
+            assertFalse(detector.add(i, i % 2 == 0 ? 1000 : -1000));
+        }
+        assertFalse(detector.add(0, Double.NaN));
+        assertEquals(AnomalyDetector.WARM_UP, detector.getCount());
+    }
+}
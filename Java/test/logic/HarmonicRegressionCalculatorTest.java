@@ -0,0 +1,119 @@
+package logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты гармонической регрессии: точное восстановление известных
+ * гармоник решением нормальных уравнений (Холецкий) и точность
+ * табличного вычисления cos/sin с поправкой рядами Тейлора.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+class HarmonicRegressionCalculatorTest {
+
+    /**
+     * Значение гармонической модели, вычисленное напрямую через Math.cos и Math.sin.
+     * Время сначала приводится к одному периоду, чтобы для далеких моментов
+     * погрешность самого эталона (ωt порядка 10^4 рад) не превышала проверяемую.
+     */
+    private static double direct(double[] coefficients, double time) {
+        double turns = time / HarmonicRegressionCalculator.PERIOD_HOURS;
+        double angle = 2 * Math.PI * (turns - Math.floor(turns));
+        double value = coefficients[0];
+        for (int k = 1; 2 * k < coefficients.length; k++) {
+            value += coefficients[2 * k - 1] * Math.cos(k * angle)
+                    + coefficients[2 * k] * Math.sin(k * angle);
+        }
+        return value;
+    }
+
+    @Test
+    void knownHarmonicsAreRecoveredExactly() {
+        double[] expected = {18.5, 3.0, -2.0, 0.5, 1.2, -0.3, 0.25};
+        int harmonics = 3;
+
+        // Неравномерные моменты измерений за трое суток
+        Random random = new Random(3);
+        int n = 500;
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        for (int i = 0; i < n; i++) {
+            times[i] = random.nextDouble() * 72;
+            temperatures[i] = direct(expected, times[i]);
+        }
+
+        HarmonicRegressionCalculator.HarmonicFit fit =
+                HarmonicRegressionCalculator.calculateCoefficients(times, temperatures, n, harmonics);
+        assertEquals(harmonics, fit.getHarmonics());
+        assertArrayEquals(expected, fit.getCoefficients(), 1e-9);
+    }
+
+    @Test
+    void extraHarmonicsComeOutZero() {
+        double[] expected = {20, 4, 1};
+        int n = 96;
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        for (int i = 0; i < n; i++) {
+            times[i] = i * 0.5;
+            temperatures[i] = direct(expected, times[i]);
+        }
+
+        double[] coefficients = HarmonicRegressionCalculator
+                .calculateCoefficients(times, temperatures, n, 4).getCoefficients();
+        assertEquals(9, coefficients.length);
+        assertArrayEquals(expected, Arrays.copyOf(coefficients, 3), 1e-9);
+        for (int i = 3; i < coefficients.length; i++) {
+            assertEquals(0, coefficients[i], 1e-9);
+        }
+    }
+
+    @Test
+    void tableCosSinMatchesMathFunctions() {
+        double[] coefficients = {1.5, 2, -1, 0.5, 3, -0.7, 0.2, 1.1, -2.4};
+        HarmonicRegressionCalculator.HarmonicFit fit =
+                new HarmonicRegressionCalculator.HarmonicFit(coefficients, 4);
+
+        // Произвольные моменты, в том числе отрицательные, далекие и узлы таблицы
+        Random random = new Random(17);
+        double worst = 0;
+        for (int i = 0; i < 100_000; i++) {
+            double time = switch (i % 4) {
+                case 0 -> random.nextDouble() * 24;
+                case 1 -> -random.nextDouble() * 1000;
+                case 2 -> random.nextDouble() * 1e5;
+                default -> (i % 1024) * HarmonicRegressionCalculator.PERIOD_HOURS / 1024;
+            };
+            worst = Math.max(worst, Math.abs(fit.predict(time) - direct(coefficients, time)));
+        }
+        assertTrue(worst < 1e-12, "Погрешность " + worst);
+
+        double[] times = {0, 6, 12, 18, 24, 30.25};
+        double[] result = new double[times.length];
+        fit.predict(times, result, times.length);
+        for (int i = 0; i < times.length; i++) {
+            assertEquals(direct(coefficients, times[i]), result[i], 1e-12);
+        }
+    }
+
+    @Test
+    void tooFewPointsAndBadHarmonicsAreRejected() {
+        double[] times = {0, 1, 2, 3, 4};
+        double[] temperatures = {1, 2, 3, 4, 5};
+        assertThrows(IllegalArgumentException.class,
+                () -> HarmonicRegressionCalculator.calculateCoefficients(times, temperatures, 5, 3));
+        assertThrows(IllegalArgumentException.class,
+                () -> HarmonicRegressionCalculator.calculateCoefficients(times, temperatures, 5, 0));
+        assertThrows(IllegalArgumentException.class, () -> HarmonicRegressionCalculator.calculateCoefficients(
+                times, temperatures, 5, HarmonicRegressionCalculator.MAX_HARMONICS + 1));
+    }
+}
@@ -0,0 +1,153 @@
+package logic;
+
+import model.DataPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тесты неизменяемого списка точек: совпадение содержимого с обычным
+ * списком после правок, неизменность прежних версий, согласованность
+ * отпечатка с FitCache и моментов с RegressionAccumulator.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+class PersistentPointListTest {
+
+    private static DataPoint randomPoint(Random random) {
+        return new DataPoint(random.nextDouble() * 24, -20 + random.nextDouble() * 60);
+    }
+
+    private static void assertMomentsMatch(List<DataPoint> expected, RegressionAccumulator actual) {
+        RegressionAccumulator direct = new RegressionAccumulator();
+        for (DataPoint point : expected) {
+            direct.add(point.getTime(), point.getTemperature());
+        }
+        double scale = Math.max(1, direct.getSxx() + direct.getSyy());
+        assertEquals(direct.getCount(), actual.getCount());
+        assertEquals(direct.getMeanX(), actual.getMeanX(), 1e-9);
+        assertEquals(direct.getMeanY(), actual.getMeanY(), 1e-9);
+        assertEquals(direct.getSxx(), actual.getSxx(), 1e-9 * scale);
+        assertEquals(direct.getSyy(), actual.getSyy(), 1e-9 * scale);
+        assertEquals(direct.getSxy(), actual.getSxy(), 1e-9 * scale);
+    }
+
+    @Test
+    void randomEditsMatchArrayListAndKeepOldVersions() {
+        Random random = new Random(7);
+        List<DataPoint> current = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            current.add(randomPoint(random));
+        }
+        PersistentPointList version = PersistentPointList.of(current);
+        List<PersistentPointList> versions = new ArrayList<>();
+        List<List<DataPoint>> contents = new ArrayList<>();
+
+        for (int step = 0; step < 2000; step++) {
+            List<DataPoint> next = new ArrayList<>(current);
+            int index = random.nextInt(next.size());
+            switch (random.nextInt(4)) {
+                case 0 -> next.set(index, randomPoint(random));
+                case 1 -> next.add(index, randomPoint(random));
+                case 2 -> next.remove(index);
+                default -> {
+                    // Несколько соседних строк сразу
+                    int count = Math.min(1 + random.nextInt(5), next.size() - index);
+                    next.subList(index, index + count).clear();
+                    for (int i = 0; i < 3; i++) {
+                        next.add(index, randomPoint(random));
+                    }
+                }
+            }
+            version = version.updatedTo(next);
+            current = next;
+
+            assertEquals(current, version);
+            assertEquals(FitCache.fingerprint(current), version.getFingerprint());
+            if (step % 100 == 0) {
+                versions.add(version);
+                contents.add(current);
+            }
+        }
+
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(contents.get(i), versions.get(i));
+            assertEquals(FitCache.fingerprint(contents.get(i)), versions.get(i).getFingerprint());
+            assertMomentsMatch(contents.get(i), versions.get(i).getMoments());
+        }
+    }
+
+    @Test
+    void unchangedContentReturnsSameVersion() {
+        List<DataPoint> points = List.of(new DataPoint(1, 10), new DataPoint(2, 12), new DataPoint(3, 13));
+        PersistentPointList version = PersistentPointList.of(points);
+        assertSame(version, version.updatedTo(new ArrayList<>(points)));
+    }
+
+    @Test
+    void diffReportsOnlyChangedMiddle() {
+        Random random = new Random(11);
+        List<DataPoint> points = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            points.add(randomPoint(random));
+        }
+        PersistentPointList version = PersistentPointList.of(points);
+
+        List<DataPoint> edited = new ArrayList<>(points);
+        edited.subList(400, 403).clear();
+        edited.add(400, new DataPoint(-1, -1));
+        PersistentPointList.Splice splice = version.diff(edited);
+        assertEquals(400, splice.getFrom());
+        assertEquals(3, splice.getRemovedCount());
+        assertEquals(List.of(new DataPoint(-1, -1)), splice.getInserted());
+        assertEquals(edited, version.spliced(splice.getFrom(), splice.getRemovedCount(), splice.getInserted()));
+        assertNull(version.diff(points));
+    }
+
+    @Test
+    void fingerprintDependsOnOrderAndValues() {
+        DataPoint a = new DataPoint(1, 10);
+        DataPoint b = new DataPoint(2, 12);
+        PersistentPointList forward = PersistentPointList.of(List.of(a, b));
+        PersistentPointList backward = PersistentPointList.of(List.of(b, a));
+        assertNotEquals(forward.getFingerprint(), backward.getFingerprint());
+        assertEquals(forward.getFingerprint(), backward.updatedTo(List.of(a, b)).getFingerprint());
+
+        double[] times = {1, 2};
+        double[] temperatures = {10, 12};
+        assertEquals(FitCache.fingerprint(times, temperatures, 2), forward.getFingerprint());
+    }
+
+    @Test
+    void momentsGiveLeastSquaresLine() {
+        List<DataPoint> points = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            points.add(new DataPoint(i * 0.1, 3 * i * 0.1 + 5));
+        }
+        double[] coefficients = PersistentPointList.of(points).getMoments().getCoefficients();
+        assertEquals(3, coefficients[0], 1e-9);
+        assertEquals(5, coefficients[1], 1e-9);
+    }
+
+    @Test
+    void emptyListAndIndexChecks() {
+        PersistentPointList empty = PersistentPointList.of(List.of());
+        assertEquals(0, empty.size());
+        assertEquals(0, empty.getMoments().getCount());
+        assertEquals(FitCache.fingerprint(List.of()), empty.getFingerprint());
+        assertThrows(IndexOutOfBoundsException.class, () -> empty.get(0));
+
+        PersistentPointList one = empty.updatedTo(List.of(new DataPoint(1, 1)));
+        assertEquals(List.of(new DataPoint(1, 1)), one);
+        assertThrows(IndexOutOfBoundsException.class, () -> one.with(1, new DataPoint(2, 2)));
+    }
+}
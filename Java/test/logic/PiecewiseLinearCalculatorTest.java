@@ -0,0 +1,109 @@
+package logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тесты кусочно-линейной аппроксимации: бинарная сегментация находит
+ * известную точку перелома и восстанавливает прямые участков,
+ * а прямая без перелома не дробится.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+class PiecewiseLinearCalculatorTest {
+
+    /**
+     * Нагрев до 10 ч со скоростью 0.5 °C/ч, затем скачок и остывание 1 °C/ч.
+     */
+    private static double knownProfile(double time) {
+        return time < 10 ? 20 + 0.5 * time : 40 - time;
+    }
+
+    private static PiecewiseLinearCalculator.PiecewiseFit fit(double[] times, double[] temperatures) {
+        return PiecewiseLinearCalculator.calculateSegments(times, temperatures, times.length,
+                PiecewiseLinearCalculator.DEFAULT_MAX_SEGMENTS,
+                PiecewiseLinearCalculator.DEFAULT_MIN_SEGMENT_LENGTH,
+                PiecewiseLinearCalculator.DEFAULT_PENALTY_FACTOR);
+    }
+
+    @Test
+    void knownChangePointIsFoundExactly() {
+        int n = 201;
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        for (int i = 0; i < n; i++) {
+            // Точки идут не по порядку: метод сам упорядочивает их по времени
+            int j = (i * 37) % n;
+            times[i] = j * 0.1;
+            temperatures[i] = knownProfile(times[i]);
+        }
+
+        List<PiecewiseLinearCalculator.Segment> segments = fit(times, temperatures).getSegments();
+        assertEquals(2, segments.size());
+
+        PiecewiseLinearCalculator.Segment heating = segments.get(0);
+        assertEquals(0, heating.getStartTime(), 1e-12);
+        assertEquals(9.9, heating.getEndTime(), 1e-9);
+        assertEquals(100, heating.getPointCount());
+        assertEquals(0.5, heating.getA(), 1e-9);
+        assertEquals(20, heating.getB(), 1e-9);
+
+        PiecewiseLinearCalculator.Segment cooling = segments.get(1);
+        assertEquals(10, cooling.getStartTime(), 1e-9);
+        assertEquals(101, cooling.getPointCount());
+        assertEquals(-1, cooling.getA(), 1e-9);
+        assertEquals(40, cooling.getB(), 1e-9);
+    }
+
+    @Test
+    void changePointIsFoundUnderNoise() {
+        Random random = new Random(4);
+        int n = 401;
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        for (int i = 0; i < n; i++) {
+            times[i] = i * 0.05;
+            temperatures[i] = knownProfile(times[i]) + 0.1 * random.nextGaussian();
+        }
+
+        List<PiecewiseLinearCalculator.Segment> segments = fit(times, temperatures).getSegments();
+        assertEquals(2, segments.size());
+        assertEquals(10, segments.get(1).getStartTime(), 0.051);
+        assertEquals(0.5, segments.get(0).getA(), 0.02);
+        assertEquals(-1, segments.get(1).getA(), 0.02);
+    }
+
+    @Test
+    void straightLineStaysOneSegment() {
+        int n = 300;
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        for (int i = 0; i < n; i++) {
+            times[i] = i * 0.1;
+            temperatures[i] = 15 + 0.25 * times[i];
+        }
+
+        List<PiecewiseLinearCalculator.Segment> segments = fit(times, temperatures).getSegments();
+        assertEquals(1, segments.size());
+        assertEquals(0.25, segments.get(0).getA(), 1e-12);
+        assertEquals(15, segments.get(0).getB(), 1e-10);
+    }
+
+    @Test
+    void invalidParametersAreRejected() {
+        double[] times = {0, 1, 2, 3};
+        double[] temperatures = {1, 2, 3, Double.NaN};
+        assertThrows(IllegalArgumentException.class,
+                () -> PiecewiseLinearCalculator.calculateSegments(times, temperatures, 1, 8, 3, 3.0));
+        assertThrows(IllegalArgumentException.class,
+                () -> PiecewiseLinearCalculator.calculateSegments(times, temperatures, 3, 8, 1, 3.0));
+        assertThrows(IllegalArgumentException.class,
+                () -> PiecewiseLinearCalculator.calculateSegments(times, temperatures, 4, 8, 3, 3.0));
+    }
+}
@@ -0,0 +1,197 @@
+package logic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты скетча квантилей: ошибка ранга на больших выборках,
+ * слияние скетчей частей данных, гистограмма и крайние случаи.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+class QuantileSketchTest {
+
+    /**
+     * Размер выборки для проверки точности (как в оценке из описания скетча).
+     */
+    private static final int LARGE = 10_000_000;
+
+    /**
+     * Допустимая ошибка ранга для k = 200. На выборке temperatures(LARGE)
+     * ошибка 0,44% для одного скетча и около 0,2% после слияния 8 частей.
+     */
+    private static final double MAX_RANK_ERROR = 0.005;
+
+    /**
+     * Проверяемые доли (процентили, которые показываются пользователю).
+     */
+    private static final double[] FRACTIONS = {0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99};
+
+    /**
+     * Вычисляет наибольшую по FRACTIONS ошибку ранга оценок скетча.
+     *
+     * @param sketch скетч
+     * @param sorted все значения выборки по возрастанию
+     * @return наибольшая разность между долей значений не больше оценки и запрошенной долей
+     */
+    private static double maxRankError(QuantileSketch sketch, double[] sorted) {
+        double worst = 0;
+        for (double fraction : FRACTIONS) {
+            double estimate = sketch.getQuantile(fraction);
+            int rank = upperBound(sorted, estimate);
+            worst = Math.max(worst, Math.abs((double) rank / sorted.length - fraction));
+        }
+        return worst;
+    }
+
+    /**
+     * Возвращает количество значений массива, не больших заданного.
+     */
+    private static int upperBound(double[] sorted, double value) {
+        int low = 0, high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Выборка температур: нормальный разброс около 20 °C, у каждого третьего
+     * показания - равномерный сдвиг вверх до 10 °C (скошенное распределение).
+     */
+    private static double[] temperatures(int n) {
+        Random random = new Random(5);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = 20 + 5 * random.nextGaussian() + (i % 3 == 0 ? 10 * random.nextDouble() : 0);
+        }
+        return values;
+    }
+
+    @Test
+    void rankErrorOnLargeSampleIsBounded(TestReporter reporter) {
+        double[] values = temperatures(LARGE);
+        QuantileSketch sketch = new QuantileSketch();
+        long start = System.nanoTime();
+        for (double value : values) {
+            sketch.add(value);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double error = maxRankError(sketch, sorted);
+        reporter.publishEntry("Ошибка ранга", String.format("%.3f%% на %d значениях, хранится %d, добавление %d мс",
+                error * 100, LARGE, sketch.getRetainedCount(), elapsed / 1_000_000));
+
+        assertEquals(LARGE, sketch.getCount());
+        assertEquals(sorted[0], sketch.getMin());
+        assertEquals(sorted[LARGE - 1], sketch.getMax());
+        assertTrue(error < MAX_RANK_ERROR, "Ошибка ранга " + error);
+        assertTrue(sketch.getRetainedCount() < 2000, "Хранится " + sketch.getRetainedCount());
+    }
+
+    @Test
+    void mergedPartsAreAsAccurateAsOneSketch(TestReporter reporter) {
+        double[] values = temperatures(LARGE);
+        int parts = 8;
+        QuantileSketch merged = new QuantileSketch();
+        for (int part = 0; part < parts; part++) {
+            QuantileSketch sketch = new QuantileSketch();
+            for (int i = part; i < values.length; i += parts) {
+                sketch.add(values[i]);
+            }
+            merged.merge(sketch);
+        }
+
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double error = maxRankError(merged, sorted);
+        reporter.publishEntry("Ошибка ранга после слияния", String.format("%.3f%%", error * 100));
+
+        assertEquals(LARGE, merged.getCount());
+        assertEquals(sorted[0], merged.getMin());
+        assertEquals(sorted[LARGE - 1], merged.getMax());
+        assertTrue(error < MAX_RANK_ERROR, "Ошибка ранга " + error);
+    }
+
+    @Test
+    void smallSampleIsExact() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 100; i >= 1; i--) {
+            sketch.add(i);
+        }
+        // Пока значения помещаются в нижний уровень, квантили точные
+        assertEquals(50, sketch.getQuantile(0.5));
+        assertEquals(1, sketch.getQuantile(0));
+        assertEquals(100, sketch.getQuantile(1));
+        assertEquals(90, sketch.getQuantile(0.9));
+    }
+
+    @Test
+    void histogramSumsToCount() {
+        QuantileSketch sketch = new QuantileSketch();
+        double[] values = temperatures(1_000_000);
+        for (double value : values) {
+            sketch.add(value);
+        }
+        long[] histogram = sketch.getHistogram(20);
+        assertEquals(sketch.getCount(), Arrays.stream(histogram).sum());
+
+        QuantileSketch constant = new QuantileSketch();
+        for (int i = 0; i < 1000; i++) {
+            constant.add(21.5);
+        }
+        assertEquals(1000, constant.getHistogram(5)[0]);
+        assertEquals(21.5, constant.getQuantile(0.3));
+    }
+
+    @Test
+    void copyIsIndependentAndNaNIsSkipped() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add(i);
+        }
+        sketch.add(Double.NaN);
+        QuantileSketch copy = new QuantileSketch(sketch);
+        double median = sketch.getQuantile(0.5);
+
+        for (int i = 0; i < 10_000; i++) {
+            copy.add(1_000_000 + i);
+        }
+        assertEquals(10_000, sketch.getCount());
+        assertEquals(median, sketch.getQuantile(0.5));
+        assertArrayEquals(new double[]{0, 9999}, new double[]{sketch.getMin(), sketch.getMax()});
+        assertEquals(20_000, copy.getCount());
+    }
+
+    @Test
+    void emptySketchAndInvalidArguments() {
+        QuantileSketch empty = new QuantileSketch();
+        assertTrue(Double.isNaN(empty.getQuantile(0.5)));
+        assertEquals(0, Arrays.stream(empty.getHistogram(4)).sum());
+
+        QuantileSketch target = new QuantileSketch();
+        target.merge(empty);
+        assertEquals(0, target.getCount());
+
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(4));
+        assertThrows(IllegalArgumentException.class, () -> empty.getQuantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> empty.getQuantile(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> empty.getHistogram(0));
+    }
+}
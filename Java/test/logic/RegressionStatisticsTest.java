@@ -0,0 +1,121 @@
+package logic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты статистик регрессии и бутстрэпа: точные значения на прямой без шума,
+ * согласие интервалов бутстрэпа с нормальной теорией и их покрытие
+ * истинных коэффициентов на множестве случайных выборок.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+class RegressionStatisticsTest {
+
+    private static final double SLOPE = -0.35;
+    private static final double INTERCEPT = 42;
+
+    /**
+     * Заполняет массивы точками прямой с нормальным шумом.
+     */
+    private static void noisyLine(Random random, double sigma, double[] times, double[] temperatures) {
+        for (int i = 0; i < times.length; i++) {
+            times[i] = i * 0.2;
+            temperatures[i] = SLOPE * times[i] + INTERCEPT + sigma * random.nextGaussian();
+        }
+    }
+
+    @Test
+    void exactLineGivesExactStatisticsAndCollapsedIntervals() {
+        int n = 200;
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        noisyLine(new Random(1), 0, times, temperatures);
+
+        RegressionStatistics.Summary summary = RegressionStatistics.analyze(times, temperatures, n, SLOPE, INTERCEPT);
+        assertEquals(1.0, summary.getRSquared(), 1e-12);
+        assertEquals(0, summary.getRmse(), 1e-12);
+        assertEquals(0, summary.getMaxAbsResidual(), 1e-12);
+
+        RegressionStatistics.BootstrapResult result = RegressionStatistics.bootstrap(times, temperatures, n, 500, 0.95);
+        assertEquals(500, result.getReplicates());
+        assertEquals(SLOPE, result.getSlopeLower(), 1e-9);
+        assertEquals(SLOPE, result.getSlopeUpper(), 1e-9);
+        assertEquals(INTERCEPT, result.getInterceptLower(), 1e-9);
+        assertEquals(INTERCEPT, result.getInterceptUpper(), 1e-9);
+    }
+
+    @Test
+    void bootstrapIntervalAgreesWithStandardError(TestReporter reporter) {
+        int n = 400;
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        noisyLine(new Random(8), 0.5, times, temperatures);
+
+        LinearModel line = new LinearRegressor(FitMode.LINEAR).fit(times.clone(), temperatures.clone(), n);
+        RegressionStatistics.Summary summary =
+                RegressionStatistics.analyze(times, temperatures, n, line.getA(), line.getB());
+        RegressionStatistics.BootstrapResult result = RegressionStatistics.bootstrap(
+                times, temperatures, n, RegressionStatistics.DEFAULT_REPLICATES, 0.95);
+
+        double bootstrapWidth = result.getSlopeUpper() - result.getSlopeLower();
+        double normalWidth = 2 * 1.96 * summary.getSlopeError();
+        reporter.publishEntry("Ширина интервала a (бутстрэп / нормальная теория)",
+                String.format("%.5f / %.5f", bootstrapWidth, normalWidth));
+        assertTrue(result.getSlopeLower() < line.getA() && line.getA() < result.getSlopeUpper());
+        assertTrue(Math.abs(bootstrapWidth / normalWidth - 1) < 0.2, "Отношение " + bootstrapWidth / normalWidth);
+
+        // Повтор с тем же зерном дает те же границы независимо от распределения по потокам
+        RegressionStatistics.BootstrapResult again = RegressionStatistics.bootstrap(
+                times, temperatures, n, RegressionStatistics.DEFAULT_REPLICATES, 0.95);
+        assertEquals(result.getSlopeLower(), again.getSlopeLower());
+        assertEquals(result.getInterceptUpper(), again.getInterceptUpper());
+    }
+
+    @Test
+    void intervalsCoverTrueCoefficients(TestReporter reporter) {
+        Random random = new Random(21);
+        int samples = 200;
+        int n = 60;
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        int slopeCovered = 0;
+        int interceptCovered = 0;
+        for (int s = 0; s < samples; s++) {
+            noisyLine(random, 1.0, times, temperatures);
+            RegressionStatistics.BootstrapResult result =
+                    RegressionStatistics.bootstrap(times, temperatures, n, 500, 0.9);
+            if (result.getSlopeLower() <= SLOPE && SLOPE <= result.getSlopeUpper()) {
+                slopeCovered++;
+            }
+            if (result.getInterceptLower() <= INTERCEPT && INTERCEPT <= result.getInterceptUpper()) {
+                interceptCovered++;
+            }
+        }
+
+        reporter.publishEntry("Покрытие 90% интервалов (a, b)",
+                String.format("%.3f, %.3f", (double) slopeCovered / samples, (double) interceptCovered / samples));
+        // Процентильный бутстрэп на малой выборке немного занижает покрытие
+        assertTrue(slopeCovered >= 0.8 * samples && slopeCovered <= 0.97 * samples, "a: " + slopeCovered);
+        assertTrue(interceptCovered >= 0.8 * samples && interceptCovered <= 0.97 * samples, "b: " + interceptCovered);
+    }
+
+    @Test
+    void invalidParametersAreRejected() {
+        double[] times = {0, 1, 2, 3};
+        double[] temperatures = {1, 2, 3, 4};
+        assertThrows(IllegalArgumentException.class,
+                () -> RegressionStatistics.bootstrap(times, temperatures, 2, 100, 0.95));
+        assertThrows(IllegalArgumentException.class,
+                () -> RegressionStatistics.bootstrap(times, temperatures, 4, 5, 0.95));
+        assertThrows(IllegalArgumentException.class,
+                () -> RegressionStatistics.bootstrap(times, temperatures, 4, 100, 1.0));
+    }
+}
@@ -0,0 +1,84 @@
+package logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты устойчивых к выбросам прямых: методы Тейла–Сена и RANSAC
+ * восстанавливают прямую, когда 30% точек - выбросы, а МНК смещается.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+class RobustRegressionCalculatorTest {
+
+    private static final double SLOPE = 0.8;
+    private static final double INTERCEPT = 15;
+
+    private static final int N = 400;
+    private static final double[] TIMES = new double[N];
+    private static final double[] TEMPERATURES = new double[N];
+
+    static {
+        // Точки на прямой, три из каждых десяти - выбросы вверх на 10..40 °C
+        Random random = new Random(29);
+        for (int i = 0; i < N; i++) {
+            TIMES[i] = i * 0.25;
+            TEMPERATURES[i] = SLOPE * TIMES[i] + INTERCEPT;
+            if (i % 10 < 3) {
+                TEMPERATURES[i] += 10 + 30 * random.nextDouble();
+            }
+        }
+    }
+
+    @Test
+    void theilSenRecoversLineWithThirtyPercentOutliers() {
+        double[] line = RobustRegressionCalculator.theilSen(TIMES.clone(), TEMPERATURES.clone(), N,
+                RobustRegressionCalculator.THEIL_SEN_MAX_PAIRS);
+        // Медианы наклонов и сдвигов попадают на пары точек, лежащих на прямой
+        assertEquals(SLOPE, line[0], 1e-9);
+        assertEquals(INTERCEPT, line[1], 1e-9);
+
+        // МНК на тех же данных заметно смещен
+        LinearModel leastSquares = new LinearRegressor(FitMode.LINEAR).fit(TIMES.clone(), TEMPERATURES.clone(), N);
+        assertTrue(Math.abs(leastSquares.getB() - INTERCEPT) > 5, "МНК: b = " + leastSquares.getB());
+    }
+
+    @Test
+    void theilSenIsExactWithoutOutliers() {
+        double[] times = new double[50];
+        double[] temperatures = new double[50];
+        for (int i = 0; i < 50; i++) {
+            times[i] = i;
+            temperatures[i] = SLOPE * i + INTERCEPT;
+        }
+        double[] line = RobustRegressionCalculator.theilSen(times, temperatures, 50,
+                RobustRegressionCalculator.THEIL_SEN_MAX_PAIRS);
+        assertEquals(SLOPE, line[0], 1e-12);
+        assertEquals(INTERCEPT, line[1], 1e-12);
+    }
+
+    @Test
+    void ransacRecoversLineExactlyFromInliers() {
+        double[] line = RobustRegressionCalculator.ransac(TIMES.clone(), TEMPERATURES.clone(), N,
+                RobustRegressionCalculator.RANSAC_ITERATIONS, Double.NaN);
+        // Лучшая гипотеза уточняется МНК только по точкам на прямой
+        assertEquals(SLOPE, line[0], 1e-9);
+        assertEquals(INTERCEPT, line[1], 1e-9);
+    }
+
+    @Test
+    void degenerateInputIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RobustRegressionCalculator.theilSen(
+                new double[]{1}, new double[]{2}, 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> RobustRegressionCalculator.ransac(
+                TIMES, TEMPERATURES, N, 0, Double.NaN));
+        assertThrows(ArithmeticException.class, () -> RobustRegressionCalculator.theilSen(
+                new double[]{3, 3, 3}, new double[]{1, 2, 3}, 3, 10));
+    }
+}
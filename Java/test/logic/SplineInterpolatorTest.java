@@ -0,0 +1,143 @@
+package logic;
+
+import model.DataPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты интерполирующих сплайнов: прохождение через узлы, точность
+ * естественного сплайна, отсутствие выбросов у монотонного сплайна
+ * и скорость вычисления значений.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+class SplineInterpolatorTest {
+
+    private static final double[] TIMES = {0, 1, 2, 3, 4, 5};
+    private static final double[] TEMPERATURES = {0, 1, 0, 1, 5, 5};
+
+    @Test
+    void bothSplinesPassThroughKnots() {
+        PiecewiseCubic natural = SplineInterpolator.natural(TIMES.clone(), TEMPERATURES.clone(), TIMES.length);
+        PiecewiseCubic monotone = SplineInterpolator.monotone(TIMES.clone(), TEMPERATURES.clone(), TIMES.length);
+        for (int i = 0; i < TIMES.length; i++) {
+            assertEquals(TEMPERATURES[i], natural.predict(TIMES[i]), 1e-12);
+            assertEquals(TEMPERATURES[i], monotone.predict(TIMES[i]), 1e-12);
+        }
+    }
+
+    @Test
+    void naturalSplineApproximatesSmoothFunction() {
+        int n = 1000;
+        double[] times = new double[n];
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            times[i] = i * 0.01;
+            values[i] = Math.sin(times[i]);
+        }
+        PiecewiseCubic spline = SplineInterpolator.natural(times, values, n);
+        double worst = 0;
+        // Вдали от краев, где естественные граничные условия не совпадают с sin
+        for (double x = 1; x < 9; x += 0.0037) {
+            worst = Math.max(worst, Math.abs(spline.predict(x) - Math.sin(x)));
+        }
+        assertTrue(worst < 1e-9, "Погрешность " + worst);
+    }
+
+    @Test
+    void monotoneSplineDoesNotOvershoot() {
+        PiecewiseCubic monotone = SplineInterpolator.monotone(TIMES.clone(), TEMPERATURES.clone(), TIMES.length);
+        PiecewiseCubic natural = SplineInterpolator.natural(TIMES.clone(), TEMPERATURES.clone(), TIMES.length);
+        boolean naturalOvershoots = false;
+        for (int segment = 0; segment + 1 < TIMES.length; segment++) {
+            double low = Math.min(TEMPERATURES[segment], TEMPERATURES[segment + 1]);
+            double high = Math.max(TEMPERATURES[segment], TEMPERATURES[segment + 1]);
+            for (double x = TIMES[segment]; x <= TIMES[segment + 1]; x += 0.01) {
+                double value = monotone.predict(x);
+                assertTrue(value >= low - 1e-12 && value <= high + 1e-12, "Выброс в " + x + ": " + value);
+                double naturalValue = natural.predict(x);
+                naturalOvershoots |= naturalValue < low - 1e-6 || naturalValue > high + 1e-6;
+            }
+        }
+        // Для сравнения: на тех же данных естественный сплайн выходит за соседние значения
+        assertTrue(naturalOvershoots);
+    }
+
+    @Test
+    void tiedTimesAreMergedAndOrderDoesNotMatter() {
+        List<DataPoint> points = new ArrayList<>(List.of(
+                new DataPoint(2, 30), new DataPoint(0, 10), new DataPoint(1, 18), new DataPoint(1, 22)));
+        for (InterpolationMode mode : new InterpolationMode[]{InterpolationMode.NATURAL_SPLINE,
+                InterpolationMode.MONOTONE_SPLINE}) {
+            PiecewiseCubic curve = SplineInterpolator.interpolate(points, mode);
+            assertEquals(3, curve.getKnotCount());
+            assertEquals(20, curve.predict(1), 1e-12);
+            assertEquals(10, curve.predict(0), 1e-12);
+            assertEquals(30, curve.predict(2), 1e-12);
+        }
+    }
+
+    @Test
+    void tooFewDistinctTimesAreRejected() {
+        List<DataPoint> sameTime = List.of(new DataPoint(1, 10), new DataPoint(1, 12));
+        assertThrows(IllegalArgumentException.class,
+                () -> SplineInterpolator.interpolate(sameTime, InterpolationMode.NATURAL_SPLINE));
+        assertThrows(IllegalArgumentException.class,
+                () -> SplineInterpolator.interpolate(sameTime, InterpolationMode.MONOTONE_SPLINE));
+        assertThrows(IllegalArgumentException.class,
+                () -> SplineInterpolator.interpolate(List.of(new DataPoint(0, 1), new DataPoint(1, 2)),
+                        InterpolationMode.MODEL));
+    }
+
+    @Test
+    void batchPredictionMatchesSingleQueries(TestReporter reporter) {
+        int knots = 1000;
+        Random random = new Random(1);
+        double[] times = new double[knots];
+        double[] values = new double[knots];
+        for (int i = 0; i < knots; i++) {
+            times[i] = i * 0.01;
+            values[i] = 20 + Math.sin(times[i]) + random.nextGaussian() * 0.1;
+        }
+        PiecewiseCubic spline = SplineInterpolator.natural(times, values, knots);
+
+        // 5 млн случайных запросов, включая время за крайними узлами
+        int queries = 5_000_000;
+        double[] query = new double[queries];
+        for (int i = 0; i < queries; i++) {
+            query[i] = -1 + random.nextDouble() * 12;
+        }
+        long start = System.nanoTime();
+        double[] single = new double[queries];
+        for (int i = 0; i < queries; i++) {
+            single[i] = spline.predict(query[i]);
+        }
+        long elapsed = System.nanoTime() - start;
+        reporter.publishEntry("Запросы к сплайну", String.format("%d случайных запросов к %d узлам: %d мс",
+                queries, knots, elapsed / 1_000_000));
+
+        double[] batch = new double[queries];
+        spline.predict(query, batch, queries);
+        for (int i = 0; i < queries; i++) {
+            assertEquals(single[i], batch[i]);
+        }
+
+        // Упорядоченные запросы проходят по участкам без поиска
+        double[] sorted = query.clone();
+        Arrays.sort(sorted);
+        spline.predict(sorted, batch, queries);
+        for (int i = 0; i < queries; i += 997) {
+            assertEquals(spline.predict(sorted[i]), batch[i]);
+        }
+    }
+}
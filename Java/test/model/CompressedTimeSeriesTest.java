@@ -0,0 +1,151 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты сжатия ряда по схеме Gorilla: декодированные значения должны
+ * совпадать с исходными побитово при любых данных.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+class CompressedTimeSeriesTest {
+
+    /**
+     * Проверяет, что ряд декодируется побитово и через массивы, и по блокам.
+     */
+    private static void assertRoundTrip(double[] times, double[] temperatures, int chunkSize) {
+        int n = times.length;
+        CompressedTimeSeries series = CompressedTimeSeries.encode("ряд", times, temperatures, n, chunkSize);
+        assertEquals(n, series.size());
+        assertEquals((n + chunkSize - 1) / chunkSize, series.getChunkCount());
+
+        double[] decodedTimes = new double[n];
+        double[] decodedTemperatures = new double[n];
+        series.decode(decodedTimes, decodedTemperatures);
+        assertArrayEquals(times, decodedTimes);
+        assertArrayEquals(temperatures, decodedTemperatures);
+
+        // Каждый блок декодируется независимо на свое место
+        double[] chunkTimes = new double[n];
+        double[] chunkTemperatures = new double[n];
+        for (int chunk = series.getChunkCount() - 1; chunk >= 0; chunk--) {
+            series.decodeChunk(chunk, chunkTimes, chunkTemperatures, series.getChunkStart(chunk));
+        }
+        assertArrayEquals(times, chunkTimes);
+        assertArrayEquals(temperatures, chunkTemperatures);
+    }
+
+    @Test
+    void regularLoggerSeriesRoundTripsAndCompresses() {
+        int n = 10_000;
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        Random random = new Random(1);
+        for (int i = 0; i < n; i++) {
+            times[i] = i / 3600.0 * 8; // запись каждые 8 секунд
+            temperatures[i] = Math.round((20 + 5 * Math.sin(i / 500.0) + random.nextGaussian() * 0.05) * 10) / 10.0;
+        }
+        assertRoundTrip(times, temperatures, CompressedTimeSeries.DEFAULT_CHUNK_SIZE);
+
+        CompressedTimeSeries series = CompressedTimeSeries.encode("ряд", times, temperatures, n,
+                CompressedTimeSeries.DEFAULT_CHUNK_SIZE);
+        assertTrue(series.getCompressedBytes() < n * 16L / 4,
+                "Ожидалось сжатие не хуже 4:1, получено " + series.getCompressedBytes() + " байт");
+    }
+
+    @Test
+    void irregularTimesAndSpecialValuesRoundTrip() {
+        Random random = new Random(2);
+        int n = 5000;
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        for (int i = 0; i < n; i++) {
+            // Времена, не представимые точно в миллисекундах, и произвольные значения
+            times[i] = random.nextDouble() * 24;
+            temperatures[i] = Double.longBitsToDouble(random.nextLong());
+        }
+        temperatures[10] = Double.NaN;
+        temperatures[11] = Double.POSITIVE_INFINITY;
+        temperatures[12] = -0.0;
+        temperatures[13] = Double.MIN_VALUE;
+        times[14] = -0.0;
+        assertRoundTrip(times, temperatures, 100);
+    }
+
+    @Test
+    void smallAndPartialChunksRoundTrip() {
+        double[] times = {0, 0.5, 0.5, 1, 1.25, 3, 2, 24};
+        double[] temperatures = {20, 20, 20.1, -40, 85, 85, 85, 0};
+        for (int chunkSize = 1; chunkSize <= times.length + 1; chunkSize++) {
+            assertRoundTrip(times, temperatures, chunkSize);
+        }
+        assertRoundTrip(new double[0], new double[0], 16);
+    }
+
+    @Test
+    void serializedSeriesReadsBackIdentically() throws IOException {
+        TimeSeries source = new TimeSeries("Печь 1");
+        for (int i = 0; i < 3000; i++) {
+            source.add(i * 0.01, 100 + (i % 17) * 0.25);
+        }
+        CompressedTimeSeries series = CompressedTimeSeries.encode(source);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        series.writeTo(new DataOutputStream(bytes));
+        CompressedTimeSeries restored = CompressedTimeSeries.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals("Печь 1", restored.getName());
+        assertEquals(source.toDataPoints(), restored.decode().toDataPoints());
+    }
+
+    @Test
+    void corruptedHeaderIsRejected() {
+        byte[] garbage = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        assertThrows(IOException.class, () -> CompressedTimeSeries.readFrom(
+                new DataInputStream(new ByteArrayInputStream(garbage))));
+        assertThrows(IllegalArgumentException.class,
+                () -> CompressedTimeSeries.encode("ряд", new double[1], new double[1], 1, 0));
+    }
+
+    @Test
+    void chunkCountsMustSumToSize() throws IOException {
+        int n = 2500;
+        double[] times = new double[n];
+        double[] temperatures = new double[n];
+        for (int i = 0; i < n; i++) {
+            times[i] = i;
+            temperatures[i] = 20 + (i % 7) * 0.5;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompressedTimeSeries.encode("ряд", times, temperatures, n, 1024).writeTo(new DataOutputStream(out));
+        byte[] bytes = out.toByteArray();
+
+        // Заголовок: сигнатура, версия, название, размер блока, число точек, число блоков
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int position = 8 + 2 + buffer.getShort(8) + 12;
+        for (int chunk = 0; chunk < 2; chunk++) {
+            position += 8 + 8 * ((buffer.getInt(position + 4) + 63) / 64);
+        }
+        assertEquals(n - 2048, buffer.getInt(position));
+
+        // Последний блок объявлен полным - точек больше, чем в заголовке
+        buffer.putInt(position, 1024);
+        assertThrows(IOException.class, () -> CompressedTimeSeries.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes))));
+    }
+}
@@ -0,0 +1,207 @@
+package util;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты сервиса расчета: ответы на корректные запросы и коды ошибок
+ * (400, 404, 405, 409, 422, 507) для некорректных.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+class FittingServerTest {
+
+    private static FittingServer server;
+    private static HttpClient client;
+    private static String base;
+
+    @BeforeAll
+    static void start() throws IOException {
+        server = new FittingServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        client = HttpClient.newHttpClient();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void stop() {
+        server.close();
+    }
+
+    private static HttpResponse<String> send(String method, String path, String body)
+            throws IOException, InterruptedException {
+        return send(base, method, path, body);
+    }
+
+    private static HttpResponse<String> send(String address, String method, String path, String body)
+            throws IOException, InterruptedException {
+        HttpRequest.BodyPublisher publisher = body == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(address + path)).method(method, publisher).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Читает числовое поле верхнего уровня ответа.
+     */
+    private static double field(String json, String name) throws IOException {
+        JsonStreamReader reader = new JsonStreamReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals(name)) {
+                return reader.nextDouble();
+            }
+            reader.skipValue();
+        }
+        throw new AssertionError("Нет поля " + name + " в " + json);
+    }
+
+    /**
+     * Проверяет код ответа и то, что тело - корректный JSON с полем error.
+     */
+    private static void assertError(int status, HttpResponse<String> response) throws IOException {
+        assertEquals(status, response.statusCode(), response.body());
+        JsonStreamReader reader = new JsonStreamReader(
+                new ByteArrayInputStream(response.body().getBytes(StandardCharsets.UTF_8)));
+        reader.beginObject();
+        assertEquals("error", reader.nextName());
+        assertTrue(!reader.nextString().isEmpty());
+        reader.endObject();
+        reader.endDocument();
+    }
+
+    @Test
+    void fitsLineFromPoints() throws Exception {
+        HttpResponse<String> response = send("POST", "/fit", "{\"points\": [[0, 1], [1, 3], [2, 5], [3, 7]]}");
+        assertEquals(200, response.statusCode(), response.body());
+        assertEquals(2, field(response.body(), "a"), 1e-12);
+        assertEquals(1, field(response.body(), "b"), 1e-12);
+        assertEquals(4, field(response.body(), "count"));
+    }
+
+    @Test
+    void storedSeriesLifecycle() throws Exception {
+        HttpResponse<String> created = send("POST", "/series", "{\"points\": [[0, 10], [2, 14], [4, 18]]}");
+        assertEquals(201, created.statusCode(), created.body());
+        String id = created.body().replaceAll(".*\"id\":\"([^\"]+)\".*", "$1");
+
+        assertError(409, send("GET", "/series/" + id + "/fit", null));
+        assertEquals(200, send("POST", "/series/" + id + "/fit?mode=theil_sen", "").statusCode());
+        assertEquals(200, send("GET", "/series/" + id + "/fit", null).statusCode());
+
+        HttpResponse<String> predicted = send("POST", "/series/" + id + "/predict", "{\"times\": [1, 3]}");
+        assertEquals(200, predicted.statusCode(), predicted.body());
+        assertEquals("{\"temperatures\":[12.0,16.0]}", predicted.body().replace(" ", ""));
+
+        assertEquals(204, send("DELETE", "/series/" + id, null).statusCode());
+        assertError(404, send("GET", "/series/" + id, null));
+    }
+
+    @Test
+    void malformedRequestsGetBadRequest() throws Exception {
+        assertError(400, send("POST", "/fit", "{\"points\": [[0, 1] [1, 2]]}"));
+        assertError(400, send("POST", "/fit", "{\"points\": [[0, 1], [1, 2],]}"));
+        assertError(400, send("POST", "/fit", "{\"points\": [[0 1], [1, 2]]}"));
+        assertError(400, send("POST", "/fit", "{\"points\": [[0], [1, 2]]}"));
+        assertError(400, send("POST", "/fit", "{\"values\": [[0, 1], [1, 2]]}"));
+        assertError(400, send("POST", "/fit", "{\"flag\": nope, \"points\": [[0, 1], [1, 2]]}"));
+        assertError(400, send("POST", "/fit?mode=cubic", "{\"points\": [[0, 1], [1, 2]]}"));
+        assertError(400, send("POST", "/fit", ""));
+    }
+
+    @Test
+    void deeplyNestedBodyGetsBadRequest() throws Exception {
+        String body = "{\"x\": " + "[".repeat(200_000) + "]".repeat(200_000) + ", \"points\": [[0, 1], [1, 2]]}";
+        assertError(400, send("POST", "/fit", body));
+        // Сервис продолжает отвечать после такого запроса
+        assertEquals(200, send("POST", "/fit", "{\"points\": [[0, 1], [1, 2]]}").statusCode());
+    }
+
+    @Test
+    void unknownAddressesAndMethods() throws Exception {
+        assertError(404, send("POST", "/fit/extra", "{}"));
+        assertError(404, send("GET", "/series/999999", null));
+        assertError(405, send("GET", "/fit", null));
+        assertError(405, send("PUT", "/series", "{}"));
+    }
+
+    @Test
+    void degenerateDataGetsUnprocessable() throws Exception {
+        assertError(422, send("POST", "/fit", "{\"points\": [[1, 1], [1, 2], [1, 3]]}"));
+    }
+
+    @Test
+    void errorTextIsValidJsonWithControlCharacters() throws Exception {
+        // Имя режима попадает в текст ошибки вместе с управляющими символами
+        List<String> modes = List.of("%01", "%0A%0D%09", "%22%5C", "%1F%7F");
+        List<String> decoded = List.of("\u0001", "\n\r\t", "\"\\", "\u001f\u007f");
+        for (int i = 0; i < modes.size(); i++) {
+            HttpResponse<String> response = send("POST", "/fit?mode=" + modes.get(i), "{\"points\": [[0, 1], [1, 2]]}");
+            assertEquals(400, response.statusCode());
+            String body = response.body();
+            assertTrue(body.startsWith("{\"error\":\"") && body.endsWith("\"}"), body);
+            assertTrue(body.chars().noneMatch(c -> c < 0x20 || c == 0x7F), body);
+
+            // Текст ошибки читается обратно и содержит исходные символы режима
+            JsonStreamReader json = new JsonStreamReader(
+                    new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+            json.beginObject();
+            assertEquals("error", json.nextName());
+            String error = json.nextString();
+            json.endObject();
+            json.endDocument();
+            assertTrue(error.contains(decoded.get(i)), error);
+        }
+        assertEquals("a\\u0001\\n\\\"\\\\\\u001f", FittingServer.escape("a\u0001\n\"\\\u001f"));
+    }
+
+    @Test
+    void storedPointsAreLimitedAndReservedAtomically() throws Exception {
+        try (FittingServer small = new FittingServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 30)) {
+            String address = "http://127.0.0.1:" + small.getAddress().getPort();
+            String threePoints = "{\"points\": [[0, 1], [1, 2], [2, 3]]}";
+
+            // Одновременные запросы: в 30 точек помещаются ровно 10 рядов по 3 точки
+            List<Future<HttpResponse<String>>> responses = new ArrayList<>();
+            try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+                for (int i = 0; i < 25; i++) {
+                    responses.add(pool.submit(() -> send(address, "POST", "/series", threePoints)));
+                }
+            }
+            List<String> ids = new ArrayList<>();
+            for (Future<HttpResponse<String>> response : responses) {
+                if (response.get().statusCode() == 201) {
+                    ids.add(response.get().body().replaceAll(".*\"id\":\"([^\"]+)\".*", "$1"));
+                } else {
+                    assertError(507, response.get());
+                }
+            }
+            assertEquals(10, ids.size());
+
+            // Удаление ряда освобождает место
+            assertEquals(204, send(address, "DELETE", "/series/" + ids.get(0), null).statusCode());
+            assertEquals(201, send(address, "POST", "/series", threePoints).statusCode());
+            assertError(507, send(address, "POST", "/series", threePoints));
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты потокового чтения JSON: точность чисел, разделители,
+ * литералы и ограничение вложенности.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+class JsonStreamReaderTest {
+
+    private static JsonStreamReader reader(String text) {
+        return new JsonStreamReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static List<Double> readNumbers(JsonStreamReader json) throws IOException {
+        List<Double> numbers = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) {
+            numbers.add(json.nextDouble());
+        }
+        json.endArray();
+        json.endDocument();
+        return numbers;
+    }
+
+    private static void assertSkipFails(String text) {
+        assertThrows(IllegalArgumentException.class, () -> {
+            JsonStreamReader json = reader(text);
+            json.skipValue();
+            json.endDocument();
+        }, text);
+    }
+
+    @Test
+    void numbersMatchDoubleParseDouble() throws IOException {
+        Random random = new Random(3);
+        StringBuilder text = new StringBuilder("[");
+        List<String> literals = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            String literal = switch (i % 5) {
+                case 0 -> Double.toString(random.nextGaussian() * 100);
+                case 1 -> Long.toString(random.nextLong() >> random.nextInt(64));
+                case 2 -> String.format("%.3f", random.nextDouble() * 24).replace(',', '.');
+                case 3 -> (1 + random.nextInt(999_999)) / 1000.0 + "e" + (random.nextInt(600) - 300);
+                default -> Double.toString(Double.longBitsToDouble(random.nextLong() & 0x7FEFFFFFFFFFFFFFL));
+            };
+            literals.add(literal);
+            text.append(i == 0 ? "" : ",").append(literal);
+        }
+        text.append(']');
+
+        // Маленький буфер потока - числа попадают на границы блоков
+        InputStream slow = new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.US_ASCII)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        };
+        List<Double> numbers = readNumbers(new JsonStreamReader(slow));
+        assertEquals(literals.size(), numbers.size());
+        for (int i = 0; i < literals.size(); i++) {
+            assertEquals(Double.parseDouble(literals.get(i)), numbers.get(i), literals.get(i));
+        }
+    }
+
+    @Test
+    void readsObjectsStringsAndSkipsUnknownFields() throws IOException {
+        JsonStreamReader json = reader(" { \"name\" : \"Печь \\\"1\\\"\", \"extra\": {\"a\": [true, false, null, {}]},"
+                + " \"points\": [[0, 1.5], [2, -3e1]] } ");
+        json.beginObject();
+        assertTrue(json.hasNext());
+        assertEquals("name", json.nextName());
+        assertEquals("Печь \"1\"", json.nextString());
+        assertEquals("extra", json.nextName());
+        json.skipValue();
+        assertEquals("points", json.nextName());
+        json.beginArray();
+        List<double[]> points = new ArrayList<>();
+        while (json.hasNext()) {
+            json.beginArray();
+            double time = json.nextDouble();
+            assertTrue(json.hasNext());
+            points.add(new double[]{time, json.nextDouble()});
+            assertFalse(json.hasNext());
+            json.endArray();
+        }
+        json.endArray();
+        assertFalse(json.hasNext());
+        json.endObject();
+        json.endDocument();
+
+        assertEquals(2, points.size());
+        assertEquals(-30, points.get(1)[1]);
+    }
+
+    @Test
+    void separatorsAreRequired() {
+        assertThrows(IllegalArgumentException.class, () -> readNumbers(reader("[1 2]")));
+        assertThrows(IllegalArgumentException.class, () -> readNumbers(reader("[1,]")));
+        assertThrows(IllegalArgumentException.class, () -> readNumbers(reader("[,1]")));
+        assertThrows(IllegalArgumentException.class, () -> readNumbers(reader("[1,,2]")));
+        assertSkipFails("{\"a\": 1 \"b\": 2}");
+        assertSkipFails("{\"a\": 1,}");
+        assertSkipFails("{\"a\"}");
+        assertSkipFails("[[1][2]]");
+        assertSkipFails("[1] 2");
+    }
+
+    @Test
+    void onlyStandardLiteralsAreAccepted() throws IOException {
+        JsonStreamReader json = reader("[true, false, null]");
+        json.skipValue();
+        json.endDocument();
+
+        assertSkipFails("[tru]");
+        assertSkipFails("[nul]");
+        assertSkipFails("[nulls]");
+        assertSkipFails("[falsey]");
+        assertSkipFails("[truefalse]");
+    }
+
+    @Test
+    void nestingIsLimited() throws IOException {
+        int depth = JsonStreamReader.MAX_DEPTH;
+        JsonStreamReader json = reader("[".repeat(depth) + "]".repeat(depth));
+        json.skipValue();
+        json.endDocument();
+
+        assertSkipFails("[".repeat(depth + 1) + "]".repeat(depth + 1));
+        // Глубокая вложенность не должна переполнять стек
+        assertSkipFails("[".repeat(200_000));
+        assertSkipFails("{\"a\":".repeat(200_000));
+    }
+
+    @Test
+    void malformedValuesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> readNumbers(reader("[1.2.3]")));
+        assertThrows(IllegalArgumentException.class, () -> readNumbers(reader("[1e]")));
+        assertThrows(IllegalArgumentException.class, () -> readNumbers(reader("[-]")));
+        assertThrows(IllegalArgumentException.class, () -> readNumbers(reader("[\"1\"]")));
+        assertThrows(IllegalArgumentException.class, () -> readNumbers(reader("[1")));
+        assertSkipFails("\"незавершенная строка");
+        assertSkipFails("\"\\x41\"");
+    }
+
+    @Test
+    void unicodeEscapesAndSurrogatePairsAreDecoded() throws IOException {
+        JsonStreamReader json = reader("[\"\\u0041\\u00e9\\u0416\\u20AC\\ud83d\\ude00\\u0000\", \"\\\\u0041\"]");
+        json.beginArray();
+        assertEquals("A\u00e9\u0416\u20ac\ud83d\ude00\u0000", json.nextString());
+        assertEquals("\\u0041", json.nextString());
+        json.endArray();
+        json.endDocument();
+
+        // Непарные суррогаты и неполные последовательности
+        assertSkipFails("\"\\ud83d\"");
+        assertSkipFails("\"\\ude00\"");
+        assertSkipFails("\"\\ud83d\\u0041\"");
+        assertSkipFails("\"\\u12G4\"");
+        assertSkipFails("\"\\u12");
+    }
+}
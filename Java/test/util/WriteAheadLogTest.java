@@ -0,0 +1,223 @@
+package util;
+
+import model.DataPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты журнала изменений: восстановление сеанса по записям журнала
+ * и снимку, отбрасывание недописанного и поврежденного хвоста.
+ *
+ * @author Petrushchenko A.A.
+ * @version 1.0
+ */
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    private static List<DataPoint> points(double from, int count) {
+        List<DataPoint> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new DataPoint(from + i * 0.5, 20 + i * 0.25));
+        }
+        return points;
+    }
+
+    private Path logFile() {
+        return directory.resolve("session.wal");
+    }
+
+    @Test
+    void emptyDirectoryGivesEmptySession() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            assertTrue(log.getRestoredSession().isEmpty());
+            assertTrue(log.getRestoredSession().getExperimentalData().isEmpty());
+        }
+    }
+
+    @Test
+    void replaysAllRecordTypesInOrder() throws Exception {
+        List<DataPoint> expected = new ArrayList<>();
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            log.appendPoints(points(0, 3));
+            log.appendReplace(points(1, 4));
+            expected.addAll(points(1, 4));
+            log.appendPoints(points(10, 2));
+            expected.addAll(points(10, 2));
+            log.appendInterpolationTimes(List.of(1.0, 2.5));
+            long last = log.appendInterpolationTimes(List.of(3.0));
+            log.awaitDurable(last);
+        }
+
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            WriteAheadLog.Session session = log.getRestoredSession();
+            assertFalse(session.isEmpty());
+            assertEquals(expected, session.getExperimentalData());
+            assertEquals(List.of(3.0), session.getInterpolationTimes());
+        }
+    }
+
+    @Test
+    void tornTailIsDroppedAndTruncated() throws Exception {
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            log.appendPoints(points(0, 5));
+            log.appendPoints(points(5, 5));
+        }
+        long complete = Files.size(logFile());
+
+        // Недописанная запись: длина и часть данных без контрольной суммы
+        try (RandomAccessFile file = new RandomAccessFile(logFile().toFile(), "rw")) {
+            file.seek(complete);
+            file.writeInt(1000);
+            file.writeByte(1);
+            file.write(new byte[37]);
+        }
+
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            assertEquals(points(0, 10).size(), log.getRestoredSession().getExperimentalData().size());
+            assertEquals(complete, Files.size(logFile()));
+
+            // После усечения новые записи дописываются за последней целой
+            log.awaitDurable(log.appendPoints(points(100, 1)));
+        }
+
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            List<DataPoint> restored = log.getRestoredSession().getExperimentalData();
+            assertEquals(11, restored.size());
+            assertEquals(new DataPoint(100, 20), restored.get(10));
+        }
+    }
+
+    @Test
+    void replayStopsAtCorruptedRecord() throws Exception {
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            log.appendPoints(points(0, 2));
+        }
+        long firstEnd = Files.size(logFile());
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            log.appendPoints(points(2, 2));
+            log.appendPoints(points(4, 2));
+        }
+
+        // Портим байт данных второй записи - контрольная сумма не сходится
+        try (RandomAccessFile file = new RandomAccessFile(logFile().toFile(), "rw")) {
+            file.seek(firstEnd + 8);
+            int value = file.read();
+            file.seek(firstEnd + 8);
+            file.write(value ^ 0x40);
+        }
+
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            assertEquals(points(0, 2), log.getRestoredSession().getExperimentalData());
+            assertEquals(firstEnd, Files.size(logFile()));
+        }
+    }
+
+    @Test
+    void compactedSnapshotRestoresStateWithLaterRecords() throws Exception {
+        List<DataPoint> data = points(0, 2000);
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            log.appendPoints(points(50, 10));
+            log.appendReplace(data);
+            log.appendInterpolationTimes(List.of(0.5, 1.5));
+            log.compact();
+            log.awaitDurable(log.appendPoints(points(3000, 3)));
+        }
+
+        List<DataPoint> expected = new ArrayList<>(data);
+        expected.addAll(points(3000, 3));
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            assertEquals(expected, log.getRestoredSession().getExperimentalData());
+            assertEquals(List.of(0.5, 1.5), log.getRestoredSession().getInterpolationTimes());
+        }
+    }
+
+    @Test
+    void editsAreLoggedAsSplicesAndReplayed() throws Exception {
+        List<DataPoint> data = points(0, 100_000);
+        long afterFullList;
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            log.awaitDurable(log.appendReplace(data));
+            afterFullList = Files.size(logFile());
+
+            data.set(50_000, new DataPoint(-1, -1));
+            log.appendReplace(data);
+            data.remove(10);
+            log.appendReplace(data);
+            data.add(70_000, new DataPoint(-2, -2));
+            log.appendReplace(data);
+            log.awaitDurable(log.appendReplace(data));
+        }
+
+        // Три правки по одной строке занимают в журнале десятки байт, а не таблицу целиком
+        assertTrue(Files.size(logFile()) - afterFullList < 200);
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            assertEquals(data, log.getRestoredSession().getExperimentalData());
+        }
+    }
+
+    @Test
+    void hugeLengthPrefixIsTreatedAsTornTail() throws Exception {
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            log.appendPoints(points(0, 4));
+        }
+        long complete = Files.size(logFile());
+        try (RandomAccessFile file = new RandomAccessFile(logFile().toFile(), "rw")) {
+            file.seek(complete);
+            file.writeInt(0x7FFFFFF0);
+            file.write(new byte[64]);
+        }
+
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            assertEquals(points(0, 4), log.getRestoredSession().getExperimentalData());
+            assertEquals(complete, Files.size(logFile()));
+        }
+    }
+
+    @Test
+    void damagedSnapshotIsRejectedAndCanBeMovedAside() throws Exception {
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            log.appendReplace(points(0, 3000));
+            log.compact();
+        }
+        Path snapshot = directory.resolve("session.snapshot");
+
+        // Одиночный измененный бит в сжатых точках
+        try (RandomAccessFile file = new RandomAccessFile(snapshot.toFile(), "rw")) {
+            long position = file.length() / 2;
+            file.seek(position);
+            int value = file.read();
+            file.seek(position);
+            file.write(value ^ 0x08);
+        }
+        assertThrows(IOException.class, () -> WriteAheadLog.open(directory));
+
+        WriteAheadLog.moveAside(directory);
+        assertTrue(Files.exists(directory.resolve("session.snapshot.broken")));
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            assertTrue(log.getRestoredSession().isEmpty());
+        }
+    }
+
+    @Test
+    void garbageLogFileIsReplacedWithEmptyLog() throws IOException {
+        Files.write(logFile(), new byte[]{1, 2, 3}, StandardOpenOption.CREATE);
+        try (WriteAheadLog log = WriteAheadLog.open(directory)) {
+            assertTrue(log.getRestoredSession().isEmpty());
+        }
+    }
+}